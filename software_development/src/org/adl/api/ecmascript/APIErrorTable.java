@@ -0,0 +1,552 @@
+package org.adl.api.ecmascript;
+
+import org.adl.datamodels.DMErrorCodes;
+
+/**
+ * <strong>Filename:</strong> APIErrorTable<br><br>
+ *
+ * <strong>Description:</strong><br>
+ * This class holds the error codes, messages and diagnostics of one version of
+ * the RTE API.  The tables are indexed by the abstract error code, and by the
+ * numeric value of the SCORM error code, so every lookup is a bounds check and
+ * an array access.  A table is fully built before it is published and is never
+ * changed afterwards, so a single instance is shared by every
+ * <code>APIErrorManager</code> of that version.  Code that only needs to look
+ * up error codes and messages may use a table directly, without creating an
+ * <code>APIErrorManager</code> and resetting its shared current error code.
+ * <br><br>
+ *
+ * <strong>Known Problems:</strong><br><br>
+ *
+ * <strong>Side Effects:</strong><br><br>
+ *
+ * <strong>References:</strong><br>
+ * <ul>
+ *     <li>SCORM 2004
+ *     <li>SCORM Version 1.2
+ * </ul>
+ *
+ * @author ADL Technical Team
+ */
+public final class APIErrorTable
+{
+   /**
+    * The largest abstract error code held by the tables.
+    */
+   private static final int MAX_ABSTRACT_CODE = DMErrorCodes.INVALID_REQUEST;
+
+   /**
+    * The SCORM error codes are 1 to 3 digits long, so they are less than this
+    * value.
+    */
+   private static final int MAX_SCORM_CODE = 1000;
+
+   /**
+    * The abstract error codes held by the tables, in the order of their slots.
+    */
+   private static final int[] ABSTRACT_CODES =
+   {
+      APIErrorCodes.NO_ERROR,
+      APIErrorCodes.GENERAL_EXCEPTION,
+      APIErrorCodes.GENERAL_INIT_FAILURE,
+      APIErrorCodes.ALREADY_INITIALIZED,
+      APIErrorCodes.CONTENT_INSTANCE_TERMINATED,
+      APIErrorCodes.GENERAL_TERMINATION_FAILURE,
+      APIErrorCodes.TERMINATE_BEFORE_INIT,
+      APIErrorCodes.TERMINATE_AFTER_TERMINATE,
+      APIErrorCodes.GET_BEFORE_INIT,
+      APIErrorCodes.GET_AFTER_TERMINATE,
+      APIErrorCodes.SET_BEFORE_INIT,
+      APIErrorCodes.SET_AFTER_TERMINATE,
+      APIErrorCodes.COMMIT_BEFORE_INIT,
+      APIErrorCodes.COMMIT_AFTER_TERMINATE,
+      APIErrorCodes.GENERAL_COMMIT_FAILURE,
+      DMErrorCodes.GEN_ARGUMENT_ERROR,
+      DMErrorCodes.GEN_GET_FAILURE,
+      DMErrorCodes.GEN_SET_FAILURE,
+      DMErrorCodes.UNDEFINED_ELEMENT,
+      DMErrorCodes.NOT_IMPLEMENTED,
+      DMErrorCodes.NOT_INITIALIZED,
+      DMErrorCodes.READ_ONLY,
+      DMErrorCodes.WRITE_ONLY,
+      DMErrorCodes.TYPE_MISMATCH,
+      DMErrorCodes.VALUE_OUT_OF_RANGE,
+      DMErrorCodes.DEP_NOT_ESTABLISHED,
+      DMErrorCodes.DOES_NOT_HAVE_CHILDREN,
+      DMErrorCodes.DOES_NOT_HAVE_COUNT,
+      DMErrorCodes.DOES_NOT_HAVE_VERSION,
+      DMErrorCodes.SET_OUT_OF_ORDER,
+      DMErrorCodes.OUT_OF_RANGE,
+      DMErrorCodes.ELEMENT_NOT_SPECIFIED,
+      DMErrorCodes.NOT_UNIQUE,
+      DMErrorCodes.MAX_EXCEEDED,
+      DMErrorCodes.INVALID_ARGUMENT,
+      DMErrorCodes.OVERWRITE_ID,
+      DMErrorCodes.SET_KEYWORD,
+      DMErrorCodes.INVALID_REQUEST
+   };
+
+   /**
+    * Converts an abstract error code into its index in the String tables, or
+    * -1 if the code is not part of any table.  Shared by every table.
+    */
+   private static final short[] SLOTS = createSlots();
+
+   /**
+    * The SCORM 2004 RTE API error table.
+    */
+   public static final APIErrorTable SCORM_2004 = createSCORM2004Table();
+
+   /**
+    * The SCORM Version 1.2 API error table.
+    */
+   public static final APIErrorTable SCORM_1_2 = createSCORM12Table();
+
+   /**
+    * An empty table, used for unsupported API versions.
+    */
+   static final APIErrorTable EMPTY = new APIErrorTable();
+
+   /**
+    * The SCORM error code of each abstract error code, indexed by slot.
+    */
+   private final String[] mErrorCodes = new String[ABSTRACT_CODES.length];
+
+   /**
+    * The error message of each abstract error code, indexed by slot.
+    */
+   private final String[] mErrorMessages = new String[ABSTRACT_CODES.length];
+
+   /**
+    * The error diagnostic of each abstract error code, indexed by slot.
+    */
+   private final String[] mErrorDiagnostics = new String[ABSTRACT_CODES.length];
+
+   /**
+    * The abstract error code of each SCORM error code, indexed by the numeric
+    * value of the SCORM error code.  Set to -1 for unknown codes.
+    */
+   private final int[] mAbstErrors = new int[MAX_SCORM_CODE];
+
+   /**
+    * Indicates which SCORM error codes are returned by this version of the
+    * API, indexed by the numeric value of the SCORM error code.
+    */
+   private final boolean[] mValidErrorCodes = new boolean[MAX_SCORM_CODE];
+
+   /**
+    * Default Constructor.  Creates an empty table.
+    */
+   private APIErrorTable()
+   {
+      for ( int i = 0; i < mAbstErrors.length; i++ )
+      {
+         mAbstErrors[i] = -1;
+      }
+   }
+
+   /**
+    * Assigns a slot to every abstract error code used by the tables.
+    *
+    * @return The slot of every abstract error code.
+    */
+   private static short[] createSlots()
+   {
+      short[] slots = new short[MAX_ABSTRACT_CODE + 1];
+      for ( int i = 0; i < slots.length; i++ )
+      {
+         slots[i] = -1;
+      }
+      for ( int i = 0; i < ABSTRACT_CODES.length; i++ )
+      {
+         slots[ABSTRACT_CODES[i]] = (short)i;
+      }
+      return slots;
+   }
+
+   /**
+    * Builds the SCORM 2004 RTE API error table.
+    *
+    * @return The SCORM 2004 table.
+    */
+   private static APIErrorTable createSCORM2004Table()
+   {
+      APIErrorTable table = new APIErrorTable();
+
+      table.addError(APIErrorCodes.NO_ERROR, "0", "No Error", "No Error");
+      table.addError(APIErrorCodes.GENERAL_EXCEPTION, "101",
+                     "General Exception", "General Exception");
+      table.addError(APIErrorCodes.GENERAL_INIT_FAILURE, "102",
+                     "General Initialization Error",
+                     "General Initialization Error");
+      table.addError(APIErrorCodes.ALREADY_INITIALIZED, "103",
+                     "Already Initialized", "Already Initialized");
+      table.addError(APIErrorCodes.CONTENT_INSTANCE_TERMINATED, "104",
+                     "Content Instance Terminated",
+                     "Content Instance Terminated");
+      table.addError(APIErrorCodes.GENERAL_TERMINATION_FAILURE, "111",
+                     "General Termination Failure",
+                     "General Termination Failure");
+      table.addError(APIErrorCodes.TERMINATE_BEFORE_INIT, "112",
+                     "Termination Before Initialization",
+                     "Termination Before Initialization");
+      table.addError(APIErrorCodes.TERMINATE_AFTER_TERMINATE, "113",
+                     "Termination After Termination",
+                     "Termination After Termination");
+      table.addError(APIErrorCodes.GET_BEFORE_INIT, "122",
+                     "Retrieve Data Before Initialization",
+                     "Retrieve Data Before Initialization");
+      table.addError(APIErrorCodes.GET_AFTER_TERMINATE, "123",
+                     "Retrieve Data After Termination",
+                     "Retrieve Data After Termination");
+      table.addError(APIErrorCodes.SET_BEFORE_INIT, "132",
+                     "Store Data Before Initialization",
+                     "Store Data Before Initialization");
+      table.addError(APIErrorCodes.SET_AFTER_TERMINATE, "133",
+                     "Store Data After Termination",
+                     "Store Data After Termination");
+      table.addError(APIErrorCodes.COMMIT_BEFORE_INIT, "142",
+                     "Commit Before Initialization",
+                     "Commit Before Initialization");
+      table.addError(APIErrorCodes.COMMIT_AFTER_TERMINATE, "143",
+                     "Commit After Termination", "Commit After Termination");
+      table.addError(DMErrorCodes.GEN_ARGUMENT_ERROR, "201",
+                     "General Argument Error", "General Argument Error");
+      table.addError(DMErrorCodes.GEN_GET_FAILURE, "301",
+                     "General Get Failure", "General Get Failure");
+      table.addError(DMErrorCodes.GEN_SET_FAILURE, "351",
+                     "General Set Failure", "General Set Failure");
+      table.addError(APIErrorCodes.GENERAL_COMMIT_FAILURE, "391",
+                     "General Commit Failure", "General Commit Failure");
+      table.addError(DMErrorCodes.UNDEFINED_ELEMENT, "401",
+                     "Undefined Data Model Element",
+                     "Undefined Data Model Element");
+      table.addError(DMErrorCodes.NOT_IMPLEMENTED, "402",
+                     "Unimplemented Data Model Element",
+                     "Unimplemented Data Model Element");
+      table.addError(DMErrorCodes.NOT_INITIALIZED, "403",
+                     "Data Model Element Value Not Initialized",
+                     "Data Model Element Value Not Initialized");
+      table.addError(DMErrorCodes.READ_ONLY, "404",
+                     "Data Model Element Is Read Only",
+                     "Data Model Element Is Read Only");
+      table.addError(DMErrorCodes.WRITE_ONLY, "405",
+                     "Data Model Element Is Write Only",
+                     "Data Model Element Is Write Only");
+      table.addError(DMErrorCodes.TYPE_MISMATCH, "406",
+                     "Data Model Element Type Mismatch",
+                     "Data Model Element Type Mismatch");
+      table.addError(DMErrorCodes.VALUE_OUT_OF_RANGE, "407",
+                     "Data Model Element Value Out Of Range",
+                     "Data Model Element Value Out Of Range");
+      table.addError(DMErrorCodes.DEP_NOT_ESTABLISHED, "408",
+                     "Data Model Dependency Not Established",
+                     "Data Model Dependency Not Established");
+      table.addError(DMErrorCodes.DOES_NOT_HAVE_CHILDREN, "301",
+                     "General Get Failure",
+                     "Data Model Element does not have Children");
+      table.addError(DMErrorCodes.DOES_NOT_HAVE_COUNT, "301",
+                     "General Get Failure",
+                     "Data Model Element does not have Count");
+      table.addError(DMErrorCodes.DOES_NOT_HAVE_VERSION, "301",
+                     "General Get Failure",
+                     "Data Model Element does not have Version");
+      table.addError(DMErrorCodes.SET_OUT_OF_ORDER, "351",
+                     "General Set Failure", "Data Model Array Set out of Order");
+      table.addError(DMErrorCodes.OUT_OF_RANGE, "301",
+                     "General Get Failure", "Value Out of Range");
+      table.addError(DMErrorCodes.ELEMENT_NOT_SPECIFIED, "351",
+                     "General Get Failure", "No Element Specified");
+      table.addError(DMErrorCodes.NOT_UNIQUE, "351",
+                     "General Set Failure", "Value is not Unique");
+      table.addError(DMErrorCodes.MAX_EXCEEDED, "351",
+                     "General Set Failure", "Error - Maximum Exceeded");
+      table.addError(DMErrorCodes.SET_KEYWORD, "404",
+                     "Data Model Element Is Read Only",
+                     "Data Model Element Is a Keyword");
+      table.addError(DMErrorCodes.INVALID_REQUEST, "401",
+                     "Undefined Data Model Element", "Request was Invalid");
+      table.addError(DMErrorCodes.INVALID_ARGUMENT, "301",
+                     "General Get Failure", "Invalid Argument Error");
+      table.addError(DMErrorCodes.OVERWRITE_ID, "351",
+                     "General Set Failure", "Attempt to overwrite Objective ID");
+
+      // Used to get the abstract error code from an error String
+      table.addAbstractError("0", APIErrorCodes.NO_ERROR);
+      table.addAbstractError("101", APIErrorCodes.GENERAL_EXCEPTION);
+      table.addAbstractError("102", APIErrorCodes.GENERAL_INIT_FAILURE);
+      table.addAbstractError("103", APIErrorCodes.ALREADY_INITIALIZED);
+      table.addAbstractError("104", APIErrorCodes.CONTENT_INSTANCE_TERMINATED);
+      table.addAbstractError("111", APIErrorCodes.GENERAL_TERMINATION_FAILURE);
+      table.addAbstractError("112", APIErrorCodes.TERMINATE_BEFORE_INIT);
+      table.addAbstractError("113", APIErrorCodes.TERMINATE_AFTER_TERMINATE);
+      table.addAbstractError("122", APIErrorCodes.GET_BEFORE_INIT);
+      table.addAbstractError("123", APIErrorCodes.GET_AFTER_TERMINATE);
+      table.addAbstractError("132", APIErrorCodes.SET_BEFORE_INIT);
+      table.addAbstractError("133", APIErrorCodes.SET_AFTER_TERMINATE);
+      table.addAbstractError("142", APIErrorCodes.COMMIT_BEFORE_INIT);
+      table.addAbstractError("143", APIErrorCodes.COMMIT_AFTER_TERMINATE);
+      table.addAbstractError("201", DMErrorCodes.GEN_ARGUMENT_ERROR);
+      table.addAbstractError("301", DMErrorCodes.GEN_GET_FAILURE);
+      table.addAbstractError("351", DMErrorCodes.GEN_SET_FAILURE);
+      table.addAbstractError("391", APIErrorCodes.GENERAL_COMMIT_FAILURE);
+      table.addAbstractError("401", DMErrorCodes.UNDEFINED_ELEMENT);
+      table.addAbstractError("402", DMErrorCodes.NOT_IMPLEMENTED);
+      table.addAbstractError("403", DMErrorCodes.NOT_INITIALIZED);
+      table.addAbstractError("404", DMErrorCodes.READ_ONLY);
+      table.addAbstractError("405", DMErrorCodes.WRITE_ONLY);
+      table.addAbstractError("406", DMErrorCodes.TYPE_MISMATCH);
+      table.addAbstractError("407", DMErrorCodes.VALUE_OUT_OF_RANGE);
+      table.addAbstractError("408", DMErrorCodes.DEP_NOT_ESTABLISHED);
+
+      return table;
+   }
+
+   /**
+    * Builds the SCORM Version 1.2 API error table.
+    *
+    * @return The SCORM Version 1.2 table.
+    */
+   private static APIErrorTable createSCORM12Table()
+   {
+      APIErrorTable table = new APIErrorTable();
+
+      table.addError(APIErrorCodes.NO_ERROR, "0", "No Error", "No Error");
+      table.addError(APIErrorCodes.GENERAL_EXCEPTION, "101",
+                     "General Exception", "General Exception");
+      table.addError(APIErrorCodes.GENERAL_INIT_FAILURE, "101",
+                     "General Exception", "General Initialization Error");
+      table.addError(APIErrorCodes.ALREADY_INITIALIZED, "101",
+                     "General Exception", "Already Initialized");
+      table.addError(APIErrorCodes.CONTENT_INSTANCE_TERMINATED, "101",
+                     "General Exception", "Content Instance Terminated");
+      table.addError(APIErrorCodes.GENERAL_TERMINATION_FAILURE, "101",
+                     "General Exception", "General Termination Failure");
+      table.addError(APIErrorCodes.TERMINATE_BEFORE_INIT, "301",
+                     "Not Initialized", "Termination Before Initialization");
+      table.addError(APIErrorCodes.TERMINATE_AFTER_TERMINATE, "101",
+                     "General Exception", "Termination After Termination");
+      table.addError(APIErrorCodes.GET_BEFORE_INIT, "301",
+                     "Not Initialized", "Retrieve Data Before Initialization");
+      table.addError(APIErrorCodes.GET_AFTER_TERMINATE, "101",
+                     "General Exception", "Retrieve Data After Termination");
+      table.addError(APIErrorCodes.SET_BEFORE_INIT, "301",
+                     "Not Initialized", "Store Data Before Initialization");
+      table.addError(APIErrorCodes.SET_AFTER_TERMINATE, "101",
+                     "General Exception", "Store Data After Termination");
+      table.addError(APIErrorCodes.COMMIT_BEFORE_INIT, "301",
+                     "Not Initialized", "Commit Before Initialization");
+      table.addError(APIErrorCodes.COMMIT_AFTER_TERMINATE, "101",
+                     "General Exception", "Commit After Termination");
+      table.addError(DMErrorCodes.GEN_ARGUMENT_ERROR, "201",
+                     "Invalid Argument Error", "General Argument Error");
+      table.addError(DMErrorCodes.GEN_GET_FAILURE, "101",
+                     "General Exception", "General Get Failure");
+      table.addError(DMErrorCodes.GEN_SET_FAILURE, "101",
+                     "General Exception", "General Set Failure");
+      table.addError(APIErrorCodes.GENERAL_COMMIT_FAILURE, "101",
+                     "General Exception", "General Commit Failure");
+      table.addError(DMErrorCodes.UNDEFINED_ELEMENT, "401",
+                     "Not Implemented Error", "Undefined Data Model Element");
+      table.addError(DMErrorCodes.NOT_IMPLEMENTED, "401",
+                     "Not Implemented Error",
+                     "Unimplemented Data Model Element");
+      table.addError(DMErrorCodes.NOT_INITIALIZED, "301",
+                     "Not Initialized",
+                     "Data Model Element Value Not Initialized");
+      table.addError(DMErrorCodes.READ_ONLY, "403",
+                     "Element is Read Only", "Data Model Element Is Read Only");
+      table.addError(DMErrorCodes.WRITE_ONLY, "404",
+                     "Element is Write Only",
+                     "Data Model Element Is Write Only");
+      table.addError(DMErrorCodes.TYPE_MISMATCH, "405",
+                     "Incorrect Data Type", "Data Model Element Type Mismatch");
+      table.addError(DMErrorCodes.VALUE_OUT_OF_RANGE, "405",
+                     "Incorrect Data Type",
+                     "Data Model Element Value Out Of Range");
+      table.addError(DMErrorCodes.DEP_NOT_ESTABLISHED, "405",
+                     "Incorrect Data Type",
+                     "Data Model Dependency Not Established");
+      table.addError(DMErrorCodes.DOES_NOT_HAVE_CHILDREN, "101",
+                     "General Exception",
+                     "Data Model Element does not have Children");
+      table.addError(DMErrorCodes.DOES_NOT_HAVE_COUNT, "101",
+                     "General Exception",
+                     "Data Model Element does not have Count");
+      table.addError(DMErrorCodes.DOES_NOT_HAVE_VERSION, "101",
+                     "General Exception",
+                     "Data Model Element does not have Version");
+      table.addError(DMErrorCodes.SET_OUT_OF_ORDER, "101",
+                     "General Exception", "Data Model Array Set out of Order");
+      table.addError(DMErrorCodes.OUT_OF_RANGE, "101",
+                     "General Exception", "Value Out of Range");
+      table.addError(DMErrorCodes.ELEMENT_NOT_SPECIFIED, "101",
+                     "General Exception", "No Element Specified");
+      table.addError(DMErrorCodes.NOT_UNIQUE, "101",
+                     "General Exception", "Value is not Unique");
+      table.addError(DMErrorCodes.MAX_EXCEEDED, "405",
+                     "Incorrect Data Type", "Error - Maximum Exceeded");
+      table.addError(DMErrorCodes.SET_KEYWORD, "402",
+                     "Invalid Set Value.  Element is a Keyword",
+                     "Data Model Element Is a Keyword");
+      table.addError(DMErrorCodes.INVALID_REQUEST, "401",
+                     "Not Implemented Error", "Request was Invalid");
+
+      // Used to get the abstract error code from an error String
+      table.addAbstractError("0", APIErrorCodes.NO_ERROR);
+      table.addAbstractError("101", APIErrorCodes.GENERAL_EXCEPTION);
+      table.addAbstractError("201", DMErrorCodes.GEN_ARGUMENT_ERROR);
+      table.addAbstractError("202", DMErrorCodes.DOES_NOT_HAVE_CHILDREN);
+      table.addAbstractError("203", DMErrorCodes.SET_OUT_OF_ORDER);
+      table.addAbstractError("301", DMErrorCodes.NOT_INITIALIZED);
+      table.addAbstractError("401", DMErrorCodes.NOT_IMPLEMENTED);
+      table.addAbstractError("402", DMErrorCodes.GEN_SET_FAILURE);
+      table.addAbstractError("403", DMErrorCodes.READ_ONLY);
+      table.addAbstractError("404", DMErrorCodes.WRITE_ONLY);
+      table.addAbstractError("405", DMErrorCodes.TYPE_MISMATCH);
+
+      return table;
+   }
+
+   /**
+    * Adds the SCORM error code, message and diagnostic of an abstract error
+    * code.  The SCORM error code becomes a valid error code of this table.
+    *
+    * @param iAbstractCode The abstract error code.
+    * @param iErrorCode The SCORM error code.
+    * @param iMessage The error message.
+    * @param iDiagnostic The error diagnostic.
+    */
+   private void addError(int iAbstractCode, String iErrorCode,
+                         String iMessage, String iDiagnostic)
+   {
+      int slot = SLOTS[iAbstractCode];
+      mErrorCodes[slot] = iErrorCode;
+      mErrorMessages[slot] = iMessage;
+      mErrorDiagnostics[slot] = iDiagnostic;
+      mValidErrorCodes[parseErrorCode(iErrorCode)] = true;
+   }
+
+   /**
+    * Adds the abstract error code returned for a SCORM error code.
+    *
+    * @param iErrorCode The SCORM error code.
+    * @param iAbstractCode The abstract error code.
+    */
+   private void addAbstractError(String iErrorCode, int iAbstractCode)
+   {
+      mAbstErrors[parseErrorCode(iErrorCode)] = iAbstractCode;
+   }
+
+   /**
+    * Returns the slot of an abstract error code.
+    *
+    * @param iAbstractCode The abstract error code.
+    * @return The slot of the error code, or -1 if it is not in the tables.
+    */
+   private static int getSlot(int iAbstractCode)
+   {
+      if ( iAbstractCode < 0 || iAbstractCode > MAX_ABSTRACT_CODE )
+      {
+         return -1;
+      }
+      return SLOTS[iAbstractCode];
+   }
+
+   /**
+    * Converts a SCORM error code into its numeric value.  Only the exact form
+    * of the codes held by the tables is accepted, so values such as "00" or
+    * "+1" are rejected just as they were by a String lookup.
+    *
+    * @param iErrorCode The SCORM error code.
+    * @return The numeric value of the error code, or -1 if it is not the form
+    *         of a SCORM error code.
+    */
+   private static int parseErrorCode(String iErrorCode)
+   {
+      if ( iErrorCode == null )
+      {
+         return -1;
+      }
+
+      int length = iErrorCode.length();
+      if ( length == 0 || length > 3 ||
+           ( length > 1 && iErrorCode.charAt(0) == '0' ) )
+      {
+         return -1;
+      }
+
+      int value = 0;
+      for ( int i = 0; i < length; i++ )
+      {
+         char digit = iErrorCode.charAt(i);
+         if ( digit < '0' || digit > '9' )
+         {
+            return -1;
+         }
+         value = ( value * 10 ) + ( digit - '0' );
+      }
+      return value;
+   }
+
+   /**
+    * Returns the SCORM error code of an abstract error code.
+    *
+    * @param iAbstractCode The abstract error code.
+    * @return The SCORM error code, or <code>null</code> if there is none.
+    */
+   public String getErrorCode(int iAbstractCode)
+   {
+      int slot = getSlot(iAbstractCode);
+      return ( slot < 0 ) ? null : mErrorCodes[slot];
+   }
+
+   /**
+    * Returns the error message of an abstract error code.
+    *
+    * @param iAbstractCode The abstract error code.
+    * @return The error message, or <code>null</code> if there is none.
+    */
+   public String getErrorMessage(int iAbstractCode)
+   {
+      int slot = getSlot(iAbstractCode);
+      return ( slot < 0 ) ? null : mErrorMessages[slot];
+   }
+
+   /**
+    * Returns the error diagnostic of an abstract error code.
+    *
+    * @param iAbstractCode The abstract error code.
+    * @return The error diagnostic, or <code>null</code> if there is none.
+    */
+   public String getErrorDiagnostic(int iAbstractCode)
+   {
+      int slot = getSlot(iAbstractCode);
+      return ( slot < 0 ) ? null : mErrorDiagnostics[slot];
+   }
+
+   /**
+    * Returns the abstract error code of a SCORM error code.
+    *
+    * @param iErrorCode The SCORM error code.
+    * @return The abstract error code, or -1 if the error code is unknown.
+    */
+   public int getAbstractCode(String iErrorCode)
+   {
+      int code = parseErrorCode(iErrorCode);
+      return ( code < 0 ) ? -1 : mAbstErrors[code];
+   }
+
+   /**
+    * Determines whether a SCORM error code is returned by this version of the
+    * API.
+    *
+    * @param iErrorCode The SCORM error code.
+    * @return Indicates whether or not the error code is valid.
+    */
+   public boolean isValidErrorCode(String iErrorCode)
+   {
+      int code = parseErrorCode(iErrorCode);
+      return ( code >= 0 ) && mValidErrorCodes[code];
+   }
+}
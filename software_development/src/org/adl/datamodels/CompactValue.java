@@ -0,0 +1,405 @@
+package org.adl.datamodels;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * <strong>Filename:</strong> CompactValue.java<br><br>
+ *
+ * <strong>Description:</strong> Holds the value of a large character data
+ * model element, such as <code>cmi.suspend_data</code>, as bytes instead of
+ * as a <code>String</code>.  Values made only of Latin-1 characters take one
+ * byte per character; other values are encoded the way
+ * <code>DataOutput.writeUTF()</code> encodes them, so any <code>String</code>,
+ * including one with unpaired surrogates, is returned unchanged.  A value
+ * that would take more than two bytes per character that way is kept as its
+ * UTF-16 characters.  Encoded values of at least <code>COMPRESS_LENGTH</code>
+ * bytes are also deflated, when that makes them smaller.<br><br>
+ *
+ * If the system property <code>org.adl.datamodels.CompactValue.offHeap</code>
+ * is <code>true</code>, the bytes are kept in direct buffers, outside of the
+ * Java heap.  A value is never changed once it is created, because views of
+ * the run-time data share it, so each SetValue() of a large value allocates
+ * a new direct buffer.  The memory of a replaced buffer is only released
+ * when its value is garbage collected, which the Java heap alone may not
+ * trigger, so a busy LMS can fail with an
+ * <code>OutOfMemoryError</code> for "Direct buffer memory".  Turn this on
+ * only with <code>-XX:MaxDirectMemorySize</code> sized for the values kept
+ * at once, and without <code>-XX:+DisableExplicitGC</code>, which keeps
+ * the VM from collecting replaced buffers when direct memory runs
+ * out.<br><br>
+ *
+ * @author ADL Technical Team
+ */
+final class CompactValue implements Serializable
+{
+   /**
+    * The serialized form is written by <code>writeObject()</code>
+    */
+   private static final long serialVersionUID = 1L;
+
+   /**
+    * The shortest value, in characters, that is kept in compact form
+    */
+   static final int MIN_LENGTH = 256;
+
+   /**
+    * The smallest encoded value, in bytes, that is deflated
+    */
+   static final int COMPRESS_LENGTH = 1024;
+
+   /**
+    * Describes if the bytes of new values are kept outside of the Java heap.
+    * Each new value allocates its own direct buffer; see the class
+    * description for the memory this can take.
+    */
+   private static final boolean OFF_HEAP =
+      Boolean.getBoolean("org.adl.datamodels.CompactValue.offHeap");
+
+   /**
+    * Format flag indicating each character is encoded in one byte
+    */
+   private static final int LATIN_1 = 1;
+
+   /**
+    * Format flag indicating the encoded bytes are deflated
+    */
+   private static final int DEFLATED = 2;
+
+   /**
+    * Format flag indicating each character is kept as its two UTF-16 bytes
+    */
+   private static final int UTF_16 = 4;
+
+   /**
+    * Describes how the value is encoded
+    */
+   private int mFormat = 0;
+
+   /**
+    * The number of characters in the value
+    */
+   private int mLength = 0;
+
+   /**
+    * The number of encoded, and possibly deflated, bytes of the value
+    */
+   private int mSize = 0;
+
+   /**
+    * The bytes of the value
+    */
+   private transient ByteBuffer mBytes = null;
+
+   /**
+    * Constructor
+    *
+    * @param iFormat The format flags of the value.
+    *
+    * @param iLength The number of characters in the value.
+    *
+    * @param iBytes  The bytes of the value.
+    *
+    * @param iSize   The number of bytes of the value.
+    */
+   private CompactValue(int iFormat, int iLength, byte [] iBytes, int iSize)
+   {
+      mFormat = iFormat;
+      mLength = iLength;
+      mSize = iSize;
+      mBytes = store(iBytes, iSize);
+   }
+
+   /**
+    * Describes if a value is long enough to be kept in compact form.
+    *
+    * @param iValue The value.
+    *
+    * @return <code>true</code> if the value should be kept in compact form,
+    *         otherwise <code>false</code>.
+    */
+   static boolean isLarge(String iValue)
+   {
+      return iValue != null && iValue.length() >= MIN_LENGTH;
+   }
+
+   /**
+    * Creates the compact form of a value.
+    *
+    * @param iValue The value.
+    *
+    * @return The compact form of the value.
+    */
+   static CompactValue pack(String iValue)
+   {
+      int length = iValue.length();
+      int format = LATIN_1;
+
+      for ( int i = 0; i < length && format == LATIN_1; i++ )
+      {
+         if ( iValue.charAt(i) > 0xFF )
+         {
+            format = 0;
+         }
+      }
+
+      byte [] bytes;
+      int size;
+
+      if ( format == LATIN_1 )
+      {
+         bytes = new byte[length];
+         size = length;
+
+         for ( int i = 0; i < length; i++ )
+         {
+            bytes[i] = (byte)iValue.charAt(i);
+         }
+      }
+      else
+      {
+         bytes = new byte[length * 3];
+         size = 0;
+
+         for ( int i = 0; i < length; i++ )
+         {
+            char c = iValue.charAt(i);
+
+            if ( c >= 0x0001 && c <= 0x007F )
+            {
+               bytes[size++] = (byte)c;
+            }
+            else if ( c <= 0x07FF )
+            {
+               bytes[size++] = (byte)(0xC0 | ((c >> 6) & 0x1F));
+               bytes[size++] = (byte)(0x80 | (c & 0x3F));
+            }
+            else
+            {
+               bytes[size++] = (byte)(0xE0 | ((c >> 12) & 0x0F));
+               bytes[size++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+               bytes[size++] = (byte)(0x80 | (c & 0x3F));
+            }
+         }
+
+         if ( size > length * 2 )
+         {
+            format = UTF_16;
+            size = 0;
+
+            for ( int i = 0; i < length; i++ )
+            {
+               char c = iValue.charAt(i);
+
+               bytes[size++] = (byte)(c >> 8);
+               bytes[size++] = (byte)c;
+            }
+         }
+      }
+
+      if ( size >= COMPRESS_LENGTH )
+      {
+         Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+         byte [] deflated = new byte[size];
+
+         deflater.setInput(bytes, 0, size);
+         deflater.finish();
+
+         int deflatedSize = deflater.deflate(deflated);
+
+         // Only keep the deflated bytes if they all fit and are smaller
+         if ( deflater.finished() && deflatedSize < size )
+         {
+            format |= DEFLATED;
+            bytes = deflated;
+            size = deflatedSize;
+         }
+
+         deflater.end();
+      }
+
+      return new CompactValue(format, length, bytes, size);
+   }
+
+   /**
+    * Provides the number of bytes used to hold the value.
+    *
+    * @return The number of bytes of the value.
+    */
+   int size()
+   {
+      return mSize;
+   }
+
+   /**
+    * Provides the value.
+    *
+    * @return The value, as it was when it was packed.
+    */
+   public String toString()
+   {
+      byte [] bytes = new byte[mSize];
+
+      ByteBuffer buffer = mBytes.duplicate();
+      buffer.clear();
+      buffer.get(bytes);
+
+      if ( (mFormat & DEFLATED) != 0 )
+      {
+         Inflater inflater = new Inflater();
+         byte [] inflated =
+            new byte[(mFormat & LATIN_1) != 0 ? mLength : mLength * 3];
+         int size = 0;
+
+         inflater.setInput(bytes);
+
+         try
+         {
+            while ( !inflater.finished() && size < inflated.length )
+            {
+               int read = inflater.inflate(inflated, size,
+                                           inflated.length - size);
+
+               if ( read == 0 && (inflater.needsInput() ||
+                                  inflater.needsDictionary()) )
+               {
+                  break;
+               }
+
+               size += read;
+            }
+         }
+         catch ( DataFormatException dfe )
+         {
+            throw new IllegalStateException("The compact value is corrupt: " +
+                                            dfe.getMessage());
+         }
+         finally
+         {
+            inflater.end();
+         }
+
+         bytes = inflated;
+      }
+
+      char [] chars = new char[mLength];
+
+      if ( (mFormat & LATIN_1) != 0 )
+      {
+         for ( int i = 0; i < mLength; i++ )
+         {
+            chars[i] = (char)(bytes[i] & 0xFF);
+         }
+      }
+      else if ( (mFormat & UTF_16) != 0 )
+      {
+         for ( int i = 0; i < mLength; i++ )
+         {
+            chars[i] = (char)(((bytes[2 * i] & 0xFF) << 8) |
+                              (bytes[2 * i + 1] & 0xFF));
+         }
+      }
+      else
+      {
+         int pos = 0;
+
+         for ( int i = 0; i < mLength; i++ )
+         {
+            int b = bytes[pos++] & 0xFF;
+
+            if ( b < 0x80 )
+            {
+               chars[i] = (char)b;
+            }
+            else if ( b < 0xE0 )
+            {
+               chars[i] = (char)(((b & 0x1F) << 6) | (bytes[pos++] & 0x3F));
+            }
+            else
+            {
+               int b2 = bytes[pos++] & 0x3F;
+
+               chars[i] = (char)(((b & 0x0F) << 12) | (b2 << 6) |
+                                 (bytes[pos++] & 0x3F));
+            }
+         }
+      }
+
+      return new String(chars);
+   }
+
+   /**
+    * Copies bytes into a new buffer, on or off the Java heap.
+    *
+    * @param iBytes The bytes.
+    *
+    * @param iSize  The number of bytes to copy.
+    *
+    * @return The new buffer.
+    */
+   private static ByteBuffer store(byte [] iBytes, int iSize)
+   {
+      ByteBuffer buffer;
+
+      if ( OFF_HEAP )
+      {
+         buffer = ByteBuffer.allocateDirect(iSize);
+         buffer.put(iBytes, 0, iSize);
+      }
+      else
+      {
+         byte [] bytes = new byte[iSize];
+         System.arraycopy(iBytes, 0, bytes, 0, iSize);
+
+         buffer = ByteBuffer.wrap(bytes);
+      }
+
+      return buffer;
+   }
+
+   /**
+    * Writes this value, including its bytes, to an object stream.
+    *
+    * @param oOut The object stream.
+    *
+    * @throws IOException If the value could not be written.
+    */
+   private void writeObject(ObjectOutputStream oOut) throws IOException
+   {
+      oOut.defaultWriteObject();
+
+      byte [] bytes = new byte[mSize];
+
+      ByteBuffer buffer = mBytes.duplicate();
+      buffer.clear();
+      buffer.get(bytes);
+
+      oOut.write(bytes);
+   }
+
+   /**
+    * Reads this value, including its bytes, from an object stream.
+    *
+    * @param iIn The object stream.
+    *
+    * @throws IOException If the value could not be read.
+    *
+    * @throws ClassNotFoundException If a class of the stream is not found.
+    */
+   private void readObject(ObjectInputStream iIn)
+      throws IOException, ClassNotFoundException
+   {
+      iIn.defaultReadObject();
+
+      byte [] bytes = new byte[mSize];
+      iIn.readFully(bytes);
+
+      mBytes = store(bytes, mSize);
+   }
+}
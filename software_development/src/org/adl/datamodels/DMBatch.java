@@ -0,0 +1,206 @@
+package org.adl.datamodels;
+
+import java.util.Vector;
+
+/**
+ * <strong>Filename:</strong> DMBatch.java<br><br>
+ *
+ * <strong>Description:</strong><br>
+ * An ordered list of GetValue() and SetValue() requests that are processed
+ * together by <code>DMInterface.processBatch()</code>.  Each request is
+ * processed as the single request <code>DMInterface</code> methods process
+ * it, in the order it was added, and keeps its own error code and, for a
+ * GetValue() request, its own value.<br><br>
+ *
+ * @author ADL Technical Team
+ */
+public class DMBatch
+{
+
+   /**
+    * The requests of this batch, in order
+    */
+   private Vector mOperations = new Vector();
+
+   /**
+    * Adds a GetValue() request to this batch.
+    *
+    * @param iElement A dot-notation binding of the desired data model element.
+    *
+    * @return The position of the request in this batch.
+    */
+   public int addGetValue(String iElement)
+   {
+      mOperations.add(new Operation(iElement, null, false));
+
+      return mOperations.size() - 1;
+   }
+
+   /**
+    * Adds a SetValue() request to this batch.
+    *
+    * @param iElement A dot-notation binding of the desired data model element.
+    *
+    * @param iValue   Indicates the value that will be set.
+    *
+    * @return The position of the request in this batch.
+    */
+   public int addSetValue(String iElement, String iValue)
+   {
+      mOperations.add(new Operation(iElement, iValue, true));
+
+      return mOperations.size() - 1;
+   }
+
+   /**
+    * Provides the number of requests in this batch.
+    *
+    * @return The number of requests.
+    */
+   public int size()
+   {
+      return mOperations.size();
+   }
+
+   /**
+    * Provides the data model element of one request of this batch.
+    *
+    * @param iIndex The position of the request.
+    *
+    * @return The dot-notation binding of the data model element.
+    */
+   public String getElement(int iIndex)
+   {
+      return getOperation(iIndex).mElement;
+   }
+
+   /**
+    * Describes if one request of this batch is a SetValue() request.
+    *
+    * @param iIndex The position of the request.
+    *
+    * @return <code>true</code> if the request is a SetValue() request,
+    *         <code>false</code> if it is a GetValue() request.
+    */
+   public boolean isSetValue(int iIndex)
+   {
+      return getOperation(iIndex).mSet;
+   }
+
+   /**
+    * Provides the value being set by one SetValue() request of this batch.
+    *
+    * @param iIndex The position of the request.
+    *
+    * @return The value being set, or <code>null</code> for a GetValue()
+    *         request.
+    */
+   public String getSetValue(int iIndex)
+   {
+      return getOperation(iIndex).mValue;
+   }
+
+   /**
+    * Provides the result of one request of this batch, once the batch has
+    * been processed.
+    *
+    * @param iIndex The position of the request.
+    *
+    * @return The data model error code of the request.
+    */
+   public int getResult(int iIndex)
+   {
+      return getOperation(iIndex).mResult;
+   }
+
+   /**
+    * Provides the value returned by one GetValue() request of this batch,
+    * once the batch has been processed.
+    *
+    * @param iIndex The position of the request.
+    *
+    * @return The information returned by the request, or <code>null</code>
+    *         for a SetValue() request or an unprocessed batch.
+    */
+   public DMProcessingInfo getInfo(int iIndex)
+   {
+      return getOperation(iIndex).mInfo;
+   }
+
+   /**
+    * Records the result of one request of this batch.
+    *
+    * @param iIndex  The position of the request.
+    *
+    * @param iResult The data model error code of the request.
+    *
+    * @param iInfo   The information returned by a GetValue() request, or
+    *                <code>null</code>.
+    */
+   void setResult(int iIndex, int iResult, DMProcessingInfo iInfo)
+   {
+      Operation op = getOperation(iIndex);
+
+      op.mResult = iResult;
+      op.mInfo = iInfo;
+   }
+
+   /**
+    * Provides one request of this batch.
+    *
+    * @param iIndex The position of the request.
+    *
+    * @return The request.
+    */
+   private Operation getOperation(int iIndex)
+   {
+      return (Operation)mOperations.elementAt(iIndex);
+   }
+
+   /**
+    * One request of a batch
+    */
+   private static class Operation
+   {
+      /**
+       * The dot-notation binding of the data model element
+       */
+      String mElement = null;
+
+      /**
+       * The value being set by a SetValue() request
+       */
+      String mValue = null;
+
+      /**
+       * Describes if this is a SetValue() request
+       */
+      boolean mSet = false;
+
+      /**
+       * The data model error code of the request
+       */
+      int mResult = DMErrorCodes.NO_ERROR;
+
+      /**
+       * The information returned by a GetValue() request
+       */
+      DMProcessingInfo mInfo = null;
+
+      /**
+       * Constructor
+       *
+       * @param iElement The dot-notation binding of the data model element.
+       *
+       * @param iValue   The value being set, or <code>null</code>.
+       *
+       * @param iSet     Describes if this is a SetValue() request.
+       */
+      Operation(String iElement, String iValue, boolean iSet)
+      {
+         mElement = iElement;
+         mValue = iValue;
+         mSet = iSet;
+      }
+   }
+}
@@ -1,6 +1,6 @@
 package org.adl.datamodels;
 
-import java.util.Hashtable;
+import java.util.BitSet;
 import java.util.Vector;
 import java.io.Serializable;
 
@@ -31,9 +31,16 @@ public abstract class DMElement implements Serializable
    protected Vector mChildrenBindings = null;
 
    /**
-    * Describes this element's children.
+    * Describes this element's children, by their position in the set of
+    * children bindings.  A child is only created when it is first accessed.
     */
-   protected Hashtable mChildren = null;
+   protected DMElement [] mChildren = null;
+
+   /**
+    * Describes the records managed by this data model element.  All of the
+    * records share this description.
+    */
+   protected DMElementDescriptor mRecordDescription = null;
 
    /**
     * Describes the data model records managed by this data model element.
@@ -45,6 +52,13 @@ public abstract class DMElement implements Serializable
     */
    protected String mValue = null;
 
+   /**
+    * Describes this data model element's value when it is kept in compact
+    * form.  The value is only kept in compact form when <code>mValue</code> is
+    * <code>null</code>.
+    */
+   protected CompactValue mCompactValue = null;
+
    /**
     * Describes the set of delimiters associated with this element
     */
@@ -66,6 +80,32 @@ public abstract class DMElement implements Serializable
     */
    protected boolean mSetBySCO = false;
 
+   /**
+    * Describes if this data model element, or any element below it, has
+    * changed since the run-time data was last committed.
+    */
+   protected boolean mChanged = false;
+
+   /**
+    * Describes if this data model element has replaced an element with other
+    * state since the run-time data was last committed.
+    */
+   protected boolean mReplaced = false;
+
+   /**
+    * Describes which children, by their position in the set of children
+    * bindings, or which records have changed since the run-time data was last
+    * committed.
+    */
+   protected BitSet mChangedChildren = null;
+
+   /**
+    * Describes how many data model records this element managed when the
+    * run-time data was last committed.  Any later records were appended
+    * since.
+    */
+   protected int mCommittedRecords = 0;
+
    /**
     * Describes this data model element's binding string.
     * 
@@ -109,13 +149,15 @@ public abstract class DMElement implements Serializable
    public void setDescription(DMElementDescriptor iDescription)
    {
       mDescription = iDescription;
+      mRecordDescription = null;
    }
 
    /**
     * Adds the provided data model element to this data model element's set
     * of children.
     * <br><br>Note: If the provided data model element is already a child of this
-    * data model element, it is replaced.
+    * data model element, it is replaced.  If the name is not one of this data
+    * model element's children bindings, the data model element is ignored.
     * 
     * @param iName    The dot-notation binding name of the data model element
     *                 to be added.
@@ -123,14 +165,132 @@ public abstract class DMElement implements Serializable
     *                 named data model element.
     */
    public void putChild(String iName, DMElement iElement)
+   {
+      int idx = ( mChildrenBindings == null ) ? -1 : 
+                mChildrenBindings.indexOf(iName);
+
+      if ( idx != -1 )
+      {
+         if ( mChildren == null )
+         {
+            mChildren = new DMElement[mChildrenBindings.size()];
+         }
+
+         mChildren[idx] = iElement;
+      }
+   }
+
+   /**
+    * Provides one of this data model element's children, creating it if it
+    * has not been accessed before.
+    * 
+    * @param iName The dot-notation binding name of the child.
+    * 
+    * @return The child, or <code>null</code> if the name is not one of this
+    *         data model element's children bindings.
+    */
+   public DMElement getChild(String iName)
+   {
+      int idx = ( mChildrenBindings == null ) ? -1 : 
+                mChildrenBindings.indexOf(iName);
+
+      return ( idx == -1 ) ? null : getChild(idx);
+   }
+
+   /**
+    * Provides one of this data model element's children, creating it if it
+    * has not been accessed before.
+    * 
+    * @param iIndex The position of the child in the set of children bindings.
+    * 
+    * @return The child.
+    */
+   protected DMElement getChild(int iIndex)
    {
       if ( mChildren == null )
       {
-         mChildren = new Hashtable();
+         mChildren = new DMElement[mChildrenBindings.size()];
+      }
+
+      if ( mChildren[iIndex] == null )
+      {
+         mChildren[iIndex] = createChild((DMElementDescriptor)
+                                         mDescription.mChildren.elementAt(iIndex));
+      }
+
+      return mChildren[iIndex];
+   }
+
+   /**
+    * Provides one of this data model element's children, without creating it.
+    * A child that has not been created has the state of a new data model
+    * element with its description.
+    * 
+    * @param iIndex The position of the child in the set of children bindings.
+    * 
+    * @return The child, or <code>null</code> if it has not been created.
+    */
+   protected DMElement peekChild(int iIndex)
+   {
+      return ( mChildren == null ) ? null : mChildren[iIndex];
+   }
+
+   /**
+    * Creates a new child of this data model element.  Data model elements
+    * that have children must override this method.
+    * 
+    * @param iDescription The description of the child.
+    * 
+    * @return The new child.
+    */
+   protected DMElement createChild(DMElementDescriptor iDescription)
+   {
+      return null;
+   }
+
+   /**
+    * Initializes this data model element's set of children bindings from its
+    * description.  The records of a collection share the bindings of the
+    * collection, and no children are created until they are accessed.
+    */
+   protected void initChildrenBindings()
+   {
+      if ( mParent != null && mParent.mRecords != null &&
+           mParent.mDescription.mChildren == mDescription.mChildren )
+      {
+         mChildrenBindings = mParent.mChildrenBindings;
+      }
+      else
+      {
+         mChildrenBindings = new Vector(mDescription.mChildren.size());
+
+         for ( int i = 0; i < mDescription.mChildren.size(); i++ )
+         {
+            DMElementDescriptor desc = 
+            (DMElementDescriptor)mDescription.mChildren.elementAt(i);
+
+            mChildrenBindings.add(desc.mBinding);
+         }
+      }
+   }
+
+   /**
+    * Provides the description shared by the records managed by this data
+    * model element.
+    * 
+    * @return The description of a record.
+    */
+   protected DMElementDescriptor getRecordDescription()
+   {
+      if ( mRecordDescription == null )
+      {
+         mRecordDescription = (DMElementDescriptor)mDescription.clone();
 
+         mRecordDescription.mOldSPM = mDescription.mSPM;
+         mRecordDescription.mSPM = -1;
       }
 
-      mChildren.put(iName, iElement);
+      return mRecordDescription;
    }
 
    /**
@@ -292,6 +452,160 @@ public abstract class DMElement implements Serializable
       return name;
    }
 
+   /**
+    * Adds a new, empty record to the set of data model records managed by this
+    * data model element, as when a SetValue() request creates the next record.
+    * 
+    * @return The new record, or <code>null</code> if this data model element
+    *         does not manage records.
+    */
+   protected DMElement addRecord()
+   {
+      return null;
+   }
+
+   /**
+    * Restores the state of this leaf data model element, as saved by a 
+    * <code>DMSnapshot</code>.  The value is not validated.
+    * 
+    * @param iValue       The value of this data model element.
+    * 
+    * @param iDelimiters  The values of this element's delimiters, in order,
+    *                     or <code>null</code> if they all have their default
+    *                     values.
+    * 
+    * @param iInitialized Indicates if the value has been initialized.
+    * 
+    * @param iSetBySCO    Indicates if the value was set by the SCO.
+    */
+   protected void restoreValue(String iValue,
+                               String [] iDelimiters,
+                               boolean iInitialized,
+                               boolean iSetBySCO)
+   {
+      mValue = iValue;
+      compactValue();
+
+      if ( mDelimiters != null )
+      {
+         for ( int i = 0; i < mDelimiters.size(); i++ )
+         {
+            DMDelimiter del = (DMDelimiter)mDelimiters.elementAt(i);
+
+            del.mValue = ( iDelimiters == null ) ? null : iDelimiters[i];
+         }
+      }
+
+      mInitialized = iInitialized;
+      mSetBySCO = iSetBySCO;
+   }
+
+   /**
+    * Provides this data model element's value, whether or not it is kept in
+    * compact form.
+    * 
+    * @return The value of this data model element.
+    */
+   protected String getStoredValue()
+   {
+      if ( mValue == null && mCompactValue != null )
+      {
+         return mCompactValue.toString();
+      }
+
+      return mValue;
+   }
+
+   /**
+    * Provides this data model element's value in compact form, if an
+    * administrative GetValue() without default delimiters would return it
+    * unchanged.
+    * 
+    * @return The compact value, or <code>null</code> if the value is not kept
+    *         in compact form or a GetValue() would add to it.
+    */
+   CompactValue getCompactValue()
+   {
+      if ( mValue == null && mCompactValue != null && mInitialized &&
+           mDelimiters == null && mDescription.mSPM == -1 )
+      {
+         return mCompactValue;
+      }
+
+      return null;
+   }
+
+   /**
+    * Moves the value just set on this data model element into compact form,
+    * if the element's description allows it and the value is large.
+    * Otherwise any previous compact value is discarded.
+    */
+   protected void compactValue()
+   {
+      mCompactValue = null;
+
+      if ( mDescription.mCompact && CompactValue.isLarge(mValue) )
+      {
+         mCompactValue = CompactValue.pack(mValue);
+         mValue = null;
+      }
+   }
+
+   /**
+    * Marks this data model element as changed since the run-time data was
+    * last committed, along with each of its ancestors that is not already
+    * marked.
+    */
+   public void markChanged()
+   {
+      DMElement element = this;
+
+      while ( element != null && !element.mChanged )
+      {
+         element.mChanged = true;
+
+         DMElement parent = element.mParent;
+
+         if ( parent != null )
+         {
+            int idx = -1;
+
+            if ( parent.mRecords != null )
+            {
+               idx = parent.mRecords.lastIndexOf(element);
+            }
+            else if ( parent.mChildrenBindings != null )
+            {
+               idx = parent.mChildrenBindings.
+                        indexOf(element.mDescription.mBinding);
+            }
+
+            if ( idx != -1 )
+            {
+               if ( parent.mChangedChildren == null )
+               {
+                  parent.mChangedChildren = new BitSet();
+               }
+
+               parent.mChangedChildren.set(idx);
+            }
+         }
+
+         element = parent;
+      }
+   }
+
+   /**
+    * Marks this data model element as having replaced an element with other
+    * state, so its whole state is part of the next set of changes.
+    */
+   public void markReplaced()
+   {
+      mReplaced = true;
+
+      markChanged();
+   }
+
    /**
     * Indicates that the value being set was set by the SCO.
     * 
@@ -346,7 +660,7 @@ public abstract class DMElement implements Serializable
                }
    
                // Add the element's value
-               oInfo.mValue += mValue;
+               oInfo.mValue += getStoredValue();
                
             }
             else
@@ -86,6 +86,11 @@ public class DMElementDescriptor implements Serializable, Cloneable
     */
    public int mValueSPM = -1;
 
+   /**
+    * Describes if large values of this element may be kept in compact form
+    */
+   public boolean mCompact = false;
+
    /**
     * Describes the SPM number of children records that should be allowed
     */
@@ -91,4 +91,28 @@ public class DMFactory
       return dm;
    }
 
+   /**
+    * Describes the type of a datamodel built by this factory.
+    * 
+    * @param iDM The datamodel.
+    * 
+    * @return The enumerated type of the datamodel, or <code>DM_UNKNOWN</code>
+    *         if this factory does not build that datamodel.
+    */
+   public static int getDMType(DataModel iDM)
+   {
+      int type = DM_UNKNOWN;
+
+      if ( iDM instanceof SCORM_2004_DM )
+      {
+         type = DM_SCORM_2004;
+      }
+      else if ( iDM instanceof SCORM_2004_NAV_DM )
+      {
+         type = DM_SCORM_NAV;
+      }
+
+      return type;
+   }
+
 } // end DMFactory
@@ -1,6 +1,7 @@
 package org.adl.datamodels;
 
 import java.util.NoSuchElementException;
+import java.util.Vector;
 
 
 /**
@@ -321,4 +322,142 @@ public class DMInterface
    }
 
 
+   /**
+    * Processes a batch of GetValue() and SetValue() requests, in order,
+    * against a known set of SCO run-time data (<code>SCODataManager</code>).
+    * Each request has the result it would have if it were processed on its
+    * own, after the requests before it.  The parsed parts of each data model
+    * element name are shared with the element name of the request before it,
+    * and the data model is only looked up again when it changes.  A request
+    * whose data model element name is improperly formatted has the result
+    * <code>DMErrorCodes.INVALID_REQUEST</code>.  If the SCO run-time data
+    * publishes a view at each commit, a batch that changes it is a commit
+    * point, and one view is published for the whole batch.
+    * 
+    * @param ioBatch        The requests to process.  The result of each
+    *                       request, and the value returned by each GetValue()
+    *                       request, are recorded in the batch.
+    * 
+    * @param iAdmin         Indicates if the requests are administrative
+    *                       actions.
+    * 
+    * @param iDefDelimiters Indicates if the values returned by GetValue()
+    *                       requests should include default delimiters.
+    * 
+    * @param ioSCOData      An instance of the <code>SCODataManager</code> that
+    *                       contains the run-time data for the individual SCO.
+    *                  
+    * @param iSetBySCO      Indicates if the values are being set from the SCO.
+    * 
+    * @return The abstract data model error code of each request, in order.
+    */
+   public static int [] processBatch(DMBatch ioBatch,
+                                     boolean iAdmin,
+                                     boolean iDefDelimiters,
+                                     SCODataManager ioSCOData,
+                                     boolean iSetBySCO)
+   {
+      int [] results = new int[ioBatch.size()];
+
+      // The last parsed element name and its tokens
+      String prevElement = null;
+      Vector prevTokens = null;
+
+      // The last data model used
+      String dmBinding = null;
+      DataModel dm = null;
+
+      // Describes if any request changed the run-time data
+      boolean changed = false;
+
+      for ( int i = 0; i < results.length; i++ )
+      {
+         int result = DMErrorCodes.NO_ERROR;
+         DMProcessingInfo info = null;
+
+         String element = ioBatch.getElement(i);
+         String value = ioBatch.getSetValue(i);
+         boolean set = ioBatch.isSetValue(i);
+
+         if ( element == null || element.equals("") )
+         {
+            result = DMErrorCodes.ELEMENT_NOT_SPECIFIED;
+         }
+         else if ( set && value == null )
+         {
+            // No second parameter defined
+            result = DMErrorCodes.GEN_ARGUMENT_ERROR;
+         }
+         else
+         {
+            try
+            {
+               Vector tokens = 
+                  DMRequest.parseElement(element, prevElement, prevTokens);
+
+               prevElement = element;
+               prevTokens = tokens;
+
+               DMRequest request = 
+                  new DMRequest(tokens, value, iAdmin, iDefDelimiters);
+
+               if ( !set )
+               {
+                  info = new DMProcessingInfo();
+               }
+
+               // Look up the data model only when it changes
+               String binding = ((RequestToken)tokens.elementAt(0)).getValue();
+
+               if ( dm == null || !binding.equals(dmBinding) )
+               {
+                  dmBinding = binding;
+                  dm = ioSCOData.getDataModel(binding);
+               }
+
+               if ( dm == null )
+               {
+                  // Let the SCO data report the missing data model
+                  result = set ? ioSCOData.setValue(request, iSetBySCO) :
+                                 ioSCOData.getValue(request, info);
+               }
+               else
+               {
+                  // Skip the data model token
+                  request.getNextToken();
+
+                  result = set ? dm.setValue(request, iSetBySCO) :
+                                 dm.getValue(request, info);
+
+                  changed |= set && ( result == DMErrorCodes.NO_ERROR ||
+                                      result == DMErrorCodes.SPM_EXCEEDED );
+               }
+            }
+            catch ( NullPointerException npe )
+            {
+               result = DMErrorCodes.INVALID_REQUEST; 
+            }
+            catch ( IllegalArgumentException iae )
+            {
+               result = DMErrorCodes.INVALID_REQUEST;
+            }
+            catch ( NoSuchElementException nee )
+            {
+               result = DMErrorCodes.INVALID_REQUEST;
+            }
+         }
+
+         results[i] = result;
+         ioBatch.setResult(i, result, info);
+      }
+
+      if ( changed )
+      {
+         ioSCOData.committed();
+      }
+
+      return results;
+   }
+
+
 } // end DMInterface
@@ -208,6 +208,45 @@ public class DMRequest
       }
    }
 
+   /**
+    * Builds a request from the already parsed tokens of its data model
+    * element name, as when a <code>DMBatch</code> is processed.
+    * 
+    * @param iTokens        The tokens of the data model element name.  They
+    *                       are not changed.
+    * 
+    * @param iValue         The dot-notation bound value to be applied to the
+    *                       data model element, or <code>null</code> for a
+    *                       GetValue() request.
+    * 
+    * @param iAdmin         Describes if this request is an administrative
+    *                       action.
+    * 
+    * @param iDefDelimiters Describes if the default delimiters (if they
+    *                       exist) should be returned as part of a GetValue()
+    *                       request's value.
+    */
+   DMRequest(Vector iTokens,
+             String iValue,
+             boolean iAdmin,
+             boolean iDefDelimiters)
+   {
+      mAdmin = iAdmin;
+      mTokens = new Vector(iTokens.size() + 1);
+      mTokens.addAll(iTokens);
+      mCurToken = 0;
+
+      if ( iValue == null )
+      {
+         mGetValue = true;
+         mDefDelimiters = iDefDelimiters;
+      }
+      else
+      {
+         parseValue(iValue);
+      }
+   }
+
    /**
     * Provides the 'current' token of this request without moving to the 'next'
     * token.
@@ -511,34 +550,108 @@ public class DMRequest
    private void parseElement(String iElement)
    {
       // Initiazlize this request's set of tokens
-      mTokens = new Vector();
+      mTokens = parseElement(iElement, null, null);
       mCurToken = 0;
+   }
+
+   /**
+    * Parses the element name portion of a dot-notation bound string, reusing
+    * the tokens of a previously parsed element name for the leading
+    * dot-separated parts both names share.  This method may throw the 
+    * following Java <code>RuntimeExceptions</code>:
+    * <ul>
+    *   <li><code>IllegalArgumentException</code>:  Thrown if the data model 
+    *       token is specified as an index</li>
+    * </ul>
+    * 
+    * @param iElement        The dot-notation bound string referencing a data
+    *                        model element.
+    * 
+    * @param iPrevious       The previously parsed element name, or
+    *                        <code>null</code>.
+    * 
+    * @param iPreviousTokens The tokens of the previously parsed element name,
+    *                        or <code>null</code>.
+    * 
+    * @return The tokens of the element name.
+    */
+   static Vector parseElement(String iElement,
+                              String iPrevious,
+                              Vector iPreviousTokens)
+   {
+      Vector tokens = new Vector();
+      int shared = 0;
+
+      if ( iPrevious != null && iPreviousTokens != null )
+      {
+         int parts = 0;
+         boolean inPart = false;
+
+         // Find the leading parts, up to a '.' or the end, of both names
+         for ( int i = 0; i <= iElement.length() && i <= iPrevious.length();
+               i++ )
+         {
+            boolean end = ( i == iElement.length() ) || 
+                          iElement.charAt(i) == '.';
+            boolean prevEnd = ( i == iPrevious.length() ) || 
+                              iPrevious.charAt(i) == '.';
+
+            if ( end && prevEnd )
+            {
+               if ( inPart )
+               {
+                  parts++;
+                  inPart = false;
+               }
+
+               shared = i;
+            }
+            else if ( end || prevEnd || 
+                      iElement.charAt(i) != iPrevious.charAt(i) )
+            {
+               break;
+            }
+            else
+            {
+               inPart = true;
+            }
+         }
+
+         for ( int i = 0; i < parts; i++ )
+         {
+            tokens.add(iPreviousTokens.elementAt(i));
+         }
+      }
 
       RequestToken tok = null;
 
-      // Parse the element string on '.'s
-      StringTokenizer st = new StringTokenizer(iElement, ".");
+      // Parse the rest of the element string on '.'s
+      StringTokenizer st = new StringTokenizer(iElement.substring(shared), ".");
 
       // The first token must be the data model designator -- not an integer
       String name = null;
-      try
+
+      if ( tokens.size() == 0 )
       {
-         name = st.nextToken();
-               
-         if ( name.length() > 0 )
+         try
          {
-            tok = new RequestToken(name, RequestToken.TOKEN_DATA_MODEL);
-            mTokens.add(tok);           
+            name = st.nextToken();
+
+            if ( name.length() > 0 )
+            {
+               tok = new RequestToken(name, RequestToken.TOKEN_DATA_MODEL);
+               tokens.add(tok);           
+            }
+            else
+            {
+               throw new IllegalArgumentException("Empty token");
+            }
          }
-         else
+         catch ( IllegalArgumentException e )
          {
-            throw new IllegalArgumentException("Empty token");
+            throw new IllegalArgumentException("Data Model improperly specified");
          }
       }
-      catch ( IllegalArgumentException e )
-      {
-         throw new IllegalArgumentException("Data Model improperly specified");
-      }
 
       // Walk the rest of the tokens for this request
       while ( st.hasMoreTokens() )
@@ -565,8 +678,10 @@ public class DMRequest
          }
 
          // Add the new token to the request
-         mTokens.add(tok);
+         tokens.add(tok);
       }
+
+      return tokens;
    }
 
    /**
@@ -0,0 +1,1366 @@
+package org.adl.datamodels;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.BitSet;
+import java.util.Hashtable;
+import java.util.Vector;
+
+/**
+ * <strong>Filename:</strong> DMSnapshot.java<br><br>
+ *
+ * <strong>Description:</strong><br>
+ * Writes the run-time data of a SCO to a compact binary snapshot and restores
+ * it.  The snapshot holds only the values that differ from those of a new
+ * data model; the element descriptions, validators and delimiter descriptions
+ * are not written, but rebuilt from the data model's definition when the
+ * snapshot is read.<br><br>
+ *
+ * <strong>Design Issues:</strong><br>
+ * A snapshot starts with a format version, followed by each data model.  A
+ * data model is written as its <code>DMFactory</code> type and a fingerprint
+ * of its definition, followed by its elements.  An element is identified by
+ * its position among its siblings, in the order of the data model's sorted
+ * top level bindings or of its parent's children bindings.  Positions, counts
+ * and characters are written as variable length integers of seven bits per
+ * byte, so most of them take a single byte.<br><br>
+ *
+ * A set of elements is written as the number of elements written, followed
+ * by the position and the state of each one.  The state of a collection is
+ * its number of records, followed by the set of elements of each record; the
+ * state of an element with children is the set of its children; the state of
+ * a leaf element is a byte of flags, its value, the values of any of its
+ * delimiters that were set and, if its access was set apart from its
+ * description, such as through <code>adl.data.n.store._access</code>, a byte
+ * holding its access.<br><br>
+ *
+ * A set of changes has the same layout, but holds only the elements changed
+ * since the run-time data was last committed.  A changed leaf element is
+ * written in full.  A changed collection is written as its number of
+ * committed records, the changes of each changed committed record and the
+ * state of each appended record.  A changed element with children is written
+ * as the changes of its changed children.  An element that replaced another,
+ * such as an interaction's responses after its type changed, is written in
+ * full.<br><br>
+ *
+ * <strong>Implementation Issues:</strong><br>
+ * The elements of a record are restored in the order of its children
+ * bindings, so an interaction's type is restored before the responses whose
+ * data type depends on it.  The set of valid navigation requests provided by
+ * the sequencer is not part of the snapshot.<br><br>
+ *
+ * <strong>Known Problems:</strong> None<br><br>
+ *
+ * <strong>Side Effects:</strong> None<br><br>
+ *
+ * <strong>References:</strong> SCORM 2004<br>
+ *
+ * @author ADL Technical Team
+ */
+public final class DMSnapshot
+{
+   /**
+    * The version of the snapshot format.
+    */
+   private static final int FORMAT_VERSION = 2;
+
+   /**
+    * The oldest version of the snapshot format that can still be read.
+    */
+   private static final int OLDEST_FORMAT_VERSION = 1;
+
+   /**
+    * Flag of a leaf element whose value has been initialized.
+    */
+   private static final int INITIALIZED = 0x01;
+
+   /**
+    * Flag of a leaf element whose value was set by the SCO.
+    */
+   private static final int SET_BY_SCO = 0x02;
+
+   /**
+    * Flag of a leaf element with at least one delimiter set.
+    */
+   private static final int DELIMITERS = 0x04;
+
+   /**
+    * Flag of a leaf element without a value.
+    */
+   private static final int NO_VALUE = 0x08;
+
+   /**
+    * Flag of a leaf element whose access differs from its description in a
+    * new data model.
+    */
+   private static final int ACCESS = 0x10;
+
+   /**
+    * Access bit of a leaf element that can be read by the SCO.
+    */
+   private static final int READABLE = 0x01;
+
+   /**
+    * Access bit of a leaf element that can be written by the SCO.
+    */
+   private static final int WRITEABLE = 0x02;
+
+   /**
+    * Marks a changed element written as its changes.
+    */
+   private static final int CHANGES = 0;
+
+   /**
+    * Marks a changed element written in full.
+    */
+   private static final int FULL = 1;
+
+   /**
+    * The fingerprints of the data model definitions, by data model type.
+    */
+   private static final Hashtable FINGERPRINTS = new Hashtable();
+
+   /**
+    * There are no instances of this class.
+    */
+   private DMSnapshot()
+   {
+      // No instances
+   }
+
+   /**
+    * Writes a snapshot of all of the run-time data models managed for a SCO.
+    *
+    * @param iSCOData The run-time data of the SCO.
+    *
+    * @param oOut     The output the snapshot is written to.
+    *
+    * @throws IOException If the snapshot could not be written, or a data
+    *                     model was not built by the <code>DMFactory</code>.
+    */
+   public static void write(SCODataManager iSCOData, DataOutput oOut)
+      throws IOException
+   {
+      String [] bindings = iSCOData.getDMBindingStrings();
+
+      oOut.writeByte(FORMAT_VERSION);
+      writeVarInt(bindings.length, oOut);
+
+      for ( int i = 0; i < bindings.length; i++ )
+      {
+         writeModel(iSCOData.getDataModel(bindings[i]), oOut);
+      }
+   }
+
+   /**
+    * Reads a snapshot of the run-time data models managed for a SCO.
+    *
+    * @param iIn The input the snapshot is read from.
+    *
+    * @return The run-time data of the SCO.
+    *
+    * @throws IOException If the snapshot could not be read or is not valid.
+    */
+   public static SCODataManager read(DataInput iIn) throws IOException
+   {
+      readFormatVersion(iIn);
+
+      SCODataManager scoData = new SCODataManager();
+      int count = readVarInt(iIn);
+
+      for ( int i = 0; i < count; i++ )
+      {
+         scoData.putDM(readModel(iIn));
+      }
+
+      return scoData;
+   }
+
+   /**
+    * Writes a snapshot of a single run-time data model.
+    *
+    * @param iDM  The run-time data model.
+    *
+    * @param oOut The output the snapshot is written to.
+    *
+    * @throws IOException If the snapshot could not be written, or the data
+    *                     model was not built by the <code>DMFactory</code>.
+    */
+   public static void writeDataModel(DataModel iDM, DataOutput oOut)
+      throws IOException
+   {
+      oOut.writeByte(FORMAT_VERSION);
+      writeModel(iDM, oOut);
+   }
+
+   /**
+    * Reads a snapshot of a single run-time data model.
+    *
+    * @param iIn The input the snapshot is read from.
+    *
+    * @return The run-time data model.
+    *
+    * @throws IOException If the snapshot could not be read or is not valid.
+    */
+   public static DataModel readDataModel(DataInput iIn) throws IOException
+   {
+      readFormatVersion(iIn);
+
+      return readModel(iIn);
+   }
+
+   /**
+    * Writes a snapshot of all of the run-time data models managed for a SCO.
+    *
+    * @param iSCOData The run-time data of the SCO.
+    *
+    * @return The snapshot.
+    *
+    * @throws IOException If a data model was not built by the
+    *                     <code>DMFactory</code>.
+    */
+   public static byte [] toByteArray(SCODataManager iSCOData)
+      throws IOException
+   {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+
+      write(iSCOData, out);
+      out.flush();
+
+      return bytes.toByteArray();
+   }
+
+   /**
+    * Reads a snapshot of the run-time data models managed for a SCO.
+    *
+    * @param iSnapshot The snapshot.
+    *
+    * @return The run-time data of the SCO.
+    *
+    * @throws IOException If the snapshot is not valid.
+    */
+   public static SCODataManager fromByteArray(byte [] iSnapshot)
+      throws IOException
+   {
+      return read(new DataInputStream(new ByteArrayInputStream(iSnapshot)));
+   }
+
+   /**
+    * Makes a copy of a run-time data model, with all of its elements and
+    * records, through a snapshot.
+    *
+    * @param iDM The run-time data model.
+    *
+    * @return The copy.
+    *
+    * @throws IOException If the data model was not built by the
+    *                     <code>DMFactory</code>.
+    */
+   public static DataModel copy(DataModel iDM) throws IOException
+   {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+
+      writeModel(iDM, out);
+      out.flush();
+
+      return readModel(new DataInputStream(
+                          new ByteArrayInputStream(bytes.toByteArray())));
+   }
+
+   /**
+    * Writes the changes to all of the run-time data models managed for a SCO
+    * since the run-time data was last committed.  The changes are not
+    * cleared.
+    *
+    * @param iSCOData The run-time data of the SCO.
+    *
+    * @param oOut     The output the changes are written to.
+    *
+    * @throws IOException If the changes could not be written, or a data
+    *                     model was not built by the <code>DMFactory</code>.
+    */
+   public static void writeChanges(SCODataManager iSCOData, DataOutput oOut)
+      throws IOException
+   {
+      String [] bindings = iSCOData.getDMBindingStrings();
+
+      oOut.writeByte(FORMAT_VERSION);
+      writeVarInt(bindings.length, oOut);
+
+      for ( int i = 0; i < bindings.length; i++ )
+      {
+         DataModel dm = iSCOData.getDataModel(bindings[i]);
+         String [] elements = dm.getDMElementBindings();
+         int count = 0;
+
+         writeModelHeader(dm, oOut);
+
+         for ( int j = 0; j < elements.length; j++ )
+         {
+            if ( dm.getDMElement(elements[j]).mChanged )
+            {
+               count++;
+            }
+         }
+
+         writeVarInt(count, oOut);
+
+         for ( int j = 0; j < elements.length; j++ )
+         {
+            DMElement element = dm.getDMElement(elements[j]);
+
+            if ( element.mChanged )
+            {
+               writeVarInt(j, oOut);
+               writeChange(element, oOut);
+            }
+         }
+      }
+   }
+
+   /**
+    * Applies a set of changes to the run-time data of a SCO, which must hold
+    * the state the changes were made from.  A data model that is not managed
+    * yet is added as a new data model before its changes are applied.
+    *
+    * @param ioSCOData The run-time data of the SCO.
+    *
+    * @param iIn       The input the changes are read from.
+    *
+    * @throws IOException If the changes could not be read or are not valid.
+    */
+   public static void applyChanges(SCODataManager ioSCOData, DataInput iIn)
+      throws IOException
+   {
+      readFormatVersion(iIn);
+
+      int count = readVarInt(iIn);
+
+      for ( int i = 0; i < count; i++ )
+      {
+         int type = readModelHeader(iIn);
+         DataModel dm = null;
+         String [] bindings = ioSCOData.getDMBindingStrings();
+
+         for ( int j = 0; j < bindings.length && dm == null; j++ )
+         {
+            if ( DMFactory.getDMType(ioSCOData.getDataModel(bindings[j])) ==
+                 type )
+            {
+               dm = ioSCOData.getDataModel(bindings[j]);
+            }
+         }
+
+         if ( dm == null )
+         {
+            dm = DMFactory.createDM(type);
+            ioSCOData.putDM(dm);
+         }
+
+         String [] elements = dm.getDMElementBindings();
+         int changed = readVarInt(iIn);
+
+         for ( int j = 0; j < changed; j++ )
+         {
+            int idx = readIndex(elements.length, iIn);
+
+            readChange(dm.getDMElement(elements[idx]), iIn);
+         }
+      }
+
+      ioSCOData.committed();
+   }
+
+   /**
+    * Applies a set of changes to the run-time data of a SCO, which must hold
+    * the state the changes were made from.
+    *
+    * @param ioSCOData The run-time data of the SCO.
+    *
+    * @param iChanges  The changes.
+    *
+    * @throws IOException If the changes are not valid.
+    */
+   public static void applyChanges(SCODataManager ioSCOData, byte [] iChanges)
+      throws IOException
+   {
+      applyChanges(ioSCOData,
+                   new DataInputStream(new ByteArrayInputStream(iChanges)));
+   }
+
+   /**
+    * Clears the changes to all of the run-time data models managed for a SCO,
+    * so the current state is the committed state.
+    *
+    * @param ioSCOData The run-time data of the SCO.
+    */
+   static void clearChanges(SCODataManager ioSCOData)
+   {
+      String [] bindings = ioSCOData.getDMBindingStrings();
+
+      for ( int i = 0; i < bindings.length; i++ )
+      {
+         DataModel dm = ioSCOData.getDataModel(bindings[i]);
+         String [] elements = dm.getDMElementBindings();
+
+         for ( int j = 0; j < elements.length; j++ )
+         {
+            clearChanges(dm.getDMElement(elements[j]));
+         }
+      }
+   }
+
+   /**
+    * Reads and checks the format version of a snapshot.
+    *
+    * @param iIn The input the snapshot is read from.
+    *
+    * @throws IOException If the snapshot is of another format version.
+    */
+   private static void readFormatVersion(DataInput iIn) throws IOException
+   {
+      int version = iIn.readUnsignedByte();
+
+      if ( version < OLDEST_FORMAT_VERSION || version > FORMAT_VERSION )
+      {
+         throw new StreamCorruptedException("Unsupported snapshot version " +
+                                            version);
+      }
+   }
+
+   /**
+    * Writes one run-time data model.
+    *
+    * @param iDM  The run-time data model.
+    *
+    * @param oOut The output the data model is written to.
+    *
+    * @throws IOException If the data model could not be written.
+    */
+   private static void writeModel(DataModel iDM, DataOutput oOut)
+      throws IOException
+   {
+      writeModelHeader(iDM, oOut);
+
+      String [] bindings = iDM.getDMElementBindings();
+      DMElement [] elements = new DMElement[bindings.length];
+
+      for ( int i = 0; i < bindings.length; i++ )
+      {
+         elements[i] = iDM.getDMElement(bindings[i]);
+      }
+
+      writeElements(elements, oOut);
+   }
+
+   /**
+    * Reads one run-time data model.
+    *
+    * @param iIn The input the data model is read from.
+    *
+    * @return The run-time data model.
+    *
+    * @throws IOException If the data model could not be read or is not
+    *                     valid.
+    */
+   private static DataModel readModel(DataInput iIn) throws IOException
+   {
+      DataModel dm = DMFactory.createDM(readModelHeader(iIn));
+
+      String [] bindings = dm.getDMElementBindings();
+      int count = readVarInt(iIn);
+
+      for ( int i = 0; i < count; i++ )
+      {
+         int idx = readIndex(bindings.length, iIn);
+
+         readElement(dm.getDMElement(bindings[idx]), iIn);
+      }
+
+      return dm;
+   }
+
+   /**
+    * Writes the type and the fingerprint of a run-time data model.
+    *
+    * @param iDM  The run-time data model.
+    *
+    * @param oOut The output the data model is written to.
+    *
+    * @throws IOException If the header could not be written, or the data
+    *                     model was not built by the <code>DMFactory</code>.
+    */
+   private static void writeModelHeader(DataModel iDM, DataOutput oOut)
+      throws IOException
+   {
+      int type = DMFactory.getDMType(iDM);
+
+      if ( type == DMFactory.DM_UNKNOWN )
+      {
+         throw new IOException("The data model " + iDM.getDMBindingString() +
+                               " was not built by the DMFactory");
+      }
+
+      writeVarInt(type, oOut);
+      oOut.writeInt(getFingerprint(type));
+   }
+
+   /**
+    * Reads and checks the type and the fingerprint of a run-time data model.
+    *
+    * @param iIn The input the data model is read from.
+    *
+    * @return The <code>DMFactory</code> type of the data model.
+    *
+    * @throws IOException If the header could not be read, or does not match
+    *                     a data model built by the <code>DMFactory</code>.
+    */
+   private static int readModelHeader(DataInput iIn) throws IOException
+   {
+      int type = readVarInt(iIn);
+
+      if ( type != DMFactory.DM_SCORM_2004 && type != DMFactory.DM_SCORM_NAV )
+      {
+         throw new StreamCorruptedException("Unknown data model type " + type);
+      }
+
+      if ( iIn.readInt() != getFingerprint(type) )
+      {
+         throw new StreamCorruptedException("The snapshot of data model type " +
+                                            type + " has another definition");
+      }
+
+      return type;
+   }
+
+   /**
+    * Writes the elements of a set that differ from those of a new data model.
+    *
+    * @param iElements The set of elements, in order.
+    *
+    * @param oOut      The output the elements are written to.
+    *
+    * @throws IOException If the elements could not be written.
+    */
+   private static void writeElements(DMElement [] iElements, DataOutput oOut)
+      throws IOException
+   {
+      boolean [] set = new boolean[iElements.length];
+      int count = 0;
+
+      for ( int i = 0; i < iElements.length; i++ )
+      {
+         set[i] = isSet(iElements[i]);
+
+         if ( set[i] )
+         {
+            count++;
+         }
+      }
+
+      writeVarInt(count, oOut);
+
+      for ( int i = 0; i < iElements.length; i++ )
+      {
+         if ( set[i] )
+         {
+            writeVarInt(i, oOut);
+            writeElement(iElements[i], oOut);
+         }
+      }
+   }
+
+   /**
+    * Writes the state of one element.
+    *
+    * @param iElement The element.
+    *
+    * @param oOut     The output the element is written to.
+    *
+    * @throws IOException If the element could not be written.
+    */
+   private static void writeElement(DMElement iElement, DataOutput oOut)
+      throws IOException
+   {
+      if ( iElement.mRecords != null )
+      {
+         writeVarInt(iElement.mRecords.size(), oOut);
+
+         for ( int i = 0; i < iElement.mRecords.size(); i++ )
+         {
+            writeElements(getChildren((DMElement)iElement.mRecords.elementAt(i)),
+                          oOut);
+         }
+      }
+      else if ( iElement.mChildrenBindings != null )
+      {
+         writeElements(getChildren(iElement), oOut);
+      }
+      else
+      {
+         int flags = 0;
+         int delimiters = 0;
+         String value = iElement.getStoredValue();
+
+         if ( iElement.mInitialized )
+         {
+            flags |= INITIALIZED;
+         }
+         if ( iElement.mSetBySCO )
+         {
+            flags |= SET_BY_SCO;
+         }
+         if ( value == null )
+         {
+            flags |= NO_VALUE;
+         }
+         if ( hasOwnAccess(iElement) )
+         {
+            flags |= ACCESS;
+         }
+
+         if ( iElement.mDelimiters != null )
+         {
+            for ( int i = 0; i < iElement.mDelimiters.size(); i++ )
+            {
+               DMDelimiter del = (DMDelimiter)iElement.mDelimiters.elementAt(i);
+
+               if ( del.mValue != null )
+               {
+                  delimiters |= 1 << i;
+               }
+            }
+
+            if ( delimiters != 0 )
+            {
+               flags |= DELIMITERS;
+            }
+         }
+
+         oOut.writeByte(flags);
+
+         if ( value != null )
+         {
+            writeString(value, oOut);
+         }
+
+         if ( delimiters != 0 )
+         {
+            writeVarInt(delimiters, oOut);
+
+            for ( int i = 0; i < iElement.mDelimiters.size(); i++ )
+            {
+               DMDelimiter del = (DMDelimiter)iElement.mDelimiters.elementAt(i);
+
+               if ( del.mValue != null )
+               {
+                  writeString(del.mValue, oOut);
+               }
+            }
+         }
+
+         if ( (flags & ACCESS) != 0 )
+         {
+            oOut.writeByte(getAccess(iElement.mDescription));
+         }
+      }
+   }
+
+   /**
+    * Reads the state of one element into the element of a new data model.
+    *
+    * @param ioElement The element of the new data model.
+    *
+    * @param iIn       The input the element is read from.
+    *
+    * @throws IOException If the element could not be read or is not valid.
+    */
+   private static void readElement(DMElement ioElement, DataInput iIn)
+      throws IOException
+   {
+      if ( ioElement.mRecords != null )
+      {
+         int count = readVarInt(iIn);
+
+         for ( int i = 0; i < count; i++ )
+         {
+            readChildren(ioElement.addRecord(), iIn);
+         }
+
+         ioElement.mCommittedRecords = ioElement.mRecords.size();
+      }
+      else if ( ioElement.mChildrenBindings != null )
+      {
+         readChildren(ioElement, iIn);
+      }
+      else
+      {
+         int flags = iIn.readUnsignedByte();
+         String value = null;
+         String [] delimiters = null;
+
+         if ( (flags & NO_VALUE) == 0 )
+         {
+            value = readString(iIn);
+         }
+
+         if ( (flags & DELIMITERS) != 0 )
+         {
+            if ( ioElement.mDelimiters == null )
+            {
+               throw new StreamCorruptedException("The element " +
+                  ioElement.getDMElementBindingString() + " has no delimiters");
+            }
+
+            int set = readVarInt(iIn);
+            delimiters = new String[ioElement.mDelimiters.size()];
+
+            for ( int i = 0; i < delimiters.length; i++ )
+            {
+               if ( (set & (1 << i)) != 0 )
+               {
+                  delimiters[i] = readString(iIn);
+               }
+            }
+         }
+
+         restoreAccess(ioElement, ( (flags & ACCESS) != 0 ) ?
+                                  iIn.readUnsignedByte() :
+                                  getAccess(getNewDescription(ioElement)));
+         ioElement.restoreValue(value,
+                                delimiters,
+                                (flags & INITIALIZED) != 0,
+                                (flags & SET_BY_SCO) != 0);
+      }
+   }
+
+   /**
+    * Writes the changes to one changed element.
+    *
+    * @param iElement The changed element.
+    *
+    * @param oOut     The output the changes are written to.
+    *
+    * @throws IOException If the changes could not be written.
+    */
+   private static void writeChange(DMElement iElement, DataOutput oOut)
+      throws IOException
+   {
+      if ( iElement.mRecords == null && iElement.mChildrenBindings == null )
+      {
+         writeElement(iElement, oOut);
+      }
+      else if ( iElement.mReplaced )
+      {
+         oOut.writeByte(FULL);
+         writeElement(iElement, oOut);
+      }
+      else
+      {
+         oOut.writeByte(CHANGES);
+
+         if ( iElement.mRecords != null )
+         {
+            int size = iElement.mRecords.size();
+            int committed = Math.min(iElement.mCommittedRecords, size);
+            DMElement [] records = new DMElement[committed];
+
+            for ( int i = 0; i < committed; i++ )
+            {
+               records[i] = (DMElement)iElement.mRecords.elementAt(i);
+            }
+
+            writeVarInt(committed, oOut);
+            writeChangedElements(records, iElement.mChangedChildren, oOut);
+
+            writeVarInt(size - committed, oOut);
+
+            for ( int i = committed; i < size; i++ )
+            {
+               writeElements(getChildren((DMElement)iElement.mRecords.elementAt(i)),
+                             oOut);
+            }
+         }
+         else
+         {
+            writeChangedElements(getChildren(iElement),
+                                 iElement.mChangedChildren,
+                                 oOut);
+         }
+      }
+   }
+
+   /**
+    * Writes the changes to the changed elements of a set.
+    *
+    * @param iElements The set of elements, in order.
+    *
+    * @param iChanged  The positions of the changed elements, or
+    *                  <code>null</code> if none changed.
+    *
+    * @param oOut      The output the changes are written to.
+    *
+    * @throws IOException If the changes could not be written.
+    */
+   private static void writeChangedElements(DMElement [] iElements,
+                                            BitSet iChanged,
+                                            DataOutput oOut)
+      throws IOException
+   {
+      int count = 0;
+
+      if ( iChanged != null )
+      {
+         for ( int i = iChanged.nextSetBit(0);
+               i >= 0 && i < iElements.length;
+               i = iChanged.nextSetBit(i + 1) )
+         {
+            if ( iElements[i] != null && iElements[i].mChanged )
+            {
+               count++;
+            }
+         }
+      }
+
+      writeVarInt(count, oOut);
+
+      if ( count > 0 )
+      {
+         for ( int i = iChanged.nextSetBit(0);
+               i >= 0 && i < iElements.length;
+               i = iChanged.nextSetBit(i + 1) )
+         {
+            if ( iElements[i] != null && iElements[i].mChanged )
+            {
+               writeVarInt(i, oOut);
+               writeChange(iElements[i], oOut);
+            }
+         }
+      }
+   }
+
+   /**
+    * Applies the changes to one element.
+    *
+    * @param ioElement The element.
+    *
+    * @param iIn       The input the changes are read from.
+    *
+    * @throws IOException If the changes could not be read or are not valid.
+    */
+   private static void readChange(DMElement ioElement, DataInput iIn)
+      throws IOException
+   {
+      if ( ioElement.mRecords == null && ioElement.mChildrenBindings == null )
+      {
+         readElement(ioElement, iIn);
+      }
+      else if ( iIn.readUnsignedByte() == FULL )
+      {
+         reset(ioElement);
+         readElement(ioElement, iIn);
+      }
+      else if ( ioElement.mRecords != null )
+      {
+         int committed = readVarInt(iIn);
+
+         if ( committed != ioElement.mRecords.size() )
+         {
+            throw new StreamCorruptedException("The changes to " +
+               ioElement.getDMElementBindingString() + " were made from " +
+               committed + " records, not " + ioElement.mRecords.size());
+         }
+
+         int count = readVarInt(iIn);
+
+         for ( int i = 0; i < count; i++ )
+         {
+            int idx = readIndex(committed, iIn);
+
+            readChange((DMElement)ioElement.mRecords.elementAt(idx), iIn);
+         }
+
+         count = readVarInt(iIn);
+
+         for ( int i = 0; i < count; i++ )
+         {
+            readChildren(ioElement.addRecord(), iIn);
+         }
+
+         ioElement.mCommittedRecords = ioElement.mRecords.size();
+      }
+      else
+      {
+         Vector bindings = ioElement.mChildrenBindings;
+         int count = readVarInt(iIn);
+
+         for ( int i = 0; i < count; i++ )
+         {
+            int idx = readIndex(bindings.size(), iIn);
+
+            readChange(ioElement.getChild(idx), iIn);
+         }
+      }
+   }
+
+   /**
+    * Returns an element to the state of the same element of a new data
+    * model, before the state of the element that replaced it is applied.
+    *
+    * @param ioElement The element.
+    */
+   private static void reset(DMElement ioElement)
+   {
+      if ( ioElement.mRecords != null )
+      {
+         ioElement.mRecords.removeAllElements();
+         ioElement.mCommittedRecords = 0;
+      }
+      else if ( ioElement.mChildrenBindings != null )
+      {
+         // Children are created again, as new elements, when accessed
+         ioElement.mChildren = null;
+      }
+      else
+      {
+         DMElementDescriptor desc = ioElement.mDescription;
+
+         restoreAccess(ioElement, getAccess(getNewDescription(ioElement)));
+         ioElement.restoreValue(( desc.mInitial != null ) ? desc.mInitial : "",
+                                null,
+                                desc.mInitial != null,
+                                false);
+      }
+   }
+
+   /**
+    * Clears the changes to one element and the elements below it.
+    *
+    * @param ioElement The element.
+    */
+   private static void clearChanges(DMElement ioElement)
+   {
+      if ( ioElement.mChanged )
+      {
+         BitSet changed = ioElement.mChangedChildren;
+
+         if ( changed != null )
+         {
+            for ( int i = changed.nextSetBit(0);
+                  i >= 0;
+                  i = changed.nextSetBit(i + 1) )
+            {
+               DMElement child = null;
+
+               if ( ioElement.mRecords != null )
+               {
+                  if ( i < ioElement.mRecords.size() )
+                  {
+                     child = (DMElement)ioElement.mRecords.elementAt(i);
+                  }
+               }
+               else if ( i < ioElement.mChildrenBindings.size() )
+               {
+                  child = ioElement.peekChild(i);
+               }
+
+               if ( child != null )
+               {
+                  clearChanges(child);
+               }
+            }
+
+            changed.clear();
+         }
+
+         ioElement.mChanged = false;
+         ioElement.mReplaced = false;
+      }
+
+      if ( ioElement.mRecords != null )
+      {
+         ioElement.mCommittedRecords = ioElement.mRecords.size();
+      }
+   }
+
+   /**
+    * Reads the children of an element.  Each child is looked up when it is
+    * read, because restoring a child may replace its siblings.
+    *
+    * @param ioParent The element of the new data model.
+    *
+    * @param iIn      The input the children are read from.
+    *
+    * @throws IOException If the children could not be read or are not valid.
+    */
+   private static void readChildren(DMElement ioParent, DataInput iIn)
+      throws IOException
+   {
+      Vector bindings = ioParent.mChildrenBindings;
+      int count = readVarInt(iIn);
+
+      for ( int i = 0; i < count; i++ )
+      {
+         int idx = readIndex(bindings.size(), iIn);
+
+         readElement(ioParent.getChild(idx), iIn);
+      }
+   }
+
+   /**
+    * Provides the children of an element, in the order of its children
+    * bindings.  Children that have not been created are not created.
+    *
+    * @param iParent The element.
+    *
+    * @return The children of the element, with <code>null</code> for each
+    *         child that has not been created.
+    */
+   private static DMElement [] getChildren(DMElement iParent)
+   {
+      DMElement [] children = new DMElement[iParent.mChildrenBindings.size()];
+
+      for ( int i = 0; i < children.length; i++ )
+      {
+         children[i] = iParent.peekChild(i);
+      }
+
+      return children;
+   }
+
+   /**
+    * Describes if an element differs from the same element of a new data
+    * model.  Keyword elements, such as <code>_version</code>, never differ.
+    *
+    * @param iElement The element, or <code>null</code> for a child that has
+    *                 not been created.
+    *
+    * @return <code>true</code> if the element has to be written to a
+    *         snapshot, otherwise <code>false</code>.
+    */
+   private static boolean isSet(DMElement iElement)
+   {
+      boolean set = false;
+      DMElementDescriptor desc = ( iElement == null ) ? null : 
+                                 iElement.mDescription;
+
+      if ( desc == null || desc.mBinding.startsWith("_") )
+      {
+         // A child that has not been created has the state of a new element
+         set = false;
+      }
+      else if ( iElement.mRecords != null )
+      {
+         set = iElement.mRecords.size() > 0;
+      }
+      else if ( iElement.mChildrenBindings != null )
+      {
+         DMElement [] children = getChildren(iElement);
+
+         for ( int i = 0; i < children.length && !set; i++ )
+         {
+            set = isSet(children[i]);
+         }
+      }
+      else
+      {
+         boolean initialized = desc.mInitial != null;
+         String initial = initialized ? desc.mInitial : "";
+
+         set = iElement.mSetBySCO ||
+               iElement.mInitialized != initialized ||
+               !initial.equals(iElement.getStoredValue()) ||
+               hasOwnAccess(iElement);
+
+         if ( !set && iElement.mDelimiters != null )
+         {
+            for ( int i = 0; i < iElement.mDelimiters.size() && !set; i++ )
+            {
+               set = ((DMDelimiter)iElement.mDelimiters.elementAt(i)).mValue != null;
+            }
+         }
+      }
+
+      return set;
+   }
+
+   /**
+    * Provides the description a leaf element has in a new data model, which
+    * its parent shares with the same element of every other record.
+    *
+    * @param iElement The leaf element.
+    *
+    * @return The description of the element in a new data model.
+    */
+   private static DMElementDescriptor getNewDescription(DMElement iElement)
+   {
+      DMElementDescriptor desc = iElement.mDescription;
+      DMElement parent = iElement.mParent;
+
+      if ( parent != null && parent.mDescription.mChildren != null )
+      {
+         Vector children = parent.mDescription.mChildren;
+
+         for ( int i = 0; i < children.size(); i++ )
+         {
+            DMElementDescriptor child = (DMElementDescriptor)children.elementAt(i);
+
+            if ( child.mBinding.equals(desc.mBinding) )
+            {
+               return child;
+            }
+         }
+      }
+
+      return desc;
+   }
+
+   /**
+    * Describes if the access of a leaf element was set apart from its
+    * description in a new data model.
+    *
+    * @param iElement The leaf element.
+    *
+    * @return <code>true</code> if the element can be read or written where
+    *         the same element of a new data model cannot, or the other way
+    *         around, otherwise <code>false</code>.
+    */
+   private static boolean hasOwnAccess(DMElement iElement)
+   {
+      return getAccess(iElement.mDescription) !=
+             getAccess(getNewDescription(iElement));
+   }
+
+   /**
+    * Provides the access of an element description as a byte of access bits.
+    *
+    * @param iDesc The element description.
+    *
+    * @return The access bits.
+    */
+   private static int getAccess(DMElementDescriptor iDesc)
+   {
+      return ( iDesc.mIsReadable ? READABLE : 0 ) |
+             ( iDesc.mIsWriteable ? WRITEABLE : 0 );
+   }
+
+   /**
+    * Gives a leaf element the access read from a snapshot.  An element whose
+    * access changes gets its own copy of its description, as it does when
+    * its access is set through <code>_access</code>.
+    *
+    * @param ioElement The leaf element.
+    *
+    * @param iAccess   The access bits.
+    */
+   private static void restoreAccess(DMElement ioElement, int iAccess)
+   {
+      if ( getAccess(ioElement.mDescription) != iAccess )
+      {
+         DMElementDescriptor desc =
+            (DMElementDescriptor)ioElement.mDescription.clone();
+
+         desc.mIsReadable = (iAccess & READABLE) != 0;
+         desc.mIsWriteable = (iAccess & WRITEABLE) != 0;
+         ioElement.mDescription = desc;
+      }
+   }
+
+   /**
+    * Provides the fingerprint of the definition of a type of data model, so
+    * a snapshot is not read into a data model with other elements.
+    *
+    * @param iType The <code>DMFactory</code> type of the data model.
+    *
+    * @return The fingerprint of the data model's elements.
+    */
+   private static int getFingerprint(int iType)
+   {
+      Integer type = Integer.valueOf(iType);
+      Integer fingerprint = (Integer)FINGERPRINTS.get(type);
+
+      if ( fingerprint == null )
+      {
+         DataModel dm = DMFactory.createDM(iType);
+         String [] bindings = dm.getDMElementBindings();
+         StringBuffer definition = new StringBuffer(dm.getDMBindingString());
+
+         for ( int i = 0; i < bindings.length; i++ )
+         {
+            describe(dm.getDMElement(bindings[i]).getDescription(), definition);
+         }
+
+         fingerprint = Integer.valueOf(definition.toString().hashCode());
+         FINGERPRINTS.put(type, fingerprint);
+      }
+
+      return fingerprint.intValue();
+   }
+
+   /**
+    * Adds the structure of an element description to a data model
+    * definition.
+    *
+    * @param iDesc       The element description.
+    *
+    * @param oDefinition The data model definition.
+    */
+   private static void describe(DMElementDescriptor iDesc,
+                                StringBuffer oDefinition)
+   {
+      oDefinition.append(' ').append(iDesc.mBinding);
+
+      if ( iDesc.mChildren != null )
+      {
+         oDefinition.append(( iDesc.mSPM != -1 ) ? '[' : '{');
+
+         for ( int i = 0; i < iDesc.mChildren.size(); i++ )
+         {
+            describe((DMElementDescriptor)iDesc.mChildren.elementAt(i),
+                     oDefinition);
+         }
+
+         oDefinition.append(( iDesc.mSPM != -1 ) ? ']' : '}');
+      }
+      else if ( iDesc.mDelimiters != null )
+      {
+         for ( int i = 0; i < iDesc.mDelimiters.size(); i++ )
+         {
+            oDefinition.append('{').append(
+               ((DMDelimiterDescriptor)iDesc.mDelimiters.elementAt(i)).mName).
+               append('}');
+         }
+      }
+   }
+
+   /**
+    * Reads the position of an element among its siblings.
+    *
+    * @param iSize The number of siblings.
+    *
+    * @param iIn   The input the position is read from.
+    *
+    * @return The position.
+    *
+    * @throws IOException If the position could not be read or is out of
+    *                     range.
+    */
+   private static int readIndex(int iSize, DataInput iIn) throws IOException
+   {
+      int idx = readVarInt(iIn);
+
+      if ( idx >= iSize )
+      {
+         throw new StreamCorruptedException("Element " + idx +
+                                            " is out of range");
+      }
+
+      return idx;
+   }
+
+   /**
+    * Writes a <code>String</code> as its length followed by its characters.
+    *
+    * @param iValue The <code>String</code>.
+    *
+    * @param oOut   The output the <code>String</code> is written to.
+    *
+    * @throws IOException If the <code>String</code> could not be written.
+    */
+   private static void writeString(String iValue, DataOutput oOut)
+      throws IOException
+   {
+      writeVarInt(iValue.length(), oOut);
+
+      for ( int i = 0; i < iValue.length(); i++ )
+      {
+         writeVarInt(iValue.charAt(i), oOut);
+      }
+   }
+
+   /**
+    * Reads a <code>String</code> written by <code>writeString()</code>.
+    *
+    * @param iIn The input the <code>String</code> is read from.
+    *
+    * @return The <code>String</code>.
+    *
+    * @throws IOException If the <code>String</code> could not be read.
+    */
+   private static String readString(DataInput iIn) throws IOException
+   {
+      int length = readVarInt(iIn);
+      char [] chars = new char[length];
+
+      for ( int i = 0; i < length; i++ )
+      {
+         chars[i] = (char)readVarInt(iIn);
+      }
+
+      return new String(chars);
+   }
+
+   /**
+    * Writes a non-negative integer seven bits at a time, low bits first.
+    *
+    * @param iValue The integer.
+    *
+    * @param oOut   The output the integer is written to.
+    *
+    * @throws IOException If the integer could not be written.
+    */
+   private static void writeVarInt(int iValue, DataOutput oOut)
+      throws IOException
+   {
+      int value = iValue;
+
+      while ( (value & ~0x7F) != 0 )
+      {
+         oOut.writeByte((value & 0x7F) | 0x80);
+         value >>>= 7;
+      }
+
+      oOut.writeByte(value);
+   }
+
+   /**
+    * Reads an integer written by <code>writeVarInt()</code>.
+    *
+    * @param iIn The input the integer is read from.
+    *
+    * @return The integer.
+    *
+    * @throws IOException If the integer could not be read or is too long.
+    */
+   private static int readVarInt(DataInput iIn) throws IOException
+   {
+      int value = 0;
+
+      for ( int shift = 0; shift < 32; shift += 7 )
+      {
+         int b = iIn.readUnsignedByte();
+
+         value |= (b & 0x7F) << shift;
+
+         if ( (b & 0x80) == 0 )
+         {
+            if ( value < 0 )
+            {
+               throw new StreamCorruptedException("Negative length or index");
+            }
+
+            return value;
+         }
+      }
+
+      throw new StreamCorruptedException("Malformed variable length integer");
+   }
+}
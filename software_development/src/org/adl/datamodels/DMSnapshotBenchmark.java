@@ -0,0 +1,401 @@
+package org.adl.datamodels;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+/**
+ * <strong>Filename:</strong> DMSnapshotBenchmark.java<br><br>
+ *
+ * <strong>Description:</strong><br>
+ * Times the copy of the run-time data of a SCO through a
+ * <code>DMSnapshot</code> against the copy through object serialization.
+ * The run-time data holds the SCORM 2004 (cmi) and the navigation (adl) data
+ * models, filled the way a SCO with many interactions and objectives would
+ * fill them.  Each way is timed writing the data to bytes and reading it back
+ * into a new <code>SCODataManager</code>, and the report gives the size of the
+ * bytes and the mean time of each step.<br><br>
+ *
+ * <strong>Design Issues:</strong><br>
+ * This is a driver to be run from the command line, not part of the
+ * run-time environment.  Each way is run first without being timed, so the
+ * times do not include class loading and compilation.<br><br>
+ *
+ * @author ADL Technical Team
+ */
+public final class DMSnapshotBenchmark
+{
+   /**
+    * The number of copies timed for each way, unless given on the command line
+    */
+   private static final int DEFAULT_ITERATIONS = 2000;
+
+   /**
+    * The number of interactions set, unless given on the command line
+    */
+   private static final int DEFAULT_INTERACTIONS = 24;
+
+   /**
+    * The number of objectives set
+    */
+   private static final int OBJECTIVES = 8;
+
+   /**
+    * The access set on each shared data store, as the value of its
+    * <code>_access</code>
+    */
+   private static final String [] DATA_STORE_ACCESS =
+   {
+      "true<>true",
+      "false<>true",
+      "true<>false"
+   };
+
+   /**
+    * The number of characters in the suspend data
+    */
+   private static final int SUSPEND_DATA_LENGTH = 4000;
+
+   /**
+    * The run-time data being copied
+    */
+   private SCODataManager mSCOData = null;
+
+   /**
+    * Builds the run-time data to be copied.
+    *
+    * @param iInteractions The number of interactions to set.
+    */
+   private DMSnapshotBenchmark(int iInteractions)
+   {
+      mSCOData = new SCODataManager();
+      mSCOData.addDM(DMFactory.DM_SCORM_2004);
+      mSCOData.addDM(DMFactory.DM_SCORM_NAV);
+
+      // Set by the LMS when the SCO is launched
+      set("cmi.learner_id", "learner_0042", true);
+      set("cmi.learner_name", "Learner, Sample", true);
+      set("cmi.credit", "credit", true);
+      set("cmi.mode", "normal", true);
+      set("cmi.launch_data", "level=3&section=review", true);
+      set("cmi.completion_threshold", "0.8", true);
+      set("cmi.scaled_passing_score", "0.7", true);
+
+      for ( int i = 0; i < DATA_STORE_ACCESS.length; i++ )
+      {
+         set("adl.data." + i + ".id", "urn:adl:store:" + i, true);
+         set("adl.data." + i + ".store._access", DATA_STORE_ACCESS[i], true);
+      }
+
+      // Set by the SCO
+      set("cmi.location", "page_17", false);
+      set("cmi.completion_status", "incomplete", false);
+      set("cmi.success_status", "unknown", false);
+      set("cmi.progress_measure", "0.6", false);
+      set("cmi.score.scaled", "0.55", false);
+      set("cmi.score.raw", "55", false);
+      set("cmi.score.min", "0", false);
+      set("cmi.score.max", "100", false);
+      set("cmi.session_time", "PT1H12M30S", false);
+      set("cmi.exit", "suspend", false);
+
+      char [] suspend = new char[SUSPEND_DATA_LENGTH];
+
+      for ( int i = 0; i < suspend.length; i++ )
+      {
+         suspend[i] = (char)('a' + ( i * 7 ) % 26);
+      }
+      set("cmi.suspend_data", new String(suspend), false);
+
+      for ( int i = 0; i < 3; i++ )
+      {
+         String comment = "cmi.comments_from_learner." + i;
+
+         set(comment + ".comment", "{lang=en}Comment number " + i, false);
+         set(comment + ".location", "page_" + i, false);
+         set(comment + ".timestamp", "2008-05-0" + ( i + 1 ) + "T10:00:00", false);
+      }
+
+      for ( int i = 0; i < OBJECTIVES; i++ )
+      {
+         String objective = "cmi.objectives." + i;
+
+         set(objective + ".id", "urn:adl:objective:" + i, false);
+         set(objective + ".score.scaled", "0." + i, false);
+         set(objective + ".score.raw", String.valueOf(i * 10), false);
+         set(objective + ".score.min", "0", false);
+         set(objective + ".score.max", "100", false);
+         set(objective + ".success_status", ( i % 2 == 0 ) ? "passed" : "failed", false);
+         set(objective + ".completion_status", "completed", false);
+         set(objective + ".progress_measure", "1", false);
+         set(objective + ".description", "{lang=en}Objective " + i, false);
+      }
+
+      for ( int i = 0; i < iInteractions; i++ )
+      {
+         String interaction = "cmi.interactions." + i;
+
+         set(interaction + ".id", "urn:adl:interaction:" + i, false);
+         set(interaction + ".type", "choice", false);
+         set(interaction + ".objectives.0.id",
+             "urn:adl:objective:" + ( i % OBJECTIVES ), false);
+         set(interaction + ".timestamp", "2008-05-01T10:" + ( 10 + i % 50 ) + ":00", false);
+         set(interaction + ".correct_responses.0.pattern", "a[,]c", false);
+         set(interaction + ".weighting", "1", false);
+         set(interaction + ".learner_response", ( i % 3 == 0 ) ? "a[,]c" : "b", false);
+         set(interaction + ".result", ( i % 3 == 0 ) ? "correct" : "incorrect", false);
+         set(interaction + ".latency", "PT" + ( 5 + i ) + "S", false);
+         set(interaction + ".description", "{lang=en}Question " + i, false);
+      }
+
+      for ( int i = 0; i < DATA_STORE_ACCESS.length; i++ )
+      {
+         // A store the SCO cannot write is set by the LMS
+         set("adl.data." + i + ".store", "store " + i + " of the SCO",
+             !isWriteable(i));
+      }
+
+      set("adl.nav.request", "continue", false);
+   }
+
+   /**
+    * Sets the value of a data model element of the run-time data.
+    *
+    * @param iElement The dot-notation binding of the data model element.
+    *
+    * @param iValue   The value.
+    *
+    * @param iAdmin   Describes if the value is set by the LMS rather than by
+    *                 the SCO.
+    */
+   private void set(String iElement, String iValue, boolean iAdmin)
+   {
+      int result = DMInterface.processSetValue(iElement, iValue, iAdmin,
+                                               mSCOData, !iAdmin);
+
+      if ( result != DMErrorCodes.NO_ERROR )
+      {
+         throw new IllegalStateException("SetValue(" + iElement + ") failed: " +
+                                         result);
+      }
+   }
+
+   /**
+    * Describes if the SCO can write a shared data store.
+    *
+    * @param iStore The position of the shared data store.
+    *
+    * @return <code>true</code> if the access of the store lets the SCO write
+    *         it, otherwise <code>false</code>.
+    */
+   private static boolean isWriteable(int iStore)
+   {
+      return DATA_STORE_ACCESS[iStore].endsWith("<>true");
+   }
+
+   /**
+    * Checks that a copy of the run-time data keeps the access set on each
+    * shared data store, by a GetValue() and a SetValue() of the SCO on each
+    * store.
+    *
+    * @param iCopy The copy of the run-time data.
+    *
+    * @param iWay  The way the copy was made, for the error message.
+    */
+   private static void checkAccess(SCODataManager iCopy, String iWay)
+   {
+      for ( int i = 0; i < DATA_STORE_ACCESS.length; i++ )
+      {
+         String store = "adl.data." + i + ".store";
+         int get = DMInterface.processGetValue(store, false, iCopy,
+                                               new DMProcessingInfo());
+         int set = DMInterface.processSetValue(store, "changed", false, iCopy,
+                                               true);
+
+         int expectedGet = DATA_STORE_ACCESS[i].startsWith("true<>") ?
+                           DMErrorCodes.NO_ERROR : DMErrorCodes.WRITE_ONLY;
+         int expectedSet = isWriteable(i) ?
+                           DMErrorCodes.NO_ERROR : DMErrorCodes.READ_ONLY;
+
+         if ( get != expectedGet || set != expectedSet )
+         {
+            throw new IllegalStateException("The " + iWay + " copy of " +
+                                            store + " returned " + get +
+                                            " and " + set + ", not " +
+                                            expectedGet + " and " +
+                                            expectedSet);
+         }
+      }
+   }
+
+   /**
+    * Writes the run-time data through object serialization.
+    *
+    * @return The serialized run-time data.
+    *
+    * @throws IOException If the run-time data could not be written.
+    */
+   private byte [] writeObject() throws IOException
+   {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      ObjectOutputStream out = new ObjectOutputStream(bytes);
+
+      out.writeObject(mSCOData);
+      out.close();
+
+      return bytes.toByteArray();
+   }
+
+   /**
+    * Reads run-time data written through object serialization.
+    *
+    * @param iBytes The serialized run-time data.
+    *
+    * @return The run-time data.
+    *
+    * @throws IOException If the run-time data could not be read.
+    */
+   private static SCODataManager readObject(byte [] iBytes) throws IOException
+   {
+      ObjectInputStream in =
+         new ObjectInputStream(new ByteArrayInputStream(iBytes));
+
+      try
+      {
+         return (SCODataManager)in.readObject();
+      }
+      catch ( ClassNotFoundException cnfe )
+      {
+         throw new IOException("The run-time data could not be read: " + cnfe);
+      }
+      finally
+      {
+         in.close();
+      }
+   }
+
+   /**
+    * Copies the run-time data a number of times each way, and reports the
+    * size of the bytes and the mean time to write and to read them.
+    *
+    * @param iIterations The number of copies timed for each way.
+    *
+    * @return The report, one line for each way.
+    *
+    * @throws IOException If the run-time data could not be copied.
+    */
+   private String run(int iIterations) throws IOException
+   {
+      byte [] snapshot = DMSnapshot.toByteArray(mSCOData);
+      byte [] serialized = writeObject();
+
+      // Both copies must hold the same run-time data
+      SCODataManager snapshotCopy = DMSnapshot.fromByteArray(snapshot);
+      SCODataManager serializedCopy = readObject(serialized);
+
+      if ( !Arrays.equals(snapshot, DMSnapshot.toByteArray(snapshotCopy)) ||
+           !Arrays.equals(snapshot, DMSnapshot.toByteArray(serializedCopy)) )
+      {
+         throw new IllegalStateException("The copies of the run-time data " +
+                                         "do not match");
+      }
+
+      // The bytes of a snapshot cannot show state that it does not hold, so
+      // the access of the stores is checked on the copies themselves
+      checkAccess(serializedCopy, "serialized");
+      checkAccess(snapshotCopy, "snapshot");
+
+      // Warm up both ways before timing them
+      time(iIterations);
+
+      long [] times = time(iIterations);
+
+      return "DMSnapshot\tbytes=" + snapshot.length +
+             "\twrite_us=" + times[0] / iIterations / 1000 +
+             "\tread_us=" + times[1] / iIterations / 1000 + "\n" +
+             "ObjectStream\tbytes=" + serialized.length +
+             "\twrite_us=" + times[2] / iIterations / 1000 +
+             "\tread_us=" + times[3] / iIterations / 1000 + "\n";
+   }
+
+   /**
+    * Times copies of the run-time data both ways.
+    *
+    * @param iIterations The number of copies made each way.
+    *
+    * @return The total nanoseconds spent writing and reading snapshots, and
+    *         writing and reading serialized objects, in that order.
+    *
+    * @throws IOException If the run-time data could not be copied.
+    */
+   private long [] time(int iIterations) throws IOException
+   {
+      long [] times = new long[4];
+      byte [] bytes = null;
+
+      long start = System.nanoTime();
+      for ( int i = 0; i < iIterations; i++ )
+      {
+         bytes = DMSnapshot.toByteArray(mSCOData);
+      }
+      times[0] = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for ( int i = 0; i < iIterations; i++ )
+      {
+         DMSnapshot.fromByteArray(bytes);
+      }
+      times[1] = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for ( int i = 0; i < iIterations; i++ )
+      {
+         bytes = writeObject();
+      }
+      times[2] = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for ( int i = 0; i < iIterations; i++ )
+      {
+         readObject(bytes);
+      }
+      times[3] = System.nanoTime() - start;
+
+      return times;
+   }
+
+   /**
+    * Times the copy of a SCO's run-time data through a snapshot and through
+    * object serialization, and prints the report.
+    *
+    * @param iArgs The number of copies timed for each way, followed by the
+    *              number of interactions in the run-time data.  Both are
+    *              optional.
+    *
+    * @throws IOException If the run-time data could not be copied.
+    */
+   public static void main(String [] iArgs) throws IOException
+   {
+      int iterations = DEFAULT_ITERATIONS;
+      int interactions = DEFAULT_INTERACTIONS;
+
+      if ( iArgs.length > 0 )
+      {
+         iterations = Math.max(1, Integer.parseInt(iArgs[0]));
+      }
+
+      if ( iArgs.length > 1 )
+      {
+         interactions = Math.max(0, Integer.parseInt(iArgs[1]));
+      }
+
+      DMSnapshotBenchmark benchmark = new DMSnapshotBenchmark(interactions);
+
+      System.out.println("interactions=" + interactions +
+                         "\titerations=" + iterations);
+      System.out.print(benchmark.run(iterations));
+   }
+}
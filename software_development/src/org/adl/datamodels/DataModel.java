@@ -64,6 +64,15 @@ public abstract class DataModel
    public abstract DMElement getDMElement(String iElement);
 
 
+   /**
+    * Describes the dot-notation binding strings of this data model's top
+    * level elements.
+    * 
+    * @return The binding strings of the top level elements, in sorted order.
+    */
+   public abstract String [] getDMElementBindings();
+
+
    /**
     * Performs data model specific initialization.
     * 
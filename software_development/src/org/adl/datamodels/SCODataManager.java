@@ -1,6 +1,10 @@
 package org.adl.datamodels;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.Hashtable;
 
@@ -35,6 +39,18 @@ public class SCODataManager implements Serializable
     */
    private Hashtable mDataModels = null;
 
+   /**
+    * The last published view of the SCO's run-time data, read by other
+    * threads without locking.
+    */
+   private transient volatile SCODataView mView = null;
+
+   /**
+    * Describes if a new view of the SCO's run-time data is published each
+    * time the run-time data is committed.
+    */
+   private boolean mPublishOnCommit = false;
+
    /**
     * Default constructor required for serialization support. Its only action
     * is to create a null Hashtable mDataModels.
@@ -79,6 +95,163 @@ public class SCODataManager implements Serializable
       }
    }
 
+   /**
+    * Adds the provided data model to the set of run-time data models managed
+    * for this SCO, replacing any data model with the same binding string.
+    * 
+    * @param iDM  The run-time data model to be added.
+    */
+   void putDM(DataModel iDM)
+   {
+      if ( mDataModels == null )
+      {
+         mDataModels = new Hashtable();
+      }
+
+      mDataModels.put(iDM.getDMBindingString(), iDM);
+   }
+
+   /**
+    * Describes the dot-notation binding strings of the run-time data models
+    * managed for this SCO.
+    * 
+    * @return The binding strings of the data models, in sorted order.
+    */
+   public String [] getDMBindingStrings()
+   {
+      String [] bindings = null;
+
+      if ( mDataModels == null )
+      {
+         bindings = new String[0];
+      }
+      else
+      {
+         bindings = (String [])mDataModels.keySet().
+                       toArray(new String[mDataModels.size()]);
+
+         Arrays.sort(bindings);
+      }
+
+      return bindings;
+   }
+
+   /**
+    * Provides the changes to the SCO's run-time data since it was last
+    * committed, and clears them, so the current state becomes the committed
+    * state.  The changes are written in the <code>DMSnapshot</code> format
+    * and can be applied with <code>DMSnapshot.applyChanges()</code> to a copy
+    * of the run-time data in its last committed state.
+    * 
+    * @return The changes since the last commit.
+    */
+   public byte [] commitChanges()
+   {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+      try
+      {
+         DataOutputStream out = new DataOutputStream(bytes);
+
+         DMSnapshot.writeChanges(this, out);
+         out.flush();
+      }
+      catch ( IOException ioe )
+      {
+         // Only data models built by the DMFactory are managed
+         throw new IllegalStateException("The changes could not be written: " +
+                                         ioe);
+      }
+
+      DMSnapshot.clearChanges(this);
+      committed();
+
+      return bytes.toByteArray();
+   }
+
+   /**
+    * Clears the changes to the SCO's run-time data, so the current state
+    * becomes the committed state, such as after a full snapshot of the
+    * run-time data has been saved.
+    */
+   public void clearChanges()
+   {
+      DMSnapshot.clearChanges(this);
+      committed();
+   }
+
+   /**
+    * Publishes a view of the current state of the SCO's run-time data, which
+    * other threads can read with <code>getView()</code> while this data
+    * manager goes on being used.  This must be called by the thread that
+    * changes the run-time data.<br><br>
+    * 
+    * Each view is a full copy, so publishing takes time and memory in
+    * proportion to the whole run-time data, not to what changed since the
+    * last view.  Publishing after each SetValue() would make a session
+    * quadratic in the size of its run-time data, so views should be
+    * published at commit points, as <code>setPublishOnCommit()</code>
+    * does.
+    * 
+    * @return The published view.
+    */
+   public SCODataView publish()
+   {
+      SCODataView view = new SCODataView(this);
+
+      mView = view;
+
+      return view;
+   }
+
+   /**
+    * Provides the last published view of the SCO's run-time data.  This may
+    * be called by any thread, and does not wait for the thread that changes
+    * the run-time data.
+    * 
+    * @return The last published view, or <code>null</code> if no view has
+    *         been published.
+    */
+   public SCODataView getView()
+   {
+      return mView;
+   }
+
+   /**
+    * Sets if a new view of the SCO's run-time data is published each time the
+    * run-time data is committed.  The run-time data is committed by
+    * <code>commitChanges()</code> and <code>clearChanges()</code>, by
+    * <code>terminate()</code>, by <code>DMSnapshot.applyChanges()</code>, and
+    * at the end of a <code>DMInterface.processBatch()</code> that changed it.
+    * A single SetValue() does not publish a view, so readers do not see its
+    * value until the next commit.  When this is turned on, a view of the
+    * current state is published right away.
+    * 
+    * @param iPublish <code>true</code> if views are published at each commit,
+    *                 otherwise <code>false</code>.
+    */
+   public void setPublishOnCommit(boolean iPublish)
+   {
+      mPublishOnCommit = iPublish;
+
+      if ( iPublish )
+      {
+         publish();
+      }
+   }
+
+   /**
+    * Publishes a new view of the SCO's run-time data after it has been
+    * committed, if views are published at each commit.
+    */
+   void committed()
+   {
+      if ( mPublishOnCommit )
+      {
+         publish();
+      }
+   }
+
    /**
     * Processes an equals() request against the SCO's run-time data.
     * 
@@ -306,6 +479,8 @@ public class SCODataManager implements Serializable
 
             dm.terminate();
          }
+
+         committed();
       }
    }
 
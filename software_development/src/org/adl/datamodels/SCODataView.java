@@ -0,0 +1,350 @@
+package org.adl.datamodels;
+
+import java.util.Enumeration;
+import java.util.Hashtable;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * <strong>Filename:</strong> SCODataView.java<br><br>
+ *
+ * <strong>Description:</strong><br>
+ * An immutable view of the run-time data of a SCO, as it was when the view
+ * was published by its <code>SCODataManager</code>.  The view holds the
+ * result of an administrative GetValue(), without default delimiters, of
+ * every leaf data model element and the <code>_count</code> of every
+ * collection, so any number of threads can read it while the thread that
+ * owns the run-time data goes on changing it.  Reading a view takes no locks
+ * and never waits for the writer.<br><br>
+ *
+ * <strong>Design Issues:</strong><br>
+ * The data models and their elements keep their state in
+ * <code>Hashtable</code> and <code>Vector</code> objects that are only safe
+ * to use from one thread at a time, and some elements are created when they
+ * are first read.  A view therefore copies the values into sorted arrays
+ * when it is published, and is replaced as a whole when a newer one is
+ * published.  Children that have not been created are read once from a new
+ * element for each description, and values kept in compact form, such as a
+ * large <code>cmi.suspend_data</code> or <code>adl.data.n.store</code>, stay
+ * in compact form until they are read from the view.<br><br>
+ *
+ * Publishing a view takes time and memory in proportion to the whole
+ * run-time data of the SCO, so views are meant to be published at commit
+ * points rather than after each SetValue().<br><br>
+ *
+ * @author ADL Technical Team
+ */
+public final class SCODataView
+{
+   /**
+    * The dot-notation bindings of the data model elements, in sorted order
+    */
+   private final String [] mElements;
+
+   /**
+    * The values of the data model elements, as a <code>String</code> or a
+    * <code>CompactValue</code>, by the position of their binding
+    */
+   private final Object [] mValues;
+
+   /**
+    * The data model error codes of the GetValue() of each data model element,
+    * by the position of its binding
+    */
+   private final int [] mResults;
+
+   /**
+    * Builds a view of the current state of the run-time data of a SCO.  This
+    * must be called by the thread that changes the run-time data.
+    *
+    * @param iSCOData The run-time data of the SCO.
+    */
+   SCODataView(SCODataManager iSCOData)
+   {
+      TreeMap entries = new TreeMap();
+      Hashtable defaults = new Hashtable();
+
+      String [] dms = iSCOData.getDMBindingStrings();
+
+      for ( int i = 0; i < dms.length; i++ )
+      {
+         DataModel dm = iSCOData.getDataModel(dms[i]);
+         String [] bindings = dm.getDMElementBindings();
+
+         for ( int j = 0; j < bindings.length; j++ )
+         {
+            addElement(dms[i] + "." + bindings[j],
+                       dm.getDMElement(bindings[j]),
+                       entries,
+                       defaults);
+         }
+      }
+
+      mElements = new String[entries.size()];
+      mValues = new Object[entries.size()];
+      mResults = new int[entries.size()];
+
+      Iterator it = entries.entrySet().iterator();
+
+      for ( int i = 0; it.hasNext(); i++ )
+      {
+         Map.Entry entry = (Map.Entry)it.next();
+         Entry value = (Entry)entry.getValue();
+
+         mElements[i] = (String)entry.getKey();
+         mValues[i] = value.mValue;
+         mResults[i] = value.mResult;
+      }
+   }
+
+   /**
+    * Processes a GetValue() against this view of the SCO's run-time data.
+    *
+    * @param iElement A dot-notation binding of a leaf data model element or
+    *                 of the <code>_count</code> of a collection.
+    *
+    * @param oInfo    Provides the value of the data model element.
+    *                 <b>Note: The caller of this function must provide an
+    *                 initialized (new) <code>DMProcessingInfo</code> to
+    *                 hold the return value.</b>
+    *
+    * @return The data model error code of the GetValue() when the view was
+    *         published, or <code>DMErrorCodes.UNDEFINED_ELEMENT</code> if
+    *         the element is not in this view.
+    */
+   public int getValue(String iElement, DMProcessingInfo oInfo)
+   {
+      int result = DMErrorCodes.UNDEFINED_ELEMENT;
+      int idx = indexOf(iElement);
+
+      if ( idx >= 0 )
+      {
+         result = mResults[idx];
+
+         if ( result == DMErrorCodes.NO_ERROR )
+         {
+            oInfo.mValue = valueAt(idx);
+         }
+      }
+
+      return result;
+   }
+
+   /**
+    * Provides the value of one data model element in this view.
+    *
+    * @param iElement A dot-notation binding of a leaf data model element or
+    *                 of the <code>_count</code> of a collection.
+    *
+    * @return The value of the data model element, or <code>null</code> if the
+    *         element is not in this view or could not be read.
+    */
+   public String getValue(String iElement)
+   {
+      int idx = indexOf(iElement);
+
+      return ( idx >= 0 && mResults[idx] == DMErrorCodes.NO_ERROR ) ?
+             valueAt(idx) : null;
+   }
+
+   /**
+    * Provides the dot-notation bindings of the data model elements in this
+    * view.
+    *
+    * @return The bindings, in sorted order.
+    */
+   public String [] getElements()
+   {
+      return (String [])mElements.clone();
+   }
+
+   /**
+    * Provides the value of the data model element at a position in this
+    * view, expanding it if it is kept in compact form.
+    *
+    * @param iIndex The position of the element.
+    *
+    * @return The value of the data model element.
+    */
+   private String valueAt(int iIndex)
+   {
+      Object value = mValues[iIndex];
+
+      return ( value == null ) ? null : value.toString();
+   }
+
+   /**
+    * Looks up the position of a data model element in this view.
+    *
+    * @param iElement A dot-notation binding of a data model element.
+    *
+    * @return The position of the element, or a negative number if the
+    *         element is not in this view.
+    */
+   private int indexOf(String iElement)
+   {
+      int low = 0;
+      int high = mElements.length - 1;
+
+      while ( iElement != null && low <= high )
+      {
+         int mid = (low + high) >>> 1;
+         int cmp = mElements[mid].compareTo(iElement);
+
+         if ( cmp < 0 )
+         {
+            low = mid + 1;
+         }
+         else if ( cmp > 0 )
+         {
+            high = mid - 1;
+         }
+         else
+         {
+            return mid;
+         }
+      }
+
+      return -1;
+   }
+
+   /**
+    * Adds the values of a data model element, and of the elements below it,
+    * to the entries of a view.
+    *
+    * @param iName      The dot-notation binding of the data model element.
+    *
+    * @param iElement   The data model element.
+    *
+    * @param ioEntries  The entries of the view, by binding.
+    *
+    * @param ioDefaults The entries of new data model elements, by their
+    *                   description, relative to the binding of the element.
+    */
+   private static void addElement(String iName,
+                                  DMElement iElement,
+                                  TreeMap ioEntries,
+                                  Hashtable ioDefaults)
+   {
+      if ( iElement.mRecords != null )
+      {
+         ioEntries.put(iName + "._count",
+                       new Entry(String.valueOf(iElement.mRecords.size()),
+                                 DMErrorCodes.NO_ERROR));
+
+         for ( int i = 0; i < iElement.mRecords.size(); i++ )
+         {
+            addChildren(iName + "." + i,
+                        (DMElement)iElement.mRecords.elementAt(i),
+                        ioEntries,
+                        ioDefaults);
+         }
+      }
+      else if ( iElement.mChildrenBindings != null )
+      {
+         addChildren(iName, iElement, ioEntries, ioDefaults);
+      }
+      else if ( iElement.getCompactValue() != null )
+      {
+         // Keep the value in compact form
+         ioEntries.put(iName, new Entry(iElement.getCompactValue(),
+                                        DMErrorCodes.NO_ERROR));
+      }
+      else
+      {
+         DMProcessingInfo info = new DMProcessingInfo();
+         int result = iElement.getValue(null, true, false, info);
+
+         ioEntries.put(iName, new Entry(info.mValue, result));
+      }
+   }
+
+   /**
+    * Adds the values of the children of a data model element to the entries
+    * of a view.  A child that has not been created has the state of a new
+    * element with its description, so the entries of one new element are
+    * read for each description and shared by every child with it.
+    *
+    * @param iName      The dot-notation binding of the data model element.
+    *
+    * @param iParent    The data model element.
+    *
+    * @param ioEntries  The entries of the view, by binding.
+    *
+    * @param ioDefaults The entries of new data model elements, by their
+    *                   description, relative to the binding of the element.
+    */
+   private static void addChildren(String iName,
+                                    DMElement iParent,
+                                    TreeMap ioEntries,
+                                    Hashtable ioDefaults)
+   {
+      for ( int i = 0; i < iParent.mChildrenBindings.size(); i++ )
+      {
+         String name = iName + "." + iParent.mChildrenBindings.elementAt(i);
+         DMElement child = iParent.peekChild(i);
+
+         if ( child != null )
+         {
+            addElement(name, child, ioEntries, ioDefaults);
+         }
+         else
+         {
+            DMElementDescriptor desc = (DMElementDescriptor)
+               iParent.mDescription.mChildren.elementAt(i);
+
+            Hashtable defaults = (Hashtable)ioDefaults.get(desc);
+
+            if ( defaults == null )
+            {
+               TreeMap entries = new TreeMap();
+
+               addElement("", iParent.createChild(desc), entries, ioDefaults);
+
+               defaults = new Hashtable(entries);
+               ioDefaults.put(desc, defaults);
+            }
+
+            Enumeration keys = defaults.keys();
+
+            while ( keys.hasMoreElements() )
+            {
+               String key = (String)keys.nextElement();
+
+               ioEntries.put(name + key, defaults.get(key));
+            }
+         }
+      }
+   }
+
+   /**
+    * The value of one data model element, while a view is being built
+    */
+   private static class Entry
+   {
+      /**
+       * The value of the data model element, as a <code>String</code> or a
+       * <code>CompactValue</code>
+       */
+      Object mValue = null;
+
+      /**
+       * The data model error code of the GetValue() of the element
+       */
+      int mResult = DMErrorCodes.NO_ERROR;
+
+      /**
+       * Constructor
+       *
+       * @param iValue  The value of the data model element.
+       *
+       * @param iResult The data model error code of the GetValue().
+       */
+      Entry(Object iValue, int iResult)
+      {
+         mValue = iValue;
+         mResult = iResult;
+      }
+   }
+}
@@ -0,0 +1,649 @@
+package org.adl.datamodels.datatypes;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * <br><br>
+ *
+ * <strong>Filename:</strong> LangStringCodes.java<br><br>
+ *
+ * <strong>Description:</strong><br>
+ * Holds the ISO 639 language, ISO 3166 country and IANA language codes used
+ * by the <code>LangStringValidator</code>.  The codes are kept in the same
+ * comma separated form used by previous versions of the validator, and each
+ * find method returns exactly what <code>String.indexOf</code> would return
+ * for the search string the validator used to build.  Instead of searching
+ * the strings, the positions are looked up in tables built once from them: a
+ * 26x26 table for two letter codes, a perfect hash for three letter codes and
+ * a 1000 entry table for numeric country codes.  Codes containing anything
+ * other than ASCII letters (or digits, for numeric codes) fall back to
+ * searching the strings.<br><br>
+ *
+ * <strong>Design Issues:</strong><br><br>
+ *
+ * <strong>Implementation Issues:</strong><br>
+ * The two and three letter tables ignore the case of ASCII letters, which is
+ * how RFC 3066 defines the comparison of language tags.<br><br>
+ *
+ * <strong>Known Problems:</strong><br><br>
+ *
+ * <strong>Side Effects:</strong><br><br>
+ *
+ * <strong>References:</strong><br>
+ * <ul>
+ *     <li>SCORM 2004
+ *     <li>ISO 639, ISO 3166, RFC 3066
+ * </ul>
+ *
+ * @author ADL Technical Team
+ */
+final class LangStringCodes
+{
+   /**
+    * Describes the set of all 2 and 3 character country codes and their
+    * corresponding 3 digit country code.
+    */
+   private static final String ISO_COUNTRIES =
+   ",AD.020AND,AE.784ARE,AF.004AFG,AG.028ATG,AI.660AIA,AM.051ARM,AN.530ANT" +
+   ",AO.024AGO,AQ.010ATA,AR.032ARG,AT.040AUT,AU,036AUS,AZ.031AZE,AL.008ALB" +
+   ",AS.016ASM,AW.533ABW,BA.070BIH,BI.108BDI,BB.052BRB,BE.056BEL,BF.854BFA" +
+   ",BG.100BGR,BH.048BHR,BS.044BHS,BJ.204BEN,BM.060BMU,BN.096BRN,BO.068BOL" +
+   ",BR.076BRA,BD.050BGD,BT.064BTN,BV.074BVT,BW.072BWA,BY.112BLR,BZ.084BLZ" +
+   ",CA.124CAN,CC.166CCK,CD.180COD,CF.140CAF,CG.178COG,CH.756CHE,CI.384CIV" +
+   ",CK.184COK,CL.152CHL,CM.120CMR,CN.156CHN,CO.170COL,CR.188CRI,CU.192CUB" +
+   ",CV.132CPV,CX.162CXR,CY.196CYP,CZ.203CZE,DE.276DEU,DJ.262DJI,DK.208DNK" +
+   ",DM.212DMA,DO.214DOM,DZ.012DZA,EC.218ECU,EE.233EST,EG.818EGY,EH.732ESH" +
+   ",ER.232ERI,ES.724ESP,ET.231ETH,FI.246FIN,FJ.242FJI,FK.238FLK,FM.583FSM" +
+   ",FO.234FRO,FR.250FRA,FX.249FXX,GA.266GAB,GB.826GBR,GD.308GRD,GE.268GEO" +
+   ",GF.254GUF,GH.288GHA,GI.292GIB,GL.304GRL,GM.270GMB,GN.324GIN,GP.312GLP" +
+   ",GQ.226GNQ,GR.300GRC,GS.239SGS,GT.320GTM,GU.316GUM,GW.624GNB,GY.328GUY" +
+   ",HK.344HKG,HM.334HMD,HN.340HND,HR.191HRV,HT.332HTI,HU.348HUN,ID.360IDN" +
+   ",IE.372IRL,IL.376ISR,IN.356IND,IO.086IOT,IQ.368IRQ,IR.364IRN,IS.352ISL" +
+   ",IT.380ITA,JM.388JAM,JO.400JOR,JP.392JPN,KE.404KEN,KG.417KGZ,KH.116KHM" +
+   ",KI.296KIR,KM.174COM,KN.659KNA,KP.408PRK,KR.410KOR,KW.414KWT,KY.136CYM" +
+   ",KZ.398KAZ,LA.418LAO,LB.422LBN,LC.662LCA,LI.438LIE,LK.144LKA,LR.430LBR" +
+   ",LS.426LSO,LT.440LTU,LU.442LUX,LV.428LVA,LY.434LBY,MA.504MAR,MC.492MCO" +
+   ",MD.498MDA,MG.450MDG,MH.584MHL,MK.807MKD,ML.466MLI,MM.104MMR,MN.496MNG" +
+   ",MO.446MAC,MP.580MNP,MQ.474MTQ,MR.478MRT,MS.500MSR,MT.470MLT,MU.480MUS" +
+   ",MV.462MDV,MW.454MWI,MX.484MEX,MY.458MYS,MZ.508MOZ,NA.516NAM,NC.540NCL" +
+   ",NE.562NER,NF.574NFK,NG.566NGA,NI.558NIC,NL.528NLD,NO.578NOR,NP.524NPL" +
+   ",NR.520NRU,NU.570NIU,NZ.554NZL,OM.512OMN,PA.591PAN,PE.604PER,PF.258PYF" +
+   ",PG.598PNG,PH.608PHL,PK.586PAK,PL.616POL,PM.666SPM,PR.630PRI,PS.275PSE" +
+   ",PT.620PRT,PW.585PLW,PN.612PCN,PY.600PRY,QA.634QAT,RE.638REU,RO.642ROU" +
+   ",RU.643RUS,RW.646RWA,SA.682SAU,SB.090SLB,SC.690SYC,SD.736SDN,SE.752SWE" +
+   ",SG.702SGP,SH.654SHN,SI.705SVN,SJ.744SJM,SK.703SVK,SL.694SLE,SM.674SMR" +
+   ",SN.686SEN,SO.706SOM,SR.740SUR,ST.678STP,SV.222SLV,SY.760SYR,SZ.748SWZ" +
+   ",TC.796TCA,TD.148TCD,TF.260ATF,TG.768TGO,TH.764THA,TJ.762TJK,TL.626TLS" +
+   ",TK.772TKL,TM.795TKM,TN.788TUN,TO.776TON,TR.792TUR,TT.780TTO,TV.798TUV" +
+   ",TW.158TWN,TZ.834TZA,UA.804UKR,UG.800UGA,UM.581UMI,US.840USA,UY.858URY" +
+   ",UZ.860UZB,VA.336VAT,VC.670VCT,VE.862VEN,VG.092VGB,VI.850VIR,VN.704VNM" +
+   ",VU.548VUT,WF.876WLF,WS.882WSM,YE.887YEM,YT.175MYT,YU.891YUG,ZA.710ZAF" +
+   ",ZM.894ZMB,ZW.716ZWE,";
+
+   /**
+    * Describes the set of valid 2 and 3 character language codes.
+    */
+   private static final String ISO_LANGUAGES =
+   ",aaaar,ababk,aeave,afafr,akaka,amamh,anarg,arara,asasm,avava,ayaym,azaze" +
+   ",babak,bebel,bgbul,bhbih,bibis,bmbam,bnben,bobod,brbre,bsbos,cacat,ceche" +
+   ",chcha,cocos,csces,crcre,cuchu,cvchv,cycym,dadan,dedeu,dvdiv,dzdzo,eeewe" +
+   ",elell,eneng,eoepo,esspa,etest,eueus,fafas,ffful,fifin,fjfij,fofao,frfra" +
+   ",fyfry,gagle,gdgla,glglg,gngrn,guguj,gvglv,hahau,heheb,hihin,hrhrv,hthat" +
+   ",hohmo,huhun,hyhye,hzher,iaina,idind,ieile,igibo,iiiii,ikipk,ioido"       +
+   ",iuiku,jajpn,jvjav,kakat,kgkon,kikik,kjkua,kkkaz,klkal,isisl,itita,kmkhm" +
+   ",knkan,kokor,krkau,kskas,kukur,kvkom,kwcor,kykir,lalat,lbltz,lilim,lglug" +
+   ",lnlin,lolao,ltlit,lulub,lvlav,mgmlg,mhmah,mimri,mkmkd,mlmal,mnmon,momol" +
+   ",mrmar,msmsa,mtmlt,mymya,nanau,nbnob,ndnde,nenep,ngndo,nlnld,nnnno,nonor" +
+   ",nrnbl,nvnav,nynya,ococi,ojoji,omorm,orori,ososs,papan,pipli,plpol,pspus" +
+   ",ptpor,quque,rmroh,rnrun,roron,rurus,rwkin,sasan,scsrd,sesme,sdsnd,sgsag" +
+   ",sisin,skslk,slslv,smsmo,snsna,sosom,sqsqi,srsrp,ssssw,stsot,susun,svswe" +
+   ",swswa,tatam,tetel,tgtgk,ththa,titir,tktuk,tltgl,tntsn,toton,trtur,tstso" +
+   ",tttat,twtwi,tytah,uguig,ukukr,ururd,uzuzb,veven,vivie,vovol,wawln,wowol" +
+   ",xhxho,yiyid,yoyor,zazha,zhzho,zuzul,";
+
+   /**
+    * Describes the set of valid 3 character language codes
+    */
+   private static final String ISO_EX_LANGUAGES =
+   "ace,ach,ada,ady,afa,afh,akk,alb,ale,alg,ang,apa,arc,arm,arn,arp,art,arw," +
+   "ast,ath,aus,awa,bad,bai,bal,ban,baq,bas,bat,bej,bem,ber,bho,bik,bin,bla," +
+   "bnt,bra,btk,bua,bug,bur,byn,cad,cai,car,cau,ceb,cel,chb,chg,chi,chk,chm," +
+   "chn,cho,chp,chr,chy,cmc,cop,cpe,cpf,cpp,crh,crp,csb,cus,cze,dak,dar,day," +
+   "del,den,dgr,din,doi,dsb,dra,dua,dum,dut,dyu,efi,egy,eka,elx,enm,ewo,fan," +
+   "fat,fiu,fon,fre,frm,fro,fur,gaa,gay,gba,gem,geo,ger,gez,gil,gmh,goh,gon," +
+   "gor,got,grb,grc,gre,gwi,hai,haw,hil,him,hit,hmn,hsb,hup,iba,ice,ijo,ilo," +
+   "inc,ine,inh,ira,iro,jbo,jpr,jrb,kaa,kab,kac,kam,kar,kaw,kbd,kha,khi,kho," +
+   "kmb,kok,kos,kpe,krc,kro,kru,kum,kut,lad,lah,lam,lez,lol,loz,lua,lui,lun," +
+   "luo,lus,mac,mad,mag,mai,mak,man,mao,map,mas,may,mdf,mdr,men,mga,mic,min," +
+   "mis,mkh,mnc,mni,mno,moh,mos,mul,mun,mus,mwr,myn,myv,nah,nai,nap,nds,new," +
+   "nia,nic,niu,nog,non,nso,nub,nwc,nym,nyn,nyo,nzi,osa,ota,oto,paa,pag,pal," +
+   "pam,pap,pau,peo,per,phi,phn,pon,pra,pro,raj,rap,rar,roa,rom,rum,sad,sah," +
+   "sai,sal,sam,sas,sat,scc,sco,scr,sel,sem,sga,sgn,shn,sid,sio,sit,sla,slo," +
+   "sma,smi,smj,smn,sms,snk,sog,son,srr,ssa,suk,sus,sux,syr,tai,tem,ter,tet," +
+   "tib,tig,tiv,tkl,tlh,tli,tmh,tog,tpi,tsi,tum,tup,tut,tvl,tyv,udm,uga,umb," +
+   "und,vai,vot,wak,wal,war,was,wel,wen,xal,yao,yap,ypk,zap,zen,znd,zun,"     +
+   "fil,mwl,scn,";
+
+   /**
+    * Defines the set of IANA approved language codes.
+    */
+   private static final String IANA_LANGUAGES =
+   "i,x,art-lojban,az-arab,az-cyrl,az-latn,cel-gaulish,de-1901,de-1996,"  +
+   "de-at-1901,de-at-1996,de-ch-1901,de-ch-1996,de-de-1901,de-de-1996,"   +
+   "en-boont,en-ge-oed,en-scouse,i-ami,i-bnn,i-default,i-enochian,i-hak," +
+   "i-klingon,i-lux,i-mingo,i-navajo,i-pwn,i-tao,i-tay,i-tsu,no-bok,"     +
+   "no-nyn,sgn-be-fr,sgn-be-nl,sgn-br,sgn-ch-de,sgn-co,sgn-de,sgn-dk,"    +
+   "sgn-es,sgn-fr,sgn-gb,sgn-gr,sgn-ie,sgn-it,sgn-jp,sgn-mx,"             +
+   "sgn-nl,sgn-no,sgn-pt,sgn-se,sgn-us,sgn-za,sl-rozaj,sr-cyrl,"          +
+   "sr-latn,uz-cyrl,uz-latn,yi-latn,zh-hans,zh-hant,zh-gan,zh-guoyu,"     +
+   "zh-hakka,zh-min,zh-min-nan,zh-wuu,zh-xiang,";
+
+   /**
+    * Number of letters in the alphabet used by the codes.
+    */
+   private static final int LETTERS = 26;
+
+   /**
+    * The language code tables.
+    */
+   private static final CodeTable LANGUAGES =
+      new CodeTable(ISO_LANGUAGES, false);
+
+   /**
+    * The extended language code tables.
+    */
+   private static final CodeTable EX_LANGUAGES =
+      new CodeTable(ISO_EX_LANGUAGES, false);
+
+   /**
+    * The country code tables.
+    */
+   private static final CodeTable COUNTRIES =
+      new CodeTable(ISO_COUNTRIES, true);
+
+   /**
+    * Every String that, followed by a ',', appears in
+    * <code>IANA_LANGUAGES</code> without crossing a ','.  These are the
+    * entries of the list and their suffixes.
+    */
+   private static final Set<String> IANA_SUFFIXES = createIANASuffixes();
+
+   /**
+    * Default Constructor.  No instances of this class are created.
+    */
+   private LangStringCodes()
+   {
+      // no instances
+   }
+
+   /**
+    * Finds a 2 or 3 character language code in the language list.
+    *
+    * @param iCode The 2 or 3 character language code.
+    *
+    * @return The index <code>String.indexOf</code> returns when searching the
+    *         language list for <code>",xx"</code> (2 characters) or
+    *         <code>"xxx,"</code> (3 characters), or -1 if it is not found.
+    */
+   static int findLanguage(String iCode)
+   {
+      return LANGUAGES.find(iCode);
+   }
+
+   /**
+    * Finds a 2 or 3 character language code in the extended language list.
+    *
+    * @param iCode The 2 or 3 character language code.
+    *
+    * @return The index <code>String.indexOf</code> returns when searching the
+    *         extended language list for <code>",xx"</code> (2 characters) or
+    *         <code>"xxx,"</code> (3 characters), or -1 if it is not found.
+    */
+   static int findExtendedLanguage(String iCode)
+   {
+      return EX_LANGUAGES.find(iCode);
+   }
+
+   /**
+    * Finds a 2 or 3 character country code in the country list.
+    *
+    * @param iCode The 2 or 3 character country code.
+    *
+    * @return The index <code>String.indexOf</code> returns when searching the
+    *         country list for <code>",XX"</code> (2 characters) or
+    *         <code>"XXX,"</code> (3 characters), or -1 if it is not found.
+    */
+   static int findCountry(String iCode)
+   {
+      return COUNTRIES.find(iCode);
+   }
+
+   /**
+    * Finds a 3 digit country code in the country list.
+    *
+    * @param iCode The 3 digit country code.
+    *
+    * @return The index <code>String.indexOf</code> returns when searching the
+    *         country list for <code>".nnn"</code>, or -1 if it is not found.
+    */
+   static int findNumericCountry(String iCode)
+   {
+      return COUNTRIES.findNumeric(iCode);
+   }
+
+   /**
+    * Determines if the given lower case String, followed by a ',', appears in
+    * the IANA language list.
+    *
+    * @param iCode The lower case IANA language code.
+    *
+    * @return <code>true</code> if the code was found, otherwise
+    *         <code>false</code>.
+    */
+   static boolean isIANALanguage(String iCode)
+   {
+      if ( iCode.indexOf(',') != -1 )
+      {
+         // Only a search can match across entries
+         return IANA_LANGUAGES.indexOf(iCode + ",") != -1;
+      }
+
+      return IANA_SUFFIXES.contains(iCode);
+   }
+
+   /**
+    * Builds the set of IANA entries and their suffixes.
+    *
+    * @return The set of Strings.
+    */
+   private static Set<String> createIANASuffixes()
+   {
+      Set<String> suffixes = new HashSet<String>();
+      int start = 0;
+      int comma = IANA_LANGUAGES.indexOf(',');
+
+      while ( comma != -1 )
+      {
+         for ( int i = start; i < comma; i++ )
+         {
+            suffixes.add(IANA_LANGUAGES.substring(i, comma));
+         }
+
+         start = comma + 1;
+         comma = IANA_LANGUAGES.indexOf(',', start);
+      }
+
+      return suffixes;
+   }
+
+   /**
+    * Returns the position of an ASCII letter in the alphabet, ignoring case.
+    *
+    * @param iChar The character.
+    *
+    * @return The position of the letter, or -1 if it is not an ASCII letter.
+    */
+   private static int letter(char iChar)
+   {
+      if ( iChar >= 'a' && iChar <= 'z' )
+      {
+         return iChar - 'a';
+      }
+      else if ( iChar >= 'A' && iChar <= 'Z' )
+      {
+         return iChar - 'A';
+      }
+      return -1;
+   }
+
+   /**
+    * Returns the value of an ASCII digit.
+    *
+    * @param iChar The character.
+    *
+    * @return The value of the digit, or -1 if it is not an ASCII digit.
+    */
+   private static int digit(char iChar)
+   {
+      return ( iChar >= '0' && iChar <= '9' ) ? iChar - '0' : -1;
+   }
+
+   /**
+    * Packs a 3 letter code into a single value.
+    *
+    * @param iCode The String holding the code.
+    *
+    * @param iStart The index of the first letter of the code.
+    *
+    * @return The packed code, or -1 if a character is not an ASCII letter.
+    */
+   private static int packLetters(String iCode, int iStart)
+   {
+      int first = letter(iCode.charAt(iStart));
+      int second = letter(iCode.charAt(iStart + 1));
+      int third = letter(iCode.charAt(iStart + 2));
+
+      if ( first < 0 || second < 0 || third < 0 )
+      {
+         return -1;
+      }
+      return ( ( first * LETTERS ) + second ) * LETTERS + third;
+   }
+
+   /**
+    * Packs a 3 digit code into a single value.
+    *
+    * @param iCode The String holding the code.
+    *
+    * @param iStart The index of the first digit of the code.
+    *
+    * @return The value of the code, or -1 if a character is not an ASCII
+    *         digit.
+    */
+   private static int packDigits(String iCode, int iStart)
+   {
+      int first = digit(iCode.charAt(iStart));
+      int second = digit(iCode.charAt(iStart + 1));
+      int third = digit(iCode.charAt(iStart + 2));
+
+      if ( first < 0 || second < 0 || third < 0 )
+      {
+         return -1;
+      }
+      return ( first * 100 ) + ( second * 10 ) + third;
+   }
+
+   /**
+    * Creates a table of the given size with every entry set to -1.
+    *
+    * @param iSize The size of the table.
+    *
+    * @return The table.
+    */
+   private static int[] createTable(int iSize)
+   {
+      int[] table = new int[iSize];
+      for ( int i = 0; i < iSize; i++ )
+      {
+         table[i] = -1;
+      }
+      return table;
+   }
+
+
+   /**
+    * The lookup tables built from one of the comma separated code lists.
+    */
+   private static final class CodeTable
+   {
+      /**
+       * The code list the tables were built from.
+       */
+      private final String mCodes;
+
+      /**
+       * Indicates if the code list is upper case.
+       */
+      private final boolean mUpperCase;
+
+      /**
+       * The first index of <code>",xx"</code>, indexed by the two letters.
+       */
+      private final int[] mTwoLetterCodes = createTable(LETTERS * LETTERS);
+
+      /**
+       * The first index of <code>"xxx,"</code>, keyed by the packed letters.
+       */
+      private final PerfectHash mThreeLetterCodes;
+
+      /**
+       * The first index of <code>".nnn"</code>, indexed by the number.
+       */
+      private final int[] mNumericCodes = createTable(1000);
+
+      /**
+       * Builds the tables of the given code list.
+       *
+       * @param iCodes The comma separated code list.
+       *
+       * @param iUpperCase Indicates if the code list is upper case.
+       */
+      CodeTable(String iCodes, boolean iUpperCase)
+      {
+         mCodes = iCodes;
+         mUpperCase = iUpperCase;
+
+         int[] keys = new int[iCodes.length()];
+         int[] values = new int[iCodes.length()];
+         int count = 0;
+         int[] threeLetterCodes = createTable(LETTERS * LETTERS * LETTERS);
+
+         for ( int i = 0; i < iCodes.length(); i++ )
+         {
+            char current = iCodes.charAt(i);
+
+            if ( current == ',' && i + 2 < iCodes.length() )
+            {
+               int first = letter(iCodes.charAt(i + 1));
+               int second = letter(iCodes.charAt(i + 2));
+               if ( first >= 0 && second >= 0 &&
+                    mTwoLetterCodes[( first * LETTERS ) + second] == -1 )
+               {
+                  mTwoLetterCodes[( first * LETTERS ) + second] = i;
+               }
+            }
+
+            if ( current == '.' && i + 3 < iCodes.length() )
+            {
+               int number = packDigits(iCodes, i + 1);
+               if ( number >= 0 && mNumericCodes[number] == -1 )
+               {
+                  mNumericCodes[number] = i;
+               }
+            }
+
+            if ( i + 3 < iCodes.length() && iCodes.charAt(i + 3) == ',' )
+            {
+               int packed = packLetters(iCodes, i);
+               if ( packed >= 0 && threeLetterCodes[packed] == -1 )
+               {
+                  threeLetterCodes[packed] = i;
+                  keys[count] = packed;
+                  values[count] = i;
+                  count++;
+               }
+            }
+         }
+
+         mThreeLetterCodes = new PerfectHash(keys, values, count);
+      }
+
+      /**
+       * Finds a 2 or 3 character code.
+       *
+       * @param iCode The code.
+       *
+       * @return The index of <code>",xx"</code> or <code>"xxx,"</code> in the
+       *         code list, or -1 if it is not found.
+       */
+      int find(String iCode)
+      {
+         if ( iCode.length() == 2 )
+         {
+            int first = letter(iCode.charAt(0));
+            int second = letter(iCode.charAt(1));
+            if ( first >= 0 && second >= 0 )
+            {
+               return mTwoLetterCodes[( first * LETTERS ) + second];
+            }
+            return search("," + iCode);
+         }
+         else if ( iCode.length() == 3 )
+         {
+            int packed = packLetters(iCode, 0);
+            if ( packed >= 0 )
+            {
+               return mThreeLetterCodes.get(packed);
+            }
+            return search(iCode + ",");
+         }
+         return -1;
+      }
+
+      /**
+       * Finds a 3 digit code.
+       *
+       * @param iCode The code.
+       *
+       * @return The index of <code>".nnn"</code> in the code list, or -1 if
+       *         it is not found.
+       */
+      int findNumeric(String iCode)
+      {
+         if ( iCode.length() == 3 )
+         {
+            int number = packDigits(iCode, 0);
+            if ( number >= 0 )
+            {
+               return mNumericCodes[number];
+            }
+         }
+         return search("." + iCode);
+      }
+
+      /**
+       * Searches the code list for a String that cannot be looked up in the
+       * tables.
+       *
+       * @param iSearch The String to search for.
+       *
+       * @return The index of the String in the code list, or -1 if it is not
+       *         found.
+       */
+      private int search(String iSearch)
+      {
+         String search = mUpperCase ? iSearch.toUpperCase()
+                                    : iSearch.toLowerCase();
+         return mCodes.indexOf(search);
+      }
+   }
+
+
+   /**
+    * A collision free hash table of non-negative int keys, built once from a
+    * known set of keys.  Each lookup is a multiply, a shift and one compare.
+    */
+   private static final class PerfectHash
+   {
+      /**
+       * The number of multipliers tried before the table is grown.
+       */
+      private static final int ATTEMPTS = 64;
+
+      /**
+       * The keys, indexed by slot.  Empty slots hold -1.
+       */
+      private int[] mKeys;
+
+      /**
+       * The values, indexed by slot.
+       */
+      private int[] mValues;
+
+      /**
+       * The multiplier of the hash function.
+       */
+      private int mMultiplier;
+
+      /**
+       * The shift of the hash function.
+       */
+      private int mShift;
+
+      /**
+       * Builds a table with no collisions for the given keys.
+       *
+       * @param iKeys The distinct, non-negative keys.
+       *
+       * @param iValues The value of each key.
+       *
+       * @param iCount The number of keys.
+       */
+      PerfectHash(int[] iKeys, int[] iValues, int iCount)
+      {
+         int bits = 1;
+         while ( ( 1 << bits ) < iCount * 2 )
+         {
+            bits++;
+         }
+
+         int multiplier = 0x9E3779B9;
+         while ( true )
+         {
+            for ( int attempt = 0; attempt < ATTEMPTS; attempt++ )
+            {
+               if ( build(iKeys, iValues, iCount, bits, multiplier) )
+               {
+                  return;
+               }
+               multiplier = ( multiplier * 0x5DEECE6D + 0xB ) | 1;
+            }
+            bits++;
+         }
+      }
+
+      /**
+       * Attempts to place every key in its own slot.
+       *
+       * @param iKeys The keys.
+       *
+       * @param iValues The value of each key.
+       *
+       * @param iCount The number of keys.
+       *
+       * @param iBits The log2 of the table size.
+       *
+       * @param iMultiplier The multiplier of the hash function.
+       *
+       * @return <code>true</code> if no two keys share a slot.
+       */
+      private boolean build(int[] iKeys, int[] iValues, int iCount,
+                            int iBits, int iMultiplier)
+      {
+         int[] keys = createTable(1 << iBits);
+         int[] values = new int[1 << iBits];
+         int shift = 32 - iBits;
+
+         for ( int i = 0; i < iCount; i++ )
+         {
+            int slot = ( iKeys[i] * iMultiplier ) >>> shift;
+            if ( keys[slot] != -1 )
+            {
+               return false;
+            }
+            keys[slot] = iKeys[i];
+            values[slot] = iValues[i];
+         }
+
+         mKeys = keys;
+         mValues = values;
+         mMultiplier = iMultiplier;
+         mShift = shift;
+         return true;
+      }
+
+      /**
+       * Returns the value of a key.
+       *
+       * @param iKey The non-negative key.
+       *
+       * @return The value of the key, or -1 if the key is not in the table.
+       */
+      int get(int iKey)
+      {
+         int slot = ( iKey * mMultiplier ) >>> mShift;
+         return ( mKeys[slot] == iKey ) ? mValues[slot] : -1;
+      }
+   }
+}
@@ -5,7 +5,6 @@ import org.adl.datamodels.DMErrorCodes;
 
 import java.util.Vector;
 import java.io.Serializable;
-import java.io.UnsupportedEncodingException;
 
 /**
  * <br><br>
@@ -32,105 +31,10 @@ import java.io.UnsupportedEncodingException;
 public class LangStringValidator extends DMTypeValidator implements Serializable
 {
    /**
-    * Describes the set of all 2 and 3 character country codes and their 
-    * corresponding 3 digit country code.
+    * Fixed to the value computed before the code lists moved to
+    * <code>LangStringCodes</code>, so serialized instances stay compatible.
     */
-   private final String mISOCountries = 
-   ",AD.020AND,AE.784ARE,AF.004AFG,AG.028ATG,AI.660AIA,AM.051ARM,AN.530ANT" +
-   ",AO.024AGO,AQ.010ATA,AR.032ARG,AT.040AUT,AU,036AUS,AZ.031AZE,AL.008ALB" +
-   ",AS.016ASM,AW.533ABW,BA.070BIH,BI.108BDI,BB.052BRB,BE.056BEL,BF.854BFA" + 
-   ",BG.100BGR,BH.048BHR,BS.044BHS,BJ.204BEN,BM.060BMU,BN.096BRN,BO.068BOL" +
-   ",BR.076BRA,BD.050BGD,BT.064BTN,BV.074BVT,BW.072BWA,BY.112BLR,BZ.084BLZ" +
-   ",CA.124CAN,CC.166CCK,CD.180COD,CF.140CAF,CG.178COG,CH.756CHE,CI.384CIV" +
-   ",CK.184COK,CL.152CHL,CM.120CMR,CN.156CHN,CO.170COL,CR.188CRI,CU.192CUB" +
-   ",CV.132CPV,CX.162CXR,CY.196CYP,CZ.203CZE,DE.276DEU,DJ.262DJI,DK.208DNK" +
-   ",DM.212DMA,DO.214DOM,DZ.012DZA,EC.218ECU,EE.233EST,EG.818EGY,EH.732ESH" +
-   ",ER.232ERI,ES.724ESP,ET.231ETH,FI.246FIN,FJ.242FJI,FK.238FLK,FM.583FSM" +
-   ",FO.234FRO,FR.250FRA,FX.249FXX,GA.266GAB,GB.826GBR,GD.308GRD,GE.268GEO" + 
-   ",GF.254GUF,GH.288GHA,GI.292GIB,GL.304GRL,GM.270GMB,GN.324GIN,GP.312GLP" +
-   ",GQ.226GNQ,GR.300GRC,GS.239SGS,GT.320GTM,GU.316GUM,GW.624GNB,GY.328GUY" +
-   ",HK.344HKG,HM.334HMD,HN.340HND,HR.191HRV,HT.332HTI,HU.348HUN,ID.360IDN" +
-   ",IE.372IRL,IL.376ISR,IN.356IND,IO.086IOT,IQ.368IRQ,IR.364IRN,IS.352ISL" +
-   ",IT.380ITA,JM.388JAM,JO.400JOR,JP.392JPN,KE.404KEN,KG.417KGZ,KH.116KHM" +
-   ",KI.296KIR,KM.174COM,KN.659KNA,KP.408PRK,KR.410KOR,KW.414KWT,KY.136CYM" +
-   ",KZ.398KAZ,LA.418LAO,LB.422LBN,LC.662LCA,LI.438LIE,LK.144LKA,LR.430LBR" +
-   ",LS.426LSO,LT.440LTU,LU.442LUX,LV.428LVA,LY.434LBY,MA.504MAR,MC.492MCO" +
-   ",MD.498MDA,MG.450MDG,MH.584MHL,MK.807MKD,ML.466MLI,MM.104MMR,MN.496MNG" +
-   ",MO.446MAC,MP.580MNP,MQ.474MTQ,MR.478MRT,MS.500MSR,MT.470MLT,MU.480MUS" +
-   ",MV.462MDV,MW.454MWI,MX.484MEX,MY.458MYS,MZ.508MOZ,NA.516NAM,NC.540NCL" +
-   ",NE.562NER,NF.574NFK,NG.566NGA,NI.558NIC,NL.528NLD,NO.578NOR,NP.524NPL" +
-   ",NR.520NRU,NU.570NIU,NZ.554NZL,OM.512OMN,PA.591PAN,PE.604PER,PF.258PYF" +
-   ",PG.598PNG,PH.608PHL,PK.586PAK,PL.616POL,PM.666SPM,PR.630PRI,PS.275PSE" +
-   ",PT.620PRT,PW.585PLW,PN.612PCN,PY.600PRY,QA.634QAT,RE.638REU,RO.642ROU" +
-   ",RU.643RUS,RW.646RWA,SA.682SAU,SB.090SLB,SC.690SYC,SD.736SDN,SE.752SWE" +
-   ",SG.702SGP,SH.654SHN,SI.705SVN,SJ.744SJM,SK.703SVK,SL.694SLE,SM.674SMR" +
-   ",SN.686SEN,SO.706SOM,SR.740SUR,ST.678STP,SV.222SLV,SY.760SYR,SZ.748SWZ" +
-   ",TC.796TCA,TD.148TCD,TF.260ATF,TG.768TGO,TH.764THA,TJ.762TJK,TL.626TLS" +
-   ",TK.772TKL,TM.795TKM,TN.788TUN,TO.776TON,TR.792TUR,TT.780TTO,TV.798TUV" +
-   ",TW.158TWN,TZ.834TZA,UA.804UKR,UG.800UGA,UM.581UMI,US.840USA,UY.858URY" +
-   ",UZ.860UZB,VA.336VAT,VC.670VCT,VE.862VEN,VG.092VGB,VI.850VIR,VN.704VNM" +
-   ",VU.548VUT,WF.876WLF,WS.882WSM,YE.887YEM,YT.175MYT,YU.891YUG,ZA.710ZAF" +
-   ",ZM.894ZMB,ZW.716ZWE,";
-
-
-   /**
-    * Describes the set of valid 2 and 3 character language codes.
-    */
-   private final String mISOLanguages = 
-   ",aaaar,ababk,aeave,afafr,akaka,amamh,anarg,arara,asasm,avava,ayaym,azaze" +
-   ",babak,bebel,bgbul,bhbih,bibis,bmbam,bnben,bobod,brbre,bsbos,cacat,ceche" +
-   ",chcha,cocos,csces,crcre,cuchu,cvchv,cycym,dadan,dedeu,dvdiv,dzdzo,eeewe" +
-   ",elell,eneng,eoepo,esspa,etest,eueus,fafas,ffful,fifin,fjfij,fofao,frfra" +
-   ",fyfry,gagle,gdgla,glglg,gngrn,guguj,gvglv,hahau,heheb,hihin,hrhrv,hthat" +
-   ",hohmo,huhun,hyhye,hzher,iaina,idind,ieile,igibo,iiiii,ikipk,ioido"       +
-   ",iuiku,jajpn,jvjav,kakat,kgkon,kikik,kjkua,kkkaz,klkal,isisl,itita,kmkhm" +
-   ",knkan,kokor,krkau,kskas,kukur,kvkom,kwcor,kykir,lalat,lbltz,lilim,lglug" +
-   ",lnlin,lolao,ltlit,lulub,lvlav,mgmlg,mhmah,mimri,mkmkd,mlmal,mnmon,momol" +
-   ",mrmar,msmsa,mtmlt,mymya,nanau,nbnob,ndnde,nenep,ngndo,nlnld,nnnno,nonor" +
-   ",nrnbl,nvnav,nynya,ococi,ojoji,omorm,orori,ososs,papan,pipli,plpol,pspus" +
-   ",ptpor,quque,rmroh,rnrun,roron,rurus,rwkin,sasan,scsrd,sesme,sdsnd,sgsag" +
-   ",sisin,skslk,slslv,smsmo,snsna,sosom,sqsqi,srsrp,ssssw,stsot,susun,svswe" +
-   ",swswa,tatam,tetel,tgtgk,ththa,titir,tktuk,tltgl,tntsn,toton,trtur,tstso" +
-   ",tttat,twtwi,tytah,uguig,ukukr,ururd,uzuzb,veven,vivie,vovol,wawln,wowol" +
-   ",xhxho,yiyid,yoyor,zazha,zhzho,zuzul,";
- 
-   /**
-    * Describes the set of valid 3 character language codes
-    */
-   private final String mISOExLanguages = 
-   "ace,ach,ada,ady,afa,afh,akk,alb,ale,alg,ang,apa,arc,arm,arn,arp,art,arw," +
-   "ast,ath,aus,awa,bad,bai,bal,ban,baq,bas,bat,bej,bem,ber,bho,bik,bin,bla," +
-   "bnt,bra,btk,bua,bug,bur,byn,cad,cai,car,cau,ceb,cel,chb,chg,chi,chk,chm," +
-   "chn,cho,chp,chr,chy,cmc,cop,cpe,cpf,cpp,crh,crp,csb,cus,cze,dak,dar,day," +
-   "del,den,dgr,din,doi,dsb,dra,dua,dum,dut,dyu,efi,egy,eka,elx,enm,ewo,fan," +
-   "fat,fiu,fon,fre,frm,fro,fur,gaa,gay,gba,gem,geo,ger,gez,gil,gmh,goh,gon," +
-   "gor,got,grb,grc,gre,gwi,hai,haw,hil,him,hit,hmn,hsb,hup,iba,ice,ijo,ilo," +
-   "inc,ine,inh,ira,iro,jbo,jpr,jrb,kaa,kab,kac,kam,kar,kaw,kbd,kha,khi,kho," +
-   "kmb,kok,kos,kpe,krc,kro,kru,kum,kut,lad,lah,lam,lez,lol,loz,lua,lui,lun," +
-   "luo,lus,mac,mad,mag,mai,mak,man,mao,map,mas,may,mdf,mdr,men,mga,mic,min," +
-   "mis,mkh,mnc,mni,mno,moh,mos,mul,mun,mus,mwr,myn,myv,nah,nai,nap,nds,new," +
-   "nia,nic,niu,nog,non,nso,nub,nwc,nym,nyn,nyo,nzi,osa,ota,oto,paa,pag,pal," +
-   "pam,pap,pau,peo,per,phi,phn,pon,pra,pro,raj,rap,rar,roa,rom,rum,sad,sah," +
-   "sai,sal,sam,sas,sat,scc,sco,scr,sel,sem,sga,sgn,shn,sid,sio,sit,sla,slo," +
-   "sma,smi,smj,smn,sms,snk,sog,son,srr,ssa,suk,sus,sux,syr,tai,tem,ter,tet," +
-   "tib,tig,tiv,tkl,tlh,tli,tmh,tog,tpi,tsi,tum,tup,tut,tvl,tyv,udm,uga,umb," +
-   "und,vai,vot,wak,wal,war,was,wel,wen,xal,yao,yap,ypk,zap,zen,znd,zun,"     +
-   "fil,mwl,scn,";
-
-   /**
-    * Defines the set of IANA approved language codes.
-    */
-   private final String mIANALangauges = 
-   "i,x,art-lojban,az-arab,az-cyrl,az-latn,cel-gaulish,de-1901,de-1996,"  +
-   "de-at-1901,de-at-1996,de-ch-1901,de-ch-1996,de-de-1901,de-de-1996,"   +
-   "en-boont,en-ge-oed,en-scouse,i-ami,i-bnn,i-default,i-enochian,i-hak," +
-   "i-klingon,i-lux,i-mingo,i-navajo,i-pwn,i-tao,i-tay,i-tsu,no-bok,"     +
-   "no-nyn,sgn-be-fr,sgn-be-nl,sgn-br,sgn-ch-de,sgn-co,sgn-de,sgn-dk,"    +
-   "sgn-es,sgn-fr,sgn-gb,sgn-gr,sgn-ie,sgn-it,sgn-jp,sgn-mx,"             +
-   "sgn-nl,sgn-no,sgn-pt,sgn-se,sgn-us,sgn-za,sl-rozaj,sr-cyrl,"          +
-   "sr-latn,uz-cyrl,uz-latn,yi-latn,zh-hans,zh-hant,zh-gan,zh-guoyu,"     +
-   "zh-hakka,zh-min,zh-min-nan,zh-wuu,zh-xiang,";
-
+   private static final long serialVersionUID = -4119660153080150270L;
 
    /**
     * Describes if an empty string is allowed to be set
@@ -256,16 +160,12 @@ public class LangStringValidator extends DMTypeValidator implements Serializable
                   int mod1 = 0;
                   if ( lang1.length() == 2 )
                   {
-                     // Prepend the ','
-                     lang1 = "," + lang1;
+                     // Found at the ',' before the code
                   }
                   else if ( lang1.length() == 3 )
                   {
                      // Remember the string distance MOD
                      mod1 = 3;
-   
-                     // Append the ','
-                     lang1 = lang1 + ",";
                   }
                   else
                   {
@@ -278,16 +178,12 @@ public class LangStringValidator extends DMTypeValidator implements Serializable
                   int mod2 = 0;
                   if ( lang2.length() == 2 )
                   {
-                     // Prepend the ','
-                     lang2 = "," + lang2;
+                     // Found at the ',' before the code
                   }
                   else if ( lang2.length() == 3 )
                   {
                      // Remember the string distance MOD
                      mod2 = 3;
-   
-                     // Append the ','
-                     lang2 = lang2 + ",";
                   }
                   else
                   {
@@ -320,14 +216,14 @@ public class LangStringValidator extends DMTypeValidator implements Serializable
    
                   if ( !done )
                   {
-                     int idx1 = mISOLanguages.indexOf(lang1) - mod1;
-                     int idx2 = mISOLanguages.indexOf(lang2) - mod2;
+                     int idx1 = LangStringCodes.findLanguage(lang1) - mod1;
+                     int idx2 = LangStringCodes.findLanguage(lang2) - mod2;
    
                      if ( idx1 < 0 || idx2 < 0 || idx1 != idx2 )
                      {
                         // Look at extended languages
-                        idx1 = mISOExLanguages.indexOf(lang1) - mod1;
-                        idx2 = mISOExLanguages.indexOf(lang2) - mod2;
+                        idx1 = LangStringCodes.findExtendedLanguage(lang1) - mod1;
+                        idx2 = LangStringCodes.findExtendedLanguage(lang2) - mod2;
    
                         if ( idx1 < 0 || idx2 < 0 || idx1 != idx2 )
                         {
@@ -421,8 +317,7 @@ public class LangStringValidator extends DMTypeValidator implements Serializable
                int mod1 = 0;
                if ( country1.length() == 2 )
                {
-                  // Prepend the ','
-                  country1 = "," + country1;
+                  // Found at the ',' before the code
                }
                else if ( country1.length() == 0 )
                {
@@ -437,10 +332,10 @@ public class LangStringValidator extends DMTypeValidator implements Serializable
 
                // Determine the second country code
                int mod2 = 0;
+               boolean numeric2 = false;
                if ( country2.length() == 2 )
                {
-                  // Prepend the ','
-                  country2 = "," + country2;
+                  // Found at the ',' before the code
                }
                else if ( country2.length() == 3 )
                {
@@ -452,16 +347,13 @@ public class LangStringValidator extends DMTypeValidator implements Serializable
                      // Remember the string distance MOD
                      mod2 = 3;
 
-                     // Prepend the '.'
-                     country2 = "." + country2;
+                     // Found at the '.' before the code
+                     numeric2 = true;
                   }
                   catch ( NumberFormatException nfe )
                   {
                      // Remember the string distance MOD
                      mod2 = 7;
-
-                     // Append the ','
-                     country2 = country2 + ",";
                   }
                }
                else if ( country2.length() == 0 )
@@ -478,11 +370,10 @@ public class LangStringValidator extends DMTypeValidator implements Serializable
                if ( !done )
                {
                   // Case insensitive search
-                  country1 = country1.toUpperCase();
-                  country2 = country2.toUpperCase();
-
-                  int idx1 = mISOCountries.indexOf(country1) - mod1;
-                  int idx2 = mISOCountries.indexOf(country2) - mod2;
+                  int idx1 = LangStringCodes.findCountry(country1) - mod1;
+                  int idx2 = ( numeric2 ? 
+                               LangStringCodes.findNumericCountry(country2) :
+                               LangStringCodes.findCountry(country2) ) - mod2;
 
                   if ( idx1 < 0 || idx2 < 0 || idx1 != idx2 )
                   {
@@ -603,36 +494,21 @@ public class LangStringValidator extends DMTypeValidator implements Serializable
          }
          else
          {
-            byte[] stringAsBytes = null;
+            int check = 0;
 
-            try
+            // Combine both bytes of every UTF-16 character
+            for ( int i = 0; i < iValue.length(); i++ )
             {
-               stringAsBytes = iValue.getBytes("UTF-16");
+               char current = iValue.charAt(i);
+               check |= current | ( current >> 8 );
             }
-            catch ( UnsupportedEncodingException use )
+
+            // Make sure only the first 7 bits of each byte are used
+            if ( (check & 0x80) == 0x80 )
             {
                valid =  DMErrorCodes.TYPE_MISMATCH;
                done = true;
             }
-
-            if ( !done )
-            {
-
-               byte check = 0;
-
-               // Starting at the 2nd character because of the BOM
-               for ( int i = 2; i < stringAsBytes.length; i++ )
-               {
-                  check |= stringAsBytes[i];
-               }
-
-               // Make sure only the first 7 bits are used
-               if ( (check & 0x80) == 0x80 )
-               {
-                  valid =  DMErrorCodes.TYPE_MISMATCH;
-                  done = true;
-               }
-            }
          }
 
          // Test the lang code
@@ -659,21 +535,20 @@ public class LangStringValidator extends DMTypeValidator implements Serializable
             boolean toTest = true;
 
             // First check for IANA Strings
-            int idx = -1;
+            boolean isIANA = false;
 
             if ( iana.length() > 0)
             {
-               iana += ",";
-               idx = mIANALangauges.indexOf(iana);
+               isIANA = LangStringCodes.isIANALanguage(iana);
             }
 
-            if ( idx != -1 )
+            if ( isIANA )
             {
                done = true;
 
                if ( lang.equalsIgnoreCase("x") )
                {
-                  if ( iana.length() > 1 )
+                  if ( iana.length() > 0 )
                   {
                      done = false;
                   }
@@ -695,8 +570,7 @@ public class LangStringValidator extends DMTypeValidator implements Serializable
             {
                if ( lang.length() == 2 )
                {
-                  // Prepend a ','
-                  lang = "," + lang;
+                  // Found at the ',' before the code
                }
                else if ( lang.length() == 3 )
                {
@@ -714,11 +588,6 @@ public class LangStringValidator extends DMTypeValidator implements Serializable
                      }
                   }
 
-                  if ( toTest )
-                  {
-                     // Append a ','
-                     lang = lang + ",";
-                  }
                }
                else
                {
@@ -756,14 +625,12 @@ public class LangStringValidator extends DMTypeValidator implements Serializable
             if ( toTest )
             {
                // Case insensitive search
-               lang = lang.toLowerCase();
-
-               int found = mISOLanguages.indexOf(lang);
+               int found = LangStringCodes.findLanguage(lang);
 
                if ( found == -1 )
                {
                   // Check the extended strings
-                  found = mISOExLanguages.indexOf(lang);
+                  found = LangStringCodes.findExtendedLanguage(lang);
 
                   if ( found == -1 )
                   {
@@ -803,8 +670,7 @@ public class LangStringValidator extends DMTypeValidator implements Serializable
 
                if ( country.length() == 2 )
                {
-                  // Prepend the ','
-                  country = "," + country;
+                  // Found at the ',' before the code
                }
                else if ( country.length() == 3 )
                {
@@ -827,9 +693,7 @@ public class LangStringValidator extends DMTypeValidator implements Serializable
                {
 
                   // Case insensitive search
-                  country = country.toUpperCase();
-
-                  int found = mISOCountries.indexOf(country);
+                  int found = LangStringCodes.findCountry(country);
 
                   if ( found == -1 )
                   {
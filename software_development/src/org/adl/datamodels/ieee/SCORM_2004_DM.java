@@ -21,6 +21,7 @@ import org.adl.datamodels.datatypes.SPMRangeValidator;
 import org.adl.datamodels.datatypes.URIValidator;
 import org.adl.datamodels.datatypes.VocabularyValidator;
 
+import java.util.Arrays;
 import java.util.Hashtable;
 import java.util.Vector;
 
@@ -590,6 +591,7 @@ public class SCORM_2004_DM extends DataModel implements Serializable
       desc = new DMElementDescriptor("suspend_data", null,
                                      SUSPEND_DATA_SPM,
                                      new SPMRangeValidator(SUSPEND_DATA_SPM));
+      desc.mCompact = true;
 
       element = new SCORM_2004_DMElement(desc, null, this);
       mElements.put(desc.mBinding, element);
@@ -692,6 +694,22 @@ public class SCORM_2004_DM extends DataModel implements Serializable
       return element;
    }
 
+   /**
+    * Describes the dot-notation binding strings of this data model's top
+    * level elements.
+    *
+    * @return The binding strings of the top level elements, in sorted order.
+    */
+   public String [] getDMElementBindings()
+   {
+      String [] bindings = 
+         (String [])mElements.keySet().toArray(new String[mElements.size()]);
+
+      Arrays.sort(bindings);
+
+      return bindings;
+   }
+
    /**
     * Processes a GetValue() request against this data model.  Retrieves the 
     * value associated with the requested data model element in the current 
@@ -1041,6 +1059,7 @@ public class SCORM_2004_DM extends DataModel implements Serializable
          SCORM_2004_DMElement element =
             new SCORM_2004_DMElement(desc, null, this);
          mElements.put(desc.mBinding, element);
+         element.markReplaced();
       }
       else
       {
@@ -1,7 +1,6 @@
 package org.adl.datamodels.ieee;
 
 import java.io.Serializable;
-import java.util.Hashtable;
 import java.util.Vector;
 
 import org.adl.datamodels.Children;
@@ -97,30 +96,9 @@ public class SCORM_2004_DMElement extends DMElement implements Serializable
       // Check if this element has children
       if ( mDescription.mChildren != null )
       {
-         // Initialize the set of children bindings
-         mChildrenBindings = new Vector();
-
-         for ( int i = 0; i < mDescription.mChildren.size(); i++ )
-         {
-            DMElementDescriptor desc = 
-            (DMElementDescriptor)mDescription.mChildren.elementAt(i);
-
-            mChildrenBindings.add(desc.mBinding);
-
-            // If this is not an array container
-            if ( mRecords == null )
-            {
-               if ( mChildren == null )
-               {
-                  mChildren = new Hashtable();
-               }
-
-               // Initialize the leaf child element
-               SCORM_2004_DMElement element = 
-               new SCORM_2004_DMElement(desc, this, mDM);
-               mChildren.put(desc.mBinding, element);
-            }
-         }
+         // Initialize the set of children bindings -- the children are
+         // created as they are accessed
+         initChildrenBindings();
       }
       else
       {
@@ -176,8 +154,10 @@ public class SCORM_2004_DMElement extends DMElement implements Serializable
       // Assume there is nothing to compare
       int result = DMErrorCodes.COMPARE_NOTHING;
 
+      String value = getStoredValue();
+
       // Make sure there is something to compare
-      if ( mValue != null && iValue != null )
+      if ( value != null && iValue != null )
       {
          // Assume these values are equal
          boolean equal = true;
@@ -364,12 +344,12 @@ public class SCORM_2004_DMElement extends DMElement implements Serializable
                // If no comparison method is defined, just do a string compare
                if ( mDescription.mValidator == null )
                {
-                  equal = compareWith.equals(mValue);
+                  equal = compareWith.equals(value);
                }
                else
                {
                   equal = mDescription.mValidator.compare(compareWith, 
-                                                          mValue,
+                                                          value,
                                                           mDelimiters);
 
                   // If the first compare doesn't work test the SPM
@@ -377,7 +357,7 @@ public class SCORM_2004_DMElement extends DMElement implements Serializable
                   {
                      equal = mDescription.mValidator.
                         compare(compareWith, 
-                                mDescription.mValidator.trunc(mValue),
+                                mDescription.mValidator.trunc(value),
                                 mDelimiters);
                   }
                }
@@ -451,7 +431,7 @@ public class SCORM_2004_DMElement extends DMElement implements Serializable
    /* package */
    String getInternalValue()
    {
-      return mValue;
+      return getStoredValue();
    }
 
    /**
@@ -547,8 +527,7 @@ public class SCORM_2004_DMElement extends DMElement implements Serializable
                      if ( idx != -1 )
                      {
 
-                        DMElement element =
-                        (DMElement)mChildren.get(tok.getValue());
+                        DMElement element = getChild(idx);
 
                         DMElementDescriptor desc = element.getDescription();
 
@@ -574,7 +553,7 @@ public class SCORM_2004_DMElement extends DMElement implements Serializable
                                                 desc.mDependentOn.elementAt(i);
 
                                  // Ensure the dependent element is initialized
-                                 DMElement e = (DMElement)mChildren.get(check);
+                                 DMElement e = getChild(check);
 
                                  if ( e != null )
                                  {
@@ -722,16 +701,7 @@ public class SCORM_2004_DMElement extends DMElement implements Serializable
                         {
 
                            // Create the new record
-                           DMElementDescriptor desc =
-                           (DMElementDescriptor)mDescription.clone();
-
-                           desc.mOldSPM = desc.mSPM;
-                           desc.mSPM = -1;
-
-                           SCORM_2004_DMElement element = 
-                           new SCORM_2004_DMElement(desc, this, mDM);
-
-                           mRecords.add(element);
+                           DMElement element = addRecord();
 
                            // Provide the requested record
                            oInfo.mElement = element;
@@ -969,6 +939,9 @@ public class SCORM_2004_DMElement extends DMElement implements Serializable
             }
          }
 
+         // Keep a large value in compact form, if this element allows it
+         compactValue();
+
 //       This data model element is now initialized
          mInitialized = true;
          
@@ -980,58 +953,82 @@ public class SCORM_2004_DMElement extends DMElement implements Serializable
             // Make sure the type acctually changed
             if ( !mInitialized || !mValue.equals(oldValue) )
             {
-               // Get the cmi.interatctions.x container descriptor
-               DMElementDescriptor desc = mParent.getDescription();
-
-               // Look for correct_responses
-               for ( int j = 0; j < desc.mChildren.size(); j++ )
-               {
-                  DMElementDescriptor curChild = 
-                  (DMElementDescriptor)desc.mChildren.elementAt(j);
+               updateResponseElements(true);
+            }
+         }
 
-                  DMElementDescriptor child = null;
+         markChanged();
+      }
 
-                  // Test to see if we need to clone the child descriptor
-                  // If so, use a clone for the following if-switch
-                  // and set the ith index of the mChildren array when finished
-                  // newDesc.mChildren.replaceAt(j, clone);
+      
 
-                  if ( curChild.mBinding.equals("correct_responses") )
-                  {
+      return result;
+   }
 
-                     child = (DMElementDescriptor)curChild.clone();
+   /**
+    * Adds a new, empty record to the set of data model records managed by this
+    * data model element, as when a SetValue() request creates the next record.
+    * 
+    * @return The new record, or <code>null</code> if this data model element
+    *         does not manage records.
+    */
+   protected DMElement addRecord()
+   {
+      SCORM_2004_DMElement element = null;
 
-                     // Switch the SPM and data type of the correct_responses
-                     handleCorrectResponses(child);  
+      if ( mRecords != null )
+      {
+         element = new SCORM_2004_DMElement(getRecordDescription(), this, mDM);
 
-                     // Create an element of the appropriate type & replace 
-                     SCORM_2004_DMElement element = 
-                     new SCORM_2004_DMElement(child, mParent, mDM);
+         mRecords.add(element);
+      }
 
-                     mParent.putChild(child.mBinding, element);
-                  }
-                  else if ( curChild.mBinding.equals("learner_response") )
-                  {
+      return element;
+   }
 
-                     child = (DMElementDescriptor)curChild.clone();
+   /**
+    * Creates a new child of this data model element.
+    * 
+    * @param iDescription The description of the child.
+    * 
+    * @return The new child.
+    */
+   protected DMElement createChild(DMElementDescriptor iDescription)
+   {
+      return new SCORM_2004_DMElement(iDescription, this, mDM);
+   }
 
-                     // Switch the SPM and data type of the learner_response
-                     handleLearnerResponse(child);
+   /**
+    * Restores the state of this leaf data model element, as saved by a 
+    * <code>DMSnapshot</code>.  Restoring a new interaction type also restores
+    * the SPM and data type of the interaction's responses.
+    * 
+    * @param iValue       The value of this data model element.
+    * 
+    * @param iDelimiters  The values of this element's delimiters, in order,
+    *                     or <code>null</code> if they all have their default
+    *                     values.
+    * 
+    * @param iInitialized Indicates if the value has been initialized.
+    * 
+    * @param iSetBySCO    Indicates if the value was set by the SCO.
+    */
+   protected void restoreValue(String iValue,
+                               String [] iDelimiters,
+                               boolean iInitialized,
+                               boolean iSetBySCO)
+   {
+      String oldValue = mInitialized ? mValue : null;
 
-                     // Create an element of the appropriate type & replace 
-                     SCORM_2004_DMElement element = 
-                     new SCORM_2004_DMElement(child, mParent, mDM);
+      super.restoreValue(iValue, iDelimiters, iInitialized, iSetBySCO);
 
-                     mParent.putChild(child.mBinding, element);
-                  }
-               }
-            }
-         }
+      // As with SetValue(), the responses are only replaced if the type
+      // actually changed
+      if ( mInitialized && mDescription.mBinding.equals("type") &&
+           !mValue.equals(oldValue) )
+      {
+         updateResponseElements(false);
       }
-
-      
-
-      return result;
    }
 
    /**
@@ -1180,6 +1177,73 @@ public class SCORM_2004_DMElement extends DMElement implements Serializable
       return result;
    }
 
+   /**
+    * Replaces the correct_responses and learner_response elements of the
+    * parent interaction with new elements whose SPM and data type match the
+    * value of this interaction type element.
+    * 
+    * @param iMark Indicates if the new elements should be marked as changed
+    *              since the run-time data was last committed.
+    */
+   private void updateResponseElements(boolean iMark)
+   {
+      // Get the cmi.interatctions.x container descriptor
+      DMElementDescriptor desc = mParent.getDescription();
+
+      // Look for correct_responses
+      for ( int j = 0; j < desc.mChildren.size(); j++ )
+      {
+         DMElementDescriptor curChild = 
+         (DMElementDescriptor)desc.mChildren.elementAt(j);
+
+         DMElementDescriptor child = null;
+
+         // Test to see if we need to clone the child descriptor
+         // If so, use a clone for the following if-switch
+         // and set the ith index of the mChildren array when finished
+         // newDesc.mChildren.replaceAt(j, clone);
+
+         if ( curChild.mBinding.equals("correct_responses") )
+         {
+
+            child = (DMElementDescriptor)curChild.clone();
+
+            // Switch the SPM and data type of the correct_responses
+            handleCorrectResponses(child);  
+
+            // Create an element of the appropriate type & replace 
+            SCORM_2004_DMElement element = 
+            new SCORM_2004_DMElement(child, mParent, mDM);
+
+            mParent.putChild(child.mBinding, element);
+
+            if ( iMark )
+            {
+               element.markReplaced();
+            }
+         }
+         else if ( curChild.mBinding.equals("learner_response") )
+         {
+
+            child = (DMElementDescriptor)curChild.clone();
+
+            // Switch the SPM and data type of the learner_response
+            handleLearnerResponse(child);
+
+            // Create an element of the appropriate type & replace 
+            SCORM_2004_DMElement element = 
+            new SCORM_2004_DMElement(child, mParent, mDM);
+
+            mParent.putChild(child.mBinding, element);
+
+            if ( iMark )
+            {
+               element.markReplaced();
+            }
+         }
+      }
+   }
+
    /**
     * Handles setting an interaction's learner_response element datatype and
     * SPM based on the interaction type element.
@@ -1447,7 +1511,9 @@ public class SCORM_2004_DMElement extends DMElement implements Serializable
          // Really bad error condition
       }
 
-      // Replace existing descriptor
+      // Replace existing descriptor in a set of children of this clone only,
+      // so the responses of other interactions keep their own pattern
+      ioChild.mChildren = (Vector)ioChild.mChildren.clone();
       ioChild.mChildren.removeElementAt(0);
       ioChild.mChildren.insertElementAt(pattern, 0);
 
@@ -16,6 +16,7 @@ import org.adl.datamodels.datatypes.URIValidator;
 import org.adl.sequencer.ADLValidRequests;
 import org.adl.sequencer.SeqNavRequests;
 
+import java.util.Arrays;
 import java.util.Hashtable;
 import java.util.Vector;
 
@@ -154,6 +155,7 @@ public class SCORM_2004_NAV_DM extends DataModel implements Serializable
       
       desc = new DMElementDescriptor("store", null, DATA_STORE_SPM, 
                                      new SPMRangeValidator(DATA_STORE_SPM));
+      desc.mCompact = true;
       
       desc.mDependentOn = new Vector();
       desc.mDependentOn.add(new String("id"));
@@ -247,6 +249,22 @@ public class SCORM_2004_NAV_DM extends DataModel implements Serializable
       return element;
    }
 
+   /**
+    * Describes the dot-notation binding strings of this data model's top
+    * level elements.
+    *
+    * @return The binding strings of the top level elements, in sorted order.
+    */
+   public String [] getDMElementBindings()
+   {
+      String [] bindings = 
+         (String [])mElements.keySet().toArray(new String[mElements.size()]);
+
+      Arrays.sort(bindings);
+
+      return bindings;
+   }
+
 
    /**
     * Provides the current navigation request communicated by the SCO.
@@ -17,7 +17,6 @@ import org.adl.datamodels.datatypes.URIValidator;
 import org.adl.sequencer.ADLTOC;
 import org.adl.sequencer.SeqNavRequests;
 
-import java.util.Hashtable;
 import java.util.Vector;
 
 import java.io.Serializable;
@@ -94,30 +93,9 @@ public class SCORM_2004_NAV_DMElement extends DMElement implements Serializable
       // Check if this element has children
       if ( mDescription.mChildren != null )
       {
-         // Initialize the set of children bindings
-         mChildrenBindings = new Vector();
-
-         for ( int i = 0; i < mDescription.mChildren.size(); i++ )
-         {
-            DMElementDescriptor desc = 
-               (DMElementDescriptor)mDescription.mChildren.elementAt(i);
-
-            mChildrenBindings.add(desc.mBinding);
-
-            // If this is not an array container
-            if ( mRecords == null )
-            {
-               if ( mChildren == null )
-               {
-                  mChildren = new Hashtable();
-               }
-
-               // Initialize the leaf child element
-               DMElement element = 
-                  new SCORM_2004_NAV_DMElement(desc, this, iDM);
-               mChildren.put(desc.mBinding, element);
-            }
-         }
+         // Initialize the set of children bindings -- the children are
+         // created as they are accessed
+         initChildrenBindings();
       }
       else
       {
@@ -174,8 +152,10 @@ public class SCORM_2004_NAV_DMElement extends DMElement implements Serializable
       // Assume there is nothing to compare
       int result = DMErrorCodes.COMPARE_NOTHING;
 
+      String value = getStoredValue();
+
       // Make sure there is something to compare
-      if ( mValue != null && iValue != null )
+      if ( value != null && iValue != null )
       {
          // Assume these values are equal
          boolean equal = true;
@@ -324,12 +304,12 @@ public class SCORM_2004_NAV_DMElement extends DMElement implements Serializable
                // If no comparison method is defined, just do a string compare
                if ( mDescription.mValidator == null )
                {
-                  equal = compareWith.equals(mValue);
+                  equal = compareWith.equals(value);
                }
                else
                {
                   equal = mDescription.mValidator.compare(compareWith, 
-                                                          mValue, 
+                                                          value, 
                                                           null);
                }
             }
@@ -631,15 +611,15 @@ public class SCORM_2004_NAV_DMElement extends DMElement implements Serializable
                   if ( value.length == 2 )
                   {
                      // had to make a copy of the description so that each
-                     // store had separate attributes 
-                     Vector dep = mDescription.mDependentOn;
-                     mDescription = new DMElementDescriptor(mDescription.mBinding, null, mDescription.mSPM, 
-                           mDescription.mValidator);
-                     
-                     mDescription.mDependentOn = dep;
+                     // store had separate attributes; the copy keeps the
+                     // others, such as mCompact
+                     mDescription = (DMElementDescriptor)mDescription.clone();
                      mDescription.mIsReadable = Boolean.valueOf(value[0]).booleanValue();
                      mDescription.mIsWriteable = Boolean.valueOf(value[1]).booleanValue();
                      oInfo.mValue = "_access";
+
+                     // The access is part of the next set of changes
+                     markChanged();
                   }
                   else
                   {
@@ -671,8 +651,7 @@ public class SCORM_2004_NAV_DMElement extends DMElement implements Serializable
                      if ( idx != -1 )
                      {
 
-                        DMElement element =
-                           (DMElement)mChildren.get(tok.getValue());
+                        DMElement element = getChild(idx);
 
                         DMElementDescriptor desc = element.getDescription();
 
@@ -698,7 +677,7 @@ public class SCORM_2004_NAV_DMElement extends DMElement implements Serializable
                                  desc.mDependentOn.elementAt(i);
 
                                  // Ensure the dependent element is initializ
-                                 DMElement e = (DMElement)mChildren.get(check);
+                                 DMElement e = getChild(check);
 
                                  if ( e != null )
                                  {
@@ -848,12 +827,7 @@ public class SCORM_2004_NAV_DMElement extends DMElement implements Serializable
                         // read-only and is not an admin request
                         if ( isWriteable || ioRequest.isAdminRequest() )
                         { // Create the new record
-                           DMElementDescriptor desc = (DMElementDescriptor) mDescription.clone();
-                           desc.mSPM = -1;
-
-                           DMElement element = new SCORM_2004_NAV_DMElement(desc, this, mDM);
-
-                           mRecords.add(element);
+                           DMElement element = addRecord();
 
                            // Check if the new size exceeds the SPM
                            if ( mRecords.size() > mDescription.mSPM )
@@ -957,6 +931,7 @@ public class SCORM_2004_NAV_DMElement extends DMElement implements Serializable
          {
             mInitialized = false;
             mValue = iValue.getValue();
+            compactValue();
          }
          else
          {
@@ -1046,6 +1021,9 @@ public class SCORM_2004_NAV_DMElement extends DMElement implements Serializable
             // Add the token value to the validation string
             mValue += iValue.getValue();
 
+            // Keep a large value in compact form, if this element allows it
+            compactValue();
+
             // This data model element is now initialized
             mInitialized = true;
 
@@ -1053,29 +1031,101 @@ public class SCORM_2004_NAV_DMElement extends DMElement implements Serializable
             // set the current navigation request
             if ( mDescription.mBinding.equals("request") )
             {
-               DMDelimiter target = (DMDelimiter) mDelimiters.elementAt(0);
-               // If the navigation request is 'choice' use the target instead
-               if ( mValue.equals("choice") )
-               {
-                  // Find the 'target' delimiter -- there should be only one
-                  mDM.mCurRequest = (target.mValue);
-               }
-               else if ( mValue.equals("jump") )
-               {
-                  mDM.mCurRequest = mValue;
-                  mDM.mJumpLocation = (target.mValue);
-               }
-               else
-               {
-                  mDM.mCurRequest = mValue;
-               }
+               updateNavRequest();
             }
          }
+
+         markChanged();
       }
 
       return result;
    }
 
+   /**
+    * Adds a new, empty record to the set of data model records managed by this
+    * data model element, as when a SetValue() request creates the next record.
+    * 
+    * @return The new record, or <code>null</code> if this data model element
+    *         does not manage records.
+    */
+   protected DMElement addRecord()
+   {
+      DMElement element = null;
+
+      if ( mRecords != null )
+      {
+         element = new SCORM_2004_NAV_DMElement(getRecordDescription(), this, mDM);
+
+         mRecords.add(element);
+      }
+
+      return element;
+   }
+
+   /**
+    * Creates a new child of this data model element.
+    * 
+    * @param iDescription The description of the child.
+    * 
+    * @return The new child.
+    */
+   protected DMElement createChild(DMElementDescriptor iDescription)
+   {
+      return new SCORM_2004_NAV_DMElement(iDescription, this, mDM);
+   }
+
+   /**
+    * Restores the state of this leaf data model element, as saved by a 
+    * <code>DMSnapshot</code>.  Restoring the navigation request also restores
+    * the current navigation request of the data model.
+    * 
+    * @param iValue       The value of this data model element.
+    * 
+    * @param iDelimiters  The values of this element's delimiters, in order,
+    *                     or <code>null</code> if they all have their default
+    *                     values.
+    * 
+    * @param iInitialized Indicates if the value has been initialized.
+    * 
+    * @param iSetBySCO    Indicates if the value was set by the SCO.
+    */
+   protected void restoreValue(String iValue,
+                               String [] iDelimiters,
+                               boolean iInitialized,
+                               boolean iSetBySCO)
+   {
+      super.restoreValue(iValue, iDelimiters, iInitialized, iSetBySCO);
+
+      if ( mInitialized && mDescription.mBinding.equals("request") )
+      {
+         updateNavRequest();
+      }
+   }
+
+   /**
+    * Sets the current navigation request of the data model from the value of
+    * this navigation request element.
+    */
+   private void updateNavRequest()
+   {
+      DMDelimiter target = (DMDelimiter) mDelimiters.elementAt(0);
+      // If the navigation request is 'choice' use the target instead
+      if ( mValue.equals("choice") )
+      {
+         // Find the 'target' delimiter -- there should be only one
+         mDM.mCurRequest = (target.mValue);
+      }
+      else if ( mValue.equals("jump") )
+      {
+         mDM.mCurRequest = mValue;
+         mDM.mJumpLocation = (target.mValue);
+      }
+      else
+      {
+         mDM.mCurRequest = mValue;
+      }
+   }
+
    /**
     * Validates a dot-notation token against this data model's defined data
     * type.
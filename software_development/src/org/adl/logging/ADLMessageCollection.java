@@ -1,5 +1,6 @@
 package org.adl.logging;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -124,6 +125,22 @@ public class ADLMessageCollection
        }
     }
     
+    /**
+     * Removes and returns every LogMessage object in the LinkedList, for
+     * callers that consume the messages without a LogWriter Thread
+     * 
+     * @return List the removed messages, oldest first
+     */
+    public List<LogMessage> removeAllMessages()
+    {
+       synchronized(this)
+       {
+          final List<LogMessage> messages = new ArrayList<LogMessage>(mMessages);
+          mMessages.clear();
+          return messages;
+       }
+    }
+    
     /**
      * Returns the size of the collection.
      * 
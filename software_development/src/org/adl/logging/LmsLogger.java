@@ -6,6 +6,7 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.text.SimpleDateFormat;
@@ -662,7 +663,7 @@ public class LmsLogger implements LmsLoggerInterface
          }
          // open the old log, get a filewriter for it, and pass that
          // filewriter into the new thread
-         new LmsSummaryLogWriter(openOldLog(oldSummaryLog));
+         new LmsSummaryLogWriter(openOldLog(oldSummaryLog), oldSummaryLog);
          new LmsDetailedLogWriter("");
          
          // when we return we need to set the detailed log in the LogFileGenerator,
@@ -680,7 +681,9 @@ public class LmsLogger implements LmsLoggerInterface
       /**
        * When a saved test is restarted the old logs need to be reopened, this method
        * opens the old logs, copies all but the end tag to memory, then overwrites the
-       * old log minus the end tag
+       * old log minus the end tag.  If the end of the last save tag was recorded
+       * when it was written, the old log is cut there and reopened for append
+       * instead of being overwritten.
        * @param oldFileURI log file to be extended/overwritten
        * @return the FileWriter object that is writing to the file
        */
@@ -692,6 +695,48 @@ public class LmsLogger implements LmsLoggerInterface
          OutputStreamWriter out = null;
          try
          {
+            final SaveMarkerIndex saveMarkers = new SaveMarkerIndex(oldFile);
+            final long lastSave = saveMarkers.getLastSave();
+            if(lastSave >= 0)
+            {
+               // drop everything after the last save tag
+               final RandomAccessFile log = new RandomAccessFile(oldFile, "rw");
+               try
+               {
+                  log.getChannel().truncate(lastSave);
+               }
+               finally
+               {
+                  log.close();
+               }
+               
+               // the lines up to (and including) the last save tag are still
+               // needed to rebuild the summary log pane
+               newLog = new LinkedList<String>();
+               final BufferedReader oldLogStream = new BufferedReader(new InputStreamReader(
+                     new FileInputStream(oldFile), "UTF-16"));
+               try
+               {
+                  String tempstring = oldLogStream.readLine();
+                  while(tempstring != null)
+                  {
+                     newLog.add(tempstring + "\n");
+                     tempstring = oldLogStream.readLine();
+                  }
+               }
+               finally
+               {
+                  oldLogStream.close();
+               }
+               
+               // the byte order mark is already at the start of the file
+               out = new OutputStreamWriter(
+                  new FileOutputStream(oldFile, true), SaveMarkerIndex.ENCODING);
+               LOGGER.fine(newLog.size() + " messages in newLog");
+               LOGGER.exiting("LMSLogger$PrivilegedStartLogs$PrivilegedStartLogs","openOldLog()");
+               return out;
+            }
+            
             final BufferedReader oldLogStream = new BufferedReader(new InputStreamReader(
                   new FileInputStream(oldFile), "UTF-16"));
             
@@ -708,7 +753,7 @@ public class LmsLogger implements LmsLoggerInterface
                // (or null for eof), then write to the newLog collection
                while(((tempstring != null) &&
                   !"</logmessages>".equals(tempstring)) &&
-                  !"<message type=\"save\"></message>".equals(tempstring))
+                  !SaveMarkerIndex.SAVE_LINE.equals(tempstring))
                {
                   temp.add(tempstring);
                   tempstring = oldLogStream.readLine();
@@ -718,7 +763,7 @@ public class LmsLogger implements LmsLoggerInterface
                // encountered a save tag, or the end tag. If it's the save tag
                // we want to copy the temp to the newLog collection, if it's the
                // end tag we want to continue without writing to the newLog
-               if("<message type=\"save\"></message>".equals(tempstring))
+               if(SaveMarkerIndex.SAVE_LINE.equals(tempstring))
                {
                   // add the save tag to the collection
                   temp.add(tempstring);
@@ -747,6 +792,13 @@ public class LmsLogger implements LmsLoggerInterface
             }
             out.flush();
             oldLogStream.close();
+            
+            // start a new index of the save tags from the rewritten log
+            saveMarkers.clear();
+            if(!newLog.isEmpty())
+            {
+               saveMarkers.markSave();
+            }
          }
          catch(Exception e)
          {
@@ -805,7 +857,8 @@ public class LmsLogger implements LmsLoggerInterface
          {
             tempLog = logs[i];
             if((tempLog.lastModified() > lastDetailedLog.lastModified()) &&
-               !tempLog.getName().endsWith("SummaryLog.xml"))
+               !tempLog.getName().endsWith("SummaryLog.xml") &&
+               !tempLog.getName().endsWith("SummaryLog.xml" + SaveMarkerIndex.SUFFIX))
             {
                LOGGER.info("Deleting old log file: " + tempLog.getName());
                tempLog.delete();
@@ -841,7 +894,8 @@ public class LmsLogger implements LmsLoggerInterface
             // iterate through the file names until one has "Summary" in it
             for(int i=0;i<files.length;i++)
             {
-               if(files[i].indexOf(SUMMARY_KEY) != -1)
+               if(files[i].indexOf(SUMMARY_KEY) != -1 &&
+                  !files[i].endsWith(SaveMarkerIndex.SUFFIX))
                {
                    sumLog = new File(temp.getPath() + File.separatorChar + files[i]);
                    LOGGER.finest("returning summary log: " + sumLog.getPath());
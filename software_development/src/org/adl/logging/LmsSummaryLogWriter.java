@@ -1,5 +1,6 @@
 package org.adl.logging;
 
+import java.io.File;
 import java.io.OutputStreamWriter;
 import org.adl.util.LogMessage;
 import org.adl.util.MessageType;
@@ -13,6 +14,11 @@ import org.adl.util.MessageType;
  */
 public class LmsSummaryLogWriter extends SummaryLogWriter
 {
+   /**
+    * records where the save messages are written to the summary log file
+    */
+   private transient SaveMarkerIndex mSaveMarkers;
+   
    /**
     * Constructor used if the file has not been created yet
     * @param iLfg LogFileGenerator used to set the local attribute
@@ -28,13 +34,30 @@ public class LmsSummaryLogWriter extends SummaryLogWriter
     * @param iFw FileWriter used to write to the summary log file
     */
    public LmsSummaryLogWriter(final OutputStreamWriter iFw)
+   {
+      this(iFw, null);
+   }
+   
+   /**
+    * Constructor used if the file has been created, when the save messages
+    * written to it are to be recorded
+    * @param iFw FileWriter used to append to the summary log file
+    * @param iLog the summary log file, or null
+    */
+   public LmsSummaryLogWriter(final OutputStreamWriter iFw, final File iLog)
    {
       LOGGER.entering(getClass().getSimpleName(), "LmsSummaryLogWriter()");
       
+      summaryStream = iFw;
+      summaryLogFile = iLog;
+      if ( iLog != null )
+      {
+         mSaveMarkers = new SaveMarkerIndex(iLog);
+      }
+      
       // hand off this to a new Thread object and kick it off
       init();
       
-      summaryStream = iFw;
       LOGGER.exiting(getClass().getSimpleName(), "LmsSummaryLogWriter()");
    }
    
@@ -109,5 +132,35 @@ public class LmsSummaryLogWriter extends SummaryLogWriter
       
       LOGGER.exiting(getClass().getSimpleName(), "run()");
    }// end of run()
+   
+   /**
+    * Creates the summary log file, with an empty index of its save messages
+    * @param msgTxt
+    */
+   protected void createSummaryLogFile(final String msgTxt)
+   {
+      super.createSummaryLogFile(msgTxt);
+      
+      if ( summaryLogFile != null )
+      {
+         mSaveMarkers = new SaveMarkerIndex(summaryLogFile);
+         mSaveMarkers.clear();
+      }
+   }
+   
+   /**
+    * Writes the message to file, and records where it ends if it is a save
+    * message so that the test can be restarted from there
+    * @param iMessage the message to be written to file
+    */
+   protected void writeToFile(final LogMessage iMessage)
+   {
+      super.writeToFile(iMessage);
+      
+      if ( iMessage.getMessageType() == MessageType.SAVE && mSaveMarkers != null )
+      {
+         mSaveMarkers.markSave();
+      }
+   }
 
 }
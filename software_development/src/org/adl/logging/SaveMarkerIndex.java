@@ -0,0 +1,161 @@
+package org.adl.logging;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * This class keeps the byte offsets of the save messages written to an LMS
+ * summary log in a file next to the log.  Each offset is the end of a save
+ * message, so a saved test is restarted by cutting the log at the last offset
+ * instead of reading the log and writing it again.<br><br>
+ *
+ * The offsets are only trusted if the log still ends with a save message at
+ * the last offset, so a log written without this index, or changed since, is
+ * read the old way.
+ *
+ * @author ADL Technical Team
+ */
+final class SaveMarkerIndex
+{
+   /**
+    * The suffix added to the name of the log for the index
+    */
+   static final String SUFFIX = ".saves";
+
+   /**
+    * The line written to the summary log for a save message
+    */
+   static final String SAVE_LINE = "<message type=\"save\"></message>";
+
+   /**
+    * The encoding of the summary log after its byte order mark
+    */
+   static final String ENCODING = "UTF-16BE";
+
+   /**
+    * Logger object used for debug logging
+    */
+   private static final Logger LOGGER = Logger.getLogger("org.adl.util.debug.testsuite");
+
+   /**
+    * The summary log
+    */
+   private final File mLog;
+
+   /**
+    * The index of the summary log
+    */
+   private final File mIndex;
+
+   /**
+    * Constructor
+    * @param iLog the summary log
+    */
+   SaveMarkerIndex(final File iLog)
+   {
+      mLog = iLog;
+      mIndex = new File(iLog.getPath() + SUFFIX);
+   }
+
+   /**
+    * Records a save message that has just been written and flushed to the end
+    * of the summary log
+    */
+   void markSave()
+   {
+      try
+      {
+         final DataOutputStream out =
+            new DataOutputStream(new FileOutputStream(mIndex, true));
+         try
+         {
+            out.writeLong(mLog.length());
+         }
+         finally
+         {
+            out.close();
+         }
+      }
+      catch(IOException ioe)
+      {
+         LOGGER.severe("IOException in SaveMarkerIndex.markSave():\n" + ioe);
+      }
+   }
+
+   /**
+    * Removes all of the recorded save messages
+    */
+   void clear()
+   {
+      if(mIndex.exists() && !mIndex.delete())
+      {
+         LOGGER.warning("The save index " + mIndex + " could not be deleted");
+      }
+   }
+
+   /**
+    * Returns the end of the last save message in the summary log
+    * @return the offset just after the last save message, or -1 if it is not
+    * known
+    */
+   long getLastSave()
+   {
+      final long indexLength = mIndex.length();
+      if(indexLength < 8 || indexLength % 8 != 0)
+      {
+         return -1;
+      }
+
+      try
+      {
+         final byte[] expected = (SAVE_LINE + "\n").getBytes(ENCODING);
+         long offset;
+
+         final RandomAccessFile index = new RandomAccessFile(mIndex, "r");
+         try
+         {
+            index.seek(indexLength - 8);
+            offset = index.readLong();
+         }
+         finally
+         {
+            index.close();
+         }
+
+         if(offset < expected.length || offset > mLog.length())
+         {
+            return -1;
+         }
+
+         // make sure the log still has the save message at the offset
+         final byte[] found = new byte[expected.length];
+         final RandomAccessFile log = new RandomAccessFile(mLog, "r");
+         try
+         {
+            log.seek(offset - expected.length);
+            log.readFully(found);
+         }
+         finally
+         {
+            log.close();
+         }
+
+         return Arrays.equals(expected, found) ? offset : -1;
+      }
+      catch(UnsupportedEncodingException uee)
+      {
+         return -1;
+      }
+      catch(IOException ioe)
+      {
+         LOGGER.severe("IOException in SaveMarkerIndex.getLastSave():\n" + ioe);
+         return -1;
+      }
+   }
+}
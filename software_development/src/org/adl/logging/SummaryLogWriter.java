@@ -73,6 +73,11 @@ public class SummaryLogWriter implements Runnable
     */
    protected transient OutputStreamWriter summaryStream;
    
+   /**
+    * the summary log file, once it has been created
+    */
+   protected transient File summaryLogFile;
+   
    /**
     * used to create the Log File and return the name
     */
@@ -232,6 +237,7 @@ public class SummaryLogWriter implements Runnable
       {         
          // create the summary log file
          final File summaryLog = new File(mLfg.getLogName("LMS", msgTxt, false));
+         summaryLogFile = summaryLog;
          
          // get the OutputStreamWriter to write to the summaryLog         
          summaryStream = new OutputStreamWriter(new FileOutputStream(summaryLog), "UTF-16");
@@ -36,6 +36,7 @@ import org.adl.util.LogMessage;
 import org.adl.util.MessageType;
 import org.adl.logging.DetailedLogMessageCollection;
 import org.adl.util.Messages;
+import org.adl.util.SchemaCatalog;
 
 /**
  * <strong>Filename: </strong>ADLDOMParser.java<br><br>
@@ -146,6 +147,20 @@ public class ADLDOMParser implements ErrorHandler
      */
     private List mDeclaredNamespaces;
 
+   /**
+    * The system property that, when <code>true</code>, makes single-parse
+    * validation the default of new parsers.
+    */
+   public static final String SINGLE_PARSE_PROPERTY =
+      "org.adl.parsers.dom.ADLDOMParser.singleParse";
+
+   /**
+    * Indicates if <code>parseForValidation</code> reads the XML instance once,
+    * with a single validating parse, instead of parsing it for wellformedness
+    * and then again for validation against the controlling documents.
+    */
+   private boolean mSingleParse;
+
 
    /**
     * Default Constructor.  Sets the attributes to their initial values.
@@ -165,6 +180,7 @@ public class ADLDOMParser implements ErrorHandler
       mFirstTimeSchemaLocationFound = true;
       mSchemaLocExists = false;
       mDeclaredNamespaces = new ArrayList();
+      mSingleParse = Boolean.getBoolean( SINGLE_PARSE_PROPERTY );
    }
 
    /**
@@ -183,6 +199,26 @@ public class ADLDOMParser implements ErrorHandler
       mSchemaLocation = iSchemaLocation;
    }
 
+   /**
+    * Sets whether <code>parseForValidation</code> reads the XML instance once.
+    * In this mode the instance is parsed a single time with validation turned
+    * on.  Fatal errors reported by the parser make the instance not
+    * wellformed, other errors and warnings make it not valid.  The
+    * xsi:schemaLocation attributes are picked up by the validator as it
+    * reaches the elements that declare them, and the schema locations set by
+    * <code>setSchemaLocation</code>, if any, are used as defaults.  The
+    * document is pruned as by a parse for wellformedness, without the default
+    * values inserted by the validation.  New parsers use this mode when the
+    * system property <code>SINGLE_PARSE_PROPERTY</code> is <code>true</code>.
+    *
+    * @param iSingleParse true to validate with a single parse, false to
+    *                     parse for wellformedness first.
+    */
+   public void setSingleParse( boolean iSingleParse )
+   {
+      mSingleParse = iSingleParse;
+   }
+
    /**
     * Returns the document created during a parse. A parse for
     * wellformedness creates a document object while the parse for validation
@@ -395,7 +431,7 @@ public class ADLDOMParser implements ErrorHandler
         //parser
         if ( mStateIsValidating )  // configuring a validating parser
         {
-           if ( mSchemaLocation != null )
+           if ( mSchemaLocation != null || mSingleParse )
            {
               try
               {
@@ -413,12 +449,27 @@ public class ADLDOMParser implements ErrorHandler
 
                  mLogger.finest( "setting schemas to - " + mSchemaLocation ); 
 
-                 mParser.setProperty(
-                  "http://apache.org/xml/properties/schema/external-schemaLocation", 
-                   mSchemaLocation );
+                 if ( mSchemaLocation != null )
+                 {
+                    mParser.setProperty(
+                     "http://apache.org/xml/properties/schema/external-schemaLocation", 
+                      mSchemaLocation );
+                 }
+
+                 if ( mSingleParse )
+                 {
+                    // Keep the values as they appear in the XML instance
+                    mParser.setFeature(
+                     "http://apache.org/xml/features/validation/schema/normalized-value", 
+                      false );
+                    mParser.setFeature(
+                     "http://apache.org/xml/features/validation/schema/element-default", 
+                      false );
+                 }
 
 
                  mParser.setErrorHandler( this );
+                 mParser.setEntityResolver( SchemaCatalog.getInstance() );
               }
               catch ( SAXException se )
               {
@@ -450,6 +501,7 @@ public class ADLDOMParser implements ErrorHandler
                    false );
 
               mParser.setErrorHandler( this );
+              mParser.setEntityResolver( SchemaCatalog.getInstance() );
            }
            catch (SAXException se )
            {
@@ -633,6 +685,13 @@ public class ADLDOMParser implements ErrorHandler
       mLogger.entering( "ADLDOMParser", "parseForValidation()" );  
       mLogger.finest( "   iXMLFileName coming in is " + iXMLFileName ); 
 
+      if ( mSingleParse )
+      {
+         parseOnceForValidation( iXMLFileName );
+         mLogger.exiting( "ADLDOMParser", "parseForValidation()" ); 
+         return;
+      }
+
       configureParser();
 
       Document wellformednessDocument = null;
@@ -766,6 +825,98 @@ public class ADLDOMParser implements ErrorHandler
      mLogger.exiting( "ADLDOMParser", "parseForValidation()" ); 
    }
 
+   /**
+    * Performs the single validating parse of <code>parseForValidation</code>
+    * when the single parse mode is set.  The document created is pruned and
+    * its schema locations and declared namespaces are recorded, as by a parse
+    * for wellformedness of a controlling document.
+    *
+    * @param iXMLFileName - the xml document to be parsed for validation
+    * against the controlling documents.
+    */
+   private void parseOnceForValidation( String iXMLFileName )
+   {
+      mLogger.entering( "ADLDOMParser", "parseOnceForValidation()" );  
+
+      Document validationDocument = null;
+      String msgText;
+
+      String fileName = searchFile( iXMLFileName, "xml" ); 
+
+      mStateIsValidating = true;
+      configureParser();
+
+      if ( !fileName.equals("") && mParser != null ) 
+      {
+         msgText = Messages.getString("ADLDOMParser.81"); 
+         mLogger.info( msgText );
+         DetailedLogMessageCollection.getInstance().addMessage( new LogMessage (
+                                                      MessageType.INFO,
+                                                      msgText ) );
+
+         InputSource inputSource = setUpInputSource( fileName );
+
+         // Relative xsi:schemaLocation values are resolved against the
+         // location of the XML instance
+         if ( new File( fileName ).isFile() )
+         {
+            inputSource.setSystemId( new File( fileName ).toURI().toString() );
+         }
+         else
+         {
+            inputSource.setSystemId( fileName );
+         }
+
+         try
+         {
+            mParser.parse( inputSource );
+            validationDocument = mParser.getDocument();
+
+            if ( validationDocument != null )
+            {
+               mIsXMLWellformed = true;
+            }
+         }
+         catch ( SAXException se )
+         {
+            // A fatal error stops the parse, the XML is not wellformed
+            msgText = "SAXException thrown during validating parse"; 
+            mLogger.severe( msgText );
+         }
+         catch ( IOException ioe )
+         {
+            msgText = "IOException thrown during validating parse"; 
+            mLogger.severe( msgText );
+         }
+         catch ( NullPointerException npe )
+         {
+            msgText = "NullPointerException thrown during validating parse"; 
+            mLogger.severe( msgText );
+         }
+      }
+
+      if ( !mIsXMLWellformed )
+      {
+         mValidFlag = false;
+      }
+
+      setDocumentAttribute( validationDocument, true, iXMLFileName, true );
+      setValidXMLToSchemaAttribute();
+
+      mLogger.finest( "wellformed = " + getIsWellformed() ); 
+      mLogger.finest( "valid = " + getIsValidToSchema() ); 
+
+      if ( getIsValidToSchema() )
+      {
+         msgText = Messages.getString("ADLDOMParser.91"); 
+         mLogger.info( msgText );
+         DetailedLogMessageCollection.getInstance().addMessage( new LogMessage ( 
+                                             MessageType.PASSED, msgText ) );
+      }
+
+      mLogger.exiting( "ADLDOMParser", "parseOnceForValidation()" ); 
+   }
+
 
    /**
     * Traverses the DOM Tree and removes Ignorable Whitespace Text Nodes and
@@ -806,6 +957,11 @@ public class ADLDOMParser implements ErrorHandler
              mLogger.finest("Processing Element Node: [" +  
                             iNode.getLocalName() + "]"); 
 
+             if ( mSingleParse )
+             {
+                removeDefaultedAttributes( iNode );
+             }
+
              checkForSchemaLocations(iNode, iXMLFileName);
 
              // Get the list of attributes of the element
@@ -1140,6 +1296,37 @@ public class ADLDOMParser implements ErrorHandler
        mLogger.exiting( "ADLDOMParser", "setDocumentAttribute()" ); 
     }
 
+   /**
+    * Removes the attributes of an element that were defaulted by the
+    * validating parse, and so do not appear in the XML instance.  A default
+    * declared in a DTD is put straight back by the DOM, just as a parse for
+    * wellformedness inserts it, so it is kept.
+    *
+    * @param iNode The element being processed
+    */
+   private void removeDefaultedAttributes( Node iNode )
+   {
+      NamedNodeMap attrList = iNode.getAttributes();
+
+      for ( int i = 0; i < attrList.getLength(); i++ )
+      {
+         Attr currentAttribute = (Attr)attrList.item(i);
+
+         if ( !currentAttribute.getSpecified() )
+         {
+            String namespace = currentAttribute.getNamespaceURI();
+            String localName = currentAttribute.getLocalName();
+
+            attrList.removeNamedItemNS( namespace, localName );
+
+            if ( attrList.getNamedItemNS( namespace, localName ) == null )
+            {
+               i--;
+            }
+         }
+      }
+   }
+
    /**
     * Sets the mIsXMLValidToSchema attribute to it's final value.
     * This is necessary to work around the problem with Xerces now throwing
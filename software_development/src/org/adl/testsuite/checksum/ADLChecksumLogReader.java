@@ -4,6 +4,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.List;
 
+import org.adl.util.SchemaCatalog;
 import org.adl.util.decode.decodeHandler;
 import org.jdom.Document;
 import org.jdom.Element;
@@ -67,6 +68,7 @@ public class ADLChecksumLogReader
          
          SAXBuilder builder = new SAXBuilder(/*"org.apache.xerces.parsers.SAXParser"*/);
          builder.setReuseParser(false);
+         builder.setEntityResolver(SchemaCatalog.getInstance());
          
          return builder.build(fis);
       }
@@ -13,6 +13,11 @@ import java.util.List;
 import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.adl.logging.DetailedLogMessageCollection;
 import org.adl.logging.DetailedLogWriter;
@@ -37,6 +42,7 @@ import org.adl.util.zip.UnZipHandler;
 import org.adl.validator.Validator;
 import org.adl.validator.util.ResultCollection;
 import org.adl.validator.util.ValidatorCheckerNames;
+import org.adl.validator.util.cache.ValidationCache;
 import org.w3c.dom.Document;
 
 /**
@@ -54,6 +60,11 @@ import org.w3c.dom.Document;
 public class ContentPackageTester
 {
    
+   /**
+    * The largest number of metadata files validated at the same time
+    */
+   private static final int MAX_METADATA_THREADS = 4;
+   
    /**
     * The content package validator instance used to validate the content
     * package
@@ -114,6 +125,12 @@ public class ContentPackageTester
     */
    private String mApplicationProfileType;
    
+   /**
+    * The cache of package checker Results shared by every validation ran by 
+    * this tester, so unchanged manifests and metadata are not validated again
+    */
+   private ValidationCache mValidationCache;
+   
    /**
     * Default Constructor
     * 
@@ -135,6 +152,9 @@ public class ContentPackageTester
       
       mManifestHandler = new ManifestHandler();
       
+      mValidationCache = new ValidationCache(
+         new File(iEnvironmentVariable + File.separator + "ValidationCache"));
+      
    }
 
    /**
@@ -217,6 +237,7 @@ public class ContentPackageTester
       mBaseDirectory = importContentPackage(iTestSubject);
       
       mSCORMValidator = new Validator(mBaseDirectory+"imsmanifest.xml", iApplicationProfileType, iManifestOnly);
+      mSCORMValidator.setValidationCache(mValidationCache);
       
       mSCORMValidator.validate();
       validatorCollection = mSCORMValidator.getResultCollection();
@@ -372,160 +393,156 @@ public class ContentPackageTester
 
       if ( uniqueMetadataList.size() > 0 )
       {
-         Iterator metadataIter = uniqueMetadataList.iterator();
-         int count = 1;
-         while ( metadataIter.hasNext() )
+         // The metadata files are validated in the background while the 
+         // results are logged below in manifest order
+         ExecutorService executor = createMetadataExecutor(uniqueMetadataList);
+         List<Future<ResultCollection>> metadataResults = 
+            submitMetadataValidation(executor, uniqueMetadataList);
+         
+         try
          {
-            MetadataLaunchData currentMetadataData =(MetadataLaunchData)metadataIter.next();
+            Iterator metadataIter = uniqueMetadataList.iterator();
+            int count = 1;
+            while ( metadataIter.hasNext() )
+            {
+               MetadataLaunchData currentMetadataData =(MetadataLaunchData)metadataIter.next();
+               Future<ResultCollection> metadataResult = metadataResults.get(count - 1);
            
-            // creates the sublog and returns the URL
-            mDetailedLogFileURL = mLfg.getLogName("MD" + ( count ), "", true);
-            count++;
-
-            // create a new sublog
-            DetailedLogMessageCollection.getInstance().addMessage(
-               new LogMessage(MessageType.NEWLOG, mDetailedLogFileURL));
-
-            TestSubjectData.getInstance().sendToDetailedLog("Metadata");
+               // creates the sublog and returns the URL
+               mDetailedLogFileURL = mLfg.getLogName("MD" + ( count ), "", true);
+               count++;
 
-            String metadataLocation = currentMetadataData.getLocation();
-            metadataLocation = metadataLocation.replaceAll("/", "\\\\");
+               // create a new sublog
+               DetailedLogMessageCollection.getInstance().addMessage(
+                  new LogMessage(MessageType.NEWLOG, mDetailedLogFileURL));
 
-            // Because the metadata location came from the manifest, it may be encoded
-            // we must decode the location before we try to locate it
-            decodeHandler handler = new decodeHandler(metadataLocation,"UTF-16");
-            handler.decodeName();
-            metadataLocation = mBaseDirectory + handler.getDecodedFileName();
-            
-            Validator mSCORMMDValidator = new Validator(metadataLocation, 
-                                                         mApplicationProfileType, 
-                                                         mTestMetadata);
-            List checkerList = new ArrayList();
-            checkerList.add("org.adl.validator.packagechecker.checks.WellformednessChecker");
-            checkerList.add("org.adl.validator.packagechecker.checks.SchemaValidationChecker");
-            mSCORMMDValidator.setCheckerList(checkerList);
+               TestSubjectData.getInstance().sendToDetailedLog("Metadata");
             
-            String location = "";
+               String location = "";
 
-            String identifier = currentMetadataData.getIdentifiers();
+               String identifier = currentMetadataData.getIdentifiers();
 
-            if( currentMetadataData.isInlineMetadata() )
-            {
-               location = "inline";
+               if( currentMetadataData.isInlineMetadata() )
+               {
+                  location = "inline";
 
-               DetailedLogMessageCollection.getInstance().addMessage(new LogMessage(
-                  MessageType.INFO, Messages.getString("ContentPackageTester.33", location,
-                        identifier)));
+                  DetailedLogMessageCollection.getInstance().addMessage(new LogMessage(
+                     MessageType.INFO, Messages.getString("ContentPackageTester.33", location,
+                           identifier)));
                
-               SummaryLogMessageCollection.getInstance().addMessage(
-                     new LogMessage(MessageType.INFO, Messages.getString("ContentPackageTester.32")));
+                  SummaryLogMessageCollection.getInstance().addMessage(
+                        new LogMessage(MessageType.INFO, Messages.getString("ContentPackageTester.32")));
                
-               SummaryLogMessageCollection.getInstance().addMessage(
-                     new LogMessage(MessageType.INFO, Messages.getString("ContentPackageTester.33", location,
-                        identifier)));
+                  SummaryLogMessageCollection.getInstance().addMessage(
+                        new LogMessage(MessageType.INFO, Messages.getString("ContentPackageTester.33", location,
+                           identifier)));
                
-               DetailedLogMessageCollection.getInstance().addMessage(new LogMessage(
-                     MessageType.OTHER, Messages.getString("ContentPackageTester.36")));
+                  DetailedLogMessageCollection.getInstance().addMessage(new LogMessage(
+                        MessageType.OTHER, Messages.getString("ContentPackageTester.36")));
                
-               String msgText;
+                  String msgText;
 
-               msgText = Messages.getString("MDValidator.14");
-               DetailedLogMessageCollection.getInstance().addMessage( new LogMessage (
-                  MessageType.INFO, msgText ) );
-               
-               msgText = Messages.getString("MDValidator.22"); 
-               DetailedLogMessageCollection.getInstance().addMessage( new LogMessage (
-                  MessageType.PASSED, msgText ) );
-               SummaryLogMessageCollection.getInstance().addMessage( new LogMessage (
-                     MessageType.PASSED, msgText ) );
-               
-               DetailedLogMessageCollection.getInstance().addMessage(new LogMessage(
-                     MessageType.OTHER, Messages.getString("ContentPackageTester.36")));
-               
-               msgText = Messages.getString("MDValidator.15");
-               DetailedLogMessageCollection.getInstance().addMessage( new LogMessage (
-                  MessageType.INFO, msgText ) );
+                  msgText = Messages.getString("MDValidator.14");
+                  DetailedLogMessageCollection.getInstance().addMessage( new LogMessage (
+                     MessageType.INFO, msgText ) );
                
-               if ( iDidValidationToSchemaPass )
-               {
-                  msgText = Messages.getString("MDValidator.23"); 
+                  msgText = Messages.getString("MDValidator.22"); 
                   DetailedLogMessageCollection.getInstance().addMessage( new LogMessage (
-                        MessageType.PASSED, msgText ) );
+                     MessageType.PASSED, msgText ) );
                   SummaryLogMessageCollection.getInstance().addMessage( new LogMessage (
                         MessageType.PASSED, msgText ) );
-               }
-               else
-               {
-                  msgText = Messages.getString("MDValidator.24"); 
+               
+                  DetailedLogMessageCollection.getInstance().addMessage(new LogMessage(
+                        MessageType.OTHER, Messages.getString("ContentPackageTester.36")));
+               
+                  msgText = Messages.getString("MDValidator.15");
                   DetailedLogMessageCollection.getInstance().addMessage( new LogMessage (
-                        MessageType.FAILED, msgText ) );
-                  SummaryLogMessageCollection.getInstance().addMessage( new LogMessage (
-                        MessageType.FAILED, msgText ) );
-               }
+                     MessageType.INFO, msgText ) );
                
-               SummaryLogMessageCollection.getInstance().addMessage( new LogMessage (
-                     MessageType.LINKMD, mDetailedLogFileURL, identifier ));
-               // retrieve object that stores the results of the validation
-               // activites needed for logging an conformance.
-               metadataValidateOutcomeList.add(Boolean.valueOf(iDidValidationToSchemaPass));
-            }
-            else
-            {
-               if( "pif".equals(iTestSubjectType) )
-               {
-                  location = packageLocation + File.separator + currentMetadataData.getLocation();
+                  if ( iDidValidationToSchemaPass )
+                  {
+                     msgText = Messages.getString("MDValidator.23"); 
+                     DetailedLogMessageCollection.getInstance().addMessage( new LogMessage (
+                           MessageType.PASSED, msgText ) );
+                     SummaryLogMessageCollection.getInstance().addMessage( new LogMessage (
+                           MessageType.PASSED, msgText ) );
+                  }
+                  else
+                  {
+                     msgText = Messages.getString("MDValidator.24"); 
+                     DetailedLogMessageCollection.getInstance().addMessage( new LogMessage (
+                           MessageType.FAILED, msgText ) );
+                     SummaryLogMessageCollection.getInstance().addMessage( new LogMessage (
+                           MessageType.FAILED, msgText ) );
+                  }
+               
+                  SummaryLogMessageCollection.getInstance().addMessage( new LogMessage (
+                        MessageType.LINKMD, mDetailedLogFileURL, identifier ));
+                  // retrieve object that stores the results of the validation
+                  // activites needed for logging an conformance.
+                  metadataValidateOutcomeList.add(Boolean.valueOf(iDidValidationToSchemaPass));
                }
                else
-               // ( iTestSubjectType.equals("non-pif") )
                {
-                  // the size of substring can be calculated by removing the 16
-                  // characters "/imsmanifest.xml" from the end
-                  int sizeOfSubstring = iTestSubjectFile.length() - 16;
-                  location = iTestSubjectFile.substring(0, sizeOfSubstring) + File.separator
-                     + currentMetadataData.getLocation();
-               }
-
-               String logTextLocation = location.replace(File.separatorChar, '/');
-
-               // This adds the "Testing Metadata with location..." to the
-               // detailed log
-               DetailedLogMessageCollection.getInstance().addMessage(
-                  new LogMessage(MessageType.INFO, Messages.getString("ContentPackageTester.33", logTextLocation,
-                     identifier)));
-
-               SummaryLogMessageCollection.getInstance().addMessage(
-                     new LogMessage(MessageType.INFO, Messages.getString("ContentPackageTester.32")));
-               
-               SummaryLogMessageCollection.getInstance().addMessage(
+                  if( "pif".equals(iTestSubjectType) )
+                  {
+                     location = packageLocation + File.separator + currentMetadataData.getLocation();
+                  }
+                  else
+                  // ( iTestSubjectType.equals("non-pif") )
+                  {
+                     // the size of substring can be calculated by removing the 16
+                     // characters "/imsmanifest.xml" from the end
+                     int sizeOfSubstring = iTestSubjectFile.length() - 16;
+                     location = iTestSubjectFile.substring(0, sizeOfSubstring) + File.separator
+                        + currentMetadataData.getLocation();
+                  }
+
+                  String logTextLocation = location.replace(File.separatorChar, '/');
+
+                  // This adds the "Testing Metadata with location..." to the
+                  // detailed log
+                  DetailedLogMessageCollection.getInstance().addMessage(
                      new LogMessage(MessageType.INFO, Messages.getString("ContentPackageTester.33", logTextLocation,
                         identifier)));
+
+                  SummaryLogMessageCollection.getInstance().addMessage(
+                        new LogMessage(MessageType.INFO, Messages.getString("ContentPackageTester.32")));
+               
+                  SummaryLogMessageCollection.getInstance().addMessage(
+                        new LogMessage(MessageType.INFO, Messages.getString("ContentPackageTester.33", logTextLocation,
+                           identifier)));
                
-               mSCORMMDValidator.validate();
-               metadataResultCollection = mSCORMMDValidator.getResultCollection();
+                  metadataResultCollection = getMetadataResults(metadataResult);
 
-               result = metadataResultCollection.isAllCheckerPassed();
-               // retrieve object that stores the results of the validation
-               // activites need for logging and conformance
-               metadataValidateOutcomeList.add(Boolean.valueOf(result));
+                  result = metadataResultCollection.isAllCheckerPassed();
+                  // retrieve object that stores the results of the validation
+                  // activites need for logging and conformance
+                  metadataValidateOutcomeList.add(Boolean.valueOf(result));
                
-               ValidatorLogger validatorLog = new ValidatorLogger();
-               validatorLog.logMDResultCollectionMessages(metadataResultCollection, mDetailedLogFileURL, identifier);              
+                  ValidatorLogger validatorLog = new ValidatorLogger();
+                  validatorLog.logMDResultCollectionMessages(metadataResultCollection, mDetailedLogFileURL, identifier);              
 
-            }
+               }
 
 
             
-            // close the sublog
-            DetailedLogMessageCollection.getInstance().addMessage(new LogMessage(MessageType.ENDLOG, ""));
+               // close the sublog
+               DetailedLogMessageCollection.getInstance().addMessage(new LogMessage(MessageType.ENDLOG, ""));
 
-            // add link to child log to be displayed in the detailed log
-            DetailedLogMessageCollection.getInstance().addMessage(
-               new LogMessage(MessageType.LINKMD, mDetailedLogFileURL, identifier));
+               // add link to child log to be displayed in the detailed log
+               DetailedLogMessageCollection.getInstance().addMessage(
+                  new LogMessage(MessageType.LINKMD, mDetailedLogFileURL, identifier));
             
-            // add a divider
-            SummaryLogMessageCollection.getInstance().addMessage(new LogMessage(MessageType.OTHER, Messages.getString("ContentPackageTester.36")));
+               // add a divider
+               SummaryLogMessageCollection.getInstance().addMessage(new LogMessage(MessageType.OTHER, Messages.getString("ContentPackageTester.36")));
 
-         }// end for loop
+            }// end for loop
+         }
+         finally
+         {
+            executor.shutdownNow();
+         }
 
       }
       else
@@ -541,6 +558,122 @@ public class ContentPackageTester
       return metadataValidateOutcomeList;
    }
 
+   /**
+    * Creates the executor used to validate the metadata files of the package.
+    * The number of threads is bounded by the number of processors, the number
+    * of metadata files and MAX_METADATA_THREADS.
+    * 
+    * @param iMetadataList - List of the MetadataLaunchData to be tested
+    * @return The ExecutorService running the metadata validations
+    */
+   private ExecutorService createMetadataExecutor(List iMetadataList)
+   {
+      int threads = Math.min(Runtime.getRuntime().availableProcessors(), 
+                             MAX_METADATA_THREADS);
+      threads = Math.max(1, Math.min(threads, iMetadataList.size()));
+      return Executors.newFixedThreadPool(threads);
+   }
+   
+   /**
+    * Submits a validation for every metadata file in the given list.  Inline
+    * metadata is not validated on its own, so its entry is null.
+    * 
+    * @param iExecutor - The ExecutorService running the validations
+    * @param iMetadataList - List of the MetadataLaunchData to be tested
+    * @return List of the pending ResultCollections, in the order of 
+    * iMetadataList
+    */
+   private List<Future<ResultCollection>> submitMetadataValidation(ExecutorService iExecutor,
+                                                                   List iMetadataList)
+   {
+      List<Future<ResultCollection>> metadataResults = new ArrayList<Future<ResultCollection>>();
+      
+      for ( int i = 0; i < iMetadataList.size(); i++ )
+      {
+         MetadataLaunchData currentMetadataData = (MetadataLaunchData)iMetadataList.get(i);
+         if ( currentMetadataData.isInlineMetadata() )
+         {
+            metadataResults.add(null);
+         }
+         else
+         {
+            metadataResults.add(iExecutor.submit(
+               createMetadataValidation(currentMetadataData.getLocation())));
+         }
+      }
+      return metadataResults;
+   }
+   
+   /**
+    * Creates the task that validates a single metadata file.  The Validator 
+    * is created by the task since the validator state is held per thread.
+    * 
+    * @param iLocation - The location of the metadata file, as found in the
+    * manifest
+    * @return The Callable returning the ResultCollection of the metadata file
+    */
+   private Callable<ResultCollection> createMetadataValidation(String iLocation)
+   {
+      String metadataLocation = iLocation.replaceAll("/", "\\\\");
+
+      // Because the metadata location came from the manifest, it may be encoded
+      // we must decode the location before we try to locate it
+      decodeHandler handler = new decodeHandler(metadataLocation,"UTF-16");
+      handler.decodeName();
+      final String decodedLocation = mBaseDirectory + handler.getDecodedFileName();
+      
+      return new Callable<ResultCollection>()
+      {
+         public ResultCollection call()
+         {
+            Validator mSCORMMDValidator = new Validator(decodedLocation, 
+                                                         mApplicationProfileType, 
+                                                         mTestMetadata);
+            List<String> checkerList = new ArrayList<String>();
+            checkerList.add("org.adl.validator.packagechecker.checks.WellformednessChecker");
+            checkerList.add("org.adl.validator.packagechecker.checks.SchemaValidationChecker");
+            mSCORMMDValidator.setCheckerList(checkerList);
+            mSCORMMDValidator.setValidationCache(mValidationCache);
+            
+            mSCORMMDValidator.validate();
+            return mSCORMMDValidator.getResultCollection();
+         }
+      };
+   }
+   
+   /**
+    * Waits for the validation of a metadata file to complete.  Any exception
+    * thrown by the validation is rethrown on the calling thread.
+    * 
+    * @param iMetadataResult - The pending ResultCollection of the metadata file
+    * @return The ResultCollection of the metadata file
+    */
+   private ResultCollection getMetadataResults(Future<ResultCollection> iMetadataResult)
+   {
+      try
+      {
+         return iMetadataResult.get();
+      }
+      catch ( InterruptedException ie )
+      {
+         Thread.currentThread().interrupt();
+         throw new IllegalStateException("Metadata validation was interrupted", ie);
+      }
+      catch ( ExecutionException ee )
+      {
+         Throwable cause = ee.getCause();
+         if ( cause instanceof RuntimeException )
+         {
+            throw (RuntimeException)cause;
+         }
+         if ( cause instanceof Error )
+         {
+            throw (Error)cause;
+         }
+         throw new IllegalStateException(cause);
+      }
+   }
+
    /**
     * Adds an ENDLOG message to the Summary LogMessageCollection
     */
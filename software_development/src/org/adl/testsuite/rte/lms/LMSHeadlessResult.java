@@ -0,0 +1,111 @@
+package org.adl.testsuite.rte.lms;
+
+import java.util.List;
+
+import org.adl.util.LogMessage;
+
+/**
+ * Holds the outcome of one LMS test case run by the
+ * <code>LMSHeadlessRunner</code>.
+ *
+ * @author ADL Technical Team
+ */
+public class LMSHeadlessResult
+{
+   /**
+    * The name of the test case.
+    */
+   private final String mTestCaseName;
+
+   /**
+    * Indicates if every Activity of the test case passed.
+    */
+   private final boolean mPassed;
+
+   /**
+    * The number of Activities run.
+    */
+   private final int mActivityCount;
+
+   /**
+    * The time taken by the test case, in nanoseconds.
+    */
+   private final long mDuration;
+
+   /**
+    * The messages the evaluation sent to the detailed log.
+    */
+   private final List<LogMessage> mMessages;
+
+   /**
+    * Overloaded constructor
+    *
+    * @param iTestCaseName The name of the test case.
+    * @param iPassed Indicates if every Activity passed.
+    * @param iActivityCount The number of Activities run.
+    * @param iDuration The time taken by the test case, in nanoseconds.
+    * @param iMessages The messages sent to the detailed log.
+    */
+   LMSHeadlessResult(final String iTestCaseName,
+                     final boolean iPassed,
+                     final int iActivityCount,
+                     final long iDuration,
+                     final List<LogMessage> iMessages)
+   {
+      mTestCaseName = iTestCaseName;
+      mPassed = iPassed;
+      mActivityCount = iActivityCount;
+      mDuration = iDuration;
+      mMessages = iMessages;
+   }
+
+   /**
+    * Returns the name of the test case.
+    *
+    * @return The name of the test case.
+    */
+   public String getTestCaseName()
+   {
+      return mTestCaseName;
+   }
+
+   /**
+    * Returns whether every Activity of the test case passed.
+    *
+    * @return true if the test case passed.
+    */
+   public boolean isPassed()
+   {
+      return mPassed;
+   }
+
+   /**
+    * Returns the number of Activities run.
+    *
+    * @return The number of Activities.
+    */
+   public int getActivityCount()
+   {
+      return mActivityCount;
+   }
+
+   /**
+    * Returns the time taken by the test case.
+    *
+    * @return The duration in nanoseconds.
+    */
+   public long getDuration()
+   {
+      return mDuration;
+   }
+
+   /**
+    * Returns the messages the evaluation sent to the detailed log.
+    *
+    * @return The messages, oldest first.
+    */
+   public List<LogMessage> getMessages()
+   {
+      return mMessages;
+   }
+}
@@ -0,0 +1,334 @@
+package org.adl.testsuite.rte.lms;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.adl.logging.LmsLoggerInterface;
+import org.adl.testsuite.rte.lms.comm.ReferenceLMSTransport;
+import org.adl.testsuite.rte.lms.interfaces.LMSAPITransport;
+import org.adl.testsuite.rte.lms.testcase.Activity;
+import org.adl.testsuite.rte.lms.testcase.LMSTestCase;
+import org.adl.testsuite.rte.lms.testcase.TestCaseEvaluator;
+import org.adl.testsuite.rte.lms.util.ActivityPlan;
+import org.adl.testsuite.rte.lms.util.Command;
+import org.adl.testsuite.rte.lms.util.LMSInfo;
+import org.adl.testsuite.rte.lms.util.Results;
+import org.adl.util.LogMessage;
+import org.adl.util.MessageType;
+
+/**
+ * Runs the commands of the LMS test cases without a browser, through an
+ * <code>LMSAPITransport</code>, and evaluates the results as the
+ * <code>LMSTestCaseInterface</code> does.  Each test case gets its own
+ * transports, Commands and <code>TestCaseEvaluator</code>, so test cases can
+ * run at the same time on a pool of worker threads.<br><br>
+ *
+ * Each Activity is run on a new transport, as a new launch of its SCO.  By
+ * default the transport is a <code>ReferenceLMSTransport</code>; subclasses
+ * override <code>createTransport</code> to reach the LMS being qualified.
+ * Only the API results are evaluated: the User Interface questions need a
+ * person to answer them, and the launch order checks need an LMS that
+ * sequences.
+ *
+ * @author ADL Technical Team
+ */
+public class LMSHeadlessRunner
+{
+   /**
+    * Token used to indicate to the logger that the message is to be sent to
+    * the detailed log.
+    */
+   private static final String DETAILED_KEY = "Detailed";
+
+   /**
+    * Token used to indicate to the logger that the message is to be sent to
+    * both logs.
+    */
+   private static final String BOTH_KEY = "Both";
+
+   /**
+    * The name of the test package that is always taken by the first learner.
+    */
+   private static final String API_PACKAGE = "API";
+
+   /**
+    * The name of the first learner.
+    */
+   private String mL1Name = "Learner One";
+
+   /**
+    * The id of the first learner.
+    */
+   private String mL1ID = "learner_1";
+
+   /**
+    * The name of the second learner, or empty if there is none.
+    */
+   private String mL2Name = "";
+
+   /**
+    * The id of the second learner, or empty if there is none.
+    */
+   private String mL2ID = "";
+
+   /**
+    * Sets the learners the test cases are run for, as entered on the LMS
+    * information screen.  The API test package is run for the first learner
+    * and the others for the second learner, if there is one.
+    *
+    * @param iL1Name The name of the first learner.
+    * @param iL1ID The id of the first learner.
+    * @param iL2Name The name of the second learner, or empty.
+    * @param iL2ID The id of the second learner, or empty.
+    */
+   public void setLearners(final String iL1Name, final String iL1ID,
+                           final String iL2Name, final String iL2ID)
+   {
+      mL1Name = iL1Name;
+      mL1ID = iL1ID;
+      mL2Name = iL2Name;
+      mL2ID = iL2ID;
+   }
+
+   /**
+    * Runs the named test cases of the catalog.
+    *
+    * @param iTestCaseNames The names of the test cases, or null for the whole
+    *           catalog in name order.
+    * @param iThreads The number of worker threads.
+    * @return The results, in the order of the names.
+    * @throws InterruptedException if the thread is interrupted while waiting.
+    */
+   public List<LMSHeadlessResult> run(final List<String> iTestCaseNames,
+                                      final int iThreads)
+      throws InterruptedException
+   {
+      final LMSInfo info = LMSInfo.getInstance();
+
+      List<String> names = iTestCaseNames;
+      if ( names == null )
+      {
+         names = info.getTestPackageNames();
+         Collections.sort(names);
+      }
+
+      // The catalog is read here, so the workers only read the Activities
+      final List<LMSTestCase> testCases = new ArrayList<LMSTestCase>(names.size());
+      for ( final String name : names )
+      {
+         testCases.add(info.getTestCase(name));
+      }
+
+      final ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, iThreads));
+      try
+      {
+         final List<Future<LMSHeadlessResult>> futures =
+            new ArrayList<Future<LMSHeadlessResult>>(testCases.size());
+         for ( final LMSTestCase testCase : testCases )
+         {
+            futures.add(pool.submit(new Callable<LMSHeadlessResult>()
+            {
+               public LMSHeadlessResult call()
+               {
+                  return runTestCase(testCase);
+               }
+            }));
+         }
+
+         final List<LMSHeadlessResult> results =
+            new ArrayList<LMSHeadlessResult>(futures.size());
+         for ( final Future<LMSHeadlessResult> future : futures )
+         {
+            try
+            {
+               results.add(future.get());
+            }
+            catch ( ExecutionException ee )
+            {
+               throw new IllegalStateException(ee.getCause());
+            }
+         }
+         return results;
+      }
+      finally
+      {
+         pool.shutdownNow();
+      }
+   }
+
+   /**
+    * Runs the commands of every Activity of a test case and evaluates the
+    * results.
+    *
+    * @param iTestCase The test case to run.  It is only read.
+    * @return The result of the test case.
+    */
+   public LMSHeadlessResult runTestCase(final LMSTestCase iTestCase)
+   {
+      final String name = iTestCase.getName();
+      final boolean firstLearner = name.equals(API_PACKAGE) || mL2Name.equals("");
+      final String learnerName = firstLearner ? mL1Name : mL2Name;
+      final String learnerID = firstLearner ? mL1ID : mL2ID;
+
+      final MessageLog log = new MessageLog();
+      final TestCaseEvaluator evaluator = new TestCaseEvaluator(log);
+      final List<Activity> activities = iTestCase.getActivities();
+      boolean passed = true;
+
+      final long startTime = System.nanoTime();
+      for ( final Activity activity : activities )
+      {
+         log.addMessage(DETAILED_KEY, new LogMessage(MessageType.INFO,
+            "Running Activity " + activity.getName()));
+         try
+         {
+            final ActivityPlan plan = ActivityPlan.getPlan(activity.getCommandsKey());
+
+            final Command commands = plan.newCommand();
+            final Results returned =
+               commands.evaluate(createTransport(name, activity.getName(),
+                                                 learnerName, learnerID));
+            evaluator.evaluateResults(commands,
+                                      plan.getExpectedResults(learnerName, learnerID),
+                                      returned);
+            passed &= evaluator.reportActivityStatus();
+         }
+         catch ( RuntimeException re )
+         {
+            evaluator.reportActivityStatus();
+            log.addMessage(BOTH_KEY, new LogMessage(MessageType.FAILED,
+               "Activity " + activity.getName() + " could not be run: " + re));
+            passed = false;
+         }
+      }
+
+      return new LMSHeadlessResult(name, passed, activities.size(),
+                                   System.nanoTime() - startTime,
+                                   log.getMessages());
+   }
+
+   /**
+    * Creates the transport for one launch of an Activity.  The default is a
+    * new <code>ReferenceLMSTransport</code> holding the learner.  This method
+    * may be called by several worker threads at the same time.
+    *
+    * @param iTestCaseName The name of the test case.
+    * @param iActivityName The name of the Activity being launched.
+    * @param iLearnerName The name of the learner.
+    * @param iLearnerID The id of the learner.
+    * @return The transport to the LMS.
+    */
+   protected LMSAPITransport createTransport(final String iTestCaseName,
+                                             final String iActivityName,
+                                             final String iLearnerName,
+                                             final String iLearnerID)
+   {
+      final ReferenceLMSTransport transport = new ReferenceLMSTransport();
+      transport.setInitialValue("cmi.learner_id", iLearnerID);
+      transport.setInitialValue("cmi.learner_name", iLearnerName);
+      return transport;
+   }
+
+   /**
+    * Runs the test cases of the catalog and prints the outcome and time of
+    * each one.
+    *
+    * @param iArgs The number of worker threads, followed by the names of the
+    *           test cases to run.  The whole catalog is run if no names are
+    *           given.
+    * @throws InterruptedException if the run is interrupted.
+    */
+   public static void main(final String[] iArgs) throws InterruptedException
+   {
+      final int threads = ( iArgs.length > 0 ) ? Integer.parseInt(iArgs[0]) :
+                          Runtime.getRuntime().availableProcessors();
+      List<String> names = null;
+      if ( iArgs.length > 1 )
+      {
+         names = new ArrayList<String>();
+         for ( int i = 1; i < iArgs.length; i++ )
+         {
+            names.add(iArgs[i]);
+         }
+      }
+
+      final long startTime = System.nanoTime();
+      final List<LMSHeadlessResult> results = new LMSHeadlessRunner().run(names, threads);
+      int passed = 0;
+      for ( final LMSHeadlessResult result : results )
+      {
+         if ( result.isPassed() )
+         {
+            passed++;
+         }
+         System.out.println(result.getTestCaseName() + "\t" +
+                            ( result.isPassed() ? "passed" : "failed" ) +
+                            "\tactivities=" + result.getActivityCount() +
+                            "\tms=" + result.getDuration() / 1000000);
+      }
+      System.out.println(passed + " of " + results.size() + " test cases passed in " +
+                         ( System.nanoTime() - startTime ) / 1000000 + " ms");
+   }
+
+   /**
+    * Collects the messages of one test case in place of the LmsLogger.
+    */
+   private static class MessageLog implements LmsLoggerInterface
+   {
+      /**
+       * The messages sent to the detailed log.
+       */
+      private final List<LogMessage> mMessages = new ArrayList<LogMessage>();
+
+      /**
+       * Keeps the messages meant for the detailed log; the summary log only
+       * repeats some of them.
+       *
+       * @param iMsgType The log the message is for.
+       * @param iMsg The message.
+       */
+      public void addMessage(final String iMsgType, final LogMessage iMsg)
+      {
+         if ( !iMsgType.equals("Summary") )
+         {
+            mMessages.add(iMsg);
+         }
+      }
+
+      /**
+       * The messages are not written to a log file.
+       *
+       * @return An empty string.
+       */
+      public String viewCurrentLog()
+      {
+         return "";
+      }
+
+      /**
+       * A headless run is never retried.
+       *
+       * @return false.
+       */
+      public boolean retry()
+      {
+         return false;
+      }
+
+      /**
+       * Returns the messages sent to the detailed log.
+       *
+       * @return The messages, oldest first.
+       */
+      List<LogMessage> getMessages()
+      {
+         return mMessages;
+      }
+   }
+}
@@ -0,0 +1,422 @@
+package org.adl.testsuite.rte.lms;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.adl.testsuite.rte.lms.comm.ReferenceLMSTransport;
+import org.adl.testsuite.rte.lms.interfaces.LMSAPITransport;
+import org.adl.testsuite.rte.lms.testcase.Activity;
+import org.adl.testsuite.rte.lms.testcase.LMSTestCase;
+import org.adl.testsuite.rte.lms.util.ActivityPlan;
+import org.adl.testsuite.rte.lms.util.Command;
+import org.adl.testsuite.rte.lms.util.LMSInfo;
+
+/**
+ * Puts load on the API implementation of an LMS by replaying the commands of
+ * the LMS test case Activities as a number of concurrent virtual learners.
+ * Each virtual learner launches the Activities one after the other, each on a
+ * new transport, until the run ends.  The results returned by the LMS are not
+ * evaluated; the <code>LMSLoadReport</code> holds the throughput, the latency
+ * percentiles of each API function and the error codes returned for each data
+ * model element.<br><br>
+ *
+ * By default the learners use a <code>ReferenceLMSTransport</code>;
+ * subclasses override <code>createTransport</code> to reach the LMS being
+ * measured.
+ *
+ * @author ADL Technical Team
+ */
+public class LMSLoadGenerator
+{
+   /**
+    * The name of the lmsrtefunctions.js function that returns the last error.
+    */
+   private static final String GET_LAST_ERROR = "doGetLastError";
+
+   /**
+    * The number of concurrent virtual learners.
+    */
+   private int mLearners = 10;
+
+   /**
+    * The length of the run, in milliseconds.
+    */
+   private long mDuration = 10000;
+
+   /**
+    * Sets the number of concurrent virtual learners.
+    *
+    * @param iLearners The number of learners, at least one.
+    */
+   public void setLearners(final int iLearners)
+   {
+      mLearners = Math.max(1, iLearners);
+   }
+
+   /**
+    * Sets the length of the run.  Launches that have started when the run
+    * ends are finished.
+    *
+    * @param iDuration The length of the run, in milliseconds.
+    */
+   public void setDuration(final long iDuration)
+   {
+      mDuration = iDuration;
+   }
+
+   /**
+    * Replays the Activities of the named test cases until the run ends.
+    *
+    * @param iTestCaseNames The names of the test cases, or null for the whole
+    *           catalog.
+    * @return The measurements of the run.
+    * @throws InterruptedException if the thread is interrupted while waiting.
+    */
+   public LMSLoadReport run(final List<String> iTestCaseNames)
+      throws InterruptedException
+   {
+      final LMSInfo info = LMSInfo.getInstance();
+
+      List<String> names = iTestCaseNames;
+      if ( names == null )
+      {
+         names = info.getTestPackageNames();
+         Collections.sort(names);
+      }
+
+      final List<Activity> activities = new ArrayList<Activity>();
+      for ( final String name : names )
+      {
+         final LMSTestCase testCase = info.getTestCase(name);
+         activities.addAll(testCase.getActivities());
+      }
+      if ( activities.isEmpty() )
+      {
+         throw new IllegalArgumentException("No Activities to replay");
+      }
+
+      final CountDownLatch start = new CountDownLatch(1);
+      final ExecutorService pool = Executors.newFixedThreadPool(mLearners);
+      try
+      {
+         final List<Future<LMSLoadReport>> futures =
+            new ArrayList<Future<LMSLoadReport>>(mLearners);
+         for ( int i = 0; i < mLearners; i++ )
+         {
+            futures.add(pool.submit(new VirtualLearner(i, activities, start)));
+         }
+
+         final long startTime = System.nanoTime();
+         start.countDown();
+
+         final LMSLoadReport report = new LMSLoadReport();
+         for ( final Future<LMSLoadReport> future : futures )
+         {
+            try
+            {
+               report.merge(future.get());
+            }
+            catch ( ExecutionException ee )
+            {
+               throw new IllegalStateException(ee.getCause());
+            }
+         }
+         report.setDuration(System.nanoTime() - startTime);
+         return report;
+      }
+      finally
+      {
+         pool.shutdownNow();
+      }
+   }
+
+   /**
+    * Creates the transport for one launch of an Activity by a virtual
+    * learner.  The default is a new <code>ReferenceLMSTransport</code> holding
+    * the learner.  This method is called by all the learners at the same time.
+    *
+    * @param iLearnerName The name of the virtual learner.
+    * @param iLearnerID The id of the virtual learner.
+    * @return The transport to the LMS.
+    */
+   protected LMSAPITransport createTransport(final String iLearnerName,
+                                             final String iLearnerID)
+   {
+      final ReferenceLMSTransport transport = new ReferenceLMSTransport();
+      transport.setInitialValue("cmi.learner_id", iLearnerID);
+      transport.setInitialValue("cmi.learner_name", iLearnerName);
+      return transport;
+   }
+
+   /**
+    * Returns the name under which a call is reported, such as
+    * GetValue(cmi.objectives.n.id).  Only GetValue() and SetValue() calls are
+    * reported per element; the indexes of collections are replaced by n and
+    * the value of a delegate such as {target=...} is left out.
+    *
+    * @param iFunction The name of the lmsrtefunctions.js function.
+    * @param iElement The first argument of the call.
+    * @return The name of the call.
+    */
+   static String getCallName(final String iFunction, final String iElement)
+   {
+      final StringBuilder name = new StringBuilder(iFunction.length() + iElement.length());
+      name.append(iFunction, iFunction.startsWith("do") ? 2 : 0, iFunction.length());
+      name.append('(');
+      if ( !iFunction.equals("doGetValue") && !iFunction.equals("doSetValue") )
+      {
+         return name.append(')').toString();
+      }
+
+      final int delegate = iElement.indexOf('{');
+      final int end = ( delegate < 0 ) ? iElement.length() : delegate;
+      int tokenStart = 0;
+      boolean index = true;
+      for ( int i = 0; i <= end; i++ )
+      {
+         final char c = ( i < end ) ? iElement.charAt(i) : '.';
+         if ( c == '.' )
+         {
+            if ( index && i > tokenStart )
+            {
+               name.append('n');
+            }
+            else
+            {
+               name.append(iElement, tokenStart, i);
+            }
+            if ( i < end )
+            {
+               name.append('.');
+            }
+            tokenStart = i + 1;
+            index = true;
+         }
+         else if ( c < '0' || c > '9' )
+         {
+            index = false;
+         }
+      }
+
+      if ( delegate >= 0 )
+      {
+         final int equals = iElement.indexOf('=', delegate);
+         if ( equals < 0 )
+         {
+            name.append(iElement, delegate, iElement.length());
+         }
+         else
+         {
+            name.append(iElement, delegate, equals).append('}');
+         }
+      }
+      return name.append(')').toString();
+   }
+
+   /**
+    * Replays the Activities of the load on the given number of virtual
+    * learners for the given number of seconds and prints the report.
+    *
+    * @param iArgs The number of learners and the number of seconds, followed
+    *           by the names of the test cases to replay.  The whole catalog is
+    *           replayed if no names are given.
+    * @throws InterruptedException if the run is interrupted.
+    */
+   public static void main(final String[] iArgs) throws InterruptedException
+   {
+      final LMSLoadGenerator generator = new LMSLoadGenerator();
+      if ( iArgs.length > 0 )
+      {
+         generator.setLearners(Integer.parseInt(iArgs[0]));
+      }
+      if ( iArgs.length > 1 )
+      {
+         generator.setDuration(Long.parseLong(iArgs[1]) * 1000);
+      }
+
+      List<String> names = null;
+      if ( iArgs.length > 2 )
+      {
+         names = new ArrayList<String>();
+         for ( int i = 2; i < iArgs.length; i++ )
+         {
+            names.add(iArgs[i]);
+         }
+      }
+      System.out.print(generator.run(names).render());
+   }
+
+   /**
+    * A virtual learner, which launches the Activities one after the other.
+    */
+   private class VirtualLearner implements Callable<LMSLoadReport>
+   {
+      /**
+       * The number of the learner, which also selects its first Activity.
+       */
+      private final int mNumber;
+
+      /**
+       * The Activities of the load.
+       */
+      private final List<Activity> mActivities;
+
+      /**
+       * Opened when all learners may start.
+       */
+      private final CountDownLatch mStart;
+
+      /**
+       * Overloaded constructor
+       *
+       * @param iNumber The number of the learner.
+       * @param iActivities The Activities of the load.
+       * @param iStart Opened when all learners may start.
+       */
+      VirtualLearner(final int iNumber,
+                     final List<Activity> iActivities,
+                     final CountDownLatch iStart)
+      {
+         mNumber = iNumber;
+         mActivities = iActivities;
+         mStart = iStart;
+      }
+
+      /**
+       * Launches Activities until the run ends.
+       *
+       * @return The measurements of this learner.
+       * @throws InterruptedException if the run is stopped before it starts.
+       */
+      public LMSLoadReport call() throws InterruptedException
+      {
+         final String learnerName = "Virtual Learner " + mNumber;
+         final String learnerID = "virtual_learner_" + mNumber;
+
+         // Each learner has its own Commands, which keep state while run
+         final List<Command> commands = new ArrayList<Command>(mActivities.size());
+         for ( final Activity activity : mActivities )
+         {
+            commands.add(ActivityPlan.getPlan(activity.getCommandsKey()).newCommand());
+         }
+
+         final LMSLoadReport report = new LMSLoadReport();
+         mStart.await();
+         final long endTime = System.nanoTime() + mDuration * 1000000L;
+
+         int next = mNumber % commands.size();
+         while ( System.nanoTime() - endTime < 0 && !Thread.currentThread().isInterrupted() )
+         {
+            boolean failed = false;
+            try
+            {
+               final MeasuringTransport transport = new MeasuringTransport(
+                  createTransport(learnerName, learnerID), report);
+               commands.get(next).evaluate(transport);
+               transport.finish();
+            }
+            catch ( RuntimeException re )
+            {
+               failed = true;
+            }
+            report.recordLaunch(failed);
+            next = (next + 1) % commands.size();
+         }
+         return report;
+      }
+   }
+
+   /**
+    * Times the calls made through another transport and records the error
+    * code returned by GetLastError() against the call before it.  Some calls,
+    * such as the _count and id lookups of Command.parseForIndex(), are not
+    * followed by a GetLastError() of the Activity; this transport makes one
+    * itself before the next call, so the error of every call is counted.
+    * These extra GetLastError() calls are not timed or counted as calls.
+    */
+   private static class MeasuringTransport implements LMSAPITransport
+   {
+      /**
+       * The transport to the LMS.
+       */
+      private final LMSAPITransport mTransport;
+
+      /**
+       * The report of the learner.
+       */
+      private final LMSLoadReport mReport;
+
+      /**
+       * The name of the last call that was not a GetLastError(), or null.
+       */
+      private String mLastCall;
+
+      /**
+       * Overloaded constructor
+       *
+       * @param iTransport The transport to the LMS.
+       * @param iReport The report of the learner.
+       */
+      MeasuringTransport(final LMSAPITransport iTransport, final LMSLoadReport iReport)
+      {
+         mTransport = iTransport;
+         mReport = iReport;
+      }
+
+      /**
+       * Makes and times one call.
+       *
+       * @param iFunction The name of the lmsrtefunctions.js function.
+       * @param iArgs The arguments of the call.
+       * @return The String returned by the LMS.
+       */
+      public String call(final String iFunction, final String[] iArgs)
+      {
+         if ( !iFunction.equals(GET_LAST_ERROR) )
+         {
+            finish();
+         }
+
+         final long startTime = System.nanoTime();
+         final String returned = mTransport.call(iFunction, iArgs);
+         final long latency = System.nanoTime() - startTime;
+
+         if ( iFunction.equals(GET_LAST_ERROR) )
+         {
+            mReport.recordCall(iFunction, null, latency);
+            if ( mLastCall != null )
+            {
+               mReport.recordErrorCode(mLastCall, returned);
+               mLastCall = null;
+            }
+         }
+         else
+         {
+            mLastCall = getCallName(iFunction, ( iArgs.length > 0 ) ? iArgs[0] : "");
+            mReport.recordCall(iFunction, mLastCall, latency);
+         }
+         return returned;
+      }
+
+      /**
+       * Records the error code of the last call, if the Activity did not
+       * call GetLastError() after it.
+       */
+      void finish()
+      {
+         if ( mLastCall != null )
+         {
+            final String errorCode = mTransport.call(GET_LAST_ERROR, new String[] { "", "" });
+            mReport.recordErrorCode(mLastCall, errorCode);
+            mLastCall = null;
+         }
+      }
+   }
+}
@@ -0,0 +1,513 @@
+package org.adl.testsuite.rte.lms;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Holds the measurements of a run of the <code>LMSLoadGenerator</code>: the
+ * number of API calls and launches, the latency of the calls of each API
+ * function and the error codes returned for each data model element.<br><br>
+ *
+ * Each virtual learner fills its own report, which are merged when the run
+ * ends, so a report is not thread safe.  Latencies are counted in buckets
+ * that are 1/16 of a power of two wide, so percentiles are within about 6%
+ * of the measured value.
+ *
+ * @author ADL Technical Team
+ */
+public class LMSLoadReport
+{
+   /**
+    * The number of buckets per power of two.
+    */
+   private static final int SUB_BUCKETS = 16;
+
+   /**
+    * The number of bits used to select a bucket within a power of two.
+    */
+   private static final int SUB_BUCKET_BITS = 4;
+
+   /**
+    * The number of latency buckets, enough for any positive long.
+    */
+   private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+   /**
+    * The percentiles printed by render().
+    */
+   private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+   /**
+    * The names of the percentiles printed by render().
+    */
+   private static final String[] PERCENTILE_NAMES = { "p50", "p90", "p99", "p99.9" };
+
+   /**
+    * The latency buckets of all calls.
+    */
+   private final long[] mLatencies = new long[BUCKETS];
+
+   /**
+    * The latency buckets of the calls of each API function.
+    */
+   private final Map<String, long[]> mFunctionLatencies = new TreeMap<String, long[]>();
+
+   /**
+    * The measurements of each data model element, keyed by call.
+    */
+   private final Map<String, ElementStats> mElements = new HashMap<String, ElementStats>();
+
+   /**
+    * The number of Activities launched.
+    */
+   private long mLaunches;
+
+   /**
+    * The number of launches that ended with an exception.
+    */
+   private long mFailedLaunches;
+
+   /**
+    * The length of the run, in nanoseconds.
+    */
+   private long mDuration;
+
+   /**
+    * Records one API call.
+    *
+    * @param iFunction The name of the API function called.
+    * @param iElement The call and its data model element, or null if the call
+    *           has none, such as GetLastError().
+    * @param iLatency The time taken by the call, in nanoseconds.
+    */
+   void recordCall(final String iFunction, final String iElement, final long iLatency)
+   {
+      final int bucket = bucketOf(iLatency);
+      mLatencies[bucket]++;
+
+      long[] functionLatencies = mFunctionLatencies.get(iFunction);
+      if ( functionLatencies == null )
+      {
+         functionLatencies = new long[BUCKETS];
+         mFunctionLatencies.put(iFunction, functionLatencies);
+      }
+      functionLatencies[bucket]++;
+
+      if ( iElement != null )
+      {
+         getElement(iElement).record(iLatency);
+      }
+   }
+
+   /**
+    * Records the error code returned by GetLastError() after a call.
+    *
+    * @param iElement The call and its data model element.
+    * @param iErrorCode The error code returned by the LMS.
+    */
+   void recordErrorCode(final String iElement, final String iErrorCode)
+   {
+      getElement(iElement).recordErrorCode(iErrorCode);
+   }
+
+   /**
+    * Records the launch of an Activity.
+    *
+    * @param iFailed Indicates if the launch ended with an exception.
+    */
+   void recordLaunch(final boolean iFailed)
+   {
+      mLaunches++;
+      if ( iFailed )
+      {
+         mFailedLaunches++;
+      }
+   }
+
+   /**
+    * Sets the length of the run.
+    *
+    * @param iDuration The length of the run, in nanoseconds.
+    */
+   void setDuration(final long iDuration)
+   {
+      mDuration = iDuration;
+   }
+
+   /**
+    * Adds the measurements of another report to this one.
+    *
+    * @param iOther The report of a virtual learner.
+    */
+   void merge(final LMSLoadReport iOther)
+   {
+      add(mLatencies, iOther.mLatencies);
+      for ( final Map.Entry<String, long[]> entry : iOther.mFunctionLatencies.entrySet() )
+      {
+         final long[] latencies = mFunctionLatencies.get(entry.getKey());
+         if ( latencies == null )
+         {
+            mFunctionLatencies.put(entry.getKey(), entry.getValue().clone());
+         }
+         else
+         {
+            add(latencies, entry.getValue());
+         }
+      }
+      for ( final Map.Entry<String, ElementStats> entry : iOther.mElements.entrySet() )
+      {
+         getElement(entry.getKey()).merge(entry.getValue());
+      }
+      mLaunches += iOther.mLaunches;
+      mFailedLaunches += iOther.mFailedLaunches;
+   }
+
+   /**
+    * Returns the number of API calls made.
+    *
+    * @return The number of calls.
+    */
+   public long getCallCount()
+   {
+      return count(mLatencies);
+   }
+
+   /**
+    * Returns the number of Activities launched.
+    *
+    * @return The number of launches.
+    */
+   public long getLaunchCount()
+   {
+      return mLaunches;
+   }
+
+   /**
+    * Returns the number of launches that ended with an exception.
+    *
+    * @return The number of failed launches.
+    */
+   public long getFailedLaunchCount()
+   {
+      return mFailedLaunches;
+   }
+
+   /**
+    * Returns the length of the run.
+    *
+    * @return The duration in nanoseconds.
+    */
+   public long getDuration()
+   {
+      return mDuration;
+   }
+
+   /**
+    * Returns the number of API calls made per second.
+    *
+    * @return The throughput of the run.
+    */
+   public double getThroughput()
+   {
+      return ( mDuration <= 0 ) ? 0 : getCallCount() * 1e9 / mDuration;
+   }
+
+   /**
+    * Returns a percentile of the latency of all calls.
+    *
+    * @param iPercentile The percentile, from 0 to 100.
+    * @return The latency in nanoseconds, or 0 if no call was made.
+    */
+   public long getLatencyPercentile(final double iPercentile)
+   {
+      return percentile(mLatencies, iPercentile);
+   }
+
+   /**
+    * Returns a percentile of the latency of the calls of an API function.
+    *
+    * @param iFunction The name of the API function, such as doGetValue.
+    * @param iPercentile The percentile, from 0 to 100.
+    * @return The latency in nanoseconds, or 0 if the function was not called.
+    */
+   public long getLatencyPercentile(final String iFunction, final double iPercentile)
+   {
+      final long[] latencies = mFunctionLatencies.get(iFunction);
+      return ( latencies == null ) ? 0 : percentile(latencies, iPercentile);
+   }
+
+   /**
+    * Returns how often each error code was returned after the calls on a data
+    * model element.
+    *
+    * @param iElement The call and its element, such as
+    *           GetValue(cmi.objectives.n.id).
+    * @return The number of times each error code was returned, by error code.
+    */
+   public Map<String, Long> getErrorCodes(final String iElement)
+   {
+      final ElementStats stats = mElements.get(iElement);
+      return ( stats == null ) ? new TreeMap<String, Long>() : stats.getErrorCodes();
+   }
+
+   /**
+    * Creates the readable form of the report.
+    *
+    * @return The report, one line per API function and per element.
+    */
+   public String render()
+   {
+      final StringBuilder out = new StringBuilder(4096);
+      out.append("launches=").append(mLaunches);
+      out.append(" failed=").append(mFailedLaunches);
+      out.append(" calls=").append(getCallCount());
+      out.append(" seconds=").append(mDuration / 1000000000.0);
+      out.append(" calls/s=").append(Math.round(getThroughput())).append('\n');
+      renderLatencies(out, "all", mLatencies);
+      for ( final Map.Entry<String, long[]> entry : mFunctionLatencies.entrySet() )
+      {
+         renderLatencies(out, entry.getKey(), entry.getValue());
+      }
+
+      final Iterator<Map.Entry<String, ElementStats>> elements =
+         new TreeMap<String, ElementStats>(mElements).entrySet().iterator();
+      while ( elements.hasNext() )
+      {
+         final Map.Entry<String, ElementStats> entry = elements.next();
+         final ElementStats stats = entry.getValue();
+         out.append(entry.getKey());
+         out.append("\tcalls=").append(stats.mCalls);
+         out.append("\tmeanus=").append(stats.mTotalLatency / Math.max(1, stats.mCalls) / 1000);
+         out.append("\tmaxus=").append(stats.mMaxLatency / 1000);
+         out.append("\terrors=").append(stats.getErrorCodes()).append('\n');
+      }
+      return out.toString();
+   }
+
+   /**
+    * Appends the latency percentiles of a set of buckets.
+    *
+    * @param ioOut The report being rendered.
+    * @param iName The name of the calls measured.
+    * @param iLatencies The latency buckets.
+    */
+   private static void renderLatencies(final StringBuilder ioOut,
+                                       final String iName,
+                                       final long[] iLatencies)
+   {
+      ioOut.append(iName).append("\tcalls=").append(count(iLatencies));
+      for ( int i = 0; i < PERCENTILES.length; i++ )
+      {
+         ioOut.append('\t').append(PERCENTILE_NAMES[i]).append("us=");
+         ioOut.append(percentile(iLatencies, PERCENTILES[i]) / 1000);
+      }
+      ioOut.append('\n');
+   }
+
+   /**
+    * Returns the measurements of an element, creating them if needed.
+    *
+    * @param iElement The call and its data model element.
+    * @return The measurements of the element.
+    */
+   private ElementStats getElement(final String iElement)
+   {
+      ElementStats stats = mElements.get(iElement);
+      if ( stats == null )
+      {
+         stats = new ElementStats();
+         mElements.put(iElement, stats);
+      }
+      return stats;
+   }
+
+   /**
+    * Returns the bucket of a latency.
+    *
+    * @param iLatency The latency in nanoseconds.
+    * @return The index of the bucket.
+    */
+   private static int bucketOf(final long iLatency)
+   {
+      final long value = Math.max(0, iLatency);
+      if ( value < SUB_BUCKETS )
+      {
+         return (int)value;
+      }
+      final int exponent = 63 - Long.numberOfLeadingZeros(value);
+      final int subBucket = (int)(value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+      return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+   }
+
+   /**
+    * Returns the highest latency counted in a bucket.
+    *
+    * @param iBucket The index of the bucket.
+    * @return The latency in nanoseconds.
+    */
+   private static long highestIn(final int iBucket)
+   {
+      if ( iBucket < SUB_BUCKETS )
+      {
+         return iBucket;
+      }
+      final int exponent = iBucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+      final long subBucket = iBucket % SUB_BUCKETS;
+      return ((SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+   }
+
+   /**
+    * Returns a percentile of the latencies counted in a set of buckets.
+    *
+    * @param iLatencies The latency buckets.
+    * @param iPercentile The percentile, from 0 to 100.
+    * @return The latency in nanoseconds, or 0 if nothing was counted.
+    */
+   private static long percentile(final long[] iLatencies, final double iPercentile)
+   {
+      final long total = count(iLatencies);
+      if ( total == 0 )
+      {
+         return 0;
+      }
+
+      final long rank = Math.max(1, (long)Math.ceil(total * iPercentile / 100));
+      long seen = 0;
+      for ( int i = 0; i < iLatencies.length; i++ )
+      {
+         seen += iLatencies[i];
+         if ( seen >= rank )
+         {
+            return highestIn(i);
+         }
+      }
+      return highestIn(iLatencies.length - 1);
+   }
+
+   /**
+    * Returns the number of latencies counted in a set of buckets.
+    *
+    * @param iLatencies The latency buckets.
+    * @return The number of latencies.
+    */
+   private static long count(final long[] iLatencies)
+   {
+      long total = 0;
+      for ( int i = 0; i < iLatencies.length; i++ )
+      {
+         total += iLatencies[i];
+      }
+      return total;
+   }
+
+   /**
+    * Adds one set of buckets to another.
+    *
+    * @param ioTo The buckets added to.
+    * @param iFrom The buckets added.
+    */
+   private static void add(final long[] ioTo, final long[] iFrom)
+   {
+      for ( int i = 0; i < ioTo.length; i++ )
+      {
+         ioTo[i] += iFrom[i];
+      }
+   }
+
+   /**
+    * The measurements of the calls on one data model element.
+    */
+   private static class ElementStats
+   {
+      /**
+       * The number of calls.
+       */
+      private long mCalls;
+
+      /**
+       * The total time taken by the calls, in nanoseconds.
+       */
+      private long mTotalLatency;
+
+      /**
+       * The longest time taken by a call, in nanoseconds.
+       */
+      private long mMaxLatency;
+
+      /**
+       * The number of times each error code was returned, by error code.
+       */
+      private final Map<String, long[]> mErrorCodes = new HashMap<String, long[]>();
+
+      /**
+       * Records one call.
+       *
+       * @param iLatency The time taken by the call, in nanoseconds.
+       */
+      void record(final long iLatency)
+      {
+         mCalls++;
+         mTotalLatency += iLatency;
+         mMaxLatency = Math.max(mMaxLatency, iLatency);
+      }
+
+      /**
+       * Records an error code returned after a call.
+       *
+       * @param iErrorCode The error code.
+       */
+      void recordErrorCode(final String iErrorCode)
+      {
+         final long[] count = mErrorCodes.get(iErrorCode);
+         if ( count == null )
+         {
+            mErrorCodes.put(iErrorCode, new long[] { 1 });
+         }
+         else
+         {
+            count[0]++;
+         }
+      }
+
+      /**
+       * Adds the measurements of another learner.
+       *
+       * @param iOther The measurements added.
+       */
+      void merge(final ElementStats iOther)
+      {
+         mCalls += iOther.mCalls;
+         mTotalLatency += iOther.mTotalLatency;
+         mMaxLatency = Math.max(mMaxLatency, iOther.mMaxLatency);
+         for ( final Map.Entry<String, long[]> entry : iOther.mErrorCodes.entrySet() )
+         {
+            final long[] count = mErrorCodes.get(entry.getKey());
+            if ( count == null )
+            {
+               mErrorCodes.put(entry.getKey(), new long[] { entry.getValue()[0] });
+            }
+            else
+            {
+               count[0] += entry.getValue()[0];
+            }
+         }
+      }
+
+      /**
+       * Returns the number of times each error code was returned.
+       *
+       * @return The counts, by error code.
+       */
+      Map<String, Long> getErrorCodes()
+      {
+         final Map<String, Long> codes = new TreeMap<String, Long>();
+         for ( final Map.Entry<String, long[]> entry : mErrorCodes.entrySet() )
+         {
+            codes.put(entry.getKey(), Long.valueOf(entry.getValue()[0]));
+         }
+         return codes;
+      }
+   }
+}
@@ -0,0 +1,50 @@
+package org.adl.testsuite.rte.lms.comm;
+
+import netscape.javascript.JSObject;
+
+import org.adl.testsuite.rte.lms.interfaces.LMSAPITransport;
+
+/**
+ * Makes the API calls of an Activity through LiveConnect, by calling the
+ * functions of the lmsrtefunctions.js file in the window of the test SCO.
+ *
+ * @author ADL Technical Team
+ */
+public class JSObjectTransport implements LMSAPITransport
+{
+   /**
+    * The name of the variable in the lmsrtefunctions.js file used to track the
+    * value returned by the last call of the test subject LMS
+    */
+   private static final String LMS_RETURNED = "lmsReturned";
+
+   /**
+    * LiveConnect object used to communicate to the LMS.
+    */
+   private final JSObject mJSObject;
+
+   /**
+    * Overloaded constructor
+    *
+    * @param iJSObject The window of the test SCO.
+    */
+   public JSObjectTransport(final JSObject iJSObject)
+   {
+      mJSObject = iJSObject;
+   }
+
+   /**
+    * Calls the lmsrtefunctions.js function and returns the value it left in
+    * lmsReturned.
+    *
+    * @param iFunction The name of the lmsrtefunctions.js function.
+    * @param iArgs The arguments of the call.
+    * @return The String returned by the LMS.
+    */
+   public String call(final String iFunction, final String[] iArgs)
+   {
+      mJSObject.call(iFunction, iArgs);
+      final Object returned = mJSObject.getMember(LMS_RETURNED);
+      return ( returned == null ) ? "" : returned.toString();
+   }
+}
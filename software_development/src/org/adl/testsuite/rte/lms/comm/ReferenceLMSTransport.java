@@ -0,0 +1,338 @@
+package org.adl.testsuite.rte.lms.comm;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.adl.api.ecmascript.APIErrorCodes;
+import org.adl.api.ecmascript.APIErrorTable;
+import org.adl.datamodels.DMErrorCodes;
+import org.adl.datamodels.DMFactory;
+import org.adl.datamodels.DMInterface;
+import org.adl.datamodels.DMProcessingInfo;
+import org.adl.datamodels.SCODataManager;
+import org.adl.testsuite.rte.lms.interfaces.LMSAPITransport;
+
+/**
+ * An in-JVM stand-in for the API implementation of an LMS, backed by a
+ * <code>SCODataManager</code>.  It follows the SCORM 2004 API state and error
+ * rules for one SCO launch, which lets the commands of an Activity run without
+ * a browser or an LMS.  It does not sequence, so it cannot stand in for the
+ * launch order or navigation checks of a test case.<br><br>
+ *
+ * Each instance holds the run-time data and the last error of its own launch,
+ * so instances may be used by different threads at the same time.  A single
+ * instance must not be shared between threads.
+ *
+ * @author ADL Technical Team
+ */
+public class ReferenceLMSTransport implements LMSAPITransport
+{
+   /**
+    * The state before Initialize() has been called.
+    */
+   private static final int NOT_INITIALIZED = 0;
+
+   /**
+    * The state between Initialize() and Terminate().
+    */
+   private static final int RUNNING = 1;
+
+   /**
+    * The state after Terminate() has been called.
+    */
+   private static final int TERMINATED = 2;
+
+   /**
+    * Looks up the SCORM 2004 error codes and messages.  The table is used
+    * directly, so the current error code shared by every
+    * <code>APIErrorManager</code> is never touched.
+    */
+   private static final APIErrorTable ERRORS = APIErrorTable.SCORM_2004;
+
+   /**
+    * The run-time data of the launch.
+    */
+   private final SCODataManager mSCOData;
+
+   /**
+    * The values set by the LMS before the SCO is launched, in the order they
+    * are set.
+    */
+   private final Map<String, String> mInitialValues = new LinkedHashMap<String, String>();
+
+   /**
+    * The state of the launch.
+    */
+   private int mState = NOT_INITIALIZED;
+
+   /**
+    * The abstract error code of the last API call.
+    */
+   private int mErrorCode = APIErrorCodes.NO_ERROR;
+
+   /**
+    * Default constructor
+    */
+   public ReferenceLMSTransport()
+   {
+      mSCOData = new SCODataManager();
+      mSCOData.addDM(DMFactory.DM_SCORM_2004);
+      mSCOData.addDM(DMFactory.DM_SCORM_NAV);
+   }
+
+   /**
+    * Sets a value of the run-time data as the LMS does before the SCO is
+    * launched, such as cmi.learner_id or cmi.mode.  The values are set when
+    * Initialize() is called.
+    *
+    * @param iElement The data model element.
+    * @param iValue The value of the element.
+    */
+   public void setInitialValue(final String iElement, final String iValue)
+   {
+      mInitialValues.put(iElement, iValue);
+   }
+
+   /**
+    * Returns the run-time data of the launch.
+    *
+    * @return The SCODataManager of the launch.
+    */
+   public SCODataManager getSCOData()
+   {
+      return mSCOData;
+   }
+
+   /**
+    * Makes one call to the API implementation.
+    *
+    * @param iFunction The name of the lmsrtefunctions.js function.
+    * @param iArgs The arguments of the call.
+    * @return The String returned by the API implementation.
+    */
+   public String call(final String iFunction, final String[] iArgs)
+   {
+      final String arg1 = ( iArgs.length > 0 && iArgs[0] != null ) ? iArgs[0] : "";
+      final String arg2 = ( iArgs.length > 1 && iArgs[1] != null ) ? iArgs[1] : "";
+
+      if ( iFunction.equals("doInitialize") )
+      {
+         return initialize(arg1);
+      }
+      else if ( iFunction.equals("doTerminate") )
+      {
+         return terminate(arg1);
+      }
+      else if ( iFunction.equals("doGetValue") )
+      {
+         return getValue(arg1);
+      }
+      else if ( iFunction.equals("doSetValue") )
+      {
+         return setValue(arg1, arg2);
+      }
+      else if ( iFunction.equals("doCommit") )
+      {
+         return commit(arg1);
+      }
+      else if ( iFunction.equals("doGetLastError") )
+      {
+         return getLastError();
+      }
+      else if ( iFunction.equals("doGetErrorString") )
+      {
+         return ( arg1.length() == 0 ) ? "" :
+                nonNull(ERRORS.getErrorMessage(ERRORS.getAbstractCode(arg1)));
+      }
+      else if ( iFunction.equals("doGetDiagnostic") )
+      {
+         int code = ( arg1.length() == 0 ) ? mErrorCode :
+                                             ERRORS.getAbstractCode(arg1);
+
+         return nonNull(ERRORS.getErrorDiagnostic(code));
+      }
+      throw new IllegalArgumentException("Unknown API function: " + iFunction);
+   }
+
+   /**
+    * Provides the SCORM error code of the last API call.
+    *
+    * @return The SCORM error code, or "0" if there was no error.
+    */
+   private String getLastError()
+   {
+      String code = ERRORS.getErrorCode(mErrorCode);
+
+      return ( code == null ) ? "0" : code;
+   }
+
+   /**
+    * Replaces a missing error message or diagnostic with an empty string.
+    *
+    * @param iText The error message or diagnostic.
+    * @return The text, or "" if it is <code>null</code>.
+    */
+   private static String nonNull(final String iText)
+   {
+      return ( iText == null ) ? "" : iText;
+   }
+
+   /**
+    * Processes Initialize().
+    *
+    * @param iParam The parameter of the call, which must be empty.
+    * @return "true" or "false".
+    */
+   private String initialize(final String iParam)
+   {
+      if ( mState == RUNNING )
+      {
+         return fail(APIErrorCodes.ALREADY_INITIALIZED);
+      }
+      if ( mState == TERMINATED )
+      {
+         return fail(APIErrorCodes.CONTENT_INSTANCE_TERMINATED);
+      }
+      if ( iParam.length() != 0 )
+      {
+         return fail(APIErrorCodes.GEN_ARGUMENT_ERROR);
+      }
+
+      for ( final Map.Entry<String, String> value : mInitialValues.entrySet() )
+      {
+         DMInterface.processSetValue(value.getKey(), value.getValue(), true, mSCOData);
+      }
+      mSCOData.initialize();
+      mState = RUNNING;
+      return succeed();
+   }
+
+   /**
+    * Processes Terminate().
+    *
+    * @param iParam The parameter of the call, which must be empty.
+    * @return "true" or "false".
+    */
+   private String terminate(final String iParam)
+   {
+      if ( mState == NOT_INITIALIZED )
+      {
+         return fail(APIErrorCodes.TERMINATE_BEFORE_INIT);
+      }
+      if ( mState == TERMINATED )
+      {
+         return fail(APIErrorCodes.TERMINATE_AFTER_TERMINATE);
+      }
+      if ( iParam.length() != 0 )
+      {
+         return fail(APIErrorCodes.GEN_ARGUMENT_ERROR);
+      }
+
+      mSCOData.terminate();
+      mState = TERMINATED;
+      return succeed();
+   }
+
+   /**
+    * Processes Commit().  The data is held in memory, so there is nothing to
+    * persist.
+    *
+    * @param iParam The parameter of the call, which must be empty.
+    * @return "true" or "false".
+    */
+   private String commit(final String iParam)
+   {
+      if ( mState == NOT_INITIALIZED )
+      {
+         return fail(APIErrorCodes.COMMIT_BEFORE_INIT);
+      }
+      if ( mState == TERMINATED )
+      {
+         return fail(APIErrorCodes.COMMIT_AFTER_TERMINATE);
+      }
+      if ( iParam.length() != 0 )
+      {
+         return fail(APIErrorCodes.GEN_ARGUMENT_ERROR);
+      }
+      return succeed();
+   }
+
+   /**
+    * Processes GetValue().
+    *
+    * @param iElement The data model element.
+    * @return The value of the element, or an empty string if there is an
+    *         error.
+    */
+   private String getValue(final String iElement)
+   {
+      if ( mState == NOT_INITIALIZED )
+      {
+         mErrorCode = APIErrorCodes.GET_BEFORE_INIT;
+         return "";
+      }
+      if ( mState == TERMINATED )
+      {
+         mErrorCode = APIErrorCodes.GET_AFTER_TERMINATE;
+         return "";
+      }
+
+      final DMProcessingInfo dmInfo = new DMProcessingInfo();
+      mErrorCode = DMInterface.processGetValue(iElement, false, mSCOData, dmInfo);
+      if ( mErrorCode == DMErrorCodes.ELEMENT_NOT_SPECIFIED )
+      {
+         // The error table reports a missing element as a SetValue() failure
+         mErrorCode = DMErrorCodes.GEN_GET_FAILURE;
+      }
+      if ( mErrorCode != APIErrorCodes.NO_ERROR || dmInfo.mValue == null )
+      {
+         return "";
+      }
+      return dmInfo.mValue;
+   }
+
+   /**
+    * Processes SetValue().
+    *
+    * @param iElement The data model element.
+    * @param iValue The value to set.
+    * @return "true" or "false".
+    */
+   private String setValue(final String iElement, final String iValue)
+   {
+      if ( mState == NOT_INITIALIZED )
+      {
+         return fail(APIErrorCodes.SET_BEFORE_INIT);
+      }
+      if ( mState == TERMINATED )
+      {
+         return fail(APIErrorCodes.SET_AFTER_TERMINATE);
+      }
+
+      mErrorCode = DMInterface.processSetValue(iElement, iValue, false, mSCOData);
+      return ( mErrorCode == APIErrorCodes.NO_ERROR ) ? "true" : "false";
+   }
+
+   /**
+    * Records a successful call.
+    *
+    * @return "true".
+    */
+   private String succeed()
+   {
+      mErrorCode = APIErrorCodes.NO_ERROR;
+      return "true";
+   }
+
+   /**
+    * Records a failed call.
+    *
+    * @param iErrorCode The abstract error code of the failure.
+    * @return "false".
+    */
+   private String fail(final int iErrorCode)
+   {
+      mErrorCode = iErrorCode;
+      return "false";
+   }
+}
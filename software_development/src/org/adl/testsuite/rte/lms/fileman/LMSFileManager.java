@@ -1,9 +1,11 @@
 package org.adl.testsuite.rte.lms.fileman;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.adl.testsuite.rte.lms.interfaces.FileManager;
+import org.adl.testsuite.rte.lms.interfaces.JournaledState;
 
 /**
  * 
@@ -39,7 +41,16 @@ public class LMSFileManager implements FileManager
     */
    public List<File> getListOfSaves()
    {
-      return fileOps.getListOfSaves(mFileLocation);
+      final List<File> saves = new ArrayList<File>();
+      for ( final File file : fileOps.getListOfSaves(mFileLocation) )
+      {
+         if ( !file.getName().endsWith(SessionJournal.SUFFIX) &&
+              !file.getName().endsWith(SessionJournal.TEMP_SUFFIX) )
+         {
+            saves.add(file);
+         }
+      }
+      return saves;
    }
 
    /**
@@ -51,19 +62,26 @@ public class LMSFileManager implements FileManager
    {
       if(!"".equals(test))
       {
-         return fileOps.readObject(mFileLocation, test);
+         return SessionJournal.getJournal(mFileLocation, test).load();
       }
       return null;
    }
 
    /**
-    * writes the saved object to file
+    * writes the saved object to file. A <code>JournaledState</code>, such as 
+    * the test session, only has its changes since the last save appended to 
+    * its journal.
     * @param name the name of the object to save
     * @param object Object to be saved
     * @return true if the save is successful, false otherwise
     */
    public boolean save(final String name, final Object object)
    {
+      if ( object instanceof JournaledState )
+      {
+         return SessionJournal.getJournal(mFileLocation, name)
+                              .save((JournaledState)object);
+      }
       return fileOps.writeObject(mFileLocation, name, object);
    }
    
@@ -81,6 +99,7 @@ public class LMSFileManager implements FileManager
 
    public boolean deleteObject(final String iName)
    {
+      SessionJournal.deleteJournal(mFileLocation, iName);
       return fileOps.deleteObject(mFileLocation, iName);
    }
 
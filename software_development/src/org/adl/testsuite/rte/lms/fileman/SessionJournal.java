@@ -0,0 +1,576 @@
+package org.adl.testsuite.rte.lms.fileman;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import org.adl.testsuite.rte.lms.interfaces.JournaledState;
+
+/**
+ * This class saves a test session as a checkpoint, the serialized session
+ * like any other saved object, followed by an append-only journal of the
+ * changes made to the session since.  A save only appends the fields that
+ * changed, and a load reads the checkpoint and applies the records of the
+ * journal.  After <code>COMPACT_AFTER</code> records the next save writes a
+ * new checkpoint and empties the journal.<br><br>
+ *
+ * Each record is framed by its length and a CRC, so a record torn by a crash
+ * is dropped, along with anything after it, when the journal is loaded.  The
+ * journal is forced to disk every <code>SYNC_EVERY</code> records, when it is
+ * closed, and when a record is appended <code>SYNC_INTERVAL</code>
+ * milliseconds or more after the last sync.  There is no timer, so the
+ * records of a journal that then stays idle are only forced to disk by the
+ * next save or by closing the journal.<br><br>
+ *
+ * Each checkpoint is stamped with a generation, which is followed by the
+ * serialized session, and each journal starts with the generation of the
+ * checkpoint it applies to.  A new checkpoint is written to a temporary file,
+ * forced to disk and renamed over the previous one, and only then is the
+ * journal emptied.  A crash while the checkpoint is written leaves the
+ * previous checkpoint and its journal; a crash after the rename leaves a
+ * journal of an older generation, which is ignored and deleted on load.  On
+ * platforms where a rename does not replace an existing file, the previous
+ * checkpoint is deleted just before the rename.
+ *
+ * @author ADL Technical Team
+ */
+class SessionJournal
+{
+   /**
+    * The suffix added to the name of a saved session for its journal.
+    */
+   static final String SUFFIX = ".journal";
+
+   /**
+    * The suffix added to the name of a saved session for a checkpoint that is
+    * being written.
+    */
+   static final String TEMP_SUFFIX = ".checkpoint";
+
+   /**
+    * The first bytes of every journal.
+    */
+   private static final int MAGIC = 0x534A524E;
+
+   /**
+    * The length of the header of a journal: its magic number and generation.
+    */
+   private static final int HEADER_LENGTH = 12;
+
+   /**
+    * Logger object used for debug logging
+    */
+   private static final Logger LOGGER = Logger.getLogger("org.adl.util.debug.testsuite");
+
+   /**
+    * The number of records after which the next save writes a checkpoint.
+    */
+   private static final int COMPACT_AFTER = 64;
+
+   /**
+    * The number of records appended between forcing the journal to disk.
+    */
+   private static final int SYNC_EVERY = 8;
+
+   /**
+    * The longest time, in milliseconds, between forcing the journal to disk.
+    */
+   private static final long SYNC_INTERVAL = 5000;
+
+   /**
+    * The journals in use, by journal file, shared by every
+    * <code>LMSFileManager</code>.
+    */
+   private static final Map<File, SessionJournal> JOURNALS =
+      new HashMap<File, SessionJournal>();
+
+   /**
+    * The folder of the saved session.
+    */
+   private final String mLocation;
+
+   /**
+    * The name of the saved session.
+    */
+   private final String mName;
+
+   /**
+    * The journal file.
+    */
+   private final File mFile;
+
+   /**
+    * The generation of the checkpoint on disk, or 0 if it is not known.
+    */
+   private long mGeneration = 0;
+
+   /**
+    * The state as it is on disk, or null if it is not known.
+    */
+   private JournaledState mBase = null;
+
+   /**
+    * The number of records in the journal.
+    */
+   private int mRecords = 0;
+
+   /**
+    * The open journal, or null.
+    */
+   private FileOutputStream mOut = null;
+
+   /**
+    * The number of records appended since the journal was last forced to disk.
+    */
+   private int mUnsynced = 0;
+
+   /**
+    * The time the journal was last forced to disk.
+    */
+   private long mLastSync = 0;
+
+   /**
+    * Constructor.
+    *
+    * @param iLocation The folder of the saved session.
+    * @param iName The name of the saved session.
+    * @param iFile The journal file.
+    */
+   private SessionJournal(final String iLocation, final String iName, final File iFile)
+   {
+      mLocation = iLocation;
+      mName = iName;
+      mFile = iFile;
+   }
+
+   /**
+    * Returns the journal of a saved session.
+    *
+    * @param iLocation The folder of the saved session.
+    * @param iName The name of the saved session.
+    * @return The journal.
+    */
+   static synchronized SessionJournal getJournal(final String iLocation,
+                                                 final String iName)
+   {
+      final File file = new File(iLocation, iName + SUFFIX);
+      SessionJournal journal = JOURNALS.get(file);
+      if ( journal == null )
+      {
+         journal = new SessionJournal(iLocation, iName, file);
+         JOURNALS.put(file, journal);
+      }
+      return journal;
+   }
+
+   /**
+    * Closes and deletes the journal of a saved session, and any checkpoint of
+    * it left half written, if it has them.
+    *
+    * @param iLocation The folder of the saved session.
+    * @param iName The name of the saved session.
+    */
+   static synchronized void deleteJournal(final String iLocation, final String iName)
+   {
+      final File file = new File(iLocation, iName + SUFFIX);
+      final SessionJournal journal = JOURNALS.remove(file);
+      if ( journal != null )
+      {
+         journal.close();
+      }
+      file.delete();
+      new File(iLocation, iName + TEMP_SUFFIX).delete();
+   }
+
+   /**
+    * Saves the state, by appending its changes to the journal or by writing a
+    * new checkpoint.
+    *
+    * @param iState The state to save.
+    * @return boolean representing the success of the save
+    */
+   synchronized boolean save(final JournaledState iState)
+   {
+      if ( mBase == null || mRecords >= COMPACT_AFTER )
+      {
+         return checkpoint(iState);
+      }
+
+      try
+      {
+         final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+         final DataOutputStream data = new DataOutputStream(bytes);
+         final int changes = iState.writeChanges(mBase, data);
+         data.close();
+
+         if ( changes > 0 )
+         {
+            append(changes, bytes.toByteArray());
+         }
+         mBase = iState;
+         return true;
+      }
+      catch ( IOException ioe )
+      {
+         LOGGER.severe("IOException occurred in SessionJournal.save(), " +
+                       "writing a checkpoint instead: " + ioe);
+         return checkpoint(iState);
+      }
+   }
+
+   /**
+    * Loads the state from the checkpoint and applies the records of the
+    * journal to it.  A torn record at the end of the journal is cut off, and
+    * a journal of another generation than the checkpoint is deleted.
+    *
+    * @return The state, or null if there is no checkpoint.
+    */
+   synchronized Object load()
+   {
+      close();
+      mBase = null;
+      mRecords = 0;
+      mGeneration = 0;
+
+      final Object loaded = readCheckpoint();
+      if ( !(loaded instanceof JournaledState) )
+      {
+         return loaded;
+      }
+
+      final JournaledState state = (JournaledState) loaded;
+      if ( mFile.exists() )
+      {
+         try
+         {
+            if ( readGeneration() != mGeneration )
+            {
+               LOGGER.warning("Ignoring " + mFile + ", which is older than " +
+                              "its checkpoint");
+               if ( !mFile.delete() )
+               {
+                  LOGGER.severe("The journal " + mFile + " could not be deleted");
+                  return null;
+               }
+               mBase = state;
+               return state;
+            }
+
+            final long good = replay(state);
+            if ( good < mFile.length() )
+            {
+               LOGGER.warning("Dropping a torn record at the end of " + mFile);
+               final RandomAccessFile raf = new RandomAccessFile(mFile, "rw");
+               try
+               {
+                  raf.setLength(good);
+               }
+               finally
+               {
+                  raf.close();
+               }
+            }
+         }
+         catch ( IOException ioe )
+         {
+            LOGGER.severe("IOException occurred in SessionJournal.load()");
+            ioe.printStackTrace();
+            return null;
+         }
+      }
+
+      mBase = state;
+      return state;
+   }
+
+   /**
+    * Forces the journal to disk and closes it.
+    */
+   synchronized void close()
+   {
+      if ( mOut != null )
+      {
+         try
+         {
+            mOut.getFD().sync();
+            mOut.close();
+         }
+         catch ( IOException ioe )
+         {
+            LOGGER.severe("IOException occurred in SessionJournal.close()");
+            ioe.printStackTrace();
+         }
+         mOut = null;
+         mUnsynced = 0;
+      }
+   }
+
+   /**
+    * Writes the state as a new checkpoint, and then deletes the journal of
+    * the previous one.
+    *
+    * @param iState The state to save.
+    * @return boolean representing the success of the write
+    */
+   private boolean checkpoint(final JournaledState iState)
+   {
+      close();
+      mBase = null;
+      mRecords = 0;
+
+      // The generation only has to differ from those of older journals,
+      // including ones left by another process
+      final long generation = Math.max(System.currentTimeMillis(), mGeneration + 1);
+
+      final File folder = new File(mLocation);
+      folder.mkdirs();
+      final File checkpoint = new File(folder, mName);
+      final File temp = new File(folder, mName + TEMP_SUFFIX);
+
+      try
+      {
+         final FileOutputStream fos = new FileOutputStream(temp);
+         try
+         {
+            final ObjectOutputStream oos =
+               new ObjectOutputStream(new BufferedOutputStream(fos));
+            oos.writeObject(iState);
+            oos.writeLong(generation);
+            oos.flush();
+            fos.getFD().sync();
+         }
+         finally
+         {
+            fos.close();
+         }
+      }
+      catch ( IOException ioe )
+      {
+         LOGGER.severe("IOException occurred in SessionJournal.checkpoint()");
+         ioe.printStackTrace();
+         temp.delete();
+         return false;
+      }
+
+      if ( !temp.renameTo(checkpoint) &&
+           !(checkpoint.delete() && temp.renameTo(checkpoint)) )
+      {
+         LOGGER.severe("The checkpoint " + temp + " could not be renamed to " +
+                       checkpoint);
+         return false;
+      }
+      mGeneration = generation;
+
+      // The journal now belongs to an older generation, so it is never
+      // applied to the new checkpoint even if it could not be deleted
+      if ( mFile.exists() && !mFile.delete() )
+      {
+         LOGGER.severe("The journal " + mFile + " could not be deleted");
+         return false;
+      }
+
+      mBase = iState;
+      LOGGER.info("Wrote checkpoint " + checkpoint);
+      return true;
+   }
+
+   /**
+    * Reads the checkpoint and its generation.  A checkpoint without a
+    * generation, written before checkpoints had one, has generation 0.  Only
+    * a journal of generation 0, one written after such a checkpoint was
+    * loaded, is applied to it.
+    *
+    * @return The object read from the checkpoint, or null if it could not be
+    *         read.
+    */
+   private Object readCheckpoint()
+   {
+      try
+      {
+         final ObjectInputStream ois = new ObjectInputStream(
+            new BufferedInputStream(new FileInputStream(new File(mLocation, mName))));
+         try
+         {
+            final Object loaded = ois.readObject();
+            try
+            {
+               mGeneration = ois.readLong();
+            }
+            catch ( EOFException eofe )
+            {
+               mGeneration = 0;
+            }
+            return loaded;
+         }
+         finally
+         {
+            ois.close();
+         }
+      }
+      catch ( FileNotFoundException fnfe )
+      {
+         LOGGER.severe("FileNotFoundException occurred in " +
+                       "SessionJournal.readCheckpoint()\n" + fnfe.getMessage());
+         return null;
+      }
+      catch ( IOException ioe )
+      {
+         LOGGER.severe("IOException occurred in SessionJournal.readCheckpoint()");
+         ioe.printStackTrace();
+         return null;
+      }
+      catch ( ClassNotFoundException cnfe )
+      {
+         LOGGER.severe("ClassNotFoundException occurred in " +
+                       "SessionJournal.readCheckpoint()");
+         cnfe.printStackTrace();
+         return null;
+      }
+   }
+
+   /**
+    * Reads the generation of the checkpoint the journal applies to.
+    *
+    * @return The generation, or -1 if the journal has no whole header.
+    * @throws IOException if the journal could not be read.
+    */
+   private long readGeneration() throws IOException
+   {
+      final DataInputStream in = new DataInputStream(new FileInputStream(mFile));
+      try
+      {
+         return ( mFile.length() >= HEADER_LENGTH && in.readInt() == MAGIC ) ?
+                in.readLong() : -1;
+      }
+      finally
+      {
+         in.close();
+      }
+   }
+
+   /**
+    * Appends one record to the journal, forcing the journal to disk if it is
+    * due.
+    *
+    * @param iChanges The number of changes in the record.
+    * @param iBytes The changes, as written by the state.
+    * @throws IOException if the record could not be written.
+    */
+   private void append(final int iChanges, final byte[] iBytes) throws IOException
+   {
+      final ByteArrayOutputStream payload = new ByteArrayOutputStream(iBytes.length + 4);
+      final DataOutputStream changes = new DataOutputStream(payload);
+      changes.writeInt(iChanges);
+      changes.write(iBytes);
+      changes.close();
+
+      final CRC32 crc = new CRC32();
+      crc.update(payload.toByteArray());
+
+      final ByteArrayOutputStream record = new ByteArrayOutputStream(payload.size() + 8);
+      final DataOutputStream data = new DataOutputStream(record);
+      data.writeInt(payload.size());
+      data.writeInt((int) crc.getValue());
+      payload.writeTo(data);
+      data.close();
+
+      if ( mOut == null )
+      {
+         final boolean empty = mFile.length() < HEADER_LENGTH;
+         mOut = new FileOutputStream(mFile, !empty);
+         mLastSync = System.currentTimeMillis();
+         if ( empty )
+         {
+            final DataOutputStream header = new DataOutputStream(mOut);
+            header.writeInt(MAGIC);
+            header.writeLong(mGeneration);
+            header.flush();
+         }
+      }
+      mOut.write(record.toByteArray());
+      mRecords++;
+      mUnsynced++;
+
+      final long now = System.currentTimeMillis();
+      if ( mUnsynced >= SYNC_EVERY || now - mLastSync >= SYNC_INTERVAL )
+      {
+         mOut.getFD().sync();
+         mUnsynced = 0;
+         mLastSync = now;
+      }
+   }
+
+   /**
+    * Applies the whole records of the journal to a state.
+    *
+    * @param ioState The state read from the checkpoint.
+    * @return The length of the header and the whole records.
+    * @throws IOException if the journal could not be read.
+    */
+   private long replay(final JournaledState ioState) throws IOException
+   {
+      final long length = mFile.length();
+      long good = HEADER_LENGTH;
+
+      final DataInputStream in =
+         new DataInputStream(new BufferedInputStream(new FileInputStream(mFile)));
+      try
+      {
+         in.readFully(new byte[HEADER_LENGTH]);
+         while ( good + 8 <= length )
+         {
+            final int size = in.readInt();
+            final int checksum = in.readInt();
+            if ( size < 4 || good + 8 + size > length )
+            {
+               break;
+            }
+
+            final byte[] payload = new byte[size];
+            in.readFully(payload);
+            final CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ( (int) crc.getValue() != checksum )
+            {
+               break;
+            }
+
+            final DataInputStream data =
+               new DataInputStream(new ByteArrayInputStream(payload));
+            final int changes = data.readInt();
+            for ( int i = 0; i < changes; i++ )
+            {
+               ioState.readChange(data);
+            }
+
+            good += 8 + size;
+            mRecords++;
+         }
+      }
+      catch ( EOFException eofe )
+      {
+         // the rest of the journal is torn
+      }
+      finally
+      {
+         in.close();
+      }
+      return good;
+   }
+}
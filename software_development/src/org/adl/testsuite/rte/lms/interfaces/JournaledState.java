@@ -0,0 +1,38 @@
+package org.adl.testsuite.rte.lms.interfaces;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+
+/**
+ * This interface defines the methods used to save a state as a checkpoint
+ * followed by the changes made to it since.  The checkpoint is the serialized
+ * state; each save after it only records the fields that changed.
+ *
+ * @author ADL Technical Team
+ */
+public interface JournaledState extends Serializable
+{
+   /**
+    * Writes the fields of this state that differ from an earlier state.
+    *
+    * @param iBase The state last saved.
+    * @param oOut The output to write the changes to.
+    *
+    * @return The number of changes written.
+    *
+    * @throws IOException if the changes could not be written.
+    */
+   int writeChanges(JournaledState iBase, DataOutput oOut) throws IOException;
+
+   /**
+    * Reads one change written by <code>writeChanges</code> and applies it to
+    * this state.
+    *
+    * @param iIn The input to read the change from.
+    *
+    * @throws IOException if the change could not be read.
+    */
+   void readChange(DataInput iIn) throws IOException;
+}
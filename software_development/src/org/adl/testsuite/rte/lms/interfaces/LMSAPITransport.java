@@ -0,0 +1,24 @@
+package org.adl.testsuite.rte.lms.interfaces;
+
+/**
+ * This interface defines how the commands of an Activity reach the API
+ * implementation of the LMS under test.  In the browser the calls go through
+ * LiveConnect to the functions of the lmsrtefunctions.js file; other
+ * implementations let the test cases run without a browser.
+ *
+ * @author ADL Technical Team
+ */
+public interface LMSAPITransport
+{
+   /**
+    * Makes one call to the API implementation of the LMS.
+    *
+    * @param iFunction The name of the lmsrtefunctions.js function that makes
+    *           the call, such as doGetValue or doGetLastError.
+    * @param iArgs The arguments of the call. Unused arguments are empty
+    *           strings.
+    * @return The String returned by the API implementation, or an empty
+    *           string if the call could not be made.
+    */
+   String call(String iFunction, String[] iArgs);
+}
@@ -1,6 +1,7 @@
 package org.adl.testsuite.rte.lms.testcase;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -170,6 +171,17 @@ public class LMSTestCase implements Serializable
       return mAct.getName();
    }
    
+   /**
+    * Gets the Activities of this LMSTestCase, in launch order. Reading them
+    * does not change the current Activity.
+    * 
+    * @return A read-only List of the Activity objects.
+    */
+   public List<Activity> getActivities()
+   {
+      return Collections.unmodifiableList(mActivities);
+   }
+   
    /**
     * Gets a string key that represents the UI questions for the SCO.
     * 
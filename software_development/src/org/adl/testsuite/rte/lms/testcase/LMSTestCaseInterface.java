@@ -1,16 +1,14 @@
 package org.adl.testsuite.rte.lms.testcase;
 
-import java.util.Iterator;
-
 import javax.swing.JOptionPane;
 
 import org.adl.logging.LmsLoggerInterface;
 import org.adl.logging.LogFileGenerator;
 import org.adl.testsuite.rte.lms.interfaces.TestCaseInterface;
+import org.adl.testsuite.rte.lms.util.ActivityPlan;
 import org.adl.testsuite.rte.lms.util.Command;
 import org.adl.testsuite.rte.lms.util.LMSInfo;
 import org.adl.testsuite.rte.lms.util.LMSMessages;
-import org.adl.testsuite.rte.lms.util.LMSParser;
 import org.adl.testsuite.rte.lms.util.LMSSession;
 import org.adl.testsuite.rte.lms.util.Results;
 import org.adl.testsuite.util.CTSEnvironmentVariable;
@@ -50,14 +48,15 @@ public class LMSTestCaseInterface implements TestCaseInterface
    private transient Results mExpectedResults;
    
    /**
-    * The parser object.
+    * The test case object
     */
-   private transient LMSParser mPC;
+   private transient LMSTestCase mTC;
    
    /**
-    * The test case object
+    * The expected data model state at the start of the current test case, 
+    * returned to when the test case is retried.
     */
-   private transient LMSTestCase mTC;
+   private transient TestCaseEvaluator.Snapshot mTCStartState;
    
    /**
     * The test case evaluator object
@@ -139,8 +138,7 @@ public class LMSTestCaseInterface implements TestCaseInterface
     */
    public String getUIQuestions()
    {
-      mPC = new LMSParser();
-      mCurrentUIQuestions = mPC.parseUIKeys(mTC.getUIQuestionsKey());
+      mCurrentUIQuestions = ActivityPlan.getUIQuestions(mTC.getUIQuestionsKey());
       return mCurrentUIQuestions;
    }
    
@@ -149,13 +147,10 @@ public class LMSTestCaseInterface implements TestCaseInterface
     */
    public Command getCommands()
    {
-      final Iterator<String> cmdKeyItr = mTC.getCommandsKey();
-      Command currCommands = new Command();
-      mPC = new LMSParser(cmdKeyItr, currCommands);
-      mPC.parseCommands();
-      mExpectedResults = mPC.getExpectedResults();
+      final ActivityPlan plan = ActivityPlan.getPlan(mTC.getCommandsKey());
+      mExpectedResults = plan.getExpectedResults();
 
-      currCommands = mPC.getCommands();
+      final Command currCommands = plan.newCommand();
       mListOfCommands = currCommands;
       return currCommands;
    }
@@ -224,6 +219,7 @@ public class LMSTestCaseInterface implements TestCaseInterface
    public boolean retry()
    {
       mTC.resetState();
+      mTCE.restore(mTCStartState);
       resetSucessStatus();
       return true;
    }
@@ -300,6 +296,7 @@ public class LMSTestCaseInterface implements TestCaseInterface
          mCurrentDLName = mLfg.getLogName("LMS",getTestCaseName(), true);
          addMessage(DETAILED_KEY, MessageType.NEWLOG, mCurrentDLName);
       }      
+      mTCStartState = mTCE.snapshot();
    }
    
    /*
@@ -1,8 +1,11 @@
 package org.adl.testsuite.rte.lms.testcase;
 
+import java.io.IOException;
+import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.adl.datamodels.DMElement;
 import org.adl.datamodels.DMElementDescriptor;
@@ -10,6 +13,7 @@ import org.adl.datamodels.DMErrorCodes;
 import org.adl.datamodels.DMFactory;
 import org.adl.datamodels.DMProcessingInfo;
 import org.adl.datamodels.DMRequest;
+import org.adl.datamodels.DMSnapshot;
 import org.adl.datamodels.DataModel;
 import org.adl.datamodels.RequestToken;
 import org.adl.logging.LmsLoggerInterface;
@@ -67,6 +71,13 @@ public class TestCaseEvaluator
     */
    private transient Map<String, DataModel> mDataModels = null;
 
+   /**
+    * The binding strings of the data models that belong to this evaluator
+    * alone.  The other data models are shared with a <code>Snapshot</code>
+    * and are copied before they are used.
+    */
+   private transient Set<String> mOwnedDataModels = new HashSet<String>();
+
    /**
     * Indicates the location of the last initialized index of the
     * cmi.interactions collection. This value is used to minimize the number of
@@ -122,6 +133,35 @@ public class TestCaseEvaluator
       mLI = iLI;
    }
 
+   /**
+    * Takes a snapshot of the expected data model state, such as at the start
+    * of a test case.  The data models are not copied: they are shared with the
+    * snapshot until this evaluator next uses them.
+    * 
+    * @return The snapshot.
+    */
+   public Snapshot snapshot()
+   {
+      mOwnedDataModels.clear();
+      return new Snapshot(mDataModels, mInteractionIndex, mObjectivesIndex);
+   }
+
+   /**
+    * Returns the expected data model state to a snapshot, such as when a test
+    * case is retried.  The data models of the snapshot are shared, not
+    * copied, so the same snapshot can be restored again.
+    * 
+    * @param iSnapshot The snapshot to return to.
+    */
+   public void restore(final Snapshot iSnapshot)
+   {
+      mDataModels = ( iSnapshot.mDataModels == null ) ? null :
+                    new Hashtable<String, DataModel>(iSnapshot.mDataModels);
+      mOwnedDataModels.clear();
+      mInteractionIndex = iSnapshot.mInteractionIndex;
+      mObjectivesIndex = iSnapshot.mObjectivesIndex;
+   }
+
    /**
     * Evaluates if the test package launched by the LMS is the correct test
     * package that the CTS is expecting. No logging is done here. We just verify 
@@ -640,6 +680,7 @@ public class TestCaseEvaluator
             mDataModels = new Hashtable<String, DataModel>();
 
             mDataModels.put(dm.getDMBindingString(), dm);
+            mOwnedDataModels.add(dm.getDMBindingString());
          }
          else
          {
@@ -648,6 +689,7 @@ public class TestCaseEvaluator
             if ( check == null )
             {
                mDataModels.put(dm.getDMBindingString(), dm);
+               mOwnedDataModels.add(dm.getDMBindingString());
             }
          }
       }
@@ -655,7 +697,8 @@ public class TestCaseEvaluator
 
    /**
     * Retrieves a specific Data Model managed by this
-    * <code>SCODataManager</code>.
+    * <code>SCODataManager</code>.  A data model shared with a snapshot is
+    * copied first, because the evaluation may change it.
     * 
     * @param iDataModel
     *           Describes the dot-notation binding string of the desired data
@@ -670,11 +713,36 @@ public class TestCaseEvaluator
       if ( mDataModels != null )
       {
          dm = mDataModels.get(iDataModel);
+
+         if ( dm != null && !mOwnedDataModels.contains(iDataModel) )
+         {
+            dm = copyDataModel(dm);
+            mDataModels.put(iDataModel, dm);
+            mOwnedDataModels.add(iDataModel);
+         }
       }
 
       return dm;
    }
 
+   /**
+    * Makes a deep copy of a data model, with all of its elements and records.
+    * 
+    * @param iDataModel The data model to copy.
+    * @return The copy.
+    */
+   private static DataModel copyDataModel(final DataModel iDataModel)
+   {
+      try
+      {
+         return DMSnapshot.copy(iDataModel);
+      }
+      catch ( IOException ioe )
+      {
+         throw new IllegalStateException("The data model could not be copied: " + ioe);
+      }
+   }
+
    /**
     * Returns the success of this evaluation.
     * 
@@ -1240,4 +1308,44 @@ public class TestCaseEvaluator
       
       return compareSuccess;
    }
-}
\ No newline at end of file
+
+   /**
+    * The expected data model state of a <code>TestCaseEvaluator</code> at one
+    * point, such as the start of a test case.  A snapshot is never changed:
+    * the evaluator copies a data model before using it again.
+    */
+   public static final class Snapshot
+   {
+      /**
+       * The data models, by binding string, or null if there were none yet.
+       */
+      private final Map<String, DataModel> mDataModels;
+
+      /**
+       * The last initialized index of the cmi.interactions collection.
+       */
+      private final int mInteractionIndex;
+
+      /**
+       * The last initialized index of the cmi.objectives collection.
+       */
+      private final int mObjectivesIndex;
+
+      /**
+       * Overloaded constructor
+       * 
+       * @param iDataModels The data models of the evaluator, or null.
+       * @param iInteractionIndex The last initialized interactions index.
+       * @param iObjectivesIndex The last initialized objectives index.
+       */
+      Snapshot(final Map<String, DataModel> iDataModels,
+               final int iInteractionIndex,
+               final int iObjectivesIndex)
+      {
+         mDataModels = ( iDataModels == null ) ? null :
+                       new Hashtable<String, DataModel>(iDataModels);
+         mInteractionIndex = iInteractionIndex;
+         mObjectivesIndex = iObjectivesIndex;
+      }
+   }
+}
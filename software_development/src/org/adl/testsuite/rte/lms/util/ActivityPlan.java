@@ -0,0 +1,211 @@
+package org.adl.testsuite.rte.lms.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds the parsed commands and expected results of an Activity.  The command
+ * keys of an Activity are parsed once, the first time the Activity is
+ * delivered, and the plan is kept for every later delivery, retry or
+ * concurrent session of the same Activity.<br><br>
+ *
+ * A plan is immutable.  Each delivery gets a new <code>Command</code> over
+ * the shared lists, because a Command keeps state while it is evaluated.
+ * The expected learner_name and learner_id depend on the learner, so they are
+ * left out of the plan and filled in when the expected results are asked
+ * for.  There is one plan for each different list of command keys, so the
+ * cache is bounded by the test case catalog.
+ *
+ * @author ADL Technical Team
+ */
+public final class ActivityPlan
+{
+   /**
+    * The plans, by the command keys of the Activity.
+    */
+   private static final ConcurrentMap<List<String>, ActivityPlan> PLANS =
+      new ConcurrentHashMap<List<String>, ActivityPlan>();
+
+   /**
+    * The User Interface questions in sentence form, by question key.
+    */
+   private static final ConcurrentMap<String, String> UI_QUESTIONS =
+      new ConcurrentHashMap<String, String>();
+
+   /**
+    * The commands (datamodel calls) of the Activity.
+    */
+   private final List mCommands;
+
+   /**
+    * The parameters of each command.
+    */
+   private final List mParams;
+
+   /**
+    * The expected results, with empty learner values.
+    */
+   private final Results mExpectedResults;
+
+   /**
+    * The indexes of the expected results that hold the learner_name.
+    */
+   private final int[] mLearnerNameResults;
+
+   /**
+    * The indexes of the expected results that hold the learner_id.
+    */
+   private final int[] mLearnerIDResults;
+
+   /**
+    * Creates the plan from a parser that has parsed the command keys with the
+    * learner deferred.
+    *
+    * @param iParser The parser.
+    */
+   private ActivityPlan(final LMSParser iParser)
+   {
+      final Command command = iParser.getCommands();
+      mCommands = Collections.unmodifiableList(command.getCommList());
+      mParams = Collections.unmodifiableList(command.getParamList());
+      mExpectedResults = new Results(
+         Collections.unmodifiableList(iParser.getExpectedResults().getResults()));
+      mLearnerNameResults = toArray(iParser.getLearnerNameResults());
+      mLearnerIDResults = toArray(iParser.getLearnerIDResults());
+   }
+
+   /**
+    * Returns the plan of an Activity, parsing its command keys if no plan has
+    * been made for them yet.
+    *
+    * @param iCommandsKey The command keys of the Activity.
+    * @return The plan.
+    */
+   public static ActivityPlan getPlan(final Iterator<String> iCommandsKey)
+   {
+      final List<String> key = new ArrayList<String>();
+      while ( iCommandsKey.hasNext() )
+      {
+         key.add(iCommandsKey.next());
+      }
+
+      ActivityPlan plan = PLANS.get(key);
+      if ( plan == null )
+      {
+         final LMSParser parser = new LMSParser(key.iterator(), new Command());
+         parser.deferLearner();
+         parser.parseCommands();
+
+         plan = new ActivityPlan(parser);
+         final ActivityPlan other = PLANS.putIfAbsent(key, plan);
+         if ( other != null )
+         {
+            plan = other;
+         }
+      }
+      return plan;
+   }
+
+   /**
+    * Returns the User Interface questions in sentence form, parsing the
+    * question key the first time it is asked for.
+    *
+    * @param iQuestionKey The key of question keys of the Activity.
+    * @return The questions separated by ~.
+    */
+   public static String getUIQuestions(final String iQuestionKey)
+   {
+      String questions = UI_QUESTIONS.get(iQuestionKey);
+      if ( questions == null )
+      {
+         questions = new LMSParser().parseUIKeys(iQuestionKey);
+         UI_QUESTIONS.putIfAbsent(iQuestionKey, questions);
+      }
+      return questions;
+   }
+
+   /**
+    * Creates the Command for one delivery of the Activity.
+    *
+    * @return A new Command over the parsed commands.
+    */
+   public Command newCommand()
+   {
+      return new Command(mCommands, mParams);
+   }
+
+   /**
+    * Returns the expected results for the learner of the current test package
+    * in the LMSSession.
+    *
+    * @return The expected results, which must not be changed.
+    */
+   public Results getExpectedResults()
+   {
+      if ( mLearnerNameResults.length == 0 && mLearnerIDResults.length == 0 )
+      {
+         return mExpectedResults;
+      }
+      return getExpectedResults(LMSParser.getSessionLearnerInfo(true),
+                                LMSParser.getSessionLearnerInfo(false));
+   }
+
+   /**
+    * Returns the expected results for a learner.
+    *
+    * @param iLearnerName The learner_name expected from the LMS.
+    * @param iLearnerID The learner_id expected from the LMS.
+    * @return The expected results, which must not be changed.
+    */
+   public Results getExpectedResults(final String iLearnerName, final String iLearnerID)
+   {
+      if ( mLearnerNameResults.length == 0 && mLearnerIDResults.length == 0 )
+      {
+         return mExpectedResults;
+      }
+
+      final List<Result> results = new ArrayList<Result>(mExpectedResults.getResults());
+      setLearnerValue(results, mLearnerNameResults, iLearnerName);
+      setLearnerValue(results, mLearnerIDResults, iLearnerID);
+      return new Results(results);
+   }
+
+   /**
+    * Replaces the expected results at the given indexes by results expecting
+    * the learner value.
+    *
+    * @param ioResults The expected results.
+    * @param iIndexes The indexes of the results to replace.
+    * @param iValue The learner value.
+    */
+   private static void setLearnerValue(final List<Result> ioResults,
+                                       final int[] iIndexes,
+                                       final String iValue)
+   {
+      for ( final int index : iIndexes )
+      {
+         final Result result = ioResults.get(index);
+         ioResults.set(index, new Result(iValue, result.getErrorCode(), result.getType()));
+      }
+   }
+
+   /**
+    * Copies a list of indexes to an array.
+    *
+    * @param iIndexes The indexes.
+    * @return The indexes, in the same order.
+    */
+   private static int[] toArray(final List<Integer> iIndexes)
+   {
+      final int[] array = new int[iIndexes.size()];
+      for ( int i = 0; i < array.length; i++ )
+      {
+         array[i] = iIndexes.get(i);
+      }
+      return array;
+   }
+}
@@ -7,6 +7,9 @@ import java.util.List;
 
 import netscape.javascript.JSObject;
 
+import org.adl.testsuite.rte.lms.comm.JSObjectTransport;
+import org.adl.testsuite.rte.lms.interfaces.LMSAPITransport;
+
 /**
  * This class is responsible for storing the commands (datamodel calls) 
  * associated with an Activity. This class also is responsible for making the 
@@ -18,17 +21,9 @@ public class Command implements Serializable
 {
    
    /**
-    * 
-    * The name of the variable in the lmsrtefunctions.js file used to track the
-    * value returned by the last call of the test subject LMS
-    *  
-    */
-   private static final String LMS_RETURNED = "lmsReturned";
-   
-   /**
-    * LiveConnect object used to communicate to the LMS.
+    * Transport used to communicate to the LMS.
     */
-   private JSObject mJSObject;
+   private transient LMSAPITransport mTransport;
    
    /**
     * The list of commands (datamodel calls) to be executed for an Activity.
@@ -54,6 +49,20 @@ public class Command implements Serializable
       mParams = new ArrayList();
    }
    
+   /**
+    * Creates a Command over lists of commands and parameters that are already
+    * parsed.  The lists are not copied, so they may be shared by several
+    * Commands as long as none of them adds to it.
+    * 
+    * @param iCommands The commands (datamodel calls) of the Activity.
+    * @param iParams The parameters of each command.
+    */
+   Command(List iCommands, List iParams)
+   {
+      mCommands = iCommands;
+      mParams = iParams;
+   }
+   
    /**
     * This method is responsible for adding a command (datamodel call) to the 
     * class.
@@ -85,14 +94,27 @@ public class Command implements Serializable
     * @return Results object representing the collection of LMS returned results.
     */
    public Results evaluate(JSObject iJSObject)
+   {
+      return evaluate(( iJSObject == null ) ? null : new JSObjectTransport(iJSObject));
+   }
+   
+   /**
+    * Executes the collection of commands against the test LMS, reached through
+    * the given transport, and returns the Results.
+    * 
+    * @param iTransport The transport used to communicate to the LMS.
+    * 
+    * @return Results object representing the collection of LMS returned results.
+    */
+   public Results evaluate(LMSAPITransport iTransport)
    {
       boolean testing = false;
       Results results = new Results();
       
-      mJSObject = iJSObject;
+      mTransport = iTransport;
       
-      // if there isn't a jsobject, then we are testing
-      testing = ( mJSObject == null );
+      // if there isn't a transport, then we are testing
+      testing = ( mTransport == null );
       
       String [] arg = new String[2];
       for( int i = 0; i < mCommands.size(); i++ )
@@ -156,8 +178,7 @@ public class Command implements Serializable
             else
             {
                
-               final String returned = (String)mJSObject.call(mCommands.get(i).toString(), arg);
-               //String returned = (mJSObject.getMember(LMS_RETURNED)).toString();
+               final String returned = mTransport.call(mCommands.get(i).toString(), arg);
 
                //System.out.println("Da Retu : " + returned);
                for ( int j = 0; j < arg.length; j++ )
@@ -165,8 +186,7 @@ public class Command implements Serializable
                   arg[j] = "";
                }
             
-               final String errorCode = (String)mJSObject.call("doGetLastError", arg);
-               //String errorCode = (mJSObject.getMember(LMS_RETURNED)).toString();
+               final String errorCode = mTransport.call("doGetLastError", arg);
                //System.out.println("result: new Result(" + returned + ", " + errorCode +", " + mObjIndex + ")");            
                results.addResult(new Result(returned, errorCode, mObjIndex));
             }
@@ -220,7 +240,7 @@ public class Command implements Serializable
     */
    public String parseForIndex(String iToParse)
    {
-      if( mJSObject != null )
+      if( mTransport != null )
       {
          if ( iToParse.indexOf("&")!= -1 )
          {
@@ -255,11 +275,11 @@ public class Command implements Serializable
 
       // make the call to GetValue() to the LMS
       String[] paramCount = { "cmi.objectives._count" };
-      mJSObject.call("doGetValue", paramCount);
+      final String count = mTransport.call("doGetValue", paramCount);
       int numObjectives = 0;
       try
       {
-         numObjectives = Integer.parseInt((mJSObject.getMember(LMS_RETURNED)).toString());
+         numObjectives = Integer.parseInt(count);
       }
       catch (Exception e){/*if we can't parse it, leave it alone*/}
 
@@ -269,8 +289,7 @@ public class Command implements Serializable
       {
          // make the call to GetValue() to the LMS
          String[] params1 = { "cmi.objectives." + i + ".id" };
-         mJSObject.call("doGetValue", params1);
-         String identifier = (mJSObject.getMember(LMS_RETURNED)).toString();
+         String identifier = mTransport.call("doGetValue", params1);
 
          if ( identifier.equals(iId) )
          {
@@ -301,11 +320,11 @@ public class Command implements Serializable
 
       // make the call to GetValue() to the LMS
       String[] paramCount = { "adl.data._count" };
-      mJSObject.call("doGetValue", paramCount);
+      final String count = mTransport.call("doGetValue", paramCount);
       int numData = 0;
       try
       {
-         numData = Integer.parseInt((mJSObject.getMember(LMS_RETURNED)).toString());
+         numData = Integer.parseInt(count);
       }
       catch (Exception e){/*if we can't parse it, leave it alone*/}
 
@@ -315,8 +334,7 @@ public class Command implements Serializable
       {
          // make the call to GetValue() to the LMS
          String[] params1 = { "adl.data." + i + ".id" };
-         mJSObject.call("doGetValue", params1);
-         String identifier = (mJSObject.getMember(LMS_RETURNED)).toString();
+         String identifier = mTransport.call("doGetValue", params1);
 
          if ( identifier.equals(iId) )
          {
@@ -344,8 +362,7 @@ public class Command implements Serializable
       /* Get the number of objectives from the LMS */
       String element = "cmi.objectives._count";
       String[] params = { element };
-      mJSObject.call("doGetValue", params);
-      String numObjectivesStr = (mJSObject.getMember(LMS_RETURNED)).toString();
+      String numObjectivesStr = mTransport.call("doGetValue", params);
       int numObjectives = Integer.parseInt(numObjectivesStr);
       
       for( int i = 0; i < numObjectives; i++ )
@@ -355,8 +372,7 @@ public class Command implements Serializable
 
          // make the call to GetValue() to the LMS
          String[] params1 = { element };
-         mJSObject.call("doGetValue", params1);
-         String identifier = (mJSObject.getMember(LMS_RETURNED)).toString();
+         String identifier = mTransport.call("doGetValue", params1);
             
          result.addObj(identifier);
       }
@@ -1,16 +1,13 @@
 package org.adl.testsuite.rte.lms.util;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.ObjectInputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.logging.Logger;
 
 import org.adl.testsuite.rte.lms.testcase.LMSTestCase;
@@ -53,15 +50,15 @@ public class LMSInfo
    protected Logger mLogger = Logger.getLogger("org.adl.util.debug.testsuite");
    
    /**
-    * The name of the hash obj file. This is the file that is loaded to create 
-    * the hash table of the Test Cases. 
+    * The name of the test case store. This is the file the Test Cases are 
+    * loaded from, one at a time. 
     */
-   protected final String mHashName = "LMSTestCases.obj";
+   protected final String mStoreName = LMSTestCaseStore.STORE_NAME;
    
    /**
-    * The hash of available test cases.
+    * The store of available test cases.
     */
-   private Map<String, LMSTestCase> mAvailableTestCases;
+   private LMSTestCaseStore mAvailableTestCases;
    
    private static LMSInfo instance;
    
@@ -70,7 +67,7 @@ public class LMSInfo
     */
    private LMSInfo()
    {
-      mAvailableTestCases = getTCHash();
+      mAvailableTestCases = getTCStore();
    }
    
    /**
@@ -88,7 +85,8 @@ public class LMSInfo
    }
    
    /**
-    * Returns a Test Case based on the name requested.
+    * Returns a Test Case based on the name requested. The test case is read 
+    * from the store on each call, so each caller gets its own copy.
     * 
     * @param iName The name of the test case.
     * 
@@ -96,9 +94,7 @@ public class LMSInfo
     */
    public LMSTestCase getTestCase(String iName)
    {
-      LMSTestCase curTC = mAvailableTestCases.get(iName);
-      curTC.resetState();
-      return curTC;
+      return mAvailableTestCases.getTestCase(iName);
    }
    
    /**
@@ -108,7 +104,7 @@ public class LMSInfo
     */
    public List<String> getTestPackageNames()
    {
-      return new ArrayList<String>(mAvailableTestCases.keySet());
+      return mAvailableTestCases.getTestCaseNames();
    }
    
    /**
@@ -172,23 +168,22 @@ public class LMSInfo
       return mTestName;
    }
    
-   private Map<String, LMSTestCase> getTCHash()
+   private LMSTestCaseStore getTCStore()
    {
-      mLogger.entering("LMSInfo","getTCHash()");
+      mLogger.entering("LMSInfo","getTCStore()");
       
       PrivilegedReadFile prf = new PrivilegedReadFile();
-      mLogger.exiting("LMSInfo","getTCHash():right after call to AccessController method");
-      Map<String, LMSTestCase> map = (HashMap)AccessController.doPrivileged(prf);
-      if (map == null)
+      mLogger.exiting("LMSInfo","getTCStore():right after call to AccessController method");
+      LMSTestCaseStore store = (LMSTestCaseStore)AccessController.doPrivileged(prf);
+      if (store == null)
       {
-         map = loadMapAbsolutely();
+         store = loadStoreAbsolutely();
       }
-      return (HashMap)map;
+      return store;
    }
    
-   private Map<String, LMSTestCase> loadMapAbsolutely()
+   private LMSTestCaseStore loadStoreAbsolutely()
    {
-      Map<String, LMSTestCase> map;
       String p = EnvironmentVariable.getValue(mCTSHome)
       + File.separatorChar + "build"
       + File.separatorChar + "classes"
@@ -198,21 +193,15 @@ public class LMSInfo
       + File.separatorChar + "rte"
       + File.separatorChar + "lms"
       + File.separatorChar + "util"
-      + File.separatorChar + "LMSTestCases.obj";
+      + File.separatorChar + mStoreName;
       try
       {
-         ObjectInputStream ois = new ObjectInputStream(new FileInputStream(p));
-         map = (HashMap)ois.readObject();
+         return LMSTestCaseStore.open(new File(p));
       }
       catch (IOException ioe)
       {
-         map = null;
+         return null;
       }
-      catch (ClassNotFoundException cnfe)
-      {
-         map = null;
-      }
-      return map;
    }
    
    private class PrivilegedReadFile implements PrivilegedAction<Object>
@@ -222,13 +211,29 @@ public class LMSInfo
       {
          try
          {
-            InputStream is = this.getClass().getResourceAsStream("LMSTestCases.obj");
-            ObjectInputStream ois = new ObjectInputStream(is);
-            return ois.readObject();
+            // A store on disk is mapped; one inside a jar file is read 
+            URL url = this.getClass().getResource(mStoreName);
+            if ( url == null )
+            {
+               return null;
+            }
+            if ( url.getProtocol().equals("file") )
+            {
+               return LMSTestCaseStore.open(new File(url.toURI()));
+            }
+            InputStream is = url.openStream();
+            try
+            {
+               return LMSTestCaseStore.read(is);
+            }
+            finally
+            {
+               is.close();
+            }
          }
-         catch (ClassNotFoundException cnfe)
+         catch (URISyntaxException use)
          {
-            mLogger.severe("ClassNotFoundException occurred in LMSInfo.PrivilegedReadFile.run()");
+            mLogger.severe("URISyntaxException occurred in LMSInfo.PrivilegedReadFile.run()");
             return null;
          }
          catch (IOException ioe)
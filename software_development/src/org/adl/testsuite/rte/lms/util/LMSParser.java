@@ -1,6 +1,8 @@
 package org.adl.testsuite.rte.lms.util;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 /**
  * This class is responsible for parsing the command keys from the test package 
@@ -52,6 +54,24 @@ public class LMSParser
     */
    private String[] mUIQuestionArray;
 
+   /**
+    * Indicates if the learner values of the expected results are left empty,
+    * to be filled in for each learner by the <code>ActivityPlan</code>.
+    */
+   private boolean mDeferLearner = false;
+
+   /**
+    * The indexes of the expected results that hold the learner_name, when the
+    * learner is deferred.
+    */
+   private List<Integer> mLearnerNameResults = new ArrayList<Integer>();
+
+   /**
+    * The indexes of the expected results that hold the learner_id, when the
+    * learner is deferred.
+    */
+   private List<Integer> mLearnerIDResults = new ArrayList<Integer>();
+
    /**
     * Constructor
     */
@@ -74,6 +94,15 @@ public class LMSParser
       mComm = iComm;
    }
 
+   /**
+    * Leaves the learner values of the expected results empty and records
+    * where they are, so the parsed commands can be shared by every learner.
+    */
+   void deferLearner()
+   {
+      mDeferLearner = true;
+   }
+
    /**
     * Method that controls the parsing of the command keys.
     */
@@ -361,7 +390,22 @@ public class LMSParser
       if ( (iCmdKeySplit[1].indexOf("LN") > -1) || (iCmdKeySplit[1].indexOf("LI") > -1) )
       {
          String learnerKey = iCmdKeySplit[1];
-         value = getLearnerInfoForResultValue(learnerKey);
+         if ( mDeferLearner )
+         {
+            value = "";
+            if ( learnerKey.indexOf("LN") > -1 )
+            {
+               mLearnerNameResults.add(mRess.getResults().size());
+            }
+            else
+            {
+               mLearnerIDResults.add(mRess.getResults().size());
+            }
+         }
+         else
+         {
+            value = getLearnerInfoForResultValue(learnerKey);
+         }
       }
       
       if ( expectedType.equals("") )
@@ -579,11 +623,24 @@ public class LMSParser
     */
    private String getLearnerInfoForResultValue(String iLearnerKey)
    {
-      String value = "";
       String learnerKey = iLearnerKey;
+      return getSessionLearnerInfo(learnerKey.indexOf("LN") > -1);
+   }
+
+   /**
+    * Gets the learner_name or learner_id of the learner the current test
+    * package of the LMSSession is run for.
+    * 
+    * @param iName - true for the learner_name, false for the learner_id.
+    * 
+    * @return the learner_name or learner_id.
+    */
+   static String getSessionLearnerInfo(boolean iName)
+   {
+      String value = "";
       if ( LMSSession.getInstance().getCurrentPackage().equals("API") )
       {
-         if ( learnerKey.indexOf("LN") > -1 )
+         if ( iName )
          {
             value = LMSSession.getInstance().getL1Name();
          }
@@ -596,7 +653,7 @@ public class LMSParser
       {
          if ( LMSSession.getInstance().getL2Name().equals("") )
          {
-            if ( learnerKey.indexOf("LN") > -1 )
+            if ( iName )
             {
                value = LMSSession.getInstance().getL1Name();
             }
@@ -607,7 +664,7 @@ public class LMSParser
          }
          else
          {
-            if ( learnerKey.indexOf("LN") > -1 )
+            if ( iName )
             {
                value = LMSSession.getInstance().getL2Name();
             }
@@ -641,4 +698,26 @@ public class LMSParser
 
    }
 
+   /**
+    * Gets the indexes of the expected results that hold the learner_name,
+    * when the learner is deferred.
+    * 
+    * @return the indexes, in order.
+    */
+   List<Integer> getLearnerNameResults()
+   {
+      return mLearnerNameResults;
+   }
+
+   /**
+    * Gets the indexes of the expected results that hold the learner_id, when
+    * the learner is deferred.
+    * 
+    * @return the indexes, in order.
+    */
+   List<Integer> getLearnerIDResults()
+   {
+      return mLearnerIDResults;
+   }
+
 }
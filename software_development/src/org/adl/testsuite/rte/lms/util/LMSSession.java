@@ -1,7 +1,12 @@
 package org.adl.testsuite.rte.lms.util;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
+import java.util.Arrays;
 
+import org.adl.testsuite.rte.lms.interfaces.JournaledState;
 
 /**
  * This class contains the test session information for the LMS Conformance Test.
@@ -11,6 +16,46 @@ import java.io.Serializable;
  */
 public class LMSSession implements Serializable
 {
+   /**
+    * Journal tag of the list of packages to run.
+    */
+   private static final int PACKAGES_TAG = 0;
+   
+   /**
+    * Journal tag of the current location within the list of packages.
+    */
+   private static final int INDEX_TAG = 1;
+   
+   /**
+    * Journal tag of the name, version and vendor of the test LMS.
+    */
+   private static final int LMS_TAG = 2;
+   
+   /**
+    * Journal tag of the names and ids of the learners.
+    */
+   private static final int LEARNERS_TAG = 3;
+   
+   /**
+    * Journal tag of the enrollment success of the learners.
+    */
+   private static final int ENROLL_TAG = 4;
+   
+   /**
+    * Journal tag of the overall status.
+    */
+   private static final int STATUS_TAG = 5;
+   
+   /**
+    * Journal tag of the location and time of the detailed log.
+    */
+   private static final int DETAILED_FILE_TAG = 6;
+   
+   /**
+    * Journal tag of the name of the session object.
+    */
+   private static final int OBJ_NAME_TAG = 7;
+   
    /**
     * The instance of this class.
     */
@@ -523,7 +568,7 @@ public class LMSSession implements Serializable
     * 
     * @author ADL Technical Team
     */
-   class LMSSessionMemento implements Serializable
+   class LMSSessionMemento implements JournaledState
    {
       /**
        * String array that holds the current LMS Test Content Packages to run.
@@ -644,5 +689,177 @@ public class LMSSession implements Serializable
          memDetailedFileLastModified = mDetailedFileLastModified;
          memObjName = mObjName;
       }
+      
+      /**
+       * Writes the groups of fields that differ from the memento last saved.
+       * 
+       * @param iBase - The memento last saved.
+       * @param oOut - The output to write the changes to.
+       * @return The number of changes written.
+       * @throws IOException if the changes could not be written.
+       */
+      public int writeChanges(JournaledState iBase, DataOutput oOut) throws IOException
+      {
+         LMSSessionMemento base = (LMSSessionMemento)iBase;
+         int changes = 0;
+         
+         if ( !Arrays.equals(memCurrentPackagesToRun, base.memCurrentPackagesToRun) )
+         {
+            oOut.writeByte(PACKAGES_TAG);
+            oOut.writeInt(memCurrentPackagesToRun == null ? -1 : memCurrentPackagesToRun.length);
+            for ( int i = 0; memCurrentPackagesToRun != null && i < memCurrentPackagesToRun.length; i++ )
+            {
+               writeString(oOut, memCurrentPackagesToRun[i]);
+            }
+            changes++;
+         }
+         if ( memIndex != base.memIndex )
+         {
+            oOut.writeByte(INDEX_TAG);
+            oOut.writeInt(memIndex);
+            changes++;
+         }
+         if ( !same(memLMSName, base.memLMSName) || 
+              !same(memLMSVersion, base.memLMSVersion) || 
+              !same(memLMSVendor, base.memLMSVendor) )
+         {
+            oOut.writeByte(LMS_TAG);
+            writeString(oOut, memLMSName);
+            writeString(oOut, memLMSVersion);
+            writeString(oOut, memLMSVendor);
+            changes++;
+         }
+         if ( !same(memL1Name, base.memL1Name) || !same(memL1ID, base.memL1ID) || 
+              !same(memL2Name, base.memL2Name) || !same(memL2ID, base.memL2ID) )
+         {
+            oOut.writeByte(LEARNERS_TAG);
+            writeString(oOut, memL1Name);
+            writeString(oOut, memL1ID);
+            writeString(oOut, memL2Name);
+            writeString(oOut, memL2ID);
+            changes++;
+         }
+         if ( memL1EnrollSuccess != base.memL1EnrollSuccess || 
+              memL2EnrollSuccess != base.memL2EnrollSuccess )
+         {
+            oOut.writeByte(ENROLL_TAG);
+            oOut.writeBoolean(memL1EnrollSuccess);
+            oOut.writeBoolean(memL2EnrollSuccess);
+            changes++;
+         }
+         if ( memOverallStatus != base.memOverallStatus )
+         {
+            oOut.writeByte(STATUS_TAG);
+            oOut.writeBoolean(memOverallStatus);
+            changes++;
+         }
+         if ( !same(memDetailedFileURI, base.memDetailedFileURI) || 
+              memDetailedFileLastModified != base.memDetailedFileLastModified )
+         {
+            oOut.writeByte(DETAILED_FILE_TAG);
+            writeString(oOut, memDetailedFileURI);
+            oOut.writeLong(memDetailedFileLastModified);
+            changes++;
+         }
+         if ( !same(memObjName, base.memObjName) )
+         {
+            oOut.writeByte(OBJ_NAME_TAG);
+            writeString(oOut, memObjName);
+            changes++;
+         }
+         return changes;
+      }
+      
+      /**
+       * Reads one change written by <code>writeChanges</code> into this memento.
+       * 
+       * @param iIn - The input to read the change from.
+       * @throws IOException if the change could not be read.
+       */
+      public void readChange(DataInput iIn) throws IOException
+      {
+         int tag = iIn.readByte();
+         switch ( tag )
+         {
+            case PACKAGES_TAG:
+               int count = iIn.readInt();
+               memCurrentPackagesToRun = ( count < 0 ) ? null : new String[count];
+               for ( int i = 0; i < count; i++ )
+               {
+                  memCurrentPackagesToRun[i] = readString(iIn);
+               }
+               break;
+            case INDEX_TAG:
+               memIndex = iIn.readInt();
+               break;
+            case LMS_TAG:
+               memLMSName = readString(iIn);
+               memLMSVersion = readString(iIn);
+               memLMSVendor = readString(iIn);
+               break;
+            case LEARNERS_TAG:
+               memL1Name = readString(iIn);
+               memL1ID = readString(iIn);
+               memL2Name = readString(iIn);
+               memL2ID = readString(iIn);
+               break;
+            case ENROLL_TAG:
+               memL1EnrollSuccess = iIn.readBoolean();
+               memL2EnrollSuccess = iIn.readBoolean();
+               break;
+            case STATUS_TAG:
+               memOverallStatus = iIn.readBoolean();
+               break;
+            case DETAILED_FILE_TAG:
+               memDetailedFileURI = readString(iIn);
+               memDetailedFileLastModified = iIn.readLong();
+               break;
+            case OBJ_NAME_TAG:
+               memObjName = readString(iIn);
+               break;
+            default:
+               throw new IOException("Unknown session journal tag " + tag);
+         }
+      }
+      
+      /**
+       * Compares two fields that may be null.
+       * 
+       * @param iOne - The first field.
+       * @param iTwo - The second field.
+       * @return Whether the fields are equal.
+       */
+      private boolean same(String iOne, String iTwo)
+      {
+         return ( iOne == null ) ? ( iTwo == null ) : iOne.equals(iTwo);
+      }
+      
+      /**
+       * Writes a field that may be null.
+       * 
+       * @param oOut - The output to write to.
+       * @param iValue - The field.
+       * @throws IOException if the field could not be written.
+       */
+      private void writeString(DataOutput oOut, String iValue) throws IOException
+      {
+         oOut.writeBoolean(iValue != null);
+         if ( iValue != null )
+         {
+            oOut.writeUTF(iValue);
+         }
+      }
+      
+      /**
+       * Reads a field written by <code>writeString</code>.
+       * 
+       * @param iIn - The input to read from.
+       * @return The field, which may be null.
+       * @throws IOException if the field could not be read.
+       */
+      private String readString(DataInput iIn) throws IOException
+      {
+         return iIn.readBoolean() ? iIn.readUTF() : null;
+      }
    }
 }
@@ -4,14 +4,13 @@ import java.io.BufferedReader;
 import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.ObjectOutputStream;
 import java.io.OutputStreamWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -38,20 +37,33 @@ public class LMSTestCaseGenerator
    public static void main(String[] args)
    {
       LMSTestCaseGenerator gen = new LMSTestCaseGenerator();
-      gen.populateHash();
-      gen.writeHash();
+      gen.populateStore();
+      gen.writeStore();
       // gen.printContents();
    }
 
    OutputStreamWriter o;
 
-   HashMap testcaseHash = new HashMap();
+   /**
+    * The names of the test cases, in the order they are stored.
+    */
+   List<String> testcaseNames = new ArrayList<String>();
+
+   /**
+    * The time the properties file of each test case was last modified.
+    */
+   List<Long> testcaseTimestamps = new ArrayList<Long>();
+
+   /**
+    * The store record of each test case.
+    */
+   List<byte[]> testcaseRecords = new ArrayList<byte[]>();
 
    String propLocation = EnvironmentVariable.getValue("SCORM4ED_TS111_HOME") + File.separatorChar + "TestSuite" + File.separatorChar + "LMSRTE" + File.separatorChar + "Courses" + File.separatorChar + "TestCases";
 
    String writeHashToLocation = EnvironmentVariable.getValue("SCORM4ED_TS111_HOME") + File.separatorChar + "build" + File.separatorChar + "classes" + File.separatorChar + "org" + File.separatorChar + "adl" + File.separatorChar + "testsuite" + File.separatorChar + "rte" + File.separatorChar + "lms" + File.separatorChar + "util";
 
-   String hashName = "LMSTestCases.obj";
+   String storeName = LMSTestCaseStore.STORE_NAME;
 
    /**
     * TODO
@@ -61,21 +73,14 @@ public class LMSTestCaseGenerator
    }
 
    /**
-    * TODO
+    * Writes the test case store, replacing the one written before.
     */
-   public void writeHash()
+   public void writeStore()
    {
-      ObjectOutputStream oos;
-
       try
       {
-         oos = new ObjectOutputStream(new FileOutputStream(writeHashToLocation + File.separatorChar + hashName));
-         oos.writeObject(testcaseHash);
-         oos.close();
-      }
-      catch ( FileNotFoundException fnfe )
-      {
-         fnfe.printStackTrace();
+         LMSTestCaseStore.write(new File(writeHashToLocation, storeName), 
+                                testcaseNames, testcaseTimestamps, testcaseRecords);
       }
       catch ( IOException ioe )
       {
@@ -84,29 +89,86 @@ public class LMSTestCaseGenerator
    }
 
    /**
-    * TODO
+    * Creates the store records of the test cases. The record of a test case 
+    * whose properties file has not changed since the last store was written 
+    * is copied from that store instead of being parsed again.
     */
-   public void populateHash() 
+   public void populateStore() 
    {
       File loc = new File(propLocation);
+      LMSTestCaseStore previous = readPreviousStore();
+      int copied = 0;
 
       if ( loc.isDirectory() )
       {
          // get the list of files and folders in the directory
          File[] files = loc.listFiles();
+         Arrays.sort(files);
 
          // add the files to the list object
          for ( int i = 0; i < files.length; i++ )
          {
             File tc = files[i];
             String tcName = (tc.getName()).substring(0, tc.getName().indexOf("."));
+            long timestamp = tc.lastModified();
+            byte[] record = null;
 
-               testcaseHash.put(tcName, createTC(tc));
+            if ( previous != null && previous.getTimestamp(tcName) == timestamp )
+            {
+               record = previous.getRecord(tcName);
+               copied++;
+            }
+            else
+            {
+               LMSTestCase testCase = createTC(tc);
+               if ( testCase == null )
+               {
+                  System.out.println("Skipping " + tc.getName());
+                  continue;
+               }
+               record = LMSTestCaseStore.encode(testCase);
+            }
 
+            testcaseNames.add(tcName);
+            testcaseTimestamps.add(Long.valueOf(timestamp));
+            testcaseRecords.add(record);
+         }
+      }
+      System.out.println(testcaseNames.size() + " test cases, " + 
+                         (testcaseNames.size() - copied) + " parsed");
+   }
 
+   /**
+    * Reads the store written by an earlier run, if there is one. It is read 
+    * into memory rather than mapped, since it is about to be replaced.
+    * 
+    * @return The earlier store, or null.
+    */
+   private LMSTestCaseStore readPreviousStore()
+   {
+      File storeFile = new File(writeHashToLocation, storeName);
+      if ( !storeFile.isFile() )
+      {
+         return null;
+      }
 
+      try
+      {
+         FileInputStream in = new FileInputStream(storeFile);
+         try
+         {
+            return LMSTestCaseStore.read(in);
+         }
+         finally
+         {
+            in.close();
          }
       }
+      catch ( IOException ioe )
+      {
+         // The store is rebuilt from the properties files
+         return null;
+      }
    }
 
    /**
@@ -364,13 +426,14 @@ public class LMSTestCaseGenerator
       {
          o = new OutputStreamWriter(new FileOutputStream("C:\\TCGenPrint.txt"));
 
-         Iterator itr = testcaseHash.keySet().iterator();
+         LMSTestCaseStore store = LMSTestCaseStore.open(new File(writeHashToLocation, storeName));
+         Iterator itr = store.getTestCaseNames().iterator();
          while ( itr.hasNext() )
          {
             /* System.out. */println("+++++++++++++++++++++++++++++++++++++++++++++++++++");
             String tcKey = itr.next().toString();
             /* System.out. */println(tcKey);
-            LMSTestCase tc = (LMSTestCase) testcaseHash.get(tcKey);
+            LMSTestCase tc = store.getTestCase(tcKey);
             /* System.out. */println("title: " + tc.getName());
             /* System.out. */println("UserInterAct: " + tc.getInstructionsUIR());
             /* System.out. */println("start: " + tc.getInstructionsStart());
@@ -0,0 +1,481 @@
+package org.adl.testsuite.rte.lms.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.adl.testsuite.rte.lms.testcase.Activity;
+import org.adl.testsuite.rte.lms.testcase.LMSTestCase;
+
+/**
+ * This class reads and writes the LMS test case store, the file that holds
+ * every LMSTestCase of the test suite. The file starts with a header holding
+ * an index entry for each test case, followed by one record per test case, so
+ * a test case is only decoded when it is asked for. A file on disk is memory
+ * mapped; a store inside a jar file is read into memory once.<br><br>
+ *
+ * Each index entry holds the name of the test case, the time its properties
+ * file was last modified, and the position and length of its record. The
+ * LMSTestCaseGenerator uses the times to copy the records of unchanged test
+ * cases when it rebuilds the store.<br><br>
+ *
+ * A store is not changed once it has been read, so it may be used by several
+ * threads at the same time. Each call to getTestCase() returns a new
+ * LMSTestCase.
+ *
+ * @author ADL Technical Team
+ */
+public class LMSTestCaseStore
+{
+   /**
+    * The name of the store file, found next to this class.
+    */
+   public static final String STORE_NAME = "LMSTestCases.store";
+
+   /**
+    * The first four bytes of a store file, "LMSC".
+    */
+   private static final int MAGIC = 0x4C4D5343;
+
+   /**
+    * The version of the store file format.
+    */
+   private static final int VERSION = 1;
+
+   /**
+    * The encoding of the Strings in the store.
+    */
+   private static final Charset UTF8 = Charset.forName("UTF-8");
+
+   /**
+    * The instruction keys of a test case, in the order they are stored.
+    */
+   private static final String[] INSTRUCTION_KEYS = { "UserInterAct", "start",
+      "purpose", "RTDInit", "seqInfo", "TT", "end" };
+
+   /**
+    * The contents of the store file.
+    */
+   private final ByteBuffer mBuffer;
+
+   /**
+    * The index entries, by test case name, in the order of the file.
+    */
+   private final Map<String, Record> mIndex;
+
+   /**
+    * Creates a store from the contents of a store file and reads its header.
+    *
+    * @param iBuffer The contents of the file.
+    * @throws IOException if the contents are not a store.
+    */
+   private LMSTestCaseStore(ByteBuffer iBuffer) throws IOException
+   {
+      mBuffer = iBuffer;
+      try
+      {
+         final ByteBuffer header = iBuffer.duplicate();
+         if ( header.getInt() != MAGIC || header.getInt() != VERSION )
+         {
+            throw new IOException("Not an LMS test case store");
+         }
+
+         final int count = header.getInt();
+         mIndex = new LinkedHashMap<String, Record>(count * 2);
+         for ( int i = 0; i < count; i++ )
+         {
+            final String name = readString(header);
+            final long timestamp = header.getLong();
+            final int offset = header.getInt();
+            final int length = header.getInt();
+            if ( offset < 0 || length < 0 || offset > iBuffer.limit() - length )
+            {
+               throw new IOException("The record of " + name + " is outside the store");
+            }
+            mIndex.put(name, new Record(timestamp, offset, length));
+         }
+      }
+      catch ( BufferUnderflowException bue )
+      {
+         throw new IOException("The LMS test case store is truncated");
+      }
+   }
+
+   /**
+    * Opens a store file by memory mapping it.
+    *
+    * @param iFile The store file.
+    * @return The store.
+    * @throws IOException if the file cannot be read or is not a store.
+    */
+   public static LMSTestCaseStore open(File iFile) throws IOException
+   {
+      final FileInputStream in = new FileInputStream(iFile);
+      try
+      {
+         final FileChannel channel = in.getChannel();
+         return new LMSTestCaseStore(channel.map(FileChannel.MapMode.READ_ONLY,
+                                                 0, channel.size()));
+      }
+      finally
+      {
+         // The mapping stays valid after the channel is closed
+         in.close();
+      }
+   }
+
+   /**
+    * Reads a store from a stream, such as an entry of a jar file.
+    *
+    * @param iStream The stream holding the store. It is not closed.
+    * @return The store.
+    * @throws IOException if the stream cannot be read or is not a store.
+    */
+   public static LMSTestCaseStore read(InputStream iStream) throws IOException
+   {
+      final ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+      final byte[] buffer = new byte[8192];
+      int count = iStream.read(buffer);
+      while ( count != -1 )
+      {
+         out.write(buffer, 0, count);
+         count = iStream.read(buffer);
+      }
+      return new LMSTestCaseStore(ByteBuffer.wrap(out.toByteArray()));
+   }
+
+   /**
+    * Returns the names of the test cases in the store.
+    *
+    * @return An unordered List of the test case names.
+    */
+   public List<String> getTestCaseNames()
+   {
+      return new ArrayList<String>(mIndex.keySet());
+   }
+
+   /**
+    * Returns the number of test cases in the store.
+    *
+    * @return The number of test cases.
+    */
+   public int size()
+   {
+      return mIndex.size();
+   }
+
+   /**
+    * Decodes a test case from its record.
+    *
+    * @param iName The name of the test case.
+    * @return A new LMSTestCase, or null if the store does not hold it.
+    */
+   public LMSTestCase getTestCase(String iName)
+   {
+      final Record record = mIndex.get(iName);
+      if ( record == null )
+      {
+         return null;
+      }
+
+      final ByteBuffer in = slice(record);
+      try
+      {
+         final String title = readString(in);
+
+         final int instructionCount = in.getInt();
+         final Map<String, String> instructions = new HashMap<String, String>(instructionCount * 2);
+         for ( int i = 0; i < instructionCount; i++ )
+         {
+            final String key = readString(in);
+            instructions.put(key, readString(in));
+         }
+
+         final int activityCount = in.getInt();
+         final List<Activity> activities = new ArrayList<Activity>(activityCount);
+         for ( int i = 0; i < activityCount; i++ )
+         {
+            final String name = readString(in);
+            final String uiQuestionsKey = readString(in);
+            final String uiAnswers = readString(in);
+            final String instructionsText = readString(in);
+
+            final int commandCount = in.getInt();
+            final List<String> commands = new ArrayList<String>(commandCount);
+            for ( int j = 0; j < commandCount; j++ )
+            {
+               commands.add(readString(in));
+            }
+            activities.add(new Activity(name, uiQuestionsKey, uiAnswers, commands,
+                                        instructionsText));
+         }
+         return new LMSTestCase(title, instructions, activities);
+      }
+      catch ( BufferUnderflowException bue )
+      {
+         throw new IllegalStateException("The record of " + iName + " is corrupt");
+      }
+   }
+
+   /**
+    * Returns the time the properties file of a test case was last modified
+    * when its record was written.
+    *
+    * @param iName The name of the test case.
+    * @return The time in milliseconds, or -1 if the store does not hold the
+    *         test case.
+    */
+   public long getTimestamp(String iName)
+   {
+      final Record record = mIndex.get(iName);
+      return ( record == null ) ? -1 : record.mTimestamp;
+   }
+
+   /**
+    * Returns the record of a test case, to be copied into a new store.
+    *
+    * @param iName The name of the test case.
+    * @return The encoded test case, or null if the store does not hold it.
+    */
+   byte[] getRecord(String iName)
+   {
+      final Record record = mIndex.get(iName);
+      if ( record == null )
+      {
+         return null;
+      }
+      final byte[] data = new byte[record.mLength];
+      slice(record).get(data);
+      return data;
+   }
+
+   /**
+    * Encodes a test case into a record.
+    *
+    * @param iTestCase The test case.
+    * @return The record.
+    */
+   static byte[] encode(LMSTestCase iTestCase)
+   {
+      try
+      {
+         final ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+         final DataOutputStream out = new DataOutputStream(bytes);
+         writeString(out, iTestCase.getName());
+
+         final List<String> keys = new ArrayList<String>();
+         for ( int i = 0; i < INSTRUCTION_KEYS.length; i++ )
+         {
+            if ( iTestCase.getKey(INSTRUCTION_KEYS[i]).length() > 0 )
+            {
+               keys.add(INSTRUCTION_KEYS[i]);
+            }
+         }
+         out.writeInt(keys.size());
+         for ( final String key : keys )
+         {
+            writeString(out, key);
+            writeString(out, iTestCase.getKey(key));
+         }
+
+         final List<Activity> activities = iTestCase.getActivities();
+         out.writeInt(activities.size());
+         for ( final Activity activity : activities )
+         {
+            writeString(out, activity.getName());
+            writeString(out, activity.getUIQuestionsKey());
+            writeString(out, activity.getUIAnswers());
+            writeString(out, activity.getCurrentUserInstructions());
+
+            final List<String> commands = new ArrayList<String>();
+            final Iterator<String> itr = activity.getCommandsKey();
+            while ( itr.hasNext() )
+            {
+               commands.add(itr.next());
+            }
+            out.writeInt(commands.size());
+            for ( final String command : commands )
+            {
+               writeString(out, command);
+            }
+         }
+         out.flush();
+         return bytes.toByteArray();
+      }
+      catch ( IOException ioe )
+      {
+         // A ByteArrayOutputStream does not throw
+         throw new IllegalStateException(ioe);
+      }
+   }
+
+   /**
+    * Writes a store file holding the given records. The records are written to
+    * a temporary file in the same folder, which then replaces the store as a
+    * whole.
+    *
+    * @param iFile The store file.
+    * @param iNames The names of the test cases.
+    * @param iTimestamps The time the properties file of each test case was
+    *           last modified.
+    * @param iRecords The record of each test case.
+    * @throws IOException if the file cannot be written.
+    */
+   static void write(File iFile, List<String> iNames, List<Long> iTimestamps,
+                     List<byte[]> iRecords) throws IOException
+   {
+      final ByteArrayOutputStream headerBytes = new ByteArrayOutputStream(8192);
+      final DataOutputStream header = new DataOutputStream(headerBytes);
+
+      // The header is written once to learn its size, then with the offsets
+      int headerSize = 0;
+      for ( int pass = 0; pass < 2; pass++ )
+      {
+         headerBytes.reset();
+         header.writeInt(MAGIC);
+         header.writeInt(VERSION);
+         header.writeInt(iNames.size());
+
+         int offset = headerSize;
+         for ( int i = 0; i < iNames.size(); i++ )
+         {
+            writeString(header, iNames.get(i));
+            header.writeLong(iTimestamps.get(i).longValue());
+            header.writeInt(offset);
+            header.writeInt(iRecords.get(i).length);
+            offset += iRecords.get(i).length;
+         }
+         header.flush();
+         headerSize = headerBytes.size();
+      }
+
+      // A store mapped by a reader, or left by a failed write, is never seen
+      // half written
+      final File folder = iFile.getAbsoluteFile().getParentFile();
+      final File temp = File.createTempFile(iFile.getName(), ".tmp", folder);
+      try
+      {
+         final FileOutputStream out = new FileOutputStream(temp);
+         try
+         {
+            headerBytes.writeTo(out);
+            for ( final byte[] record : iRecords )
+            {
+               out.write(record);
+            }
+            out.getFD().sync();
+         }
+         finally
+         {
+            out.close();
+         }
+
+         // A file that is open cannot be renamed over on some platforms
+         if ( !temp.renameTo(iFile) &&
+              !(iFile.delete() && temp.renameTo(iFile)) )
+         {
+            throw new IOException("The store " + temp + " could not be renamed to " +
+                                  iFile);
+         }
+      }
+      finally
+      {
+         temp.delete();
+      }
+   }
+
+   /**
+    * Returns a buffer holding only the record of a test case.
+    *
+    * @param iRecord The index entry of the test case.
+    * @return The record, positioned at its start.
+    */
+   private ByteBuffer slice(Record iRecord)
+   {
+      final ByteBuffer in = mBuffer.duplicate();
+      in.position(iRecord.mOffset);
+      in.limit(iRecord.mOffset + iRecord.mLength);
+      return in.slice();
+   }
+
+   /**
+    * Reads a String written by writeString().
+    *
+    * @param iIn The buffer positioned at the String.
+    * @return The String.
+    */
+   private static String readString(ByteBuffer iIn)
+   {
+      final int length = iIn.getInt();
+      if ( length < 0 || length > iIn.remaining() )
+      {
+         throw new BufferUnderflowException();
+      }
+      final byte[] bytes = new byte[length];
+      iIn.get(bytes);
+      return new String(bytes, UTF8);
+   }
+
+   /**
+    * Writes a String as its length followed by its UTF-8 bytes.
+    *
+    * @param iOut The stream written to.
+    * @param iValue The String, where null is written as an empty String.
+    * @throws IOException if the stream cannot be written.
+    */
+   private static void writeString(DataOutputStream iOut, String iValue) throws IOException
+   {
+      final byte[] bytes = ( iValue == null ) ? new byte[0] : iValue.getBytes(UTF8);
+      iOut.writeInt(bytes.length);
+      iOut.write(bytes);
+   }
+
+   /**
+    * An index entry of the store.
+    */
+   private static final class Record
+   {
+      /**
+       * The time the properties file of the test case was last modified.
+       */
+      final long mTimestamp;
+
+      /**
+       * The position of the record in the store.
+       */
+      final int mOffset;
+
+      /**
+       * The length of the record.
+       */
+      final int mLength;
+
+      /**
+       * Overloaded constructor
+       *
+       * @param iTimestamp The time its properties file was last modified.
+       * @param iOffset The position of the record.
+       * @param iLength The length of the record.
+       */
+      Record(long iTimestamp, int iOffset, int iLength)
+      {
+         mTimestamp = iTimestamp;
+         mOffset = iOffset;
+         mLength = iLength;
+      }
+   }
+}
@@ -26,6 +26,16 @@ public class Results implements Serializable
       mResults = new ArrayList<Result>();
    }
 
+   /**
+    * Creates the results over a list of result objects, which is not copied.
+    * 
+    * @param iResults the result objects.
+    */
+   Results(List<Result> iResults)
+   {
+      mResults = iResults;
+   }
+
    /**
     * Adds a result object to the results list.
     * 
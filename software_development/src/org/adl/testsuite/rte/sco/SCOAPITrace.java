@@ -0,0 +1,292 @@
+package org.adl.testsuite.rte.sco;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <strong>Filename</strong>:  SCOAPITrace.java<br><br>
+ *
+ * <strong>Description:</strong><br>
+ * The <code>SCOAPITrace</code> records one fixed size entry for each API call
+ * made by the SCO under test.  The entries are kept in preallocated arrays
+ * used as a ring buffer, so recording a call does not build any log text.  The
+ * readable form of the trace is only created when it is rendered.
+ *
+ * @author ADL Technical Team
+ */
+public class SCOAPITrace
+{
+   /**
+    * Call type of Initialize()
+    */
+   public static final byte INITIALIZE = 0;
+
+   /**
+    * Call type of Terminate()
+    */
+   public static final byte TERMINATE = 1;
+
+   /**
+    * Call type of GetValue()
+    */
+   public static final byte GET_VALUE = 2;
+
+   /**
+    * Call type of SetValue()
+    */
+   public static final byte SET_VALUE = 3;
+
+   /**
+    * Call type of Commit()
+    */
+   public static final byte COMMIT = 4;
+
+   /**
+    * Call type of GetLastError()
+    */
+   public static final byte GET_LAST_ERROR = 5;
+
+   /**
+    * Call type of GetErrorString()
+    */
+   public static final byte GET_ERROR_STRING = 6;
+
+   /**
+    * Call type of GetDiagnostic()
+    */
+   public static final byte GET_DIAGNOSTIC = 7;
+
+   /**
+    * The names of the call types, indexed by call type
+    */
+   private static final String[] CALL_NAMES = { "Initialize", "Terminate",
+      "GetValue", "SetValue", "Commit", "GetLastError", "GetErrorString",
+      "GetDiagnostic" };
+
+   /**
+    * The default number of calls kept
+    */
+   public static final int DEFAULT_CAPACITY = 4096;
+
+   /**
+    * The most distinct element names given an id.  Any further names are
+    * recorded without an element.
+    */
+   private static final int MAX_ELEMENTS = 1024;
+
+   /**
+    * The element id recorded for calls without a known element
+    */
+   private static final int NO_ELEMENT = -1;
+
+   /**
+    * The error code recorded when the code is not numeric
+    */
+   private static final int UNKNOWN_ERROR = -1;
+
+   /**
+    * The call type of each entry
+    */
+   private final byte[] mCallTypes;
+
+   /**
+    * The element id of each entry
+    */
+   private final int[] mElementIds;
+
+   /**
+    * The error code set by the call of each entry
+    */
+   private final int[] mErrorCodes;
+
+   /**
+    * The System.nanoTime() at which the call of each entry started
+    */
+   private final long[] mStartTimes;
+
+   /**
+    * The System.nanoTime() at which the call of each entry ended
+    */
+   private final long[] mEndTimes;
+
+   /**
+    * The ids given to element names
+    */
+   private final Map<String, Integer> mElementIdMap = new HashMap<String, Integer>();
+
+   /**
+    * The element names, indexed by id
+    */
+   private final List<String> mElementNames = new ArrayList<String>();
+
+   /**
+    * The total number of calls recorded since the trace was cleared
+    */
+   private long mCount;
+
+   /**
+    * The System.nanoTime() at which the trace was cleared
+    */
+   private long mBaseTime;
+
+   /**
+    * Default Constructor.  Keeps the last DEFAULT_CAPACITY calls.
+    */
+   public SCOAPITrace()
+   {
+      this(DEFAULT_CAPACITY);
+   }
+
+   /**
+    * Overload Constructor.
+    *
+    * @param iCapacity The number of calls kept, at least one
+    */
+   public SCOAPITrace(int iCapacity)
+   {
+      final int capacity = Math.max(1, iCapacity);
+      mCallTypes = new byte[capacity];
+      mElementIds = new int[capacity];
+      mErrorCodes = new int[capacity];
+      mStartTimes = new long[capacity];
+      mEndTimes = new long[capacity];
+      mBaseTime = System.nanoTime();
+   }
+
+   /**
+    * Removes all recorded calls.
+    */
+   public synchronized void clear()
+   {
+      mCount = 0;
+      mElementIdMap.clear();
+      mElementNames.clear();
+      mBaseTime = System.nanoTime();
+   }
+
+   /**
+    * Records a call that ended now.
+    *
+    * @param iCallType The call type, one of the constants of this class
+    * @param iElement The data model element of the call, or null
+    * @param iErrorCode The error code set by the call
+    * @param iStartTime The System.nanoTime() at which the call started
+    */
+   public synchronized void record(byte iCallType,
+                                   String iElement,
+                                   String iErrorCode,
+                                   long iStartTime)
+   {
+      final int slot = (int)(mCount % mCallTypes.length);
+      mCallTypes[slot] = iCallType;
+      mElementIds[slot] = getElementId(iElement);
+      mErrorCodes[slot] = parseErrorCode(iErrorCode);
+      mStartTimes[slot] = iStartTime;
+      mEndTimes[slot] = System.nanoTime();
+      mCount++;
+   }
+
+   /**
+    * Returns the total number of calls recorded since the trace was cleared,
+    * including calls no longer kept.
+    *
+    * @return The number of calls recorded
+    */
+   public synchronized long getCount()
+   {
+      return mCount;
+   }
+
+   /**
+    * Creates the readable form of the kept calls, oldest first.  Times are in
+    * microseconds since the trace was cleared.
+    *
+    * @return The trace, one call per line
+    */
+   public synchronized String render()
+   {
+      final int kept = (int)Math.min(mCount, mCallTypes.length);
+      final StringBuilder out = new StringBuilder(kept * 64 + 64);
+
+      if ( mCount > kept )
+      {
+         out.append(mCount - kept).append(" earlier calls not kept\n");
+      }
+
+      for ( long i = mCount - kept; i < mCount; i++ )
+      {
+         final int slot = (int)(i % mCallTypes.length);
+         out.append(i + 1).append(' ');
+         out.append(CALL_NAMES[mCallTypes[slot]]).append('(');
+         if ( mElementIds[slot] != NO_ELEMENT )
+         {
+            out.append(mElementNames.get(mElementIds[slot]));
+         }
+         out.append(") error=");
+         out.append(mErrorCodes[slot] == UNKNOWN_ERROR ? "?" :
+                    Integer.toString(mErrorCodes[slot]));
+         out.append(" start=").append((mStartTimes[slot] - mBaseTime) / 1000);
+         out.append("us duration=").append((mEndTimes[slot] - mStartTimes[slot]) / 1000);
+         out.append("us\n");
+      }
+      return out.toString();
+   }
+
+   /**
+    * Returns the id of the given element name, giving it one if needed.
+    *
+    * @param iElement The data model element, or null
+    * @return The id of the element, or NO_ELEMENT
+    */
+   private int getElementId(String iElement)
+   {
+      if ( iElement == null )
+      {
+         return NO_ELEMENT;
+      }
+
+      final Integer id = mElementIdMap.get(iElement);
+      if ( id != null )
+      {
+         return id.intValue();
+      }
+      if ( mElementNames.size() >= MAX_ELEMENTS )
+      {
+         return NO_ELEMENT;
+      }
+
+      final int newId = mElementNames.size();
+      mElementNames.add(iElement);
+      mElementIdMap.put(iElement, Integer.valueOf(newId));
+      return newId;
+   }
+
+   /**
+    * Converts an error code into its numeric form without creating objects.
+    *
+    * @param iErrorCode The error code, as returned by the APIErrorManager
+    * @return The numeric error code, or UNKNOWN_ERROR
+    */
+   private static int parseErrorCode(String iErrorCode)
+   {
+      if ( iErrorCode == null || iErrorCode.length() == 0 ||
+           iErrorCode.length() > 9 )
+      {
+         return UNKNOWN_ERROR;
+      }
+
+      int code = 0;
+      for ( int i = 0; i < iErrorCode.length(); i++ )
+      {
+         final char c = iErrorCode.charAt(i);
+         if ( c < '0' || c > '9' )
+         {
+            return UNKNOWN_ERROR;
+         }
+         code = code * 10 + (c - '0');
+      }
+      return code;
+   }
+}
@@ -203,6 +203,21 @@ public class SCOConformanceReporter
 	   return mSCOSession.getErrors() > 0;
    }
 
+   /**
+    * This method determines whether the SCO earns the SCO RTE conformance
+    * label, using the same rules as reportConformance().
+    * 
+    * @return boolean - Flag indicating whether or not the SCO is conformant.
+    */
+   public boolean isConformant()
+   {
+      final boolean apiSupp = !mSCOSession.calledOtherAPIs() || supportsAPI();
+      final boolean dmUsed = mSCOSession.isDMElementsUsed();
+
+      return supportsMinAPI() && apiSupp && 
+             ( !dmUsed || mSCOSession.isDataModelConformant() );
+   }
+
    /**
     * This method is overloaded to set up the link to the detailed log file when
     * presented in the summary log file. This is necessary to differentiate
@@ -219,6 +234,16 @@ public class SCOConformanceReporter
       reportConformance(true);
    }
    
+   /**
+    * Returns the number of errors encountered in the conformance test.
+    * 
+    * @return int - The number of errors of the SCO Session.
+    */
+   public int getErrorCount()
+   {
+      return mSCOSession.getErrors();
+   }
+
    /**
     * Returns if a sco failed
     * 
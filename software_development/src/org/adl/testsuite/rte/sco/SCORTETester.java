@@ -4,12 +4,14 @@ import java.io.File;
 import java.util.Calendar;
 import java.util.Locale;
 import java.util.Vector;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import netscape.javascript.JSObject;
 
 import org.adl.api.ecmascript.APIErrorCodes;
 import org.adl.api.ecmascript.APIErrorManager;
+import org.adl.datamodels.DMBatch;
 import org.adl.datamodels.DMErrorCodes;
 import org.adl.datamodels.DMFactory;
 import org.adl.datamodels.DMInterface;
@@ -134,6 +136,11 @@ public class SCORTETester implements Runnable
     */
    private boolean mTestConformant = true;
    
+   /**
+    * Records the API calls made by the SCO under test
+    */
+   private final SCOAPITrace mAPITrace = new SCOAPITrace();
+   
    /**
     * Default Constructor
     * @param iEnvironmentVariable The path of the environment variable value
@@ -152,6 +159,18 @@ public class SCORTETester implements Runnable
       new SummaryLogWriter(mLfg);
    }
    
+   /**
+    * Constructor used to test a SCO without a browser.  No log files or log
+    * writers are created, so the log messages stay in the message collections
+    * until they are removed by the caller.
+    */
+   SCORTETester()
+   {
+      mLogger = Logger.getLogger("org.adl.util.debug.testsuite"); 
+      mUimp = new UIMessageProcessor();
+      mLfg = null;
+   }
+   
    /**
     * Initializes the data required to start the SCO test
     * 
@@ -170,6 +189,8 @@ public class SCORTETester implements Runnable
 
       mTestComplete = false;
       
+      mAPITrace.clear();
+      
       // make sure the slashes are correct
       if(iTestFileName.indexOf('/') != -1)
       {
@@ -262,10 +283,7 @@ public class SCORTETester implements Runnable
       try
       {
          // Re-init - needed for Multi-SCO
-         mSCOData = new SCODataManager();
-         //  Add a SCORM 2004 Data Model
-         mSCOData.addDM(DMFactory.DM_SCORM_2004);
-         mSCOData.addDM(DMFactory.DM_SCORM_NAV);
+         mSCOData = createSCOData();
          // Indicate that Initialize() has not been called
          setLMSInitFlag( false );
          // Convert the iTimeoutPeriod passed in, to an integer
@@ -306,6 +324,67 @@ public class SCORTETester implements Runnable
       mLogger.exiting( "SCORTETester", "validateSCO()" );  
    }
 
+   /**
+    * Prepares the tester to test a SCO without a browser.  The API calls of
+    * the SCO are then made directly on this tester, and the test is ended
+    * with endHeadlessTest().
+    * 
+    * @param iResourceType The type (SCO or Asset) of the resource
+    * @param iInitData Vector that hold the initial data for the SCO
+    */
+   void initializeHeadlessTest( String iResourceType, Vector iInitData )
+   {
+      mResourceType = iResourceType;
+      mIsScoInContentPackage = false;
+      mTestComplete = false;
+      mTestConformant = true;
+      mAPITrace.clear();
+      mSCOSession = new SCOSession();
+      mLMSErrorManager = new APIErrorManager(APIErrorManager.SCORM_2004_API);
+      mLaunchLine = "";
+      mSCOData = createSCOData();
+      setLMSInitFlag( false );
+      setupSCOVector( iInitData );
+   }
+
+   /**
+    * Ends a SCO test started with initializeHeadlessTest() and sends the
+    * conformance of the SCO to the message collections.
+    * 
+    * @param iReportFullConformance true if the full conformance report is 
+    * desired
+    * @return The reporter used to determine the conformance of the SCO
+    */
+   SCOConformanceReporter endHeadlessTest( boolean iReportFullConformance )
+   {
+      final SCOConformanceReporter theReporter = 
+         new SCOConformanceReporter( mSCOSession );
+      try
+      {
+         reportResults( theReporter, iReportFullConformance, true );
+      }
+      finally
+      {
+         finishLogs( theReporter );
+      }
+      return theReporter;
+   }
+
+   /**
+    * Creates the data manager of a new SCO, holding the SCORM 2004 and 
+    * navigation data models
+    * 
+    * @return The new SCODataManager
+    */
+   private SCODataManager createSCOData()
+   {
+      final SCODataManager scoData = new SCODataManager();
+      //  Add a SCORM 2004 Data Model
+      scoData.addDM(DMFactory.DM_SCORM_2004);
+      scoData.addDM(DMFactory.DM_SCORM_NAV);
+      return scoData;
+   }
+
    /**
     * This method initializies a Vector for the SCO Data Model to the values
     * set by the user on the SCO Instructions Screen.  The actual values
@@ -411,51 +490,7 @@ public class SCORTETester implements Runnable
       SCOConformanceReporter theReporter = new SCOConformanceReporter( mSCOSession);
       try
       {
-         mTestComplete = true;
-         
-         if ( mResourceType.equalsIgnoreCase("ASSET") && !mSCOSession.isLMSInitialized() )
-         {
-            // Do nothing, an asset didnt init() or term(), that is what we want
-         }
-         // If terminate has never been called
-         else if (!mSCOSession.isLMSFinished()&& iReportTerminateResults )
-         {  
-            DetailedLogMessageCollection.getInstance().addMessage(new LogMessage
-               ( MessageType.FAILED, Messages.getString("SCORTETester.37") )); 
-            SummaryLogMessageCollection.getInstance().addMessage ( new LogMessage(
-               MessageType.FAILED, Messages.getString("SCORTETester.37") )); 
-            mSCOSession.setError();
-         }
-         
-         if(iReportFullConformance)
-         {
-            // if we want to report full conformance then this will set the URL for the
-            // detailed log and call reportConformance(true) from within this method
-            theReporter.reportConformance(mDetailedLogFileURL);
-         }
-         else
-         {
-            if ( mResourceType.equalsIgnoreCase("ASSET") && !mSCOSession.isLMSInitialized() )
-            {
-               SummaryLogMessageCollection.getInstance().addMessage(
-                     new LogMessage(MessageType.PASSED, 
-                           Messages.getString("SCORTETester.288")));
-               DetailedLogMessageCollection.getInstance().addMessage(
-                     new LogMessage(MessageType.PASSED, 
-                           Messages.getString("SCORTETester.288")));
-            } 
-            else
-            {
-               theReporter.reportConformance( iReportFullConformance );
-            }
-            
-            // provide a link to the Detailed Log
-            SummaryLogMessageCollection.getInstance().addMessage ( new LogMessage (
-              MessageType.LINKSCO, mDetailedLogFileURL ));
-         
-            SummaryLogMessageCollection.getInstance().addMessage ( new LogMessage(
-              MessageType.OTHER, Messages.getString("SCORTETester.36") ));
-         }         
+         reportResults( theReporter, iReportFullConformance, iReportTerminateResults );
          
          String arg[] = {""}; 
          arg[0] = arg[0] + mSCOSession.getErrors();
@@ -469,20 +504,94 @@ public class SCORTETester implements Runnable
       }
       finally
       {
+         finishLogs( theReporter );
+      }
+   }
+
+   /**
+    * Sends the conformance of the SCO to the logs
+    * 
+    * @param iReporter The reporter of the current SCO Session
+    * @param iReportFullConformance true if last SCO and the full conformance 
+    * @param iReportTerminateResults true if checking for Terminate call 
+    * report is desired
+    */
+   private void reportResults( SCOConformanceReporter iReporter,
+                               boolean iReportFullConformance,
+                               boolean iReportTerminateResults )
+   {
+      mTestComplete = true;
+      
+      if ( mResourceType.equalsIgnoreCase("ASSET") && !mSCOSession.isLMSInitialized() )
+      {
+         // Do nothing, an asset didnt init() or term(), that is what we want
+      }
+      // If terminate has never been called
+      else if (!mSCOSession.isLMSFinished()&& iReportTerminateResults )
+      {  
          DetailedLogMessageCollection.getInstance().addMessage(new LogMessage
-            ( MessageType.ENDLOG, "" ));
+            ( MessageType.FAILED, Messages.getString("SCORTETester.37") )); 
+         SummaryLogMessageCollection.getInstance().addMessage ( new LogMessage(
+            MessageType.FAILED, Messages.getString("SCORTETester.37") )); 
+         mSCOSession.setError();
+      }
+      
+      if(iReportFullConformance)
+      {
+         // if we want to report full conformance then this will set the URL for the
+         // detailed log and call reportConformance(true) from within this method
+         iReporter.reportConformance(mDetailedLogFileURL);
+      }
+      else
+      {
+         if ( mResourceType.equalsIgnoreCase("ASSET") && !mSCOSession.isLMSInitialized() )
+         {
+            SummaryLogMessageCollection.getInstance().addMessage(
+                  new LogMessage(MessageType.PASSED, 
+                        Messages.getString("SCORTETester.288")));
+            DetailedLogMessageCollection.getInstance().addMessage(
+                  new LogMessage(MessageType.PASSED, 
+                        Messages.getString("SCORTETester.288")));
+         } 
+         else
+         {
+            iReporter.reportConformance( iReportFullConformance );
+         }
          
-         // if the sco is part of a content package then we need to send a link
-         // to the cp detailed log that references this sco detailed log
-         if(mIsScoInContentPackage)
+         // provide a link to the Detailed Log
+         SummaryLogMessageCollection.getInstance().addMessage ( new LogMessage (
+           MessageType.LINKSCO, mDetailedLogFileURL ));
+      
+         SummaryLogMessageCollection.getInstance().addMessage ( new LogMessage(
+           MessageType.OTHER, Messages.getString("SCORTETester.36") ));
+      }         
+   }
+
+   /**
+    * Closes the detailed log of the SCO test
+    * 
+    * @param iReporter The reporter of the current SCO Session
+    */
+   private void finishLogs( SCOConformanceReporter iReporter )
+   {
+      if ( mLogger.isLoggable(Level.FINER) )
+      {
+         mLogger.finer( "SCO API calls:\n" + mAPITrace.render() );
+      }
+      
+      DetailedLogMessageCollection.getInstance().addMessage(new LogMessage
+         ( MessageType.ENDLOG, "" ));
+      
+      // if the sco is part of a content package then we need to send a link
+      // to the cp detailed log that references this sco detailed log
+      if(mIsScoInContentPackage)
+      {
+         DetailedLogMessageCollection.getInstance().addMessage ( new LogMessage (
+            MessageType.LINKSCO, mDetailedLogFileURL, mTestFileName ));
+         
+         if ( iReporter.didAnyScoFail() )
          {
-            DetailedLogMessageCollection.getInstance().addMessage ( new LogMessage (
-               MessageType.LINKSCO, mDetailedLogFileURL, mTestFileName ));
-            
-            if ( theReporter.didAnyScoFail() )
-            {
-               mTestConformant = false;
-            }
+            mTestConformant = false;
          }
       }
    }
@@ -818,6 +927,7 @@ public class SCORTETester implements Runnable
     */
    public String Initialize( String pInParameter, boolean iValidInput )
    {
+      final long startTime = System.nanoTime();
 	   String iInParameter = pInParameter;
       mLogger.finer( "******************************************" ); 
       mLogger.entering( "SCORTETester", "Initialize()" );  
@@ -877,7 +987,10 @@ public class SCORTETester implements Runnable
 
       
       // Make sure the in parameter is null or empty
-      mLogger.finest( "inParameter: [" + iInParameter + "]" );  
+      if ( mLogger.isLoggable(Level.FINEST) )
+      {
+         mLogger.finest( "inParameter: [" + iInParameter + "]" );  
+      }
 
       // Make sure the in parameter is null or empty
       if ( iValidInput )
@@ -983,6 +1096,9 @@ public class SCORTETester implements Runnable
          mSCOSession.setInitializeStatus();
       }
 
+      mAPITrace.record( SCOAPITrace.INITIALIZE, null,
+                        mLMSErrorManager.getCurrentErrorCode(), startTime );
+
       return result;
    }
 
@@ -999,6 +1115,7 @@ public class SCORTETester implements Runnable
     */
    public String Terminate( String iInParameter, boolean iValidInput )
    {
+      final long startTime = System.nanoTime();
       mLogger.finer( "******************************************" ); 
       mLogger.entering( "SCORTETester", "Terminate()" );  
       mLogger.finer( "******************************************\r\n" ); 
@@ -1028,7 +1145,10 @@ public class SCORTETester implements Runnable
       // Declare a return value for the error code
       String rtnErrorCode = ""; 
       
-      mLogger.finest( "In parameter: [" + iInParameter + "]" );  
+      if ( mLogger.isLoggable(Level.FINEST) )
+      {
+         mLogger.finest( "In parameter: [" + iInParameter + "]" );  
+      }
 
       // Make sure the in parameter is null or empty
       if ( iValidInput )
@@ -1075,11 +1195,10 @@ public class SCORTETester implements Runnable
             // Set the return value to "true"
             result = "true"; 
 
-            String arg[] = {""}; 
-
-            arg[0] = arg[0] + mSCOSession.getErrors();
-
-            mLogger.finest( "Errors from SCO: " + arg[0] ); 
+            if ( mLogger.isLoggable(Level.FINEST) )
+            {
+               mLogger.finest( "Errors from SCO: " + mSCOSession.getErrors() ); 
+            }
          }
          else
          {
@@ -1150,6 +1269,9 @@ public class SCORTETester implements Runnable
       mLogger.finer( "Terminate() successful" ); 
       mLogger.finer( "******************************************\n" ); 
 
+      mAPITrace.record( SCOAPITrace.TERMINATE, null,
+                        mLMSErrorManager.getCurrentErrorCode(), startTime );
+
       return result;
    }
 
@@ -1166,6 +1288,7 @@ public class SCORTETester implements Runnable
     */
    public String GetValue( String pElement, boolean iValidInput )
    {
+      final long startTime = System.nanoTime();
 	   String iElement = pElement;
       mLogger.finer( "******************************************" ); 
       mLogger.entering( "SCORTETester", "GetValue()" );  
@@ -1200,7 +1323,10 @@ public class SCORTETester implements Runnable
       // has been called.
       if ( shallProceed("GetValue") ) 
       {
-         mLogger.finest( "Looking for the element " + iElement ); 
+         if ( mLogger.isLoggable(Level.FINEST) )
+         {
+            mLogger.finest( "Looking for the element " + iElement ); 
+         }
          
          DMProcessingInfo dmInfo = new DMProcessingInfo();
          int dmErrorCode = DMInterface.processGetValue(iElement, false, 
@@ -1326,10 +1452,16 @@ public class SCORTETester implements Runnable
          mSCOSession.setGetValueStatus(false);
       }
 
-      mLogger.finest( "*************************************************" ); 
-      mLogger.finest( "Processing done for SCORTETester::GetValue" ); 
-      mLogger.finest( "Returning: [" + rtnVal + "]" );  
-      mLogger.finest( "*************************************************" ); 
+      if ( mLogger.isLoggable(Level.FINEST) )
+      {
+         mLogger.finest( "*************************************************" ); 
+         mLogger.finest( "Processing done for SCORTETester::GetValue" ); 
+         mLogger.finest( "Returning: [" + rtnVal + "]" );  
+         mLogger.finest( "*************************************************" ); 
+      }
+
+      mAPITrace.record( SCOAPITrace.GET_VALUE, iElement,
+                        mLMSErrorManager.getCurrentErrorCode(), startTime );
 
       return rtnVal;
    }
@@ -1349,12 +1481,16 @@ public class SCORTETester implements Runnable
     */
    public String SetValue( String iElement, String iValue, boolean iValidInput )
    {
+      final long startTime = System.nanoTime();
       mLogger.finer( "******************************************" ); 
       mLogger.entering( "SCORTETester", "SetValue()" );  
       mLogger.finer( "******************************************\n" ); 
 
-      mLogger.finest( "Element being set: " + iElement); 
-      mLogger.finest( "Value being used: " + iValue + "\n" );  
+      if ( mLogger.isLoggable(Level.FINEST) )
+      {
+         mLogger.finest( "Element being set: " + iElement); 
+         mLogger.finest( "Value being used: " + iValue + "\n" );  
+      }
 
       String result = "false"; 
       
@@ -1401,8 +1537,11 @@ public class SCORTETester implements Runnable
       // True if Initialize has been called
       if ( shallProceed("SetValue") ) 
       {
-         mLogger.finest( "Request being processed: SetValue(" + iElement + 
-                         "," + setValue + ")" );  
+         if ( mLogger.isLoggable(Level.FINEST) )
+         {
+            mLogger.finest( "Request being processed: SetValue(" + iElement + 
+                            "," + setValue + ")" );  
+         }
          
          // Process the Set Request
          int dmErrorCode = DMInterface.processSetValue(iElement, setValue, 
@@ -1517,6 +1656,9 @@ public class SCORTETester implements Runnable
       mLogger.finest("Processing done for SCORTETester::SetValue"); 
       mLogger.finest("*************************************************"); 
 
+      mAPITrace.record( SCOAPITrace.SET_VALUE, iElement,
+                        mLMSErrorManager.getCurrentErrorCode(), startTime );
+
       return result;
    }
 
@@ -1531,6 +1673,7 @@ public class SCORTETester implements Runnable
     */
    public String Commit( String iInParameter, boolean iValidInput )
    {
+      final long startTime = System.nanoTime();
       mLogger.finer( "******************************************" ); 
       mLogger.entering( "SCORTETester", "Commit()" );  
       mLogger.finer( "******************************************\n" ); 
@@ -1559,7 +1702,10 @@ public class SCORTETester implements Runnable
       // Initialize return value to "false"
       String result = "false"; 
       
-      mLogger.finest("In parameter: [" + iInParameter + "]");  
+      if ( mLogger.isLoggable(Level.FINEST) )
+      {
+         mLogger.finest("In parameter: [" + iInParameter + "]");  
+      }
 
       // If the parameter is valid empty string
       if ( iValidInput )
@@ -1649,6 +1795,9 @@ public class SCORTETester implements Runnable
       mLogger.finest( "Processing done for SCORTETester::Commit" ); 
       mLogger.finest( "***********************************************\n" ); 
 
+      mAPITrace.record( SCOAPITrace.COMMIT, null,
+                        mLMSErrorManager.getCurrentErrorCode(), startTime );
+
       return result;
    }
 
@@ -1661,6 +1810,7 @@ public class SCORTETester implements Runnable
     */
    public String GetLastError()
    {
+      final long startTime = System.nanoTime();
       mLogger.finer( "******************************************" ); 
       mLogger.entering( "SCORTETester", "GetLastError()" );  
       mLogger.finer( "******************************************\n" ); 
@@ -1696,6 +1846,9 @@ public class SCORTETester implements Runnable
       mSCOSession.setStateMgmtCall("GetLastError()"); 
       mSCOSession.setGetLastErrorStatus(true);
 
+      mAPITrace.record( SCOAPITrace.GET_LAST_ERROR, null,
+                        mLMSErrorManager.getCurrentErrorCode(), startTime );
+
       return value;
    }
 
@@ -1710,6 +1863,7 @@ public class SCORTETester implements Runnable
     */
    public String GetErrorString( String iErrorCode, boolean iValidInput )
    {
+      final long startTime = System.nanoTime();
       mLogger.finer( "******************************************" ); 
       mLogger.entering( "SCORTETester", "GetErrorString()" );  
       mLogger.finer( "******************************************\n" ); 
@@ -1781,6 +1935,9 @@ public class SCORTETester implements Runnable
          mSCOSession.setGetErrorStringStatus(false);
       }
 
+      mAPITrace.record( SCOAPITrace.GET_ERROR_STRING, null,
+                        mLMSErrorManager.getCurrentErrorCode(), startTime );
+
       return value;
    }
 
@@ -1794,6 +1951,17 @@ public class SCORTETester implements Runnable
       return mTestConformant;
    }
    
+   /**
+    * This method returns the record of the API calls made by the SCO under
+    * test
+    * 
+    * @return the SCOAPITrace of the current test
+    */
+   public SCOAPITrace getAPITrace()
+   {
+      return mAPITrace;
+   }
+   
    /**
     * This function returns the vendor specific diagnostic text associated
     * with an error code.
@@ -1807,6 +1975,7 @@ public class SCORTETester implements Runnable
     */
    public String GetDiagnostic( String iErrorCode, boolean iValidInput )
    {
+      final long startTime = System.nanoTime();
       mLogger.finer( "******************************************" ); 
       mLogger.entering( "SCORTETester", "GetDiagnostic()" );  
       mLogger.finer( "******************************************\n" ); 
@@ -1900,6 +2069,9 @@ public class SCORTETester implements Runnable
          mSCOSession.setGetDiagnosticStatus(false);
       }
 
+      mAPITrace.record( SCOAPITrace.GET_DIAGNOSTIC, null,
+                        mLMSErrorManager.getCurrentErrorCode(), startTime );
+
       return value;
    }
    
@@ -1914,27 +2086,24 @@ public class SCORTETester implements Runnable
       mLogger.entering( "SCORTETester", "setSCOValue()" ); 
       mLogger.finer( "******************************************\n" );
       
-      DMInterface.processSetValue("cmi.learner_id",
-                                    (String)mInitData.get(0), true, iScoData);
-      DMInterface.processSetValue("cmi.learner_name",
-                                    (String)mInitData.get(1), true, iScoData);
-      DMInterface.processSetValue("cmi.credit",
-                                    (String)mInitData.get(2), true, iScoData);
-      DMInterface.processSetValue("cmi.mode",
-                                    (String)mInitData.get(3), true, iScoData);
-      DMInterface.processSetValue("cmi.launch_data",
-                                    (String)mInitData.get(4), true, iScoData);
+      DMBatch batch = new DMBatch();
+      batch.addSetValue("cmi.learner_id", (String)mInitData.get(0));
+      batch.addSetValue("cmi.learner_name", (String)mInitData.get(1));
+      batch.addSetValue("cmi.credit", (String)mInitData.get(2));
+      batch.addSetValue("cmi.mode", (String)mInitData.get(3));
+      batch.addSetValue("cmi.launch_data", (String)mInitData.get(4));
+      DMInterface.processBatch(batch, true, false, iScoData, false);
+
       setupCommentsFromLMS((String)mInitData.get(5));
       setupObjectiveData((String)mInitData.get(6));
       setupDatamapData((String)mInitData.get(7));
-      DMInterface.processSetValue("cmi.scaled_passing_score",
-                                    (String)mInitData.get(8), true, iScoData);
-      DMInterface.processSetValue("cmi.max_time_allowed",
-                                    (String)mInitData.get(9), true, iScoData);
-      DMInterface.processSetValue("cmi.time_limit_action",
-                                    (String)mInitData.get(10), true, iScoData);
-      DMInterface.processSetValue("cmi.completion_threshold",
-                                    (String)mInitData.get(11), true, iScoData);
+
+      batch = new DMBatch();
+      batch.addSetValue("cmi.scaled_passing_score", (String)mInitData.get(8));
+      batch.addSetValue("cmi.max_time_allowed", (String)mInitData.get(9));
+      batch.addSetValue("cmi.time_limit_action", (String)mInitData.get(10));
+      batch.addSetValue("cmi.completion_threshold", (String)mInitData.get(11));
+      DMInterface.processBatch(batch, true, false, iScoData, false);
       mLogger.exiting( "SCORTETester", "setSCOValue()" );
    }  
 
@@ -0,0 +1,152 @@
+package org.adl.testsuite.rte.sco;
+
+import java.util.List;
+
+import org.adl.util.LogMessage;
+
+/**
+ * <strong>Filename</strong>:  SCOReplayResult.java<br><br>
+ *
+ * <strong>Description:</strong><br>
+ * The <code>SCOReplayResult</code> holds the outcome of one replay of a
+ * recorded SCO API call trace by the <code>SCOTraceReplayer</code>.
+ *
+ * @author ADL Technical Team
+ */
+public class SCOReplayResult
+{
+   /**
+    * Indicates if the SCO earned the SCO RTE conformance label without any
+    * errors
+    */
+   private final boolean mConformant;
+
+   /**
+    * The number of errors found in the SCO Session
+    */
+   private final int mErrors;
+
+   /**
+    * The number of API calls replayed
+    */
+   private final int mCallCount;
+
+   /**
+    * The time taken by the replay, in nanoseconds
+    */
+   private final long mDuration;
+
+   /**
+    * The messages the test sent to the detailed log
+    */
+   private final List<LogMessage> mDetailedLogMessages;
+
+   /**
+    * The messages the test sent to the summary log
+    */
+   private final List<LogMessage> mSummaryLogMessages;
+
+   /**
+    * The readable form of the API calls recorded during the replay
+    */
+   private final String mAPITrace;
+
+   /**
+    * Overload Constructor.
+    *
+    * @param iConformant Indicates if the SCO is conformant
+    * @param iErrors The number of errors found in the SCO Session
+    * @param iCallCount The number of API calls replayed
+    * @param iDuration The time taken by the replay, in nanoseconds
+    * @param iDetailedLogMessages The messages sent to the detailed log
+    * @param iSummaryLogMessages The messages sent to the summary log
+    * @param iAPITrace The readable form of the recorded API calls
+    */
+   SCOReplayResult(boolean iConformant,
+                   int iErrors,
+                   int iCallCount,
+                   long iDuration,
+                   List<LogMessage> iDetailedLogMessages,
+                   List<LogMessage> iSummaryLogMessages,
+                   String iAPITrace)
+   {
+      mConformant = iConformant;
+      mErrors = iErrors;
+      mCallCount = iCallCount;
+      mDuration = iDuration;
+      mDetailedLogMessages = iDetailedLogMessages;
+      mSummaryLogMessages = iSummaryLogMessages;
+      mAPITrace = iAPITrace;
+   }
+
+   /**
+    * Returns whether the SCO earned the SCO RTE conformance label, as decided
+    * by the SCOConformanceReporter, without any errors in its SCO Session
+    *
+    * @return true if the SCO is conformant
+    */
+   public boolean isConformant()
+   {
+      return mConformant;
+   }
+
+   /**
+    * Returns the number of errors found in the SCO Session
+    *
+    * @return The number of errors
+    */
+   public int getErrors()
+   {
+      return mErrors;
+   }
+
+   /**
+    * Returns the number of API calls replayed
+    *
+    * @return The number of calls
+    */
+   public int getCallCount()
+   {
+      return mCallCount;
+   }
+
+   /**
+    * Returns the time taken by the replay
+    *
+    * @return The duration in nanoseconds
+    */
+   public long getDuration()
+   {
+      return mDuration;
+   }
+
+   /**
+    * Returns the messages the test sent to the detailed log
+    *
+    * @return The messages, oldest first
+    */
+   public List<LogMessage> getDetailedLogMessages()
+   {
+      return mDetailedLogMessages;
+   }
+
+   /**
+    * Returns the messages the test sent to the summary log
+    *
+    * @return The messages, oldest first
+    */
+   public List<LogMessage> getSummaryLogMessages()
+   {
+      return mSummaryLogMessages;
+   }
+
+   /**
+    * Returns the readable form of the API calls recorded during the replay
+    *
+    * @return The API trace, one call per line
+    */
+   public String getAPITrace()
+   {
+      return mAPITrace;
+   }
+}
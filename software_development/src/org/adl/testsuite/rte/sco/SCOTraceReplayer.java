@@ -0,0 +1,329 @@
+package org.adl.testsuite.rte.sco;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Vector;
+
+import org.adl.logging.DetailedLogMessageCollection;
+import org.adl.logging.SummaryLogMessageCollection;
+
+/**
+ * <strong>Filename</strong>:  SCOTraceReplayer.java<br><br>
+ *
+ * <strong>Description:</strong><br>
+ * The <code>SCOTraceReplayer</code> runs the SCO test without a browser by
+ * replaying a recorded trace of the API calls made by a SCO directly on a
+ * <code>SCORTETester</code>.  The conformance of the SCO is then determined by
+ * the <code>SCOConformanceReporter</code>, as in the browser based test.<br><br>
+ *
+ * A trace holds one API call per line: the name of the call followed by its
+ * arguments, separated by tabs.  Within an argument <code>\t</code>,
+ * <code>\n</code>, <code>\r</code> and <code>\\</code> stand for a tab, a new
+ * line, a carriage return and a backslash, and an argument of exactly
+ * <code>\0</code> stands for a null (undefined) argument.  Empty lines and
+ * lines starting with <code>#</code> are ignored.  A call made with the wrong
+ * number of arguments is replayed as invalid input, as the API implementation
+ * does.<br><br>
+ *
+ * The log message collections and the current API error code are shared by
+ * the whole JVM, so only one replay runs at a time.  No log writers may be
+ * running in the same JVM, since the replay removes the log messages from the
+ * collections.
+ *
+ * @author ADL Technical Team
+ */
+public class SCOTraceReplayer
+{
+   /**
+    * The argument standing for a null argument
+    */
+   private static final String NULL_ARGUMENT = "\\0";
+
+   /**
+    * The number of values in the initial data of a SCO
+    */
+   private static final int INIT_DATA_SIZE = 12;
+
+   /**
+    * Serializes replays, which share the log message collections
+    */
+   private static final Object REPLAY_LOCK = new Object();
+
+   /**
+    * The type of resource (SCO or ASSET) being tested
+    */
+   private String mResourceType = "SCO";
+
+   /**
+    * The initial data of the SCO, as entered on the SCO Instructions Screen
+    */
+   private Vector mInitData;
+
+   /**
+    * Indicates if the full conformance report is desired
+    */
+   private boolean mReportFullConformance = true;
+
+   /**
+    * Default Constructor.  The SCO is tested with empty initial data.
+    */
+   public SCOTraceReplayer()
+   {
+      mInitData = new Vector(INIT_DATA_SIZE);
+      for ( int i = 0; i < INIT_DATA_SIZE; i++ )
+      {
+         mInitData.add("");
+      }
+   }
+
+   /**
+    * Sets the type of resource being tested
+    *
+    * @param iResourceType The type (SCO or ASSET) of the resource
+    */
+   public void setResourceType(String iResourceType)
+   {
+      mResourceType = iResourceType;
+   }
+
+   /**
+    * Sets the initial data of the SCO, in the order used by
+    * SCORTEDriver.startTest(): learner id, learner name, credit, mode, launch
+    * data, comments from LMS, objectives, data maps, scaled passing score,
+    * max time allowed, time limit action and completion threshold.
+    *
+    * @param iInitData Vector holding the twelve initial values
+    */
+   public void setInitData(Vector iInitData)
+   {
+      if ( iInitData == null || iInitData.size() != INIT_DATA_SIZE )
+      {
+         throw new IllegalArgumentException("The initial data must hold " +
+                                            INIT_DATA_SIZE + " values");
+      }
+      mInitData = new Vector(iInitData);
+   }
+
+   /**
+    * Sets whether the full conformance report, with the conformance labels, is
+    * sent to the logs
+    *
+    * @param iReportFullConformance true if the full report is desired
+    */
+   public void setReportFullConformance(boolean iReportFullConformance)
+   {
+      mReportFullConformance = iReportFullConformance;
+   }
+
+   /**
+    * Reads and replays a trace
+    *
+    * @param iTrace The trace to replay
+    * @return The result of the replay
+    * @throws IOException if the trace cannot be read
+    */
+   public SCOReplayResult replay(Reader iTrace) throws IOException
+   {
+      return replay(readTrace(iTrace));
+   }
+
+   /**
+    * Replays the given API calls
+    *
+    * @param iCalls The calls to replay, each holding the name of the call
+    * followed by its arguments
+    * @return The result of the replay
+    */
+   public SCOReplayResult replay(List<String[]> iCalls)
+   {
+      synchronized ( REPLAY_LOCK )
+      {
+         // Messages left by an earlier test do not belong to this one
+         DetailedLogMessageCollection.getInstance().removeAllMessages();
+         SummaryLogMessageCollection.getInstance().removeAllMessages();
+
+         final long startTime = System.nanoTime();
+         final SCORTETester tester = new SCORTETester();
+         tester.initializeHeadlessTest(mResourceType, mInitData);
+
+         for ( int i = 0; i < iCalls.size(); i++ )
+         {
+            invoke(tester, iCalls.get(i));
+         }
+
+         final SCOConformanceReporter reporter =
+            tester.endHeadlessTest(mReportFullConformance);
+         final boolean conformant = reporter.isConformant() &&
+                                    !reporter.didAnyScoFail();
+         return new SCOReplayResult(conformant,
+                                    reporter.getErrorCount(),
+                                    iCalls.size(),
+                                    System.nanoTime() - startTime,
+                                    DetailedLogMessageCollection.getInstance().removeAllMessages(),
+                                    SummaryLogMessageCollection.getInstance().removeAllMessages(),
+                                    tester.getAPITrace().render());
+      }
+   }
+
+   /**
+    * Makes one API call on the tester
+    *
+    * @param iTester The tester of the replayed SCO
+    * @param iCall The name of the call followed by its arguments
+    */
+   private static void invoke(SCORTETester iTester, String[] iCall)
+   {
+      final String name = iCall[0];
+      final int argCount = iCall.length - 1;
+      final String arg1 = argCount > 0 ? iCall[1] : null;
+      final String arg2 = argCount > 1 ? iCall[2] : null;
+
+      if ( name.equals("Initialize") )
+      {
+         iTester.Initialize(arg1, argCount == 1);
+      }
+      else if ( name.equals("Terminate") )
+      {
+         iTester.Terminate(arg1, argCount == 1);
+      }
+      else if ( name.equals("GetValue") )
+      {
+         iTester.GetValue(arg1, argCount == 1);
+      }
+      else if ( name.equals("SetValue") )
+      {
+         iTester.SetValue(arg1, arg2, argCount == 2);
+      }
+      else if ( name.equals("Commit") )
+      {
+         iTester.Commit(arg1, argCount == 1);
+      }
+      else if ( name.equals("GetLastError") )
+      {
+         iTester.GetLastError();
+      }
+      else if ( name.equals("GetErrorString") )
+      {
+         iTester.GetErrorString(arg1, argCount == 1);
+      }
+      else if ( name.equals("GetDiagnostic") )
+      {
+         iTester.GetDiagnostic(arg1, argCount == 1);
+      }
+      else
+      {
+         throw new IllegalArgumentException("Unknown API call: " + name);
+      }
+   }
+
+   /**
+    * Reads the API calls of a trace
+    *
+    * @param iTrace The trace to read
+    * @return The calls, each holding the name of the call followed by its
+    * arguments
+    * @throws IOException if the trace cannot be read
+    */
+   public static List<String[]> readTrace(Reader iTrace) throws IOException
+   {
+      final BufferedReader reader = new BufferedReader(iTrace);
+      final List<String[]> calls = new ArrayList<String[]>();
+
+      String line = reader.readLine();
+      while ( line != null )
+      {
+         if ( line.length() > 0 && !line.startsWith("#") )
+         {
+            final String[] fields = line.split("\t", -1);
+            for ( int i = 1; i < fields.length; i++ )
+            {
+               fields[i] = unescape(fields[i]);
+            }
+            calls.add(fields);
+         }
+         line = reader.readLine();
+      }
+      return calls;
+   }
+
+   /**
+    * Converts an argument of a trace into its value
+    *
+    * @param iField The argument as written in the trace
+    * @return The value of the argument, may be null
+    */
+   private static String unescape(String iField)
+   {
+      if ( iField.equals(NULL_ARGUMENT) )
+      {
+         return null;
+      }
+      if ( iField.indexOf('\\') < 0 )
+      {
+         return iField;
+      }
+
+      final StringBuilder value = new StringBuilder(iField.length());
+      for ( int i = 0; i < iField.length(); i++ )
+      {
+         final char c = iField.charAt(i);
+         if ( c != '\\' || i + 1 == iField.length() )
+         {
+            value.append(c);
+            continue;
+         }
+
+         final char escaped = iField.charAt(++i);
+         switch ( escaped )
+         {
+            case 't':
+               value.append('\t');
+               break;
+            case 'n':
+               value.append('\n');
+               break;
+            case 'r':
+               value.append('\r');
+               break;
+            default:
+               value.append(escaped);
+               break;
+         }
+      }
+      return value.toString();
+   }
+
+   /**
+    * Replays each trace file named on the command line and prints whether the
+    * SCO is conformant.
+    *
+    * @param iArgs The paths of the UTF-8 encoded trace files
+    * @throws IOException if a trace cannot be read
+    */
+   public static void main(String[] iArgs) throws IOException
+   {
+      final SCOTraceReplayer replayer = new SCOTraceReplayer();
+      for ( int i = 0; i < iArgs.length; i++ )
+      {
+         final Reader trace = new InputStreamReader(new FileInputStream(iArgs[i]), "UTF-8");
+         try
+         {
+            final SCOReplayResult result = replayer.replay(trace);
+            System.out.println(iArgs[i] + "\t" +
+                               ( result.isConformant() ? "conformant" : "non-conformant" ) +
+                               "\terrors=" + result.getErrors() +
+                               "\tcalls=" + result.getCallCount() +
+                               "\tms=" + result.getDuration() / 1000000);
+         }
+         finally
+         {
+            trace.close();
+         }
+      }
+   }
+}
@@ -0,0 +1,154 @@
+package org.adl.util;
+
+import java.util.ArrayList;
+import java.util.Formattable;
+import java.util.List;
+
+/**
+ * <strong>Filename: </strong>MessageTemplate.java<br><br>
+ *
+ * <strong>Description: </strong> <br>
+ * The <code>MessageTemplate</code> holds a resource bundle pattern that has
+ * been split once into its literal text and its argument slots, so messages
+ * can be built without running <code>String.format</code> every time.  Only
+ * the <code>%s</code>, <code>%%</code> and <code>%n</code> specifiers are
+ * rendered directly; any other pattern is passed on to
+ * <code>String.format</code> unchanged.    <br>
+ *
+ * @author ADL Technical Team<br><br>
+ */
+final class MessageTemplate
+{
+   /**
+    * Builders larger than this are not kept for reuse.
+    */
+   private static final int MAX_BUFFER_SIZE = 8192;
+
+   /**
+    * The builder reused by each thread to render messages.
+    */
+   private static final ThreadLocal<StringBuilder> BUFFER =
+      new ThreadLocal<StringBuilder>()
+      {
+         @Override
+         protected StringBuilder initialValue()
+         {
+            return new StringBuilder(256);
+         }
+      };
+
+   /**
+    * The pattern as read from the resource bundle.
+    */
+   private final String mPattern;
+
+   /**
+    * The literal text before each argument slot, followed by the text after
+    * the last one.  Null if the pattern must be rendered by
+    * <code>String.format</code>.
+    */
+   private final String[] mLiterals;
+
+   /**
+    * Creates a template for the given pattern.
+    *
+    * @param iPattern The pattern read from the resource bundle.
+    */
+   MessageTemplate( String iPattern )
+   {
+      mPattern = iPattern;
+      mLiterals = parse(iPattern);
+   }
+
+   /**
+    * Splits the pattern into literal segments around each <code>%s</code>.
+    *
+    * @param iPattern The pattern read from the resource bundle.
+    * @return The literal segments, or null if the pattern uses a specifier
+    *         that is not rendered directly.
+    */
+   private static String[] parse( String iPattern )
+   {
+      final List<String> literals = new ArrayList<String>();
+      final StringBuilder literal = new StringBuilder();
+      final int length = iPattern.length();
+
+      for ( int i = 0; i < length; i++ )
+      {
+         final char c = iPattern.charAt(i);
+         if ( c != '%' )
+         {
+            literal.append(c);
+            continue;
+         }
+         if ( i + 1 >= length )
+         {
+            return null;
+         }
+
+         final char conversion = iPattern.charAt(++i);
+         if ( conversion == 's' )
+         {
+            literals.add(literal.toString());
+            literal.setLength(0);
+         }
+         else if ( conversion == '%' )
+         {
+            literal.append('%');
+         }
+         else if ( conversion == 'n' )
+         {
+            literal.append(System.getProperty("line.separator"));
+         }
+         else
+         {
+            return null;
+         }
+      }
+      literals.add(literal.toString());
+
+      return literals.toArray(new String[literals.size()]);
+   }
+
+   /**
+    * Builds the message for the given arguments.  The result is the same as
+    * <code>String.format(pattern, args)</code>.
+    *
+    * @param iArgs The arguments of the message, none of which are null.
+    * @return The formatted message.
+    */
+   String format( Object[] iArgs )
+   {
+      if ( mLiterals == null || iArgs.length < mLiterals.length - 1 )
+      {
+         return String.format(mPattern, iArgs);
+      }
+      for ( int i = 0; i < mLiterals.length - 1; i++ )
+      {
+         if ( iArgs[i] instanceof Formattable )
+         {
+            return String.format(mPattern, iArgs);
+         }
+      }
+      if ( mLiterals.length == 1 )
+      {
+         return mLiterals[0];
+      }
+
+      final StringBuilder buffer = BUFFER.get();
+      buffer.setLength(0);
+      buffer.append(mLiterals[0]);
+      for ( int i = 1; i < mLiterals.length; i++ )
+      {
+         buffer.append(iArgs[i - 1].toString());
+         buffer.append(mLiterals[i]);
+      }
+
+      final String message = buffer.toString();
+      if ( buffer.capacity() > MAX_BUFFER_SIZE )
+      {
+         BUFFER.remove();
+      }
+      return message;
+   }
+}
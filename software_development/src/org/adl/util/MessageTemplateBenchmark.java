@@ -0,0 +1,146 @@
+package org.adl.util;
+
+import java.util.ResourceBundle;
+
+/**
+ * <strong>Filename: </strong>MessageTemplateBenchmark.java<br><br>
+ *
+ * <strong>Description: </strong> <br>
+ * The <code>MessageTemplateBenchmark</code> times the messages logged on
+ * every API call of the SCO test, such as <code>SCORTETester.1</code>, both
+ * as <code>Messages.getString</code> renders them from a
+ * <code>MessageTemplate</code> and as it rendered them before, by looking up
+ * the bundle and running <code>String.format</code> on every call.  Each
+ * message is checked to be the same both ways before it is timed, and each
+ * way is run once without being timed so the times do not include class
+ * loading and compilation.    <br>
+ *
+ * @author ADL Technical Team<br><br>
+ */
+public final class MessageTemplateBenchmark
+{
+   /**
+    * The number of messages rendered each way, unless given on the command
+    * line.
+    */
+   private static final int DEFAULT_ITERATIONS = 1000000;
+
+   /**
+    * The name of the resource bundle of <code>Messages</code>.
+    */
+   private static final String BUNDLE_NAME =
+      "org.adl.util.resources.Messages";
+
+   /**
+    * The keys of the messages rendered, logged on each SCO API call.
+    */
+   private static final String[] KEYS =
+   {
+      "SCORTETester.1",
+      "SCORTETester.56",
+      "SCORTETester.146",
+      "SCORTETester.155",
+      "SCORTETester.251"
+   };
+
+   /**
+    * The arguments of each message, by the position of its key.
+    */
+   private static final Object[][] ARGS =
+   {
+      { "cmi.interactions.0.learner_response", "a[,]c" },
+      { "incomplete" },
+      { "cmi.completion_status" },
+      { },
+      { }
+   };
+
+   /**
+    * Private constructor, only <code>main</code> is used.
+    */
+   private MessageTemplateBenchmark()
+   {
+      // No explicitly defined functionality
+   }
+
+   /**
+    * Renders a message the way <code>Messages.getString</code> did before
+    * messages were rendered from templates.
+    *
+    * @param iKey The key of the message.
+    * @param iArgs The arguments of the message.
+    * @return The formatted message.
+    */
+   private static String formatMessage( String iKey, Object[] iArgs )
+   {
+      final ResourceBundle bundle = ResourceBundle.getBundle(BUNDLE_NAME);
+      return String.format(bundle.getString(iKey), iArgs);
+   }
+
+   /**
+    * Renders every message a number of times each way.
+    *
+    * @param iIterations The number of messages rendered each way.
+    * @return The nanoseconds spent rendering through templates and through
+    *         <code>String.format</code>, in that order.
+    */
+   private static long[] time( int iIterations )
+   {
+      final long[] times = new long[2];
+      int length = 0;
+
+      long start = System.nanoTime();
+      for ( int i = 0; i < iIterations; i++ )
+      {
+         final int k = i % KEYS.length;
+         length += Messages.getString(KEYS[k], ARGS[k]).length();
+      }
+      times[0] = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for ( int i = 0; i < iIterations; i++ )
+      {
+         final int k = i % KEYS.length;
+         length -= formatMessage(KEYS[k], ARGS[k]).length();
+      }
+      times[1] = System.nanoTime() - start;
+
+      // Both ways render messages of the same length
+      if ( length != 0 )
+      {
+         throw new IllegalStateException("The messages differ in length");
+      }
+      return times;
+   }
+
+   /**
+    * Times the messages both ways and prints the report.
+    *
+    * @param iArgs The number of messages rendered each way, optional.
+    */
+   public static void main( String[] iArgs )
+   {
+      int iterations = DEFAULT_ITERATIONS;
+      if ( iArgs.length > 0 )
+      {
+         iterations = Math.max(1, Integer.parseInt(iArgs[0]));
+      }
+
+      for ( int k = 0; k < KEYS.length; k++ )
+      {
+         final String message = Messages.getString(KEYS[k], ARGS[k]);
+         if ( !message.equals(formatMessage(KEYS[k], ARGS[k])) )
+         {
+            throw new IllegalStateException(KEYS[k] + " differs: " + message);
+         }
+      }
+
+      // Warm up both ways before timing them
+      time(iterations);
+
+      final long[] times = time(iterations);
+      System.out.println("messages=" + iterations);
+      System.out.println("MessageTemplate\tns_per_message=" + times[0] / iterations);
+      System.out.println("String.format\tns_per_message=" + times[1] / iterations);
+   }
+}
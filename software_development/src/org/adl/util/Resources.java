@@ -1,13 +1,31 @@
 package org.adl.util;
 
+import java.util.Locale;
 import java.util.MissingResourceException;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public final class Resources
 {
+   private static final ConcurrentMap<String, Resources> RESOURCES =
+         new ConcurrentHashMap<String, Resources>();
+
+   private static final ConcurrentMap<Class<?>, Resources> CLASS_RESOURCES =
+         new ConcurrentHashMap<Class<?>, Resources>();
+
    public static <T> Resources getResources(final Class<T> forClass)
    {
-      return getResources(getResourceName(forClass));
+      // Skip building the bundle name on every message
+      final Resources cached = CLASS_RESOURCES.get(forClass);
+      if (cached != null && cached.locale.equals(Locale.getDefault()))
+      {
+         return cached;
+      }
+
+      final Resources resources = getResources(getResourceName(forClass));
+      CLASS_RESOURCES.put(forClass, resources);
+      return resources;
    }
 
    private static <T> String getResourceName(final Class<T> forClass)
@@ -18,13 +36,29 @@ public final class Resources
 
    private static Resources getResources(final String name)
    {
-      return new Resources(name);
+      // Bundles are looked up per default locale, so cache them the same way
+      final String key = name + "_" + Locale.getDefault();
+      final Resources cached = RESOURCES.get(key);
+      if (cached != null)
+      {
+         return cached;
+      }
+
+      final Resources resources = new Resources(name);
+      final Resources existing = RESOURCES.putIfAbsent(key, resources);
+      return existing == null ? resources : existing;
    }
 
    private final transient ResourceBundle bundle;
 
+   private final Locale locale;
+
+   private final ConcurrentMap<String, MessageTemplate> templates =
+         new ConcurrentHashMap<String, MessageTemplate>();
+
    private Resources(final String bundleName)
    {
+      this.locale = Locale.getDefault();
       this.bundle = ResourceBundle.getBundle(bundleName);
    }
 
@@ -40,12 +74,22 @@ public final class Resources
 
       try
       {
-         final String preFormat = bundle.getString(iKey);
-         return String.format(preFormat, args);
+         return getTemplate(iKey).format(args);
       }
       catch (MissingResourceException e)
       {
          return iKey;
       }
    }
+
+   private MessageTemplate getTemplate(final String iKey)
+   {
+      MessageTemplate template = templates.get(iKey);
+      if (template == null)
+      {
+         template = new MessageTemplate(bundle.getString(iKey));
+         templates.put(iKey, template);
+      }
+      return template;
+   }
 }
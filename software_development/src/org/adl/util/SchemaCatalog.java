@@ -0,0 +1,488 @@
+package org.adl.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Logger;
+
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
+
+/**
+ * Resolves the schemas and DTDs read by the parsers without going to the
+ * network, and without reading the same schema from disk more than once.
+ * <br><br>
+ *
+ * Public ids and remote system ids listed in <code>SchemaCatalog.properties
+ * </code> are served from the canonical schemas packaged under
+ * <code>org/adl/util/xsd</code>.  Schemas and DTDs read from local files,
+ * such as the copies at the root of a content package, are read each time and
+ * kept in memory by the hash of their bytes, so the copies extracted with
+ * every package share one array.  A local copy that is the same as the
+ * canonical schema of the same name shares its bytes; a copy that differs is
+ * still the one returned, so that a package is validated against the schemas
+ * it holds.  Any other entity is left to the parser.<br><br>
+ *
+ * The catalog is shared by all parsers and all threads.
+ *
+ * @author ADL Technical Team
+ */
+public final class SchemaCatalog implements EntityResolver
+{
+   /**
+    * The catalog of public and system ids.
+    */
+   private static final String CATALOG =
+      "/org/adl/util/resources/SchemaCatalog.properties";
+
+   /**
+    * The folder of the canonical schemas on the classpath.
+    */
+   private static final String SCHEMA_FOLDER = "/org/adl/util/xsd/";
+
+   /**
+    * The most bytes of local schemas, not shared with a canonical schema, that
+    * are kept in memory.
+    */
+   private static final long MAX_CACHED_BYTES = 16L * 1024 * 1024;
+
+   /**
+    * Marks a canonical schema that is not on the classpath.
+    */
+   private static final byte[] MISSING = new byte[0];
+
+   /**
+    * The algorithm used to hash local schemas.
+    */
+   private static final String ALGORITHM = "SHA-1";
+
+   /**
+    * Logger object used for debug logging
+    */
+   private static final Logger LOGGER = Logger.getLogger("org.adl.util.debug");
+
+   /**
+    * The single instance of the catalog.
+    */
+   private static final SchemaCatalog INSTANCE = new SchemaCatalog();
+
+   /**
+    * The canonical file of each public or system id.
+    */
+   private final Map<String, String> mEntries = new ConcurrentHashMap<String, String>();
+
+   /**
+    * The system id prefixes that map to the canonical file of the same name.
+    */
+   private final List<String> mPrefixes = new ArrayList<String>();
+
+   /**
+    * The canonical schemas read so far, by file name.
+    */
+   private final ConcurrentMap<String, byte[]> mCanonical =
+      new ConcurrentHashMap<String, byte[]>();
+
+   /**
+    * The local schemas read so far, by the hash of their bytes, least
+    * recently used first.
+    */
+   private final LinkedHashMap<String, CachedFile> mFiles =
+      new LinkedHashMap<String, CachedFile>(64, 0.75f, true);
+
+   /**
+    * The bytes held by <code>mFiles</code> that are not shared with a
+    * canonical schema.
+    */
+   private long mCachedBytes = 0;
+
+   /**
+    * Reads the catalog.
+    */
+   private SchemaCatalog()
+   {
+      final Properties catalog = new Properties();
+      final InputStream in = SchemaCatalog.class.getResourceAsStream(CATALOG);
+      if ( in != null )
+      {
+         try
+         {
+            try
+            {
+               catalog.load(in);
+            }
+            finally
+            {
+               in.close();
+            }
+         }
+         catch ( IOException ioe )
+         {
+            LOGGER.warning("The schema catalog could not be read: " + ioe);
+         }
+      }
+
+      for ( final String id : catalog.stringPropertyNames() )
+      {
+         if ( id.endsWith("/") )
+         {
+            mPrefixes.add(id);
+         }
+         else
+         {
+            mEntries.put(id, catalog.getProperty(id));
+         }
+      }
+   }
+
+   /**
+    * Returns the catalog.
+    *
+    * @return The single instance of the catalog.
+    */
+   public static SchemaCatalog getInstance()
+   {
+      return INSTANCE;
+   }
+
+   /**
+    * Resolves a schema or DTD from the catalog or the in-memory copy of a
+    * local file.  A local file keeps the system id asked for, so that the
+    * schemas it includes are resolved relative to it.
+    *
+    * @param iPublicId The public id of the entity, or null.
+    * @param iSystemId The system id of the entity, or null.
+    * @return The source of the entity, or null to let the parser open it.
+    */
+   public InputSource resolveEntity(final String iPublicId, final String iSystemId)
+   {
+      String name = null;
+      if ( iPublicId != null )
+      {
+         name = getCanonicalName(iPublicId);
+      }
+      if ( name == null && iSystemId != null )
+      {
+         name = getCanonicalName(iSystemId);
+      }
+      if ( name != null )
+      {
+         // The canonical schema is read relative to its own folder, so that
+         // its DOCTYPE and includes are also served from the catalog
+         final InputSource source =
+            new InputSource(new ByteArrayInputStream(getCanonical(name)));
+         source.setPublicId(iPublicId);
+         source.setSystemId(
+            SchemaCatalog.class.getResource(SCHEMA_FOLDER + name).toExternalForm());
+         return source;
+      }
+
+      final byte[] bytes = ( iSystemId == null ) ? null : getLocalFile(iSystemId);
+      if ( bytes == null )
+      {
+         return null;
+      }
+      final InputSource source = new InputSource(new ByteArrayInputStream(bytes));
+      source.setPublicId(iPublicId);
+      source.setSystemId(iSystemId);
+      return source;
+   }
+
+   /**
+    * Finds the canonical schema of a public or system id in the catalog.
+    *
+    * @param iId The public or system id.
+    * @return The name of the canonical schema, or null if the id is not in
+    *         the catalog.
+    */
+   private String getCanonicalName(final String iId)
+   {
+      if ( iId == null )
+      {
+         return null;
+      }
+
+      final String name = mEntries.get(iId);
+      if ( name != null )
+      {
+         return ( getCanonical(name) == null ) ? null : name;
+      }
+
+      for ( final String prefix : mPrefixes )
+      {
+         if ( iId.startsWith(prefix) )
+         {
+            final String rest = iId.substring(prefix.length());
+            if ( getCanonical(rest) != null )
+            {
+               return rest;
+            }
+            final String file = rest.substring(rest.lastIndexOf('/') + 1);
+            if ( getCanonical(file) != null )
+            {
+               return file;
+            }
+         }
+      }
+      return null;
+   }
+
+   /**
+    * Returns the bytes of a schema or DTD named by a local file system id.
+    *
+    * @param iSystemId The system id of the entity.
+    * @return The bytes of the entity, or null if it is not a local schema or
+    *         DTD.
+    */
+   private byte[] getLocalFile(final String iSystemId)
+   {
+      final String lower = iSystemId.toLowerCase();
+      if ( lower.startsWith("file:") && ( lower.endsWith(".xsd") || lower.endsWith(".dtd") ) )
+      {
+         try
+         {
+            // The validator builds ids such as file:////dir//imscp_v1p1.xsd
+            final String path = new URI(iSystemId).getPath();
+            return ( path == null ) ? null : getFile(new File(path));
+         }
+         catch ( URISyntaxException use )
+         {
+            return null;
+         }
+      }
+      return null;
+   }
+
+   /**
+    * Returns a canonical schema, reading it from the classpath the first time
+    * it is asked for.
+    *
+    * @param iName The file name of the schema under <code>xml/xsd</code>, or
+    *           null.
+    * @return The bytes of the schema, or null if there is no such schema.
+    */
+   private byte[] getCanonical(final String iName)
+   {
+      if ( iName == null || iName.length() == 0 )
+      {
+         return null;
+      }
+
+      byte[] bytes = mCanonical.get(iName);
+      if ( bytes == null )
+      {
+         bytes = MISSING;
+         final InputStream in = SchemaCatalog.class.getResourceAsStream(SCHEMA_FOLDER + iName);
+         if ( in != null )
+         {
+            try
+            {
+               bytes = readFully(in, 8192);
+            }
+            catch ( IOException ioe )
+            {
+               LOGGER.warning("The schema " + iName + " could not be read: " + ioe);
+            }
+         }
+         mCanonical.putIfAbsent(iName, bytes);
+      }
+      return ( bytes == MISSING ) ? null : bytes;
+   }
+
+   /**
+    * Returns the bytes of a local schema.  The file is read each time, since
+    * a package may be extracted over the files of the one before with the
+    * same length and modification time, but a file with the same bytes as
+    * one read before returns the array kept for those bytes.
+    *
+    * @param iFile The schema file.
+    * @return The bytes of the file, or null if it could not be read.
+    */
+   private byte[] getFile(final File iFile)
+   {
+      final long length = iFile.length();
+      if ( !iFile.isFile() || length > Integer.MAX_VALUE )
+      {
+         return null;
+      }
+
+      byte[] bytes;
+      try
+      {
+         bytes = readFully(new FileInputStream(iFile), (int) length);
+      }
+      catch ( IOException ioe )
+      {
+         return null;
+      }
+
+      final String key;
+      try
+      {
+         key = getHash(bytes);
+      }
+      catch ( NoSuchAlgorithmException nsae )
+      {
+         return bytes;
+      }
+
+      synchronized ( mFiles )
+      {
+         final CachedFile cached = mFiles.get(key);
+         if ( cached != null )
+         {
+            return cached.mBytes;
+         }
+      }
+
+      boolean shared = false;
+      final String name = getCopiedName(iFile.getAbsolutePath(), bytes);
+      if ( name != null )
+      {
+         bytes = getCanonical(name);
+         shared = true;
+      }
+
+      synchronized ( mFiles )
+      {
+         final CachedFile old = mFiles.put(key, new CachedFile(bytes, shared));
+         if ( old != null && !old.mShared )
+         {
+            mCachedBytes -= old.mBytes.length;
+         }
+         if ( !shared )
+         {
+            mCachedBytes += bytes.length;
+         }
+
+         final Iterator<CachedFile> files = mFiles.values().iterator();
+         while ( mCachedBytes > MAX_CACHED_BYTES && files.hasNext() )
+         {
+            final CachedFile eldest = files.next();
+            if ( !eldest.mShared )
+            {
+               mCachedBytes -= eldest.mBytes.length;
+            }
+            files.remove();
+         }
+      }
+      return bytes;
+   }
+
+   /**
+    * Hashes the bytes of a local schema.
+    *
+    * @param iBytes The bytes of the schema.
+    * @return The hash, in hex.
+    * @throws NoSuchAlgorithmException if the hash algorithm is not available.
+    */
+   private static String getHash(final byte[] iBytes) throws NoSuchAlgorithmException
+   {
+      final byte[] hash = MessageDigest.getInstance(ALGORITHM).digest(iBytes);
+      final StringBuilder hex = new StringBuilder(hash.length * 2);
+      for ( final byte b : hash )
+      {
+         hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+         hex.append(Character.forDigit(b & 0xF, 16));
+      }
+      return hex.toString();
+   }
+
+   /**
+    * Finds the canonical schema that a local file is a copy of.  The
+    * canonical schema must have the same file name, or the same name within
+    * its folder, and the same bytes.
+    *
+    * @param iPath The path of the local file.
+    * @param iBytes The bytes of the local file.
+    * @return The name of the canonical schema, or null if the file is not a
+    *         copy of one.
+    */
+   private String getCopiedName(final String iPath, final byte[] iBytes)
+   {
+      final String path = iPath.replace(File.separatorChar, '/');
+      final int file = path.lastIndexOf('/');
+      final int folder = ( file > 0 ) ? path.lastIndexOf('/', file - 1) : -1;
+
+      final String[] names = { path.substring(folder + 1), path.substring(file + 1) };
+      for ( final String name : names )
+      {
+         final byte[] canonical = getCanonical(name);
+         if ( canonical != null && Arrays.equals(canonical, iBytes) )
+         {
+            return name;
+         }
+      }
+      return null;
+   }
+
+   /**
+    * Reads and closes a stream.
+    *
+    * @param iIn The stream.
+    * @param iSize The expected number of bytes.
+    * @return The bytes read.
+    * @throws IOException if the stream could not be read.
+    */
+   private static byte[] readFully(final InputStream iIn, final int iSize) throws IOException
+   {
+      try
+      {
+         final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(iSize, 32));
+         final byte[] buffer = new byte[8192];
+         int read;
+         while ( (read = iIn.read(buffer)) != -1 )
+         {
+            out.write(buffer, 0, read);
+         }
+         return out.toByteArray();
+      }
+      finally
+      {
+         iIn.close();
+      }
+   }
+
+   /**
+    * The in-memory copy of a local schema.
+    */
+   private static final class CachedFile
+   {
+      /**
+       * The bytes of the file.
+       */
+      final byte[] mBytes;
+
+      /**
+       * Whether the bytes are those of a canonical schema.
+       */
+      final boolean mShared;
+
+      /**
+       * Overloaded constructor
+       *
+       * @param iBytes The bytes of the file.
+       * @param iShared Whether the bytes are those of a canonical schema.
+       */
+      CachedFile(final byte[] iBytes, final boolean iShared)
+      {
+         mBytes = iBytes;
+         mShared = iShared;
+      }
+   }
+}
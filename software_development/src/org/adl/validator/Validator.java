@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.adl.validator.packagevalidator.PackageValidator;
 import org.adl.validator.util.ResultCollection;
+import org.adl.validator.util.cache.ValidationCache;
 
 /**
  * Provides a way to validate content packages.
@@ -102,4 +103,16 @@ public class Validator
    {
       mPackageValidator.setCheckerList(iCheckerList);
    }
+   
+   /**
+    * Provides a way for the Results of checkers whose input files have not 
+    * changed since a previous run to be read from a cache instead of ran again.
+    * 
+    * @param iCache The ValidationCache holding the stored Results.  Only 
+    *        checkers implementing CacheablePackageChecker are cached.
+    */
+   public void setValidationCache(ValidationCache iCache)
+   {
+      mPackageValidator.setValidationCache(iCache);
+   }
 }
@@ -0,0 +1,32 @@
+package org.adl.validator.packagechecker;
+
+import java.util.List;
+
+/**
+ * This interface is implemented by package checkers whose Result depends only
+ * on the contents of a known set of files.  When a ValidationCache is in use
+ * the PackageCheckerInvoker reuses the cached Result of such a checker as long
+ * as none of its input files and its version have changed.
+ * 
+ * @author ADL Technical Team
+ *
+ */
+public interface CacheablePackageChecker
+{
+   /**
+    * Provides the version of the checker.  The version must be changed 
+    * whenever a change to the checker could change its Result for the same 
+    * input files.
+    * 
+    * @return String representing the version of the checker
+    */
+   String getCheckerVersion();
+   
+   /**
+    * Provides the files whose contents determine the Result of the checker.
+    * 
+    * @return List of the paths of the input files, or null if the Result of 
+    * this run cannot be cached
+    */
+   List<String> getInputFiles();
+}
@@ -12,6 +12,10 @@ import org.adl.validator.util.Result;
 import org.adl.validator.util.ResultCollection;
 import org.adl.validator.util.ValidatorKeyNames;
 import org.adl.validator.util.ValidatorMessage;
+import org.adl.validator.util.cache.ValidationCache;
+import org.adl.validator.util.metrics.CheckerMetrics;
+import org.adl.validator.util.metrics.PackageMetrics;
+import org.adl.validator.util.metrics.ValidatorMetrics;
 
 /**
  * Unit test for PackageCheckerInvoker
@@ -51,6 +55,11 @@ public class PackageCheckerInvoker
     */
    private String mValidatorType = "ADLChecker";
    
+   /**
+    * The timing and resource figures collected for each checker ran.
+    */
+   private PackageMetrics mPackageMetrics;
+   
    /**
     * Default Constructor. Sets the attributes to their initial values.
     * 
@@ -83,6 +92,9 @@ public class PackageCheckerInvoker
       
       Iterator checkerIter = checkerList.iterator();
       
+      mPackageMetrics = new PackageMetrics((String)CheckerStateData.getInstance()
+            .getObjectValue(ValidatorKeyNames.FILE_NAME_KEY));
+      
       try
       {
          while ( checkerIter.hasNext() )
@@ -99,9 +111,22 @@ public class PackageCheckerInvoker
                checkerClass = (Class)checkerObject;
             }
             
-            PackageChecker checker = (PackageChecker)checkerClass.newInstance();
-            
-            currentResult = checker.check();
+            CheckerMetrics metrics = ValidatorMetrics.startChecker(checkerClass.getName());
+            try
+            {
+               PackageChecker checker = (PackageChecker)checkerClass.newInstance();
+               
+               currentResult = runChecker(checker);
+            }
+            finally
+            {
+               ValidatorMetrics.stopChecker(metrics);
+            }
+            if ( currentResult != null && currentResult.getPackageCheckerName() != null )
+            {
+               metrics.setCheckerName(currentResult.getPackageCheckerName());
+            }
+            mPackageMetrics.addCheckerMetrics(metrics);
             
             if ( currentResult == null )
             {
@@ -114,7 +139,7 @@ public class PackageCheckerInvoker
             else if ( currentResult.isTestStopped() )
             {
                mResults.addPackageResult(currentResult);        
-               return mResults;
+               return publishMetrics();
             }
             else if ( !currentResult.isCheckerSkipped() )
             {
@@ -136,7 +161,55 @@ public class PackageCheckerInvoker
          System.out.println(Messages.getString("PackageCheckerInvoker.3"));
       }
       
-      return mResults;      
+      return publishMetrics();      
+   }
+   
+   /**
+    * Runs the given checker, reusing its cached Result when a ValidationCache 
+    * is set and none of the inputs of the checker have changed.
+    * 
+    * @param iChecker - The checker to run
+    * @return Result returned by the checker, or read from the cache
+    */
+   private Result runChecker(PackageChecker iChecker)
+   {
+      final ValidationCache cache = ValidationCache.getInstance();
+      
+      if ( cache == null || !(iChecker instanceof CacheablePackageChecker) )
+      {
+         return iChecker.check();
+      }
+      
+      final String key = cache.createKey((CacheablePackageChecker)iChecker);
+      if ( key == null )
+      {
+         return iChecker.check();
+      }
+      
+      Result result = cache.get(key);
+      if ( result == null )
+      {
+         result = iChecker.check();
+         if ( result != null )
+         {
+            cache.put(key, result);
+         }
+      }
+      return result;
+   }
+   
+   /**
+    * Attaches the figures collected for each checker to the ResultCollection
+    * and publishes them to the JMX statistics.
+    * 
+    * @return ResultCollection containing the Results objects returned by each
+    * checker
+    */
+   private ResultCollection publishMetrics()
+   {
+      mResults.setPackageMetrics(mPackageMetrics);
+      ValidatorMetrics.publish(mPackageMetrics);
+      return mResults;
    }
    
    /**
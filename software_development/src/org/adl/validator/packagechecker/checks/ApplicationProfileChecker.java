@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
+import org.adl.validator.packagechecker.CacheablePackageChecker;
 import org.adl.validator.packagechecker.PackageChecker;
 import org.adl.validator.packagechecker.parsers.SchematronValidationDOMParser;
 import org.adl.validator.util.CheckerStateData;
@@ -14,6 +15,7 @@ import org.adl.validator.util.Result;
 import org.adl.validator.util.ValidatorCheckerNames;
 import org.adl.validator.util.ValidatorKeyNames;
 import org.adl.validator.util.ValidatorMessage;
+import org.adl.validator.util.processor.URIHandler;
 
 /**
  * This checker will use schematron xml validation to ensure the xml complies
@@ -22,8 +24,14 @@ import org.adl.validator.util.ValidatorMessage;
  * @author ADL Technical Team
  *
  */
-public class ApplicationProfileChecker extends PackageChecker
+public class ApplicationProfileChecker extends PackageChecker 
+   implements CacheablePackageChecker
 {
+   /**
+    * The version of this checker, used to key its cached Results
+    */
+   private static final String CHECKER_VERSION = "1";
+   
    /**
     * A Constant value indicating the type of file to be validated 
     */
@@ -43,7 +51,7 @@ public class ApplicationProfileChecker extends PackageChecker
     * A String containing the path to the application profile specific 
     * schematron file
     */
-   final private InputStream mAppProfileSchematronFile;
+   final private String mAppProfileSchematronFilePath;
    
    /**
     * A String containing the path to the xml instance being validated
@@ -94,13 +102,35 @@ public class ApplicationProfileChecker extends PackageChecker
          mErrorMessages.add(message);  
       }
       
-      mAppProfileSchematronFile = this.getClass().getResourceAsStream(appProfileSchematronFilePath);
+      mAppProfileSchematronFilePath = appProfileSchematronFilePath;
       
       mResult = new Result();
       mResult.setPackageCheckerName(ValidatorCheckerNames.APP_PROFILE);
       
    }
    
+   /* (non-Javadoc)
+    * @see org.adl.validator.packagechecker.CacheablePackageChecker#getCheckerVersion()
+    */
+   public String getCheckerVersion()
+   {
+      return CHECKER_VERSION;
+   }
+   
+   /* (non-Javadoc)
+    * @see org.adl.validator.packagechecker.CacheablePackageChecker#getInputFiles()
+    */
+   public List<String> getInputFiles()
+   {
+      if ( mFilename == null )
+      {
+         return null;
+      }
+      final List<String> inputFiles = new ArrayList<String>();
+      inputFiles.add(URIHandler.decode(mFilename, URIHandler.ENCODING));
+      return inputFiles;
+   }
+   
    /* (non-Javadoc)
     * @see org.adl.validator.packagechecker.PackageChecker#check()
     */
@@ -126,8 +156,10 @@ public class ApplicationProfileChecker extends PackageChecker
          try
          {
             // Perform application profile specific checks
-            overallSuccess = overallSuccess && validate(mAppProfileSchematronFile, mFilename);
-            mAppProfileSchematronFile.close();
+            final InputStream appProfileSchematronFile = 
+               this.getClass().getResourceAsStream(mAppProfileSchematronFilePath);
+            overallSuccess = overallSuccess && validate(appProfileSchematronFile, mFilename);
+            appProfileSchematronFile.close();
          }
          catch ( IOException ioe )
          {
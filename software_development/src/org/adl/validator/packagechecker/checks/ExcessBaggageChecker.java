@@ -14,6 +14,7 @@ import org.adl.validator.util.Result;
 import org.adl.validator.util.ValidatorCheckerNames;
 import org.adl.validator.util.ValidatorKeyNames;
 import org.adl.validator.util.ValidatorMessage;
+import org.adl.validator.util.processor.PackageDirectoryIndex;
 import org.adl.validator.util.processor.URIHandler;
 
 /**
@@ -97,8 +98,8 @@ public class ExcessBaggageChecker extends PackageChecker
          return mResult;
       }
       
-      // Traverse directory and get package file list
-      final Set<String> packageFiles = getPackageFiles(URIHandler.decode(mRootDirectory,URIHandler.ENCODING));
+      // Get package file list from the shared directory index
+      final Set<String> packageFiles = PackageDirectoryIndex.getInstance().getPackageFiles();
       
       // Set main result items
       mResult.setCheckerSkipped(false);
@@ -177,44 +178,4 @@ public class ExcessBaggageChecker extends PackageChecker
       }      
       return newFileSet;      
    }
-   
-   /**
-    * This method will create a list of all files present in the package
-    * Note: Manifests and controlling documents are excluded
-    * 
-    * @param iPackageRoot is a String containing the path to the root of the package
-    * @return a Set containing the files the package contains
-    */
-   private Set<String> getPackageFiles(final String iPackageRoot)
-   {
-      final File rootDirectory = new File(iPackageRoot);      
-      File currentFile;
-      final Set<String> files = new LinkedHashSet<String>();
-      
-      if (rootDirectory.isDirectory()) 
-      {         
-         final String[] directoryContents = rootDirectory.list();
-         
-         for (int i=0; i < directoryContents.length; i++) 
-         {
-            currentFile = new File( iPackageRoot + File.separator + directoryContents[i] );
-            
-            if ( currentFile.isFile() && 
-                 currentFile.getName().indexOf(".xsd") < 0 &&
-                 currentFile.getName().indexOf(".dtd") < 0 &&
-                 CheckerStateData.getInstance().
-                 getObjectValue(ValidatorKeyNames.XML_FILE_NAME_KEY) != null &&
-                 !currentFile.getName().equals(CheckerStateData.getInstance().
-                       getObjectValue(ValidatorKeyNames.XML_FILE_NAME_KEY)))
-            {               
-               files.add(currentFile.getAbsolutePath());               
-            }
-            else // File is a directory
-            {               
-               files.addAll(getPackageFiles(currentFile.getAbsolutePath()));
-            }            
-         }
-      }
-      return files;
-   }
 }
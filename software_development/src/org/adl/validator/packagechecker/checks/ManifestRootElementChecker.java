@@ -1,8 +1,13 @@
 package org.adl.validator.packagechecker.checks;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
+import org.adl.util.SchemaCatalog;
+import org.adl.validator.packagechecker.CacheablePackageChecker;
 import org.adl.validator.packagechecker.PackageChecker;
 import org.adl.validator.util.CheckerStateData;
 import org.adl.validator.util.Messages;
@@ -10,6 +15,7 @@ import org.adl.validator.util.Result;
 import org.adl.validator.util.ValidatorCheckerNames;
 import org.adl.validator.util.ValidatorKeyNames;
 import org.adl.validator.util.ValidatorMessage;
+import org.adl.validator.util.metrics.ValidatorMetrics;
 import org.adl.validator.util.processor.URIHandler;
 import org.jdom.Document;
 import org.jdom.Element;
@@ -21,8 +27,14 @@ import org.jdom.input.SAXBuilder;
  * 
  * @author ADL Technical Team
  */
-public class ManifestRootElementChecker extends PackageChecker
+public class ManifestRootElementChecker extends PackageChecker 
+   implements CacheablePackageChecker
 {      
+   /**
+    * The version of this checker, used to key its cached Results
+    */
+   private static final String CHECKER_VERSION = "1";
+   
    /**
     * String representing the full path of the imsmanifest.xml file
     */
@@ -47,10 +59,33 @@ public class ManifestRootElementChecker extends PackageChecker
       
       mBuilder = new SAXBuilder(/*"org.apache.xerces.parsers.SAXParser"*/);
       mBuilder.setReuseParser(false);
+      mBuilder.setEntityResolver(SchemaCatalog.getInstance());
       mResult = new Result();
       mResult.setPackageCheckerName(ValidatorCheckerNames.MAN_ROOT_ELE);
    }      
       
+   /* (non-Javadoc)
+    * @see org.adl.validator.packagechecker.CacheablePackageChecker#getCheckerVersion()
+    */
+   public String getCheckerVersion()
+   {
+      return CHECKER_VERSION;
+   }
+   
+   /* (non-Javadoc)
+    * @see org.adl.validator.packagechecker.CacheablePackageChecker#getInputFiles()
+    */
+   public List<String> getInputFiles()
+   {
+      if ( mIMSManifestFile == null )
+      {
+         return null;
+      }
+      final List<String> inputFiles = new ArrayList<String>();
+      inputFiles.add(mIMSManifestFile);
+      return inputFiles;
+   }
+      
    /**
     * Determines if the root element of the xml instance is imscp:manifest
     * 
@@ -111,6 +146,7 @@ public class ManifestRootElementChecker extends PackageChecker
    {
       try
       {
+         ValidatorMetrics.recordDocumentParsed(new File(iFile).length());
          return mBuilder.build(new FileInputStream(iFile));
       }
       catch ( IOException ioe )
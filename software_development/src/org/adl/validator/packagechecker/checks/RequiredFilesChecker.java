@@ -17,6 +17,7 @@ import org.adl.validator.util.Result;
 import org.adl.validator.util.ValidatorCheckerNames;
 import org.adl.validator.util.ValidatorKeyNames;
 import org.adl.validator.util.ValidatorMessage;
+import org.adl.validator.util.processor.PackageDirectoryIndex;
 import org.adl.validator.util.processor.SchemaHandler;
 import org.adl.validator.util.processor.URIHandler;
 
@@ -253,10 +254,8 @@ public class RequiredFilesChecker extends PackageChecker
             tempPath = URIHandler.decode(tempPath, URIHandler.ENCODING);
             tempPath = uriHandler.escapeDirectories(tempPath);
             tempPath = tempPath.replaceAll("/", File.separator + File.separator);
-            
-            final File tempFile = new File(tempPath);
          
-            passed = tempFile.exists();
+            passed = PackageDirectoryIndex.getInstance().exists(tempPath);
          }
       
       }
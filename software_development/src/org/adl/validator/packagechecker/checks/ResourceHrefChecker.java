@@ -7,7 +7,6 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.Iterator;
-import java.util.LinkedHashSet;
 import java.util.Set;
 
 import org.adl.validator.packagechecker.PackageChecker;
@@ -18,6 +17,7 @@ import org.adl.validator.util.Result;
 import org.adl.validator.util.ValidatorCheckerNames;
 import org.adl.validator.util.ValidatorKeyNames;
 import org.adl.validator.util.ValidatorMessage;
+import org.adl.validator.util.processor.PackageDirectoryIndex;
 import org.adl.validator.util.processor.URIHandler;
 
 /**
@@ -115,7 +115,9 @@ public class ResourceHrefChecker extends PackageChecker
       if ( success )      
       {
          final Set<String> resourceSet = resourceParser.getFileHrefs();
-         final Set<String> packageFiles = getPackageFiles(URIHandler.decode(mRootDirectory, URIHandler.ENCODING));
+         final PackageDirectoryIndex packageIndex = PackageDirectoryIndex.getInstance();
+         final Set<String> packageFiles = packageIndex.getPackageFiles();
+         final String decodedRoot = URIHandler.decode(mRootDirectory, URIHandler.ENCODING);
          
          // Store to possibly be used by excessBaggageChecker
          CheckerStateData.getInstance().setObject(ValidatorKeyNames.RESOURCE_FILE_LIST_KEY, resourceSet);
@@ -192,15 +194,13 @@ public class ResourceHrefChecker extends PackageChecker
             }
             else
             {
-               final File tempFile = new File(URIHandler.decode(mRootDirectory, URIHandler.ENCODING) + escapedURI);
-            
-               if ( tempFile.exists() && rootExceeded == 0 )
+               if ( rootExceeded == 0 && packageIndex.exists(decodedRoot + escapedURI) )
                {                     
                   mResult.addPackageCheckerMessage(new ValidatorMessage(ValidatorMessage.PASSED,
                         Messages.getString("ResourceHrefChecker.14", currentFile)));
 
                   // Check to ensure the case matches as well
-                  if ( !packageFiles.contains((URIHandler.decode(mRootDirectory, URIHandler.ENCODING)+escapedURI).replaceAll("/", File.separator + File.separator)))
+                  if ( !packageFiles.contains((decodedRoot + escapedURI).replaceAll("/", File.separator + File.separator)))
                   {
                      mResult.addPackageCheckerMessage(new ValidatorMessage(ValidatorMessage.WARNING,
                            Messages.getString("ResourceHrefChecker.15", currentFile)));
@@ -286,41 +286,4 @@ public class ResourceHrefChecker extends PackageChecker
       }
       return mResult;
    }
-   
-   /**
-    * This method will create a list of all files present in the package
-    * Note: Manifests and controlling documents are excluded
-    * 
-    * @param iPackageRoot is a String containing the path to the root of the package
-    * @return a Set containing the files the package contains
-    */
-   private Set<String> getPackageFiles(final String iPackageRoot)
-   {
-      final File rootDirectory = new File(iPackageRoot);      
-      File currentFile;
-      final Set<String> files = new LinkedHashSet<String>();
-      
-      if (rootDirectory.isDirectory()) 
-      {         
-         final String[] directoryContents = rootDirectory.list();
-         
-         for (int i=0; i < directoryContents.length; i++) 
-         {
-            currentFile = new File( iPackageRoot + File.separator + directoryContents[i] );
-            
-            if ( currentFile.isDirectory() )
-            {
-               files.addAll(getPackageFiles(currentFile.getAbsolutePath()));
-            }
-            else if ( currentFile.getName().indexOf(".xsd") < 0 &&
-                      currentFile.getName().indexOf(".dtd") < 0 &&
-                      CheckerStateData.getInstance().getObjectValue(ValidatorKeyNames.XML_FILE_NAME_KEY) != null &&
-                      !currentFile.getName().equals(CheckerStateData.getInstance().getObjectValue(ValidatorKeyNames.XML_FILE_NAME_KEY)) )
-            {               
-               files.add(currentFile.getAbsolutePath());               
-            }
-         }
-      }
-      return files;
-   }
-}
\ No newline at end of file
+}
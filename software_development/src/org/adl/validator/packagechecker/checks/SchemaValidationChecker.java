@@ -1,8 +1,13 @@
 package org.adl.validator.packagechecker.checks;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
+import org.adl.validator.packagechecker.CacheablePackageChecker;
 import org.adl.validator.packagechecker.PackageChecker;
 import org.adl.validator.packagechecker.parsers.SchemaValidationDOMParser;
 import org.adl.validator.util.CheckerStateData;
@@ -12,6 +17,7 @@ import org.adl.validator.util.ValidatorCheckerNames;
 import org.adl.validator.util.ValidatorKeyNames;
 import org.adl.validator.util.ValidatorMessage;
 import org.adl.validator.util.processor.SchemaHandler;
+import org.adl.validator.util.processor.URIHandler;
 
 /**
  * This checker will validate the xml against the schemas defined in the xml
@@ -20,14 +26,24 @@ import org.adl.validator.util.processor.SchemaHandler;
  * @author ADL Technical Team
  *
  */
-public class SchemaValidationChecker extends PackageChecker
+public class SchemaValidationChecker extends PackageChecker 
+   implements CacheablePackageChecker
 {
+   /**
+    * The version of this checker, used to key its cached Results
+    */
+   private static final String CHECKER_VERSION = "1";
 
    /**
     * String representing the full path of the imsmanifest.xml file
     */
    final private String mIMSManifestFile;
    
+   /**
+    * The schemaLocation list of the xml instance, null until it is created
+    */
+   private String mSchemaLocationList;
+   
    /**
     * Default Constructor. Sets the attributes to their initial values.
     */
@@ -43,6 +59,107 @@ public class SchemaValidationChecker extends PackageChecker
       mResult.setPackageCheckerName(ValidatorCheckerNames.SCHEMA_VAL);
    }
    
+   /* (non-Javadoc)
+    * @see org.adl.validator.packagechecker.CacheablePackageChecker#getCheckerVersion()
+    */
+   public String getCheckerVersion()
+   {
+      return CHECKER_VERSION;
+   }
+   
+   /**
+    * Provides the xml instance along with every controlling document that 
+    * could take part in its validation.  Since schemas may import or include
+    * other schemas, every .xsd and .dtd file under the directory of each 
+    * local schemaLocation is included.
+    * 
+    * @return List of the paths of the input files, or null if the Result of 
+    * this run cannot be cached
+    */
+   public List<String> getInputFiles()
+   {
+      final Object rootDir = 
+         CheckerStateData.getInstance().getObjectValue(ValidatorKeyNames.ROOT_DIRECTORY_KEY);
+      if ( mIMSManifestFile == null || rootDir == null )
+      {
+         return null;
+      }
+      
+      final String decodedRoot = URIHandler.decode(rootDir.toString(), URIHandler.ENCODING);
+      final URIHandler uriHandler = new URIHandler();
+      final Set<String> schemaDirectories = new TreeSet<String>();
+      final Set<String> controllingDocuments = new TreeSet<String>();
+      
+      final String schemaLocation[] = getSchemaLocationList().trim().split(" ");
+      for ( int i = 1; i < schemaLocation.length; i = i + 2 )
+      {
+         if ( !URIHandler.isURL(schemaLocation[i]) )
+         {
+            final String location = uriHandler.escapeDirectories(
+               URIHandler.decode(decodedRoot + schemaLocation[i], URIHandler.ENCODING));
+            final File schemaDirectory = new File(location).getAbsoluteFile().getParentFile();
+            if ( schemaDirectory != null )
+            {
+               schemaDirectories.add(schemaDirectory.getAbsolutePath());
+            }
+         }
+      }
+      
+      final Iterator<String> dirIter = schemaDirectories.iterator();
+      while ( dirIter.hasNext() )
+      {
+         addControllingDocuments(new File(dirIter.next()), controllingDocuments);
+      }
+      
+      final List<String> inputFiles = new ArrayList<String>();
+      inputFiles.add(URIHandler.decode(mIMSManifestFile, URIHandler.ENCODING));
+      inputFiles.addAll(controllingDocuments);
+      return inputFiles;
+   }
+   
+   /**
+    * Recursively adds the .xsd and .dtd files found under the given directory.
+    * 
+    * @param iDirectory - The directory to search
+    * @param ioDocuments - The Set the paths are added to
+    */
+   private void addControllingDocuments(File iDirectory, Set<String> ioDocuments)
+   {
+      final File[] contents = iDirectory.listFiles();
+      if ( contents == null )
+      {
+         return;
+      }
+      for ( int i = 0; i < contents.length; i++ )
+      {
+         final String name = contents[i].getName().toLowerCase();
+         if ( contents[i].isDirectory() )
+         {
+            addControllingDocuments(contents[i], ioDocuments);
+         }
+         else if ( name.endsWith(".xsd") || name.endsWith(".dtd") )
+         {
+            ioDocuments.add(contents[i].getAbsolutePath());
+         }
+      }
+   }
+   
+   /**
+    * Creates the schemaLocation list of the xml instance the first time it is
+    * requested.
+    * 
+    * @return String containing the schemaLocation list
+    */
+   private String getSchemaLocationList()
+   {
+      if ( mSchemaLocationList == null )
+      {
+         final SchemaHandler handler = new SchemaHandler(mIMSManifestFile);
+         mSchemaLocationList = handler.createSchemaLocationList();
+      }
+      return mSchemaLocationList;
+   }
+   
    /* (non-Javadoc)
     * @see org.adl.validator.packagechecker.PackageChecker#check()
     */
@@ -62,9 +179,7 @@ public class SchemaValidationChecker extends PackageChecker
          mResult.setCheckerSkipped(false);
          
          // Obtain schemaLocation list
-         final SchemaHandler handler = new SchemaHandler(mIMSManifestFile);         
-         
-         final SchemaValidationDOMParser schemaValidationParser = new SchemaValidationDOMParser(handler.createSchemaLocationList(), rootDir);
+         final SchemaValidationDOMParser schemaValidationParser = new SchemaValidationDOMParser(getSchemaLocationList(), rootDir);
          
          mResult.addPackageCheckerMessage(new ValidatorMessage(ValidatorMessage.INFO,
                Messages.getString("SchemaValidationChecker.1")));
@@ -1,8 +1,10 @@
 package org.adl.validator.packagechecker.checks;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
+import org.adl.validator.packagechecker.CacheablePackageChecker;
 import org.adl.validator.packagechecker.PackageChecker;
 import org.adl.validator.packagechecker.parsers.WellformednessSaxParser;
 import org.adl.validator.util.CheckerStateData;
@@ -11,6 +13,7 @@ import org.adl.validator.util.Result;
 import org.adl.validator.util.ValidatorCheckerNames;
 import org.adl.validator.util.ValidatorKeyNames;
 import org.adl.validator.util.ValidatorMessage;
+import org.adl.validator.util.processor.URIHandler;
 
 /**
  * This checker will determine if the xml instance is wellformed
@@ -18,8 +21,14 @@ import org.adl.validator.util.ValidatorMessage;
  * @author ADL Technical Team
  *
  */
-public class WellformednessChecker extends PackageChecker
+public class WellformednessChecker extends PackageChecker 
+   implements CacheablePackageChecker
 {
+   /**
+    * The version of this checker, used to key its cached Results
+    */
+   private static final String CHECKER_VERSION = "1";
+   
    /**
     * String representing the full path of the imsmanifest.xml file
     */
@@ -40,6 +49,28 @@ public class WellformednessChecker extends PackageChecker
       mResult.setPackageCheckerName(ValidatorCheckerNames.WELLFORM); 
    }
    
+   /* (non-Javadoc)
+    * @see org.adl.validator.packagechecker.CacheablePackageChecker#getCheckerVersion()
+    */
+   public String getCheckerVersion()
+   {
+      return CHECKER_VERSION;
+   }
+   
+   /* (non-Javadoc)
+    * @see org.adl.validator.packagechecker.CacheablePackageChecker#getInputFiles()
+    */
+   public List<String> getInputFiles()
+   {
+      if ( mIMSManifestFile == null )
+      {
+         return null;
+      }
+      final List<String> inputFiles = new ArrayList<String>();
+      inputFiles.add(URIHandler.decode(mIMSManifestFile, URIHandler.ENCODING));
+      return inputFiles;
+   }
+   
    /* (non-Javadoc)
     * @see org.adl.validator.packagechecker.PackageChecker#check()
     */
@@ -0,0 +1,426 @@
+package org.adl.validator.packagechecker.parsers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.adl.validator.util.processor.URIHandler;
+import org.xml.sax.Attributes;
+
+/**
+ * This class holds the parts of a manifest that the schematron rules look up
+ * by identifier: the resources of the root manifest with their files and
+ * dependencies, the sequencing elements of the root organizations that
+ * reference a sequencing collection, and the objectives of the sequencing
+ * collection.  The index is built from the SAX events of a single parse, so
+ * the lookups do not have to search the JDOM tree of the manifest.  Only the
+ * attribute values needed by the lookups are kept.
+ *
+ * @author ADL Technical Team
+ *
+ */
+final class ManifestIndex
+{
+   /**
+    * This String contains the IMSCP name-space
+    */
+   private static final String IMSCP = "http://www.imsglobal.org/xsd/imscp_v1p1";
+
+   /**
+    * This String contains the IMSSS name-space
+    */
+   private static final String IMSSS = "http://www.imsglobal.org/xsd/imsss";
+
+   /**
+    * This String contains the XML name-space
+    */
+   private static final String XML = "http://www.w3.org/XML/1998/namespace";
+
+   /**
+    * The resources of the root manifest, by their whitespace normalized
+    * identifier
+    */
+   private final Map<String, Resource> mResources = new HashMap<String, Resource>();
+
+   /**
+    * The sequencing elements of the root organizations, by their whitespace
+    * normalized IDRef
+    */
+   private final Map<String, List<Sequencing>> mReferencingSequencing =
+      new HashMap<String, List<Sequencing>>();
+
+   /**
+    * The objectiveIDs of the sequencing elements of the sequencing collection,
+    * by their whitespace normalized ID
+    */
+   private final Map<String, List<String>> mCollectionObjectives =
+      new HashMap<String, List<String>>();
+
+   /**
+    * The elements enclosing the current element of the parse, starting with
+    * the root element
+    */
+   private final List<Frame> mOpenElements = new ArrayList<Frame>();
+
+   /**
+    * Records the start of an element
+    *
+    * @param iNamespaceURI The name-space of the element
+    * @param iLocalName The local name of the element
+    * @param iAttrs The attributes of the element
+    */
+   void startElement(String iNamespaceURI, String iLocalName, Attributes iAttrs)
+   {
+      int depth = mOpenElements.size();
+      Frame frame = new Frame(iNamespaceURI, iLocalName, iAttrs.getValue("identifier"));
+      boolean inRootManifest = depth > 0 && mOpenElements.get(0).is(IMSCP, "manifest");
+
+      if ( inRootManifest && depth == 2 && frame.is(IMSCP, "resource") &&
+           mOpenElements.get(1).is(IMSCP, "resources") )
+      {
+         String identifier = normalizeSpace(frame.mIdentifier);
+         Resource resource = mResources.get(identifier);
+         if ( resource == null )
+         {
+            resource = new Resource(iAttrs.getValue("href"), iAttrs.getValue(XML, "base"));
+            mResources.put(identifier, resource);
+         }
+         resource.mCount++;
+         frame.mResource = resource;
+      }
+      else if ( depth == 3 && mOpenElements.get(2).mResource != null )
+      {
+         Resource resource = mOpenElements.get(2).mResource;
+         if ( resource.mCount == 1 )
+         {
+            if ( frame.is(IMSCP, "file") && iAttrs.getValue("href") != null )
+            {
+               resource.mFileHrefs.add(iAttrs.getValue("href"));
+            }
+            else if ( frame.is(IMSCP, "dependency") )
+            {
+               resource.mDependencies.add(iAttrs.getValue("identifierref"));
+            }
+         }
+      }
+      else if ( inRootManifest && depth > 2 && frame.is(IMSSS, "sequencing") &&
+                mOpenElements.get(1).is(IMSCP, "organizations") &&
+                mOpenElements.get(2).is(IMSCP, "organization") )
+      {
+         String idRef = normalizeSpace(iAttrs.getValue("IDRef"));
+         List<Sequencing> sequencing = mReferencingSequencing.get(idRef);
+         if ( sequencing == null )
+         {
+            sequencing = new ArrayList<Sequencing>(1);
+            mReferencingSequencing.put(idRef, sequencing);
+         }
+         frame.mSequencing = new Sequencing(mOpenElements.get(depth - 1).mIdentifier);
+         sequencing.add(frame.mSequencing);
+      }
+      else if ( inRootManifest && depth == 2 && frame.is(IMSSS, "sequencing") &&
+                mOpenElements.get(1).is(IMSSS, "sequencingCollection") )
+      {
+         String id = normalizeSpace(iAttrs.getValue("ID"));
+         List<String> objectives = mCollectionObjectives.get(id);
+         if ( objectives == null )
+         {
+            objectives = new ArrayList<String>(1);
+            mCollectionObjectives.put(id, objectives);
+         }
+         frame.mObjectives = objectives;
+      }
+      else if ( depth > 2 && iAttrs.getValue("objectiveID") != null &&
+                ( frame.is(IMSSS, "primaryObjective") || frame.is(IMSSS, "objective") ) &&
+                mOpenElements.get(depth - 1).is(IMSSS, "objectives") )
+      {
+         Frame sequencing = mOpenElements.get(depth - 2);
+         String objectiveID = URIHandler.processWhitespace(iAttrs.getValue("objectiveID"));
+         if ( sequencing.mSequencing != null )
+         {
+            sequencing.mSequencing.mObjectiveIDs.add(objectiveID);
+         }
+         else if ( sequencing.mObjectives != null )
+         {
+            sequencing.mObjectives.add(objectiveID);
+         }
+      }
+
+      mOpenElements.add(frame);
+   }
+
+   /**
+    * Records the end of an element
+    */
+   void endElement()
+   {
+      mOpenElements.remove(mOpenElements.size() - 1);
+   }
+
+   /**
+    * Returns the number of resources of the root manifest with the given
+    * identifier
+    *
+    * @param iIdentifier The whitespace normalized identifier
+    * @return The number of resources with the identifier
+    */
+   int getResourceCount(String iIdentifier)
+   {
+      Resource resource = mResources.get(iIdentifier);
+      return ( resource == null ) ? 0 : resource.mCount;
+   }
+
+   /**
+    * Returns the href attribute of the resource with the given identifier
+    *
+    * @param iIdentifier The whitespace normalized identifier of a resource
+    *           that appears once in the root manifest
+    * @return The href attribute, or null if the resource has none
+    */
+   String getResourceHref(String iIdentifier)
+   {
+      return mResources.get(iIdentifier).mHref;
+   }
+
+   /**
+    * Returns the xml:base attribute of the resource with the given identifier
+    *
+    * @param iIdentifier The whitespace normalized identifier of a resource
+    *           that appears once in the root manifest
+    * @return The xml:base attribute, or null if the resource has none
+    */
+   String getResourceXMLBase(String iIdentifier)
+   {
+      return mResources.get(iIdentifier).mXMLBase;
+   }
+
+   /**
+    * Returns the href attributes of the file elements of the resource with the
+    * given identifier
+    *
+    * @param iIdentifier The whitespace normalized identifier of a resource
+    *           that appears once in the root manifest
+    * @return The href attributes, in document order
+    */
+   List<String> getResourceFileHrefs(String iIdentifier)
+   {
+      return mResources.get(iIdentifier).mFileHrefs;
+   }
+
+   /**
+    * Returns the identifierref attributes of the dependency elements of the
+    * resource with the given identifier
+    *
+    * @param iIdentifier The whitespace normalized identifier of a resource
+    *           that appears once in the root manifest
+    * @return The identifierref attributes, in document order
+    */
+   List<String> getResourceDependencies(String iIdentifier)
+   {
+      return mResources.get(iIdentifier).mDependencies;
+   }
+
+   /**
+    * Returns the sequencing elements of the root organizations that reference
+    * the given sequencing collection ID
+    *
+    * @param iID The whitespace normalized ID
+    * @return The sequencing elements, in document order
+    */
+   List<Sequencing> getReferencingSequencing(String iID)
+   {
+      List<Sequencing> sequencing = mReferencingSequencing.get(iID);
+      if ( sequencing == null )
+      {
+         return Collections.emptyList();
+      }
+      return sequencing;
+   }
+
+   /**
+    * Returns the objectiveIDs of the sequencing collection elements with the
+    * given ID
+    *
+    * @param iID The whitespace normalized ID
+    * @return The objectiveIDs, with their whitespace processed
+    */
+   List<String> getCollectionObjectives(String iID)
+   {
+      List<String> objectives = mCollectionObjectives.get(iID);
+      if ( objectives == null )
+      {
+         return Collections.emptyList();
+      }
+      return objectives;
+   }
+
+   /**
+    * Normalizes the whitespace of a value as the XPath normalize-space()
+    * function does
+    *
+    * @param iValue The value, or null
+    * @return The normalized value, the empty String if the value is null
+    */
+   static String normalizeSpace(String iValue)
+   {
+      if ( iValue == null )
+      {
+         return "";
+      }
+
+      StringBuilder normalized = new StringBuilder(iValue.length());
+      boolean space = false;
+      for ( int i = 0; i < iValue.length(); i++ )
+      {
+         char c = iValue.charAt(i);
+         if ( c == ' ' || c == '\t' || c == '\n' || c == '\r' )
+         {
+            space = normalized.length() > 0;
+         }
+         else
+         {
+            if ( space )
+            {
+               normalized.append(' ');
+               space = false;
+            }
+            normalized.append(c);
+         }
+      }
+      return normalized.toString();
+   }
+
+   /**
+    * A resource of the root manifest
+    */
+   private static final class Resource
+   {
+      /**
+       * The href attribute of the resource
+       */
+      final String mHref;
+
+      /**
+       * The xml:base attribute of the resource
+       */
+      final String mXMLBase;
+
+      /**
+       * The href attributes of the file elements of the resource
+       */
+      final List<String> mFileHrefs = new ArrayList<String>(1);
+
+      /**
+       * The identifierref attributes of the dependency elements of the resource
+       */
+      final List<String> mDependencies = new ArrayList<String>(0);
+
+      /**
+       * The number of resources sharing the identifier
+       */
+      int mCount = 0;
+
+      /**
+       * Overloaded constructor
+       *
+       * @param iHref The href attribute of the resource
+       * @param iXMLBase The xml:base attribute of the resource
+       */
+      Resource(String iHref, String iXMLBase)
+      {
+         mHref = iHref;
+         mXMLBase = iXMLBase;
+      }
+   }
+
+   /**
+    * A sequencing element of the root organizations
+    */
+   static final class Sequencing
+   {
+      /**
+       * The identifier attribute of the element enclosing the sequencing
+       */
+      final String mParentIdentifier;
+
+      /**
+       * The objectiveIDs of the objectives of the sequencing, with their
+       * whitespace processed
+       */
+      final List<String> mObjectiveIDs = new ArrayList<String>(1);
+
+      /**
+       * Overloaded constructor
+       *
+       * @param iParentIdentifier The identifier attribute of the element
+       *           enclosing the sequencing
+       */
+      Sequencing(String iParentIdentifier)
+      {
+         mParentIdentifier = iParentIdentifier;
+      }
+   }
+
+   /**
+    * An element that has been started but not ended
+    */
+   private static final class Frame
+   {
+      /**
+       * The name-space of the element
+       */
+      final String mNamespaceURI;
+
+      /**
+       * The local name of the element
+       */
+      final String mLocalName;
+
+      /**
+       * The identifier attribute of the element
+       */
+      final String mIdentifier;
+
+      /**
+       * The resource, if the element is an indexed resource
+       */
+      Resource mResource;
+
+      /**
+       * The sequencing, if the element is an indexed organization sequencing
+       */
+      Sequencing mSequencing;
+
+      /**
+       * The objectiveIDs, if the element is a sequencing collection sequencing
+       */
+      List<String> mObjectives;
+
+      /**
+       * Overloaded constructor
+       *
+       * @param iNamespaceURI The name-space of the element
+       * @param iLocalName The local name of the element
+       * @param iIdentifier The identifier attribute of the element
+       */
+      Frame(String iNamespaceURI, String iLocalName, String iIdentifier)
+      {
+         mNamespaceURI = iNamespaceURI;
+         mLocalName = iLocalName;
+         mIdentifier = iIdentifier;
+      }
+
+      /**
+       * Tests the name of the element
+       *
+       * @param iNamespaceURI The name-space
+       * @param iLocalName The local name
+       * @return true if the element has the given name
+       */
+      boolean is(String iNamespaceURI, String iLocalName)
+      {
+         return mLocalName.equals(iLocalName) && mNamespaceURI.equals(iNamespaceURI);
+      }
+   }
+}
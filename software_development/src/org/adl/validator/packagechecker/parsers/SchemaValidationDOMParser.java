@@ -6,6 +6,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.adl.util.SchemaCatalog;
 import org.adl.validator.util.Messages;
 import org.adl.validator.util.ValidatorMessage;
 import org.adl.validator.util.processor.FileHandler;
@@ -134,6 +135,7 @@ public class SchemaValidationDOMParser implements ErrorHandler
                mParser.setProperty("http://apache.org/xml/properties/schema/external-schemaLocation", mSchemaLocation);
 
                mParser.setErrorHandler(this);
+               mParser.setEntityResolver(SchemaCatalog.getInstance());
             }
             catch ( SAXException se )
             {
@@ -7,19 +7,26 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URLEncoder;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.sax.SAXResult;
+import javax.xml.transform.sax.SAXSource;
 import javax.xml.transform.stream.StreamSource;
 
+import org.adl.util.SchemaCatalog;
 import org.adl.validator.util.CheckerStateData;
 import org.adl.validator.util.Messages;
 import org.adl.validator.util.ValidatorKeyNames;
 import org.adl.validator.util.ValidatorMessage;
+import org.adl.validator.util.metrics.ValidatorMetrics;
 import org.adl.validator.util.processor.ParameterHandler;
 import org.adl.validator.util.processor.URIHandler;
 import org.jdom.Attribute;
@@ -31,6 +38,11 @@ import org.jdom.input.SAXBuilder;
 import org.jdom.transform.JDOMResult;
 import org.jdom.transform.JDOMSource;
 import org.jdom.xpath.XPath;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.XMLFilterImpl;
 
 import net.sf.saxon.TransformerFactoryImpl;
 
@@ -66,14 +78,9 @@ public class SchematronValidationDOMParser
    static final int KILOBYTE = 1024;
 
    /**
-    * A Document containing the xml instance to be validated
+    * A Set of visited resources
     */
-   private static Document mXMLInstance;
-
-   /**
-    * A List of visited resources
-    */
-   private static List<String> mResourceList;
+   private static Set<String> mResourceList;
 
    /**
     * A URIHandler object used to process URI values
@@ -91,6 +98,12 @@ public class SchematronValidationDOMParser
     */
    private static List<String> mIDList;
    
+   /**
+    * An index of the resources and objectives of the root manifest, used by
+    * the static methods called from Schematron
+    */
+   private static ManifestIndex mManifestIndex;
+   
    /**
     * A List of error messages resulting from the testing of referencedObjectives
     */
@@ -137,6 +150,7 @@ public class SchematronValidationDOMParser
    {
       mBuilder = new SAXBuilder(/*"org.apache.xerces.parsers.SAXParser"*/);
       mBuilder.setReuseParser(false);
+      mBuilder.setEntityResolver(SchemaCatalog.getInstance());
       mErrorMessages = new ArrayList<ValidatorMessage>();
       mValidateSubmanifest = iValidateSubmanifest;
       mDoesSubmanifestExist = false; 
@@ -157,13 +171,16 @@ public class SchematronValidationDOMParser
       {
          boolean success = true;
          
-         // SAX Parse the XML File to get lists of its identifiers for later use
+         // SAX Parse the XML File to get lists of its identifiers and an index
+         // of its resources and objectives for later use
          mIdentiferList = 
             (List<String>)CheckerStateData.getInstance().getObjectValue(ValidatorKeyNames.IDENTIFIER_LIST);
          mIDList = 
             (List<String>)CheckerStateData.getInstance().getObjectValue(ValidatorKeyNames.ID_LIST);
+         mManifestIndex = 
+            (ManifestIndex)CheckerStateData.getInstance().getObjectValue(ValidatorKeyNames.MANIFEST_INDEX_KEY);
          
-         if ( mIdentiferList == null || mIDList == null )
+         if ( mIdentiferList == null || mIDList == null || mManifestIndex == null )
          {
             UniqueIDSaxParser uniqueParser = new UniqueIDSaxParser();
             success = uniqueParser.performParse(iFile);
@@ -172,6 +189,7 @@ public class SchematronValidationDOMParser
             {
                mIdentiferList = uniqueParser.getIdentiferList();
                mIDList = uniqueParser.getIDList();
+               mManifestIndex = uniqueParser.getManifestIndex();
                
                //Store the lists in CheckerStateData for later use
                CheckerStateData.getInstance().
@@ -183,6 +201,11 @@ public class SchematronValidationDOMParser
                   setObject(ValidatorKeyNames.ID_LIST, mIDList);
                CheckerStateData.getInstance().
                   addReservedKey(ValidatorKeyNames.ID_LIST);
+               
+               CheckerStateData.getInstance().
+                  setObject(ValidatorKeyNames.MANIFEST_INDEX_KEY, mManifestIndex);
+               CheckerStateData.getInstance().
+                  addReservedKey(ValidatorKeyNames.MANIFEST_INDEX_KEY);
            }
          }
          
@@ -196,39 +219,14 @@ public class SchematronValidationDOMParser
          // Clean up unused DOM objects
          newSchematronSchema = null;
          
-         // Try to get JDom object of xml instance from CheckerStateData
-         mXMLInstance = (Document)CheckerStateData.getInstance().getObjectValue(ValidatorKeyNames.XML_FILE_JDOM_KEY);
-         if ( mXMLInstance == null )
-         {
-            // The instance was not in memory, parse and create it
-            mXMLInstance = parse(iFile);            
-            
-            // Store the JDom tree for later use
-            CheckerStateData.getInstance().setObject(ValidatorKeyNames.XML_FILE_JDOM_KEY, mXMLInstance);
-            CheckerStateData.getInstance().addReservedKey(ValidatorKeyNames.XML_FILE_JDOM_KEY);
-         }
-
-         // Test to see if submanifest is present
-         XPath subManifest = XPath.newInstance("imscp:manifest/imscp:manifest");         
-         subManifest.addNamespace("imscp", IMSCP);
-         int submanifestCount = subManifest.selectNodes(mXMLInstance).size();
-         if ( submanifestCount > 0 )
-         {
-            mDoesSubmanifestExist = true;
-         }
-         
-         // If XML is not to be validated including submanifests, remove the submanifests
-         if ( !mValidateSubmanifest && mDoesSubmanifestExist )
-         {
-            Namespace ns = Namespace.getNamespace(IMSCP);
-            mXMLInstance.getRootElement().removeChildren("manifest", ns);
-         }
-         
-         // Validate the xml instance against the schematron rules
-         List  messageList = transform(mXMLInstance, transform);
+         // Validate the xml instance against the schematron rules.  The
+         // instance is streamed into the transform, without building a JDOM
+         // tree of it, and the identifier, idref and href lookups of the rules
+         // are answered from the index built above
+         List messageList = transform(iFile, transform);
          
          // Clean up unused DOM objects
-         mXMLInstance = null;
+         mManifestIndex = null;
          transform = null;
          
          // Uncomment to output full schematron results
@@ -241,13 +239,6 @@ public class SchematronValidationDOMParser
          
          return success;
       }
-      catch ( JDOMException jde )
-      {
-         jde.printStackTrace();
-         mErrorMessages.add(new ValidatorMessage(ValidatorMessage.FAILED,
-               Messages.getString("SchematronValidationDOMParser.5")));
-         return false;
-      }
       catch ( NullPointerException npe )
       {
          npe.printStackTrace();
@@ -262,31 +253,6 @@ public class SchematronValidationDOMParser
       // }
    }
    
-   /**
-    * This method parses a file to create a Document object
-    * 
-    * @param iFile The file to be parsed
-    * @return A Document object containing the file
-    */
-   private Document parse(String iFile)
-   {
-      String decodedFile = URIHandler.decode(iFile, URIHandler.ENCODING);
-      try
-      {
-         FileInputStream fis = new FileInputStream(decodedFile);
-         return parse(fis);
-      }
-      catch ( IOException ioe )
-      {
-         //ioe.printStackTrace();
-         String msg = 
-            Messages.getString("SchematronValidationDOMParser.7");
-         ValidatorMessage message = new ValidatorMessage(ValidatorMessage.FAILED, msg);
-         mErrorMessages.add(message);
-         return null;
-      }      
-   }
-   
    /**
     * This method parses an inputStream to create a Document object
     * 
@@ -368,20 +334,34 @@ public class SchematronValidationDOMParser
    }
    
    /**
-    * This method will execute a transform on the given Document using the given
-    * transform
+    * This method will execute a transform on the given xml instance using the
+    * given transform.  The instance is read from the file as a stream of SAX
+    * events; submanifests are dropped from the stream unless they are to be
+    * validated.
     * 
-    * @param iDoc The Document to be transformed
+    * @param iFile The location of the xml instance to be transformed
     * @param iTransform The transformed to be used to transform the document
-    * @return A new Document object containing the transformed Document
+    * @return A List of the messages resulting from the transform, or null if
+    *         the transform failed
     */
-   private List transform(Document iDoc, Document iTransform)
+   private List transform(String iFile, Document iTransform)
    {
+      String decodedFile = URIHandler.decode(iFile, URIHandler.ENCODING);
+      InputStream in = null;
       try
       {
+         in = new FileInputStream(decodedFile);
+         ValidatorMetrics.recordDocumentParsed(new File(decodedFile).length());
+         
          // Create sources from transform and xml instance
+         SAXParserFactory parserFactory = SAXParserFactory.newInstance();
+         parserFactory.setNamespaceAware(true);
+         XMLReader reader = parserFactory.newSAXParser().getXMLReader();
+         reader.setEntityResolver(SchemaCatalog.getInstance());
+         
          JDOMSource transformSource = new JDOMSource(iTransform);
-         JDOMSource docSource = new JDOMSource(iDoc);
+         SAXSource docSource = 
+            new SAXSource(new SubmanifestFilter(reader), new InputSource(in));
          
          // Create and call a transformer from the saxon 8 parser
          TransformerFactoryImpl transformFactory = new TransformerFactoryImpl();
@@ -395,6 +375,33 @@ public class SchematronValidationDOMParser
          
          return handler.getResultMessages();
       }
+      catch ( IOException ioe )
+      {
+         //ioe.printStackTrace();
+         String msg = 
+            Messages.getString("SchematronValidationDOMParser.7");
+         ValidatorMessage message = new ValidatorMessage(ValidatorMessage.FAILED, msg);
+         mErrorMessages.add(message);
+         return null;
+      }
+      catch ( ParserConfigurationException pce )
+      {
+         //pce.printStackTrace();
+         String msg = 
+            Messages.getString("SchematronValidationDOMParser.8");
+         ValidatorMessage message = new ValidatorMessage(ValidatorMessage.FAILED, msg);
+         mErrorMessages.add(message);
+         return null;
+      }
+      catch ( SAXException se )
+      {
+         //se.printStackTrace();
+         String msg = 
+            Messages.getString("SchematronValidationDOMParser.8");
+         ValidatorMessage message = new ValidatorMessage(ValidatorMessage.FAILED, msg);
+         mErrorMessages.add(message);
+         return null;
+      }
       catch ( TransformerConfigurationException tce )
       {
          //tce.printStackTrace();
@@ -413,6 +420,20 @@ public class SchematronValidationDOMParser
          mErrorMessages.add(message);
          return null;
       }
+      finally
+      {
+         if ( in != null )
+         {
+            try
+            {
+               in.close();
+            }
+            catch ( IOException ioe )
+            {
+               // The transform is already complete
+            }
+         }
+      }
    }
    
    /**
@@ -522,54 +543,42 @@ public class SchematronValidationDOMParser
     */
    public static String checkHref(String iResourceID)
    {
-      if ( iResourceID == null )
+      if ( iResourceID == null || mManifestIndex == null )
       {
          return "false";
       }
       
-      mResourceList = new ArrayList();
+      mResourceList = new HashSet<String>();
       
-      try
+      // If the resource identifier is not unique, or the resource is not one
+      // of the root manifest, we do not want to test it
+      String identifier = iResourceID.trim();
+      if ( mManifestIndex.getResourceCount(identifier) != 1 )
       {
-         XPath resourcePath = XPath.newInstance("imscp:manifest/imscp:resources/imscp:resource[normalize-space(@identifier)='" + iResourceID.trim() + "']");
-         resourcePath.addNamespace("imscp", IMSCP);
-         List resources = resourcePath.selectNodes(mXMLInstance);
-
-         // If the resource identifier, we do not want to test it
-         if( resources.size() > 1 )
-         {
-            return "null";
-         }
-         
-         // Get the href value of the resource
-         Element resourceElement = (Element)resources.get(0);
-         String href = resourceElement.getAttributeValue("href");
-
-         String xmlBase = resourceElement.getAttributeValue("base", XML);
+         return "null";
+      }
+      
+      // Get the href value of the resource
+      String href = mManifestIndex.getResourceHref(identifier);
 
-         if ( xmlBase == null )
-         {
-            xmlBase = "";
-         }
+      String xmlBase = mManifestIndex.getResourceXMLBase(identifier);
 
-         href = mURIHandler.escapeDirectories(xmlBase + href);
+      if ( xmlBase == null )
+      {
+         xmlBase = "";
+      }
 
-         // Remove any parameters if present
-         href = ParameterHandler.removeParameters(href);
-         
-         if ( checkResource(iResourceID, href) )
-         {
-            return "true";
-         }
-         else
-         {
-            return "false";
-         }
+      href = mURIHandler.escapeDirectories(xmlBase + href);
 
+      // Remove any parameters if present
+      href = ParameterHandler.removeParameters(href);
+      
+      if ( checkResource(iResourceID, href) )
+      {
+         return "true";
       }
-      catch ( JDOMException jde )
+      else
       {
-         jde.printStackTrace();
          return "false";
       }
    }
@@ -586,93 +595,50 @@ public class SchematronValidationDOMParser
     */
    public static boolean checkResource(String iResource, String iHref)   
    {
-      try
+      // Check for circular dependency
+      if ( iResource == null || !mResourceList.add(iResource) )
       {
-         // Check for circular dependency
-         if ( mResourceList.contains(iResource) )
-         {
-            return false;
-         }
-         else
-         {
-            mResourceList.add(iResource);
-         }
-         
-         XPath resourcePath = XPath.newInstance("imscp:manifest/imscp:resources/imscp:resource[normalize-space(@identifier)='" + iResource.trim() + "']");
-         resourcePath.addNamespace("imscp", IMSCP);
-         List resources = resourcePath.selectNodes(mXMLInstance);
-         boolean matchFound = false;
-         
-         // Return false, all identifiers must be unique
-         if ( resources.size() > 1 )
+         return false;
+      }
+      
+      // Return false, all identifiers must be unique and dependencies must
+      // reference a resource
+      String identifier = iResource.trim();
+      if ( mManifestIndex.getResourceCount(identifier) != 1 )
+      {
+         return false;
+      }
+      
+      String resourceXMLBase = mManifestIndex.getResourceXMLBase(identifier);
+      if ( resourceXMLBase == null )
+      {
+         resourceXMLBase = "";
+      }
+      
+      // Check file hrefs
+      Iterator<String> fileIter = mManifestIndex.getResourceFileHrefs(identifier).iterator();
+      while ( fileIter.hasNext() )
+      {
+         String fileHref = mURIHandler.escapeDirectories(resourceXMLBase + fileIter.next()); 
+         if ( fileHref.equals(iHref) )
          {
-            return false;
+            return true;
          }
-         else
-         {
-            Element resourceElement = (Element)resources.get(0);
-            
-            String resourceXMLBase = resourceElement.getAttributeValue("base", XML);
-            if ( resourceXMLBase == null )
-            {
-               resourceXMLBase = "";
-            }
-            
-            
-            // Check file hrefs
-            XPath filePath = XPath.newInstance("imscp:file[@href]");
-            filePath.addNamespace("imscp", IMSCP);
-            List files = filePath.selectNodes(resourceElement);
-            
-            Iterator fileIter = files.iterator();
-            while ( fileIter.hasNext() && !matchFound )
-            {
-               Element fileElement = (Element)fileIter.next();
-               String fileHref = 
-                  mURIHandler.escapeDirectories(resourceXMLBase + fileElement.getAttributeValue("href")); 
-               if ( fileHref.equals(iHref) )
-               {
-                  matchFound = true;
-               }
-            }
-            
-            // Check for dependencies if no file match was found
-            if ( !matchFound )
-            {
-               XPath dependencyPath = XPath.newInstance("imscp:dependency");
-               dependencyPath.addNamespace("imscp", IMSCP);
-               List dependencies = dependencyPath.selectNodes(resourceElement);
-               
-               // no dependencies and no match so the check has failed
-               if ( dependencies.size() < 1 )
-               {
-                  return false;
-               }
-               // check dependencies
-               else
-               {
-                  Iterator dependencyIter = dependencies.iterator();
-                  boolean hrefLocated = false;
-                  while ( dependencyIter.hasNext() )
-                  {
-                     String resourceID = ((Element)dependencyIter.next()).getAttributeValue("identifierref");
-                     hrefLocated = checkResource(resourceID, iHref);
-                     if ( hrefLocated )
-                     {
-                        break;                        
-                     }
-                  }
-                  return hrefLocated;
-               }
-            }
-            return matchFound;
-         }         
       }
-      catch ( JDOMException jde )
+      
+      // Check dependencies since no file match was found
+      Iterator<String> dependencyIter = 
+         mManifestIndex.getResourceDependencies(identifier).iterator();
+      while ( dependencyIter.hasNext() )
       {
-         //jde.printStackTrace();
-         return false;
+         if ( checkResource(dependencyIter.next(), iHref) )
+         {
+            return true;
+         }
       }
+      
+      // no dependencies and no match so the check has failed
+      return false;
    }
 
    /**
@@ -722,157 +688,76 @@ public class SchematronValidationDOMParser
     */
    public static boolean isSQReferencedObjectiveValid( String iRefObID, String iID )
    {
-      try
+      if ( mManifestIndex == null )
       {
-         String refObjID = URIHandler.processWhitespace(iRefObID);
-         
-         // Get list of all sequencing elements which reference the given sequencingCollection
-         XPath resourcePath = 
-            XPath.newInstance(
-                  "imscp:manifest/imscp:organizations/imscp:organization//" +
-                  "imsss:sequencing[normalize-space(@IDRef)=normalize-space('" + iID + "')]");
-         resourcePath.addNamespace("imscp", IMSCP);
-         resourcePath.addNamespace("imsss", IMSSS);
-         List sequencing = resourcePath.selectNodes(mXMLInstance);
-         
-        boolean result = true;
-         
-        if ( sequencing.size() > 0 )
-        {
-           Iterator seqIter = sequencing.iterator();
-           while ( seqIter.hasNext() )
-           {              
-              Element e = (Element)seqIter.next();
-              
-              // Get just the objectives element regardless of objectiveID
-              XPath objectivesPath = 
-                 XPath.newInstance(
-                       "imsss:objectives/imsss:primaryObjective[@objectiveID] | imsss:objectives/imsss:objective[@objectiveID]");
-              objectivesPath.addNamespace("imscp", IMSCP);
-              objectivesPath.addNamespace("imsss", IMSSS);
-              List objectives = objectivesPath.selectNodes(e);
-              
-              Iterator objIter = objectives.iterator();
-              boolean objFound = false;
-              while ( !objFound && objIter.hasNext() )
-              {
-                 Element objElement = (Element)objIter.next();
-                 String objID = URIHandler.processWhitespace(objElement.getAttributeValue("objectiveID"));
-                 if ( objID.equals(refObjID) )
-                 {
-                    objFound = true;
-                 }
-              }
-              
-              // It has the objective we need, Pass
-              if ( objFound )
-              {
-                 String msg = Messages.getString("SchematronValidationDOMParser.0", iRefObID, e.getParentElement().getAttributeValue("identifier"));
-                 ValidatorMessage message = new ValidatorMessage(ValidatorMessage.PASSED, msg);
-                 mReferencedObjectiveMessages.add(message);
-              }
-              // It has objectives but not the one we need, Fail
-              else if ( objectives.size() > 0 )
-              {
-                 String msg = Messages.getString("SchematronValidationDOMParser.1", iRefObID, e.getParentElement().getAttributeValue("identifier"));
-                 ValidatorMessage message = new ValidatorMessage(ValidatorMessage.FAILED, msg);
-                 mReferencedObjectiveMessages.add(message);
-                 result = false;
-              }
-              // It has no objectives, look at the collection 
-              else
-              {
-                 XPath sqObjectivesPath = 
-                    XPath.newInstance(
-                          "imscp:manifest/imsss:sequencingCollection/imsss:sequencing" +
-                          "[normalize-space(@ID)=normalize-space('"+iID+"')]/imsss:objectives/imsss:objective[@objectiveID] | " +
-                          "imscp:manifest/imsss:sequencingCollection/imsss:sequencing" +
-                          "[normalize-space(@ID)=normalize-space('"+iID+"')]/imsss:objectives/imsss:primaryObjective[@objectiveID]");
-                 sqObjectivesPath.addNamespace("imscp", IMSCP);
-                 sqObjectivesPath.addNamespace("imsss", IMSSS);
-                 List sqObjectives = sqObjectivesPath.selectNodes(mXMLInstance);
-                 
-                 Iterator sqObjIter = sqObjectives.iterator();
-                 boolean sqObjFound = false;
-                 while ( !sqObjFound && sqObjIter.hasNext() )
-                 {
-                    Element sqObjElement = (Element)sqObjIter.next();
-                    String sqObjID = URIHandler.processWhitespace(sqObjElement.getAttributeValue("objectiveID"));
-                    if ( sqObjID.equals(refObjID) )
-                    {
-                       sqObjFound = true;
-                    }
-                 }
-                 
-                 // The objective is on the collection, Pass
-                 if ( sqObjFound )
-                 {
-                    String msg = Messages.getString("SchematronValidationDOMParser.2", iRefObID, iID);
-                    ValidatorMessage message = new ValidatorMessage(ValidatorMessage.PASSED, msg);
-                    mReferencedObjectiveMessages.add(message);
-                 }
-                 // The objective was not on the collection, Fail
-                 else
-                 {
-                    String msg = Messages.getString("SchematronValidationDOMParser.1", iRefObID, e.getParentElement().getAttributeValue("identifier"));
-                    ValidatorMessage message = new ValidatorMessage(ValidatorMessage.FAILED, msg);
-                    mReferencedObjectiveMessages.add(message);
-                    result = false;
-                    
-                 }
-              }
-           }
-           
-        }
-        // No elements reference this collection, check its referencedObjective value locally
-        else 
-        {
-           XPath sqObjectivesPath = 
-              XPath.newInstance(
-                    "imscp:manifest/imsss:sequencingCollection/imsss:sequencing" +
-                    "[normalize-space(@ID)=normalize-space('"+iID+"')]/imsss:objectives/imsss:objective[@objectiveID] | " +
-                    "imscp:manifest/imsss:sequencingCollection/imsss:sequencing" +
-                    "[normalize-space(@ID)=normalize-space('"+iID+"')]/imsss:objectives/imsss:primaryObjective[@objectiveID]");
-           sqObjectivesPath.addNamespace("imscp", IMSCP);
-           sqObjectivesPath.addNamespace("imsss", IMSSS);
-           List sqObjectives = sqObjectivesPath.selectNodes(mXMLInstance);
-           
-           Iterator sqObjIter = sqObjectives.iterator();
-           boolean sqObjFound = false;
-           while ( !sqObjFound && sqObjIter.hasNext() )
-           {
-              Element sqObjElement = (Element)sqObjIter.next();
-              String sqObjID = URIHandler.processWhitespace(sqObjElement.getAttributeValue("objectiveID"));
-              if ( sqObjID.equals(refObjID) )
-              {
-                 sqObjFound = true;
-              }
-           }
-           
-           // Pass
-           if ( sqObjFound )
-           {
-              String msg = Messages.getString("SchematronValidationDOMParser.2", iRefObID, iID);
-              ValidatorMessage message = new ValidatorMessage(ValidatorMessage.PASSED, msg);
-              mReferencedObjectiveMessages.add(message);
-           }
-           // Fail
-           else
-           {
-              String msg = Messages.getString("SchematronValidationDOMParser.1", iRefObID, iID);
-              ValidatorMessage message = new ValidatorMessage(ValidatorMessage.FAILED, msg);
-              mReferencedObjectiveMessages.add(message);
-              result = false;
-           }
-        }
-        
-        return result;
+         return false;
       }
-      catch ( JDOMException jde )
+      
+      String refObjID = URIHandler.processWhitespace(iRefObID);
+      String id = ManifestIndex.normalizeSpace(iID);
+      
+      // Get list of all sequencing elements which reference the given sequencingCollection
+      List<ManifestIndex.Sequencing> sequencing = mManifestIndex.getReferencingSequencing(id);
+      
+      boolean result = true;
+      
+      if ( sequencing.size() > 0 )
       {
-         jde.printStackTrace();
-         return false;
+         Iterator<ManifestIndex.Sequencing> seqIter = sequencing.iterator();
+         while ( seqIter.hasNext() )
+         {              
+            ManifestIndex.Sequencing seq = seqIter.next();
+            
+            // It has the objective we need, Pass
+            if ( seq.mObjectiveIDs.contains(refObjID) )
+            {
+               String msg = Messages.getString("SchematronValidationDOMParser.0", iRefObID, seq.mParentIdentifier);
+               ValidatorMessage message = new ValidatorMessage(ValidatorMessage.PASSED, msg);
+               mReferencedObjectiveMessages.add(message);
+            }
+            // It has objectives but not the one we need, Fail
+            else if ( seq.mObjectiveIDs.size() > 0 )
+            {
+               String msg = Messages.getString("SchematronValidationDOMParser.1", iRefObID, seq.mParentIdentifier);
+               ValidatorMessage message = new ValidatorMessage(ValidatorMessage.FAILED, msg);
+               mReferencedObjectiveMessages.add(message);
+               result = false;
+            }
+            // It has no objectives, the objective is on the collection, Pass
+            else if ( mManifestIndex.getCollectionObjectives(id).contains(refObjID) )
+            {
+               String msg = Messages.getString("SchematronValidationDOMParser.2", iRefObID, iID);
+               ValidatorMessage message = new ValidatorMessage(ValidatorMessage.PASSED, msg);
+               mReferencedObjectiveMessages.add(message);
+            }
+            // The objective was not on the collection, Fail
+            else
+            {
+               String msg = Messages.getString("SchematronValidationDOMParser.1", iRefObID, seq.mParentIdentifier);
+               ValidatorMessage message = new ValidatorMessage(ValidatorMessage.FAILED, msg);
+               mReferencedObjectiveMessages.add(message);
+               result = false;
+            }
+         }
+      }
+      // No elements reference this collection, check its referencedObjective value locally
+      else if ( mManifestIndex.getCollectionObjectives(id).contains(refObjID) )
+      {
+         // Pass
+         String msg = Messages.getString("SchematronValidationDOMParser.2", iRefObID, iID);
+         ValidatorMessage message = new ValidatorMessage(ValidatorMessage.PASSED, msg);
+         mReferencedObjectiveMessages.add(message);
       }
+      else
+      {
+         // Fail
+         String msg = Messages.getString("SchematronValidationDOMParser.1", iRefObID, iID);
+         ValidatorMessage message = new ValidatorMessage(ValidatorMessage.FAILED, msg);
+         mReferencedObjectiveMessages.add(message);
+         result = false;
+      }
+      
+      return result;
    }
    
    /**
@@ -885,158 +770,247 @@ public class SchematronValidationDOMParser
     */
    public static boolean isSCObjectiveIDValid( String iAdlObID, String iID )
    {
-      try
+      if ( mManifestIndex == null )
       {
-         String adlObjID = URIHandler.processWhitespace(iAdlObID);
+         return false;
+      }
+      
+      String adlObjID = URIHandler.processWhitespace(iAdlObID);
+      String id = ManifestIndex.normalizeSpace(iID);
+      
+      // Get list of all sequencing elements which reference the given sequencingCollection
+      List<ManifestIndex.Sequencing> sequencing = mManifestIndex.getReferencingSequencing(id);
+      
+      boolean result = true;
+      
+      if ( sequencing.size() > 0 )
+      {
+         Iterator<ManifestIndex.Sequencing> seqIter = sequencing.iterator();
+         while ( seqIter.hasNext() )
+         {              
+            ManifestIndex.Sequencing seq = seqIter.next();
+            
+            // It has the objective we need, Pass
+            if ( seq.mObjectiveIDs.contains(adlObjID) )
+            {
+               String msg = Messages.getString("SchematronValidationDOMParser.3", adlObjID);
+               ValidatorMessage message = new ValidatorMessage(ValidatorMessage.PASSED, msg);
+               mReferencedObjectiveMessages.add(message);
+            }
+            // It has objectives but not the one we need, Fail
+            else if ( seq.mObjectiveIDs.size() > 0 )
+            {
+               String msg = Messages.getString("SchematronValidationDOMParser.4", adlObjID);
+               ValidatorMessage message = new ValidatorMessage(ValidatorMessage.FAILED, msg);
+               mReferencedObjectiveMessages.add(message);
+               result = false;
+            }
+            // It has no objectives, the objective is on the collection, Pass
+            else if ( mManifestIndex.getCollectionObjectives(id).contains(adlObjID) )
+            {
+               String msg = Messages.getString("SchematronValidationDOMParser.3", adlObjID);
+               ValidatorMessage message = new ValidatorMessage(ValidatorMessage.PASSED, msg);
+               mReferencedObjectiveMessages.add(message);
+            }
+            // The objective was not on the collection, Fail
+            else
+            {
+               String msg = Messages.getString("SchematronValidationDOMParser.4", adlObjID);
+               ValidatorMessage message = new ValidatorMessage(ValidatorMessage.FAILED, msg);
+               mReferencedObjectiveMessages.add(message);
+               result = false;
+            }
+         }
+      }
+      // No elements reference this collection, check its objectiveID value locally
+      else if ( mManifestIndex.getCollectionObjectives(id).contains(adlObjID) )
+      {
+         // Pass
+         String msg = Messages.getString("SchematronValidationDOMParser.3", adlObjID);
+         ValidatorMessage message = new ValidatorMessage(ValidatorMessage.PASSED, msg);
+         mReferencedObjectiveMessages.add(message);
+      }
+      else
+      {
+         // Fail
+         String msg = Messages.getString("SchematronValidationDOMParser.4", adlObjID);
+         ValidatorMessage message = new ValidatorMessage(ValidatorMessage.FAILED, msg);
+         mReferencedObjectiveMessages.add(message);
+         result = false;
+      }
+      
+      return result;
+   }
+   
+   
+   /**
+    * This filter passes the SAX events of the xml instance on to the
+    * transform.  It records whether the root manifest holds a submanifest, and
+    * drops the submanifests, along with the namespace declarations made on
+    * them, unless they are to be validated.
+    */
+   private final class SubmanifestFilter extends XMLFilterImpl
+   {
+      /**
+       * The depth of the current element, where the root element is 1
+       */
+      private int mDepth = 0;
+      
+      /**
+       * Whether the root element is a manifest element
+       */
+      private boolean mRootIsManifest = false;
+      
+      /**
+       * The depth within the submanifest being dropped, 0 if none is being
+       * dropped
+       */
+      private int mSkipDepth = 0;
+      
+      /**
+       * The prefix mappings started for the next element, as prefix and URI
+       * pairs
+       */
+      private List<String> mPendingMappings = new ArrayList<String>();
+      
+      /**
+       * The number of prefix mappings of the dropped submanifest still to be
+       * ended
+       */
+      private int mSkippedMappings = 0;
+      
+      /**
+       * Overloaded constructor
+       * 
+       * @param iParent The XMLReader reading the xml instance
+       */
+      SubmanifestFilter(XMLReader iParent)
+      {
+         super(iParent);
+      }
+      
+      /* (non-Javadoc)
+       * @see org.xml.sax.helpers.XMLFilterImpl#startPrefixMapping(java.lang.String, java.lang.String)
+       */
+      public void startPrefixMapping(String iPrefix, String iURI)
+      {
+         if ( mSkipDepth == 0 )
+         {
+            mPendingMappings.add(iPrefix);
+            mPendingMappings.add(iURI);
+         }
+      }
+      
+      /* (non-Javadoc)
+       * @see org.xml.sax.helpers.XMLFilterImpl#startElement(java.lang.String, java.lang.String, java.lang.String, org.xml.sax.Attributes)
+       */
+      public void startElement(String iNamespaceURI, String iLocalName,
+                               String iRawName, Attributes iAttrs) throws SAXException
+      {
+         if ( mSkipDepth > 0 )
+         {
+            mSkipDepth++;
+            return;
+         }
          
-         // Get list of all sequencing elements which reference the given sequencingCollection
-         XPath resourcePath = 
-            XPath.newInstance(
-                  "imscp:manifest/imscp:organizations/imscp:organization//" +
-                  "imsss:sequencing[normalize-space(@IDRef)=normalize-space('" + iID + "')]");
-         resourcePath.addNamespace("imscp", IMSCP);
-         resourcePath.addNamespace("imsss", IMSSS);
-         List sequencing = resourcePath.selectNodes(mXMLInstance);
+         mDepth++;
+         if ( mDepth == 1 )
+         {
+            mRootIsManifest = iLocalName.equals("manifest") && IMSCP.equals(iNamespaceURI);
+         }
+         else if ( mDepth == 2 && iLocalName.equals("manifest") && IMSCP.equals(iNamespaceURI) )
+         {
+            if ( mRootIsManifest )
+            {
+               mDoesSubmanifestExist = true;
+            }
+            
+            if ( !mValidateSubmanifest )
+            {
+               mDepth--;
+               mSkipDepth = 1;
+               mSkippedMappings = mPendingMappings.size() / 2;
+               mPendingMappings.clear();
+               return;
+            }
+         }
          
-        boolean result = true;
+         for ( int i = 0; i < mPendingMappings.size(); i += 2 )
+         {
+            super.startPrefixMapping(mPendingMappings.get(i), mPendingMappings.get(i + 1));
+         }
+         mPendingMappings.clear();
          
-        if ( sequencing.size() > 0 )
-        {
-           Iterator seqIter = sequencing.iterator();
-           while ( seqIter.hasNext() )
-           {              
-              Element e = (Element)seqIter.next();
-              
-              // Get just the objectives element regardless of objectiveID
-              XPath objectivesPath = 
-                 XPath.newInstance(
-                       "imsss:objectives/imsss:primaryObjective[@objectiveID] | imsss:objectives/imsss:objective[@objectiveID]");
-              objectivesPath.addNamespace("imscp", IMSCP);
-              objectivesPath.addNamespace("imsss", IMSSS);
-              List objectives = objectivesPath.selectNodes(e);
-              
-              Iterator objIter = objectives.iterator();
-              boolean objFound = false;
-              while ( !objFound && objIter.hasNext() )
-              {
-                 Element objElement = (Element)objIter.next();
-                 String objID = URIHandler.processWhitespace(objElement.getAttributeValue("objectiveID"));
-                 if ( objID.equals(adlObjID) )
-                 {
-                    objFound = true;
-                 }
-              }
-              
-              // It has the objective we need, Pass
-              if ( objFound )
-              {
-                 String msg = Messages.getString("SchematronValidationDOMParser.3", adlObjID);
-                 ValidatorMessage message = new ValidatorMessage(ValidatorMessage.PASSED, msg);
-                 mReferencedObjectiveMessages.add(message);
-              }
-              // It has objectives but not the one we need, Fail
-              else if ( objectives.size() > 0 )
-              {
-                 String msg = Messages.getString("SchematronValidationDOMParser.4", adlObjID);
-                 ValidatorMessage message = new ValidatorMessage(ValidatorMessage.FAILED, msg);
-                 mReferencedObjectiveMessages.add(message);
-                 result = false;
-              }
-              // It has no objectives, look at the collection 
-              else
-              {
-                 XPath sqObjectivesPath = 
-                    XPath.newInstance(
-                          "imscp:manifest/imsss:sequencingCollection/imsss:sequencing" +
-                          "[normalize-space(@ID)=normalize-space('"+iID+"')]/imsss:objectives/imsss:objective[@objectiveID] | " +
-                          "imscp:manifest/imsss:sequencingCollection/imsss:sequencing" +
-                          "[normalize-space(@ID)=normalize-space('"+iID+"')]/imsss:objectives/imsss:primaryObjective[@objectiveID]");
-                 sqObjectivesPath.addNamespace("imscp", IMSCP);
-                 sqObjectivesPath.addNamespace("imsss", IMSSS);
-                 List sqObjectives = sqObjectivesPath.selectNodes(mXMLInstance);
-                 
-                 Iterator sqObjIter = sqObjectives.iterator();
-                 boolean sqObjFound = false;
-                 while ( !sqObjFound && sqObjIter.hasNext() )
-                 {
-                    Element sqObjElement = (Element)sqObjIter.next();
-                    String sqObjID = URIHandler.processWhitespace(sqObjElement.getAttributeValue("objectiveID"));
-                    if ( sqObjID.equals(adlObjID) )
-                    {
-                       sqObjFound = true;
-                    }
-                 }
-                 
-                 // The objective is on the collection, Pass
-                 if ( sqObjFound )
-                 {
-                    String msg = Messages.getString("SchematronValidationDOMParser.3", adlObjID);
-                    ValidatorMessage message = new ValidatorMessage(ValidatorMessage.PASSED, msg);
-                    mReferencedObjectiveMessages.add(message);
-                 }
-                 // The objective was not on the collection, Fail
-                 else
-                 {
-                    String msg = Messages.getString("SchematronValidationDOMParser.4", adlObjID);
-                    ValidatorMessage message = new ValidatorMessage(ValidatorMessage.FAILED, msg);
-                    mReferencedObjectiveMessages.add(message);
-                    result = false;
-                    
-                 }
-              }
-           }
-           
-        }
-        // No elements reference this collection, check its referencedObjective value locally
-        else 
-        {
-           XPath sqObjectivesPath = 
-              XPath.newInstance(
-                    "imscp:manifest/imsss:sequencingCollection/imsss:sequencing" +
-                    "[normalize-space(@ID)=normalize-space('"+iID+"')]/imsss:objectives/imsss:objective[@objectiveID] | " +
-                    "imscp:manifest/imsss:sequencingCollection/imsss:sequencing" +
-                    "[normalize-space(@ID)=normalize-space('"+iID+"')]/imsss:objectives/imsss:primaryObjective[@objectiveID]");
-           sqObjectivesPath.addNamespace("imscp", IMSCP);
-           sqObjectivesPath.addNamespace("imsss", IMSSS);
-           List sqObjectives = sqObjectivesPath.selectNodes(mXMLInstance);
-           
-           Iterator sqObjIter = sqObjectives.iterator();
-           boolean sqObjFound = false;
-           while ( !sqObjFound && sqObjIter.hasNext() )
-           {
-              Element sqObjElement = (Element)sqObjIter.next();
-              String sqObjID = URIHandler.processWhitespace(sqObjElement.getAttributeValue("objectiveID"));
-              if ( sqObjID.equals(adlObjID) )
-              {
-                 sqObjFound = true;
-              }
-           }
-           
-           // Pass
-           if ( sqObjFound )
-           {
-              String msg = Messages.getString("SchematronValidationDOMParser.3", adlObjID);
-              ValidatorMessage message = new ValidatorMessage(ValidatorMessage.PASSED, msg);
-              mReferencedObjectiveMessages.add(message);
-           }
-           // Fail
-           else
-           {
-              String msg = Messages.getString("SchematronValidationDOMParser.4", adlObjID);
-              ValidatorMessage message = new ValidatorMessage(ValidatorMessage.FAILED, msg);
-              mReferencedObjectiveMessages.add(message);
-              result = false;
-           }
-        }
-        
-        return result;
+         super.startElement(iNamespaceURI, iLocalName, iRawName, iAttrs);
       }
-      catch ( JDOMException jde )
+      
+      /* (non-Javadoc)
+       * @see org.xml.sax.helpers.XMLFilterImpl#endElement(java.lang.String, java.lang.String, java.lang.String)
+       */
+      public void endElement(String iNamespaceURI, String iLocalName, String iRawName)
+         throws SAXException
       {
-         jde.printStackTrace();
-         return false;
+         if ( mSkipDepth > 0 )
+         {
+            mSkipDepth--;
+            return;
+         }
+         
+         mDepth--;
+         super.endElement(iNamespaceURI, iLocalName, iRawName);
+      }
+      
+      /* (non-Javadoc)
+       * @see org.xml.sax.helpers.XMLFilterImpl#endPrefixMapping(java.lang.String)
+       */
+      public void endPrefixMapping(String iPrefix) throws SAXException
+      {
+         if ( mSkipDepth > 0 )
+         {
+            return;
+         }
+         
+         if ( mSkippedMappings > 0 )
+         {
+            mSkippedMappings--;
+            return;
+         }
+         
+         super.endPrefixMapping(iPrefix);
+      }
+      
+      /* (non-Javadoc)
+       * @see org.xml.sax.helpers.XMLFilterImpl#characters(char[], int, int)
+       */
+      public void characters(char[] iChars, int iStart, int iLength) throws SAXException
+      {
+         if ( mSkipDepth == 0 )
+         {
+            super.characters(iChars, iStart, iLength);
+         }
+      }
+      
+      /* (non-Javadoc)
+       * @see org.xml.sax.helpers.XMLFilterImpl#ignorableWhitespace(char[], int, int)
+       */
+      public void ignorableWhitespace(char[] iChars, int iStart, int iLength)
+         throws SAXException
+      {
+         if ( mSkipDepth == 0 )
+         {
+            super.ignorableWhitespace(iChars, iStart, iLength);
+         }
+      }
+      
+      /* (non-Javadoc)
+       * @see org.xml.sax.helpers.XMLFilterImpl#processingInstruction(java.lang.String, java.lang.String)
+       */
+      public void processingInstruction(String iTarget, String iData) throws SAXException
+      {
+         if ( mSkipDepth == 0 )
+         {
+            super.processingInstruction(iTarget, iData);
+         }
       }
    }
-   
-   
 }
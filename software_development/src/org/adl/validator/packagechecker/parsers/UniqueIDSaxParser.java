@@ -1,7 +1,9 @@
 package org.adl.validator.packagechecker.parsers;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.adl.validator.util.ValidatorMessage;
 import org.xml.sax.Attributes;
@@ -16,14 +18,14 @@ import org.xml.sax.Attributes;
 public class UniqueIDSaxParser extends ValidatorSaxParser
 {
    /**
-    * A list containing all identifier attributes found in the XML instance
+    * A set containing all identifier attributes found in the XML instance
     */
-   private List<String> mIdentiferList;
+   private Set<String> mIdentiferList;
    
    /**
-    * A list containing all sequencing element ID attributes found in the XML instance
+    * A set containing all sequencing element ID attributes found in the XML instance
     */
-   private List<String> mIDList;
+   private Set<String> mIDList;
    
    /**
     * A List of identifier values which appear more than once in the manifest
@@ -35,15 +37,21 @@ public class UniqueIDSaxParser extends ValidatorSaxParser
     */
    private List<String> mIDDoubles;
    
+   /**
+    * The index of the resources and objectives of the manifest
+    */
+   private ManifestIndex mManifestIndex;
+   
    /**
     * The default constructor
     */
    public UniqueIDSaxParser()
    {
-      mIdentiferList = new ArrayList<String>();
-      mIDList = new ArrayList<String>();
+      mIdentiferList = new HashSet<String>();
+      mIDList = new HashSet<String>();
       mIdentifierDoubles = new ArrayList<String>();
       mIDDoubles = new ArrayList<String>();
+      mManifestIndex = new ManifestIndex();
       
       mParseSuccess = true;
       mParseMessages = new ArrayList<ValidatorMessage>();
@@ -61,6 +69,8 @@ public class UniqueIDSaxParser extends ValidatorSaxParser
    public void startElement(String iNamespaceURI, String iLocalName, 
          String iRawName, Attributes iAttrs) 
    {   
+      mManifestIndex.startElement(iNamespaceURI, iLocalName, iAttrs);
+      
       // We will include sub-manifests in the identifier / ID checking
       
       boolean isManifest = mFileName.indexOf("imsmanifest.xml") != -1;
@@ -77,14 +87,10 @@ public class UniqueIDSaxParser extends ValidatorSaxParser
             value = iAttrs.getValue("identifier");
             if ( value != null )
             {
-               if ( mIdentiferList.contains(value) )
+               if ( !mIdentiferList.add(value) )
                {
                   mIdentifierDoubles.add(value);
                }
-               else
-               {
-                  mIdentiferList.add(value);
-               }
                value = null;
             }
          }
@@ -93,20 +99,28 @@ public class UniqueIDSaxParser extends ValidatorSaxParser
             value = iAttrs.getValue("ID");
             if ( value != null )
             {
-               if ( mIDList.contains(value) )
+               if ( !mIDList.add(value) )
                {
                   mIDDoubles.add(value);
                }
-               else
-               {
-                  mIDList.add(value);
-               }
                value = null;
             }
          }
       }
    }
 
+   /**
+    * This method will record the end of an element
+    * 
+    * @param iNamespaceURI Is a String value which holds the namespace of the element
+    * @param iLocalName Is a String value containing the local name of the element
+    * @param iRawName Is a String value containing the raw name of the element
+    */
+   public void endElement(String iNamespaceURI, String iLocalName, String iRawName)
+   {
+      mManifestIndex.endElement();
+   }
+
    /**
     * This method will return the list of manifest identifiers
     * 
@@ -126,4 +140,15 @@ public class UniqueIDSaxParser extends ValidatorSaxParser
    {
       return mIDDoubles;
    }
+
+   /**
+    * This method will return the index of the resources and objectives of the
+    * root manifest, built during the parse
+    * 
+    * @return The index of the manifest
+    */
+   ManifestIndex getManifestIndex()
+   {
+      return mManifestIndex;
+   }
 }
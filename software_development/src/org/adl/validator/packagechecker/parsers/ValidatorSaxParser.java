@@ -10,6 +10,7 @@ import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 
+import org.adl.util.SchemaCatalog;
 import org.adl.validator.util.Messages;
 import org.adl.validator.util.ValidatorMessage;
 import org.adl.validator.util.processor.FileHandler;
@@ -229,6 +230,21 @@ public abstract class ValidatorSaxParser extends DefaultHandler
 
    
    /** SAX Parser Utility Methods **/     
+   /** EntityResolver methods **/
+
+   /**
+    * This method resolves the schemas and DTDs read during the parse from the
+    * <code>SchemaCatalog</code>
+    * 
+    * @param iPublicId The public id of the entity, or null
+    * @param iSystemId The system id of the entity
+    * @return an InputSource for the entity, or null to open the system id
+    */
+   public InputSource resolveEntity(String iPublicId, String iSystemId)
+   {
+      return SchemaCatalog.getInstance().resolveEntity(iPublicId, iSystemId);
+   }
+
    /** ErrorHandler methods **/
    
    /** Warning. */
@@ -9,6 +9,7 @@ import org.adl.validator.util.CheckerStateData;
 import org.adl.validator.util.Result;
 import org.adl.validator.util.ResultCollection;
 import org.adl.validator.util.ValidatorKeyNames;
+import org.adl.validator.util.cache.ValidationCache;
 import org.adl.validator.util.processor.UnZipHandler;
 
 /**
@@ -110,4 +111,15 @@ public class PackageValidator
    {
       CheckerStateData.getInstance().setObject(ValidatorKeyNames.CHECKER_LIST_KEY, iCheckerList);
    }
+   
+   /**
+    * This method sets the ValidationCache used to reuse the Results of
+    * checkers whose inputs have not changed
+    * 
+    * @param iCache the ValidationCache to use, or null to run every checker
+    */
+   public void setValidationCache(ValidationCache iCache)
+   {
+      CheckerStateData.getInstance().setObject(ValidatorKeyNames.VALIDATION_CACHE_KEY, iCache);
+   }
 }
@@ -8,7 +8,9 @@ import java.util.Map;
 
 /**
  * This class is responsible for holding any information that needs to be 
- * shared between package checkers.
+ * shared between package checkers.  Each thread has its own instance, so 
+ * several validations may run at the same time as long as each one is 
+ * created and executed on a single thread.
  *  
  * @author ADL Technical Team
  *
@@ -16,9 +18,10 @@ import java.util.Map;
 public final class CheckerStateData
 {   
    /**
-    * Instance of the CheckerStateData.
+    * Instance of the CheckerStateData for the current thread.
     */
-   private static CheckerStateData instance;
+   private static final ThreadLocal<CheckerStateData> instance = 
+      new ThreadLocal<CheckerStateData>();
    
    /**
     * Collection that holds the objects that are shared across multiple package 
@@ -42,15 +45,17 @@ public final class CheckerStateData
    /**
     * Returns a protected instance of this class.
     * 
-    * @return An instance of CheckerStateData.
+    * @return The instance of CheckerStateData of the current thread.
     */
    public static CheckerStateData getInstance()
    {
-      if(instance == null)
+      CheckerStateData stateData = instance.get();
+      if(stateData == null)
       {
-         instance = new CheckerStateData();
+         stateData = new CheckerStateData();
+         instance.set(stateData);
       }
-      return instance;
+      return stateData;
    }
 
    /**
@@ -128,11 +133,11 @@ public final class CheckerStateData
    }
    
    /**
-    * Clears the CheckerStateData object
+    * Clears the CheckerStateData object of the current thread
     */
    public final void clearCollection()
    {
-      instance = null;
+      instance.remove();
    }
    
 }
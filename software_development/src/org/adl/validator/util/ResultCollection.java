@@ -3,6 +3,7 @@ package org.adl.validator.util;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.adl.validator.util.metrics.PackageMetrics;
 
 /**
  * Holds all of the results of the package checkers during package validation.
@@ -18,6 +19,12 @@ public class ResultCollection
     */
    private List<Result> mPackageResultsCollection;
    
+   /**
+    * The timing and resource figures collected while the package checkers
+    * were run.
+    */
+   private PackageMetrics mPackageMetrics;
+   
    /**
     * Constructor
     */
@@ -92,7 +99,40 @@ public class ResultCollection
       }
       return allPassed;
    }
+
+   /**
+    * Sets the timing and resource figures collected while the package
+    * checkers were run.
+    * 
+    * @param iPackageMetrics - The figures collected for the package.
+    */
+   public void setPackageMetrics(PackageMetrics iPackageMetrics)
+   {
+      mPackageMetrics = iPackageMetrics;
+   }
    
+   /**
+    * Provides a way to get the timing and resource figures collected while 
+    * the package checkers were run.
+    * 
+    * @return PackageMetrics - The figures collected for the package, or null 
+    * if the package checkers were not run.
+    */
+   public PackageMetrics getPackageMetrics()
+   {
+      return mPackageMetrics;
+   }
    
+   /**
+    * Provides a way to get a JSON summary of the timing and resource figures 
+    * of each package checker.
+    * 
+    * @return String containing the JSON summary, or null if the package 
+    * checkers were not run.
+    */
+   public String getMetricsSummary()
+   {
+      return ( mPackageMetrics == null ) ? null : mPackageMetrics.toJSON();
+   }
 
 }
@@ -42,12 +42,23 @@ public class ValidatorKeyNames
     */
    public static final String ID_LIST = "IDList";
    
+   /**
+    * Holds the ADL reserved key name for the index of the resources and
+    * objectives of the manifest being validated.
+    */
+   public static final String MANIFEST_INDEX_KEY = "manifestIndex";
+   
    /**
     * Holds the ADL reserved key name that indicates if the run of the validator 
     * is a manifest only run.
     */
    public static final String MANIFEST_ONLY_KEY = "manifestOnly";
    
+   /**
+    * Holds the ADL reserved key name for the index of the package directory.
+    */
+   public static final String PACKAGE_DIRECTORY_INDEX_KEY = "packageDirectoryIndex";
+   
    /**
     * Holds the key name that indicates if a list of resource files exist.
     */
@@ -58,6 +69,11 @@ public class ValidatorKeyNames
     */
    public static final String ROOT_DIRECTORY_KEY = "rootDirectory";
    
+   /**
+    * Holds the key name of the ValidationCache used to reuse checker results.
+    */
+   public static final String VALIDATION_CACHE_KEY = "validationCache";
+   
    /**
     * Holds the ADL reserved key for the name of the manifest being validated
     */
@@ -0,0 +1,492 @@
+package org.adl.validator.util.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.adl.validator.packagechecker.CacheablePackageChecker;
+import org.adl.validator.util.CheckerStateData;
+import org.adl.validator.util.Result;
+import org.adl.validator.util.ValidatorKeyNames;
+import org.adl.validator.util.ValidatorMessage;
+
+/**
+ * This class stores the Results of cacheable package checkers on disk so that
+ * validating an unchanged file again does not rerun the checker.  Each entry
+ * is keyed by a hash of the checker, its version, the validation options and
+ * the contents of every input file of the checker.  A changed input file
+ * therefore produces a new key, and stale entries are simply never read again.
+ * The files are hashed every time a key is created, since packages are
+ * extracted to the same directory and a file with the same path, length and
+ * modification time may still have other contents.  Entries that have not
+ * been used for <code>MAX_AGE</code> are removed, and the oldest entries are
+ * removed while the entries take more than <code>MAX_SIZE</code> bytes.
+ *
+ * @author ADL Technical Team
+ *
+ */
+public class ValidationCache
+{
+   /**
+    * The version of the entry format, part of every key
+    */
+   private static final int FORMAT_VERSION = 1;
+
+   /**
+    * The value written at the start of every entry
+    */
+   private static final int MAGIC = 0x41444C56;
+
+   /**
+    * The extension of the entry files
+    */
+   private static final String EXTENSION = ".result";
+
+   /**
+    * The algorithm used to hash keys and file contents
+    */
+   private static final String ALGORITHM = "SHA-1";
+
+   /**
+    * The encoding used for the Strings written to entries and hashes
+    */
+   private static final String ENCODING = "UTF-8";
+
+   /**
+    * The size of the buffer used when hashing files
+    */
+   private static final int BUFFER_SIZE = 8192;
+
+   /**
+    * The largest number of bytes the entries may take
+    */
+   private static final long MAX_SIZE = 64L * 1024 * 1024;
+
+   /**
+    * The time, in milliseconds, after which an unused entry is removed
+    */
+   private static final long MAX_AGE = 30L * 24 * 60 * 60 * 1000;
+
+   /**
+    * The number of entries stored between two prunings of the directory
+    */
+   private static final int PRUNE_INTERVAL = 64;
+
+   /**
+    * The directory holding the entries
+    */
+   private final File mCacheDirectory;
+
+   /**
+    * The number of entries stored since the directory was last pruned
+    */
+   private int mPutCount = 0;
+
+   /**
+    * Overload Constructor.
+    *
+    * @param iCacheDirectory - The directory holding the entries, created if it
+    * does not exist
+    */
+   public ValidationCache(File iCacheDirectory)
+   {
+      mCacheDirectory = iCacheDirectory;
+      mCacheDirectory.mkdirs();
+      prune();
+   }
+
+   /**
+    * Returns the ValidationCache set for the current validation.
+    *
+    * @return The ValidationCache stored in CheckerStateData, or null if the
+    * validation is not cached
+    */
+   public static ValidationCache getInstance()
+   {
+      final Object cache =
+         CheckerStateData.getInstance().getObjectValue(ValidatorKeyNames.VALIDATION_CACHE_KEY);
+      return ( cache instanceof ValidationCache ) ? (ValidationCache)cache : null;
+   }
+
+   /**
+    * Creates the key of the given checker for the current validation.
+    *
+    * @param iChecker - The checker to create the key for
+    * @return String containing the key, or null if the Result of the checker
+    * cannot be cached
+    */
+   public String createKey(CacheablePackageChecker iChecker)
+   {
+      final List<String> inputFiles = iChecker.getInputFiles();
+      if ( inputFiles == null )
+      {
+         return null;
+      }
+
+      final CheckerStateData stateData = CheckerStateData.getInstance();
+      try
+      {
+         final MessageDigest digest = MessageDigest.getInstance(ALGORITHM);
+         update(digest, Integer.toString(FORMAT_VERSION));
+         update(digest, iChecker.getClass().getName());
+         update(digest, iChecker.getCheckerVersion());
+         update(digest, String.valueOf(stateData.getObjectValue(ValidatorKeyNames.APP_PROFILE_TYPE_KEY)));
+         update(digest, String.valueOf(stateData.getObjectValue(ValidatorKeyNames.MANIFEST_ONLY_KEY)));
+
+         for ( int i = 0; i < inputFiles.size(); i++ )
+         {
+            final String inputFile = inputFiles.get(i);
+            update(digest, inputFile);
+            update(digest, getFileHash(new File(inputFile)));
+         }
+         return toHex(digest.digest());
+      }
+      catch ( NoSuchAlgorithmException nsae )
+      {
+         return null;
+      }
+      catch ( IOException ioe )
+      {
+         return null;
+      }
+   }
+
+   /**
+    * Reads the Result stored under the given key.
+    *
+    * @param iKey - The key created by createKey
+    * @return The stored Result, or null if there is no usable entry
+    */
+   public Result get(String iKey)
+   {
+      final File entry = new File(mCacheDirectory, iKey + EXTENSION);
+      if ( !entry.isFile() )
+      {
+         return null;
+      }
+
+      DataInputStream in = null;
+      try
+      {
+         in = new DataInputStream(new BufferedInputStream(new FileInputStream(entry)));
+         if ( in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION )
+         {
+            return null;
+         }
+
+         final Result result = new Result();
+         result.setPackageCheckerName(readString(in));
+         result.setPackageCheckerPassed(in.readBoolean());
+         result.setCheckerSkipped(in.readBoolean());
+         result.setTestStopped(in.readBoolean());
+
+         int count = in.readInt();
+         for ( int i = 0; i < count; i++ )
+         {
+            final int type = in.readInt();
+            result.addOverallStatusMessage(new ValidatorMessage(type, readString(in)));
+         }
+
+         count = in.readInt();
+         for ( int i = 0; i < count; i++ )
+         {
+            final int type = in.readInt();
+            result.addPackageCheckerMessage(new ValidatorMessage(type, readString(in)));
+         }
+
+         // Keep the entry from being pruned while it is in use
+         entry.setLastModified(System.currentTimeMillis());
+         return result;
+      }
+      catch ( IOException ioe )
+      {
+         // A damaged entry is treated as a miss and replaced by the next put
+         return null;
+      }
+      finally
+      {
+         close(in);
+      }
+   }
+
+   /**
+    * Stores the given Result under the given key.  Failures are ignored since
+    * the checker will simply be ran again next time.
+    *
+    * @param iKey - The key created by createKey
+    * @param iResult - The Result returned by the checker
+    */
+   public void put(String iKey, Result iResult)
+   {
+      final File entry = new File(mCacheDirectory, iKey + EXTENSION);
+      DataOutputStream out = null;
+      File temp = null;
+      try
+      {
+         temp = File.createTempFile(iKey, ".tmp", mCacheDirectory);
+         out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+         out.writeInt(MAGIC);
+         out.writeInt(FORMAT_VERSION);
+         writeString(out, iResult.getPackageCheckerName());
+         out.writeBoolean(iResult.isPackageCheckerPassed());
+         out.writeBoolean(iResult.isCheckerSkipped());
+         out.writeBoolean(iResult.isTestStopped());
+         writeMessages(out, iResult.getOverallStatusMessage());
+         writeMessages(out, iResult.getPackageCheckerMessages());
+         out.close();
+         out = null;
+
+         entry.delete();
+         if ( !temp.renameTo(entry) )
+         {
+            temp.delete();
+         }
+      }
+      catch ( IOException ioe )
+      {
+         close(out);
+         out = null;
+         if ( temp != null )
+         {
+            temp.delete();
+         }
+      }
+      finally
+      {
+         close(out);
+      }
+
+      boolean prune;
+      synchronized ( this )
+      {
+         mPutCount++;
+         prune = mPutCount >= PRUNE_INTERVAL;
+         if ( prune )
+         {
+            mPutCount = 0;
+         }
+      }
+      if ( prune )
+      {
+         prune();
+      }
+   }
+
+   /**
+    * Removes the entries that have not been used for MAX_AGE, and then the
+    * least recently used entries while the entries take more than MAX_SIZE
+    * bytes.  Temporary files left by an interrupted put are removed after
+    * MAX_AGE as well.  Failures are ignored since an entry that cannot be
+    * removed is only wasted space.
+    */
+   private void prune()
+   {
+      final File[] files = mCacheDirectory.listFiles();
+      if ( files == null )
+      {
+         return;
+      }
+
+      // Oldest first
+      Arrays.sort(files, new Comparator<File>()
+      {
+         public int compare(File iFirst, File iSecond)
+         {
+            final long first = iFirst.lastModified();
+            final long second = iSecond.lastModified();
+            return ( first < second ) ? -1 : ( ( first == second ) ? 0 : 1 );
+         }
+      });
+
+      final long oldest = System.currentTimeMillis() - MAX_AGE;
+      long size = 0;
+      for ( int i = 0; i < files.length; i++ )
+      {
+         if ( files[i].isFile() && files[i].getName().endsWith(EXTENSION) )
+         {
+            size += files[i].length();
+         }
+      }
+
+      for ( int i = 0; i < files.length; i++ )
+      {
+         final File file = files[i];
+         if ( !file.isFile() )
+         {
+            continue;
+         }
+
+         final boolean isEntry = file.getName().endsWith(EXTENSION);
+         if ( file.lastModified() < oldest || ( isEntry && size > MAX_SIZE ) )
+         {
+            final long length = file.length();
+            if ( file.delete() && isEntry )
+            {
+               size -= length;
+            }
+         }
+      }
+   }
+
+   /**
+    * Returns the hash of the contents of the given file.
+    *
+    * @param iFile - The file to hash
+    * @return String containing the hash, or a marker if the file is missing
+    * @throws IOException if the file cannot be read
+    * @throws NoSuchAlgorithmException if the hash algorithm is not available
+    */
+   private String getFileHash(File iFile) throws IOException, NoSuchAlgorithmException
+   {
+      if ( !iFile.isFile() )
+      {
+         return "missing";
+      }
+
+      final MessageDigest digest = MessageDigest.getInstance(ALGORITHM);
+      final byte[] buffer = new byte[BUFFER_SIZE];
+      InputStream in = null;
+      try
+      {
+         in = new FileInputStream(iFile);
+         int read = in.read(buffer);
+         while ( read >= 0 )
+         {
+            digest.update(buffer, 0, read);
+            read = in.read(buffer);
+         }
+      }
+      finally
+      {
+         close(in);
+      }
+
+      return toHex(digest.digest());
+   }
+
+   /**
+    * Adds a String, followed by a separator, to the given digest.
+    *
+    * @param iDigest - The digest to update
+    * @param iValue - The value to add
+    * @throws UnsupportedEncodingException if UTF-8 is not supported
+    */
+   private static void update(MessageDigest iDigest, String iValue)
+      throws UnsupportedEncodingException
+   {
+      iDigest.update(String.valueOf(iValue).getBytes(ENCODING));
+      iDigest.update((byte)0);
+   }
+
+   /**
+    * Writes a list of messages to an entry.
+    *
+    * @param iOut - The stream of the entry
+    * @param iMessages - The messages to write
+    * @throws IOException if the entry cannot be written
+    */
+   private static void writeMessages(DataOutputStream iOut, List<ValidatorMessage> iMessages)
+      throws IOException
+   {
+      iOut.writeInt(iMessages.size());
+      for ( int i = 0; i < iMessages.size(); i++ )
+      {
+         final ValidatorMessage message = iMessages.get(i);
+         iOut.writeInt(message.getMessageType());
+         writeString(iOut, message.getMessageText());
+      }
+   }
+
+   /**
+    * Writes a length prefixed UTF-8 String to an entry.  Unlike writeUTF this
+    * has no 64K limit.
+    *
+    * @param iOut - The stream of the entry
+    * @param iValue - The value to write, may be null
+    * @throws IOException if the entry cannot be written
+    */
+   private static void writeString(DataOutputStream iOut, String iValue) throws IOException
+   {
+      if ( iValue == null )
+      {
+         iOut.writeInt(-1);
+         return;
+      }
+      final byte[] bytes = iValue.getBytes(ENCODING);
+      iOut.writeInt(bytes.length);
+      iOut.write(bytes);
+   }
+
+   /**
+    * Reads a String written by writeString.
+    *
+    * @param iIn - The stream of the entry
+    * @return The String read, may be null
+    * @throws IOException if the entry cannot be read
+    */
+   private static String readString(DataInputStream iIn) throws IOException
+   {
+      final int length = iIn.readInt();
+      if ( length < 0 )
+      {
+         return null;
+      }
+      final byte[] bytes = new byte[length];
+      iIn.readFully(bytes);
+      return new String(bytes, ENCODING);
+   }
+
+   /**
+    * Converts the given bytes into a hexadecimal String.
+    *
+    * @param iBytes - The bytes to convert
+    * @return The hexadecimal String
+    */
+   private static String toHex(byte[] iBytes)
+   {
+      final StringBuilder hex = new StringBuilder(iBytes.length * 2);
+      for ( int i = 0; i < iBytes.length; i++ )
+      {
+         final int value = iBytes[i] & 0xFF;
+         if ( value < 0x10 )
+         {
+            hex.append('0');
+         }
+         hex.append(Integer.toHexString(value));
+      }
+      return hex.toString();
+   }
+
+   /**
+    * Closes the given stream, ignoring any failure.
+    *
+    * @param iStream - The stream to close, may be null
+    */
+   private static void close(Closeable iStream)
+   {
+      if ( iStream != null )
+      {
+         try
+         {
+            iStream.close();
+         }
+         catch ( IOException ioe )
+         {
+            // Nothing more can be done
+         }
+      }
+   }
+}
@@ -0,0 +1,208 @@
+package org.adl.validator.util.metrics;
+
+/**
+ * Holds the timing and resource figures collected while a single package
+ * checker was executed.  Wall time, CPU time and allocated bytes are measured
+ * as the difference between the values sampled when the checker was started
+ * and when it was stopped.  Bytes read and documents parsed are accumulated by
+ * the parsers through <code>ValidatorMetrics</code>.
+ *
+ * @author ADL Technical Team
+ *
+ */
+public class CheckerMetrics
+{
+   /**
+    * Value used when a figure is not supported by the running JVM.
+    */
+   public static final long NOT_AVAILABLE = -1;
+
+   /**
+    * String that holds the name of the package checker that was measured.
+    */
+   private String mCheckerName;
+
+   /**
+    * Wall clock time, in nanoseconds, taken by the package checker.
+    */
+   private long mWallTime = 0;
+
+   /**
+    * CPU time, in nanoseconds, used by the thread running the package checker.
+    */
+   private long mCPUTime = NOT_AVAILABLE;
+
+   /**
+    * Number of bytes allocated by the thread running the package checker.
+    */
+   private long mAllocatedBytes = NOT_AVAILABLE;
+
+   /**
+    * Number of bytes read from the XML instances parsed by the package checker.
+    */
+   private long mBytesRead = 0;
+
+   /**
+    * Number of XML documents parsed by the package checker.
+    */
+   private int mDocumentsParsed = 0;
+
+   /**
+    * Wall clock time sampled when the measurement was started.
+    */
+   private long mStartWallTime;
+
+   /**
+    * Thread CPU time sampled when the measurement was started.
+    */
+   private long mStartCPUTime;
+
+   /**
+    * Thread allocated bytes sampled when the measurement was started.
+    */
+   private long mStartAllocatedBytes;
+
+   /**
+    * Overload Constructor.
+    *
+    * @param iCheckerName - The name of the package checker being measured.
+    */
+   public CheckerMetrics(String iCheckerName)
+   {
+      mCheckerName = iCheckerName;
+   }
+
+   /**
+    * Samples the starting values of the measurement.
+    */
+   void start()
+   {
+      mStartWallTime = System.nanoTime();
+      mStartCPUTime = ThreadResourceSampler.getCurrentThreadCPUTime();
+      mStartAllocatedBytes = ThreadResourceSampler.getCurrentThreadAllocatedBytes();
+   }
+
+   /**
+    * Samples the ending values of the measurement and computes the elapsed
+    * figures.
+    */
+   void stop()
+   {
+      mWallTime = System.nanoTime() - mStartWallTime;
+
+      long cpuTime = ThreadResourceSampler.getCurrentThreadCPUTime();
+      if ( cpuTime != NOT_AVAILABLE && mStartCPUTime != NOT_AVAILABLE )
+      {
+         mCPUTime = cpuTime - mStartCPUTime;
+      }
+
+      long allocated = ThreadResourceSampler.getCurrentThreadAllocatedBytes();
+      if ( allocated != NOT_AVAILABLE && mStartAllocatedBytes != NOT_AVAILABLE )
+      {
+         mAllocatedBytes = allocated - mStartAllocatedBytes;
+      }
+   }
+
+   /**
+    * Adds the given number of bytes and one document to the parse figures.
+    *
+    * @param iBytes - The number of bytes read for the parsed document.
+    */
+   void addDocument(long iBytes)
+   {
+      mDocumentsParsed++;
+      if ( iBytes > 0 )
+      {
+         mBytesRead += iBytes;
+      }
+   }
+
+   /**
+    * Provides a way to get the name of the measured package checker.
+    *
+    * @return Returns the mCheckerName.
+    */
+   public String getCheckerName()
+   {
+      return mCheckerName;
+   }
+
+   /**
+    * Sets the name of the measured package checker.  The invoker only knows
+    * the class name until the checker has returned its Result.
+    *
+    * @param iCheckerName The mCheckerName to set.
+    */
+   public void setCheckerName(String iCheckerName)
+   {
+      mCheckerName = iCheckerName;
+   }
+
+   /**
+    * Provides a way to get the wall clock time of the package checker.
+    *
+    * @return Returns the mWallTime in nanoseconds.
+    */
+   public long getWallTime()
+   {
+      return mWallTime;
+   }
+
+   /**
+    * Provides a way to get the CPU time of the package checker.
+    *
+    * @return Returns the mCPUTime in nanoseconds, or NOT_AVAILABLE.
+    */
+   public long getCPUTime()
+   {
+      return mCPUTime;
+   }
+
+   /**
+    * Provides a way to get the number of bytes allocated by the package checker.
+    *
+    * @return Returns the mAllocatedBytes, or NOT_AVAILABLE.
+    */
+   public long getAllocatedBytes()
+   {
+      return mAllocatedBytes;
+   }
+
+   /**
+    * Provides a way to get the number of bytes read by the package checker.
+    *
+    * @return Returns the mBytesRead.
+    */
+   public long getBytesRead()
+   {
+      return mBytesRead;
+   }
+
+   /**
+    * Provides a way to get the number of documents parsed by the package
+    * checker.
+    *
+    * @return Returns the mDocumentsParsed.
+    */
+   public int getDocumentsParsed()
+   {
+      return mDocumentsParsed;
+   }
+
+   /**
+    * Appends the JSON representation of the figures to the given buffer.
+    *
+    * @param iBuffer - The buffer the JSON object is written to.
+    */
+   void appendJSON(StringBuilder iBuffer)
+   {
+      iBuffer.append("{\"name\":");
+      PackageMetrics.appendJSONString(iBuffer, mCheckerName);
+      iBuffer.append(",\"wallTimeNanos\":").append(mWallTime);
+      iBuffer.append(",\"cpuTimeNanos\":").append(mCPUTime);
+      iBuffer.append(",\"bytesRead\":").append(mBytesRead);
+      iBuffer.append(",\"documentsParsed\":").append(mDocumentsParsed);
+      iBuffer.append(",\"allocatedBytes\":").append(mAllocatedBytes);
+      iBuffer.append('}');
+   }
+}
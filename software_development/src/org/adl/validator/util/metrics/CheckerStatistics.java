@@ -0,0 +1,178 @@
+package org.adl.validator.util.metrics;
+
+/**
+ * Accumulates the figures of a single package checker across every content
+ * package validated by this JVM.  Instances are registered as JMX MBeans by
+ * <code>ValidatorStatistics</code>.
+ *
+ * @author ADL Technical Team
+ *
+ */
+public class CheckerStatistics implements CheckerStatisticsMBean
+{
+   /**
+    * The name of the package checker.
+    */
+   private final String mCheckerName;
+
+   /**
+    * Number of times the package checker was ran.
+    */
+   private long mInvocations = 0;
+
+   /**
+    * Total wall clock time, in nanoseconds.
+    */
+   private long mTotalWallTime = 0;
+
+   /**
+    * Longest wall clock time of a single invocation, in nanoseconds.
+    */
+   private long mMaxWallTime = 0;
+
+   /**
+    * Name of the content package with the longest wall clock time.
+    */
+   private String mMaxWallTimePackage;
+
+   /**
+    * Total CPU time, in nanoseconds.
+    */
+   private long mTotalCPUTime = 0;
+
+   /**
+    * Total bytes read.
+    */
+   private long mTotalBytesRead = 0;
+
+   /**
+    * Total documents parsed.
+    */
+   private long mTotalDocumentsParsed = 0;
+
+   /**
+    * Total bytes allocated.
+    */
+   private long mTotalAllocatedBytes = 0;
+
+   /**
+    * Overload Constructor.
+    *
+    * @param iCheckerName - The name of the package checker.
+    */
+   public CheckerStatistics(String iCheckerName)
+   {
+      mCheckerName = iCheckerName;
+   }
+
+   /**
+    * Adds the figures of one invocation of the package checker.
+    *
+    * @param iPackageName - The name of the validated content package.
+    * @param iMetrics - The figures of the invocation.
+    */
+   synchronized void record(String iPackageName, CheckerMetrics iMetrics)
+   {
+      mInvocations++;
+      mTotalWallTime += iMetrics.getWallTime();
+      if ( iMetrics.getWallTime() > mMaxWallTime || mMaxWallTimePackage == null )
+      {
+         mMaxWallTime = iMetrics.getWallTime();
+         mMaxWallTimePackage = iPackageName;
+      }
+      mTotalCPUTime = add(mTotalCPUTime, iMetrics.getCPUTime());
+      mTotalBytesRead += iMetrics.getBytesRead();
+      mTotalDocumentsParsed += iMetrics.getDocumentsParsed();
+      mTotalAllocatedBytes = add(mTotalAllocatedBytes, iMetrics.getAllocatedBytes());
+   }
+
+   /**
+    * Adds an optional figure to a total, the total stays NOT_AVAILABLE once any
+    * figure was not available.
+    *
+    * @param iTotal - The current total.
+    * @param iValue - The figure to add.
+    * @return The new total.
+    */
+   private static long add(long iTotal, long iValue)
+   {
+      if ( iTotal == CheckerMetrics.NOT_AVAILABLE ||
+           iValue == CheckerMetrics.NOT_AVAILABLE )
+      {
+         return CheckerMetrics.NOT_AVAILABLE;
+      }
+      return iTotal + iValue;
+   }
+
+   /* (non-Javadoc)
+    * @see org.adl.validator.util.metrics.CheckerStatisticsMBean#getCheckerName()
+    */
+   public String getCheckerName()
+   {
+      return mCheckerName;
+   }
+
+   /* (non-Javadoc)
+    * @see org.adl.validator.util.metrics.CheckerStatisticsMBean#getInvocations()
+    */
+   public synchronized long getInvocations()
+   {
+      return mInvocations;
+   }
+
+   /* (non-Javadoc)
+    * @see org.adl.validator.util.metrics.CheckerStatisticsMBean#getTotalWallTimeNanos()
+    */
+   public synchronized long getTotalWallTimeNanos()
+   {
+      return mTotalWallTime;
+   }
+
+   /* (non-Javadoc)
+    * @see org.adl.validator.util.metrics.CheckerStatisticsMBean#getMaxWallTimeNanos()
+    */
+   public synchronized long getMaxWallTimeNanos()
+   {
+      return mMaxWallTime;
+   }
+
+   /* (non-Javadoc)
+    * @see org.adl.validator.util.metrics.CheckerStatisticsMBean#getMaxWallTimePackage()
+    */
+   public synchronized String getMaxWallTimePackage()
+   {
+      return mMaxWallTimePackage;
+   }
+
+   /* (non-Javadoc)
+    * @see org.adl.validator.util.metrics.CheckerStatisticsMBean#getTotalCPUTimeNanos()
+    */
+   public synchronized long getTotalCPUTimeNanos()
+   {
+      return mTotalCPUTime;
+   }
+
+   /* (non-Javadoc)
+    * @see org.adl.validator.util.metrics.CheckerStatisticsMBean#getTotalBytesRead()
+    */
+   public synchronized long getTotalBytesRead()
+   {
+      return mTotalBytesRead;
+   }
+
+   /* (non-Javadoc)
+    * @see org.adl.validator.util.metrics.CheckerStatisticsMBean#getTotalDocumentsParsed()
+    */
+   public synchronized long getTotalDocumentsParsed()
+   {
+      return mTotalDocumentsParsed;
+   }
+
+   /* (non-Javadoc)
+    * @see org.adl.validator.util.metrics.CheckerStatisticsMBean#getTotalAllocatedBytes()
+    */
+   public synchronized long getTotalAllocatedBytes()
+   {
+      return mTotalAllocatedBytes;
+   }
+}
@@ -0,0 +1,75 @@
+package org.adl.validator.util.metrics;
+
+/**
+ * JMX management interface exposing the figures collected for a single
+ * package checker across every content package validated by this JVM.
+ *
+ * @author ADL Technical Team
+ *
+ */
+public interface CheckerStatisticsMBean
+{
+   /**
+    * Returns the name of the package checker.
+    *
+    * @return The package checker name.
+    */
+   String getCheckerName();
+
+   /**
+    * Returns the number of times the package checker was ran.
+    *
+    * @return The number of invocations.
+    */
+   long getInvocations();
+
+   /**
+    * Returns the wall clock time spent in the package checker.
+    *
+    * @return The total wall time in nanoseconds.
+    */
+   long getTotalWallTimeNanos();
+
+   /**
+    * Returns the longest wall clock time taken by a single invocation.
+    *
+    * @return The maximum wall time in nanoseconds.
+    */
+   long getMaxWallTimeNanos();
+
+   /**
+    * Returns the name of the content package that took the longest in this
+    * package checker.
+    *
+    * @return The package name, or null if the checker was never ran.
+    */
+   String getMaxWallTimePackage();
+
+   /**
+    * Returns the CPU time spent in the package checker.
+    *
+    * @return The total CPU time in nanoseconds, or -1 if not supported.
+    */
+   long getTotalCPUTimeNanos();
+
+   /**
+    * Returns the number of bytes read by the package checker.
+    *
+    * @return The total bytes read.
+    */
+   long getTotalBytesRead();
+
+   /**
+    * Returns the number of documents parsed by the package checker.
+    *
+    * @return The total documents parsed.
+    */
+   long getTotalDocumentsParsed();
+
+   /**
+    * Returns the number of bytes allocated by the package checker.
+    *
+    * @return The total allocated bytes, or -1 if not supported.
+    */
+   long getTotalAllocatedBytes();
+}
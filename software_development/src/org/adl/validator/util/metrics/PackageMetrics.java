@@ -0,0 +1,233 @@
+package org.adl.validator.util.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds the <code>CheckerMetrics</code> collected for every package checker
+ * that was ran against a single content package, along with the package
+ * totals.
+ *
+ * @author ADL Technical Team
+ *
+ */
+public class PackageMetrics
+{
+   /**
+    * The name of the SCORM Content Package test subject.
+    */
+   private String mPackageName;
+
+   /**
+    * List of the figures collected for each package checker, in the order the
+    * checkers were ran.
+    */
+   private List<CheckerMetrics> mCheckerMetrics = new ArrayList<CheckerMetrics>();
+
+   /**
+    * Overload Constructor.
+    *
+    * @param iPackageName - The name of the SCORM Content Package test subject.
+    */
+   public PackageMetrics(String iPackageName)
+   {
+      mPackageName = iPackageName;
+   }
+
+   /**
+    * Provides a way to get the name of the measured test subject.
+    *
+    * @return Returns the mPackageName.
+    */
+   public String getPackageName()
+   {
+      return mPackageName;
+   }
+
+   /**
+    * Adds the figures of a package checker to the package.
+    *
+    * @param iCheckerMetrics - The figures collected for a package checker.
+    */
+   public void addCheckerMetrics(CheckerMetrics iCheckerMetrics)
+   {
+      mCheckerMetrics.add(iCheckerMetrics);
+   }
+
+   /**
+    * Provides a way to get the figures of each package checker.
+    *
+    * @return Returns the mCheckerMetrics.
+    */
+   public List<CheckerMetrics> getCheckerMetrics()
+   {
+      return mCheckerMetrics;
+   }
+
+   /**
+    * Returns the wall clock time of all package checkers.
+    *
+    * @return The total wall time in nanoseconds.
+    */
+   public long getWallTime()
+   {
+      long total = 0;
+      for ( int i = 0; i < mCheckerMetrics.size(); i++ )
+      {
+         total += mCheckerMetrics.get(i).getWallTime();
+      }
+      return total;
+   }
+
+   /**
+    * Returns the CPU time of all package checkers.
+    *
+    * @return The total CPU time in nanoseconds, or NOT_AVAILABLE.
+    */
+   public long getCPUTime()
+   {
+      long total = 0;
+      for ( int i = 0; i < mCheckerMetrics.size(); i++ )
+      {
+         long value = mCheckerMetrics.get(i).getCPUTime();
+         if ( value == CheckerMetrics.NOT_AVAILABLE )
+         {
+            return CheckerMetrics.NOT_AVAILABLE;
+         }
+         total += value;
+      }
+      return total;
+   }
+
+   /**
+    * Returns the number of bytes allocated by all package checkers.
+    *
+    * @return The total allocated bytes, or NOT_AVAILABLE.
+    */
+   public long getAllocatedBytes()
+   {
+      long total = 0;
+      for ( int i = 0; i < mCheckerMetrics.size(); i++ )
+      {
+         long value = mCheckerMetrics.get(i).getAllocatedBytes();
+         if ( value == CheckerMetrics.NOT_AVAILABLE )
+         {
+            return CheckerMetrics.NOT_AVAILABLE;
+         }
+         total += value;
+      }
+      return total;
+   }
+
+   /**
+    * Returns the number of bytes read by all package checkers.
+    *
+    * @return The total bytes read.
+    */
+   public long getBytesRead()
+   {
+      long total = 0;
+      for ( int i = 0; i < mCheckerMetrics.size(); i++ )
+      {
+         total += mCheckerMetrics.get(i).getBytesRead();
+      }
+      return total;
+   }
+
+   /**
+    * Returns the number of documents parsed by all package checkers.
+    *
+    * @return The total documents parsed.
+    */
+   public int getDocumentsParsed()
+   {
+      int total = 0;
+      for ( int i = 0; i < mCheckerMetrics.size(); i++ )
+      {
+         total += mCheckerMetrics.get(i).getDocumentsParsed();
+      }
+      return total;
+   }
+
+   /**
+    * Creates a JSON summary of the package and each of its package checkers.
+    *
+    * @return String containing the JSON summary.
+    */
+   public String toJSON()
+   {
+      StringBuilder buffer = new StringBuilder();
+      buffer.append("{\"package\":");
+      appendJSONString(buffer, mPackageName);
+      buffer.append(",\"wallTimeNanos\":").append(getWallTime());
+      buffer.append(",\"cpuTimeNanos\":").append(getCPUTime());
+      buffer.append(",\"bytesRead\":").append(getBytesRead());
+      buffer.append(",\"documentsParsed\":").append(getDocumentsParsed());
+      buffer.append(",\"allocatedBytes\":").append(getAllocatedBytes());
+      buffer.append(",\"checkers\":[");
+      for ( int i = 0; i < mCheckerMetrics.size(); i++ )
+      {
+         if ( i > 0 )
+         {
+            buffer.append(',');
+         }
+         mCheckerMetrics.get(i).appendJSON(buffer);
+      }
+      buffer.append("]}");
+      return buffer.toString();
+   }
+
+   /**
+    * Appends the given value to the buffer as a quoted and escaped JSON string.
+    *
+    * @param iBuffer - The buffer the value is written to.
+    * @param iValue - The value to write, null is written as the JSON null.
+    */
+   static void appendJSONString(StringBuilder iBuffer, String iValue)
+   {
+      if ( iValue == null )
+      {
+         iBuffer.append("null");
+         return;
+      }
+      iBuffer.append('"');
+      for ( int i = 0; i < iValue.length(); i++ )
+      {
+         char c = iValue.charAt(i);
+         switch ( c )
+         {
+            case '"':
+               iBuffer.append("\\\"");
+               break;
+            case '\\':
+               iBuffer.append("\\\\");
+               break;
+            case '\n':
+               iBuffer.append("\\n");
+               break;
+            case '\r':
+               iBuffer.append("\\r");
+               break;
+            case '\t':
+               iBuffer.append("\\t");
+               break;
+            default:
+               if ( c < ' ' )
+               {
+                  String hex = Integer.toHexString(c);
+                  iBuffer.append("\\u");
+                  for ( int j = hex.length(); j < 4; j++ )
+                  {
+                     iBuffer.append('0');
+                  }
+                  iBuffer.append(hex);
+               }
+               else
+               {
+                  iBuffer.append(c);
+               }
+         }
+      }
+      iBuffer.append('"');
+   }
+}
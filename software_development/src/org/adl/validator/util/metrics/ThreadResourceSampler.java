@@ -0,0 +1,108 @@
+package org.adl.validator.util.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Samples the CPU time and allocated bytes of the current thread.  Both values
+ * are optional features of the JVM, so each sample returns
+ * <code>CheckerMetrics.NOT_AVAILABLE</code> when the figure cannot be read.
+ *
+ * @author ADL Technical Team
+ *
+ */
+final class ThreadResourceSampler
+{
+   /**
+    * The platform thread bean, or null if it could not be obtained.
+    */
+   private static final ThreadMXBean THREAD_BEAN;
+
+   /**
+    * The HotSpot extension of the thread bean that reports allocated bytes, or
+    * null if the running JVM does not provide it.
+    */
+   private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN;
+
+   static
+   {
+      ThreadMXBean threadBean = null;
+      com.sun.management.ThreadMXBean allocationBean = null;
+      try
+      {
+         threadBean = ManagementFactory.getThreadMXBean();
+         if ( !threadBean.isCurrentThreadCpuTimeSupported() )
+         {
+            threadBean = null;
+         }
+         else if ( !threadBean.isThreadCpuTimeEnabled() )
+         {
+            threadBean.setThreadCpuTimeEnabled(true);
+         }
+
+         Object bean = ManagementFactory.getThreadMXBean();
+         if ( bean instanceof com.sun.management.ThreadMXBean )
+         {
+            allocationBean = (com.sun.management.ThreadMXBean)bean;
+            if ( !allocationBean.isThreadAllocatedMemorySupported() )
+            {
+               allocationBean = null;
+            }
+            else if ( !allocationBean.isThreadAllocatedMemoryEnabled() )
+            {
+               allocationBean.setThreadAllocatedMemoryEnabled(true);
+            }
+         }
+      }
+      catch ( SecurityException se )
+      {
+         // Running inside a sandbox, the figures are simply not reported
+      }
+      catch ( UnsupportedOperationException uoe )
+      {
+         // Feature cannot be enabled on this JVM
+      }
+      catch ( LinkageError le )
+      {
+         // Not a HotSpot JVM, allocated bytes are not reported
+      }
+      THREAD_BEAN = threadBean;
+      ALLOCATION_BEAN = allocationBean;
+   }
+
+   /**
+    * Default Constructor.  No instances of this class are created.
+    */
+   private ThreadResourceSampler()
+   {
+      // no instances
+   }
+
+   /**
+    * Returns the CPU time used by the current thread.
+    *
+    * @return The CPU time in nanoseconds or NOT_AVAILABLE.
+    */
+   static long getCurrentThreadCPUTime()
+   {
+      if ( THREAD_BEAN == null )
+      {
+         return CheckerMetrics.NOT_AVAILABLE;
+      }
+      return THREAD_BEAN.getCurrentThreadCpuTime();
+   }
+
+   /**
+    * Returns the number of bytes allocated by the current thread.
+    *
+    * @return The number of allocated bytes or NOT_AVAILABLE.
+    */
+   static long getCurrentThreadAllocatedBytes()
+   {
+      if ( ALLOCATION_BEAN == null )
+      {
+         return CheckerMetrics.NOT_AVAILABLE;
+      }
+      return ALLOCATION_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+   }
+}
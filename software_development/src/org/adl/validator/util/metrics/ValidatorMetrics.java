@@ -0,0 +1,78 @@
+package org.adl.validator.util.metrics;
+
+/**
+ * Provides the entry points used by the package checker invoker and the
+ * parsers to record validation figures.  The checker currently being measured
+ * is tracked per thread, so parsers can report the documents they read without
+ * any reference to the checker that created them.  When no checker is being
+ * measured on the current thread the parser calls do nothing.
+ *
+ * @author ADL Technical Team
+ *
+ */
+public final class ValidatorMetrics
+{
+   /**
+    * The figures of the package checker running on the current thread.
+    */
+   private static final ThreadLocal<CheckerMetrics> CURRENT =
+      new ThreadLocal<CheckerMetrics>();
+
+   /**
+    * Default Constructor.  No instances of this class are created.
+    */
+   private ValidatorMetrics()
+   {
+      // no instances
+   }
+
+   /**
+    * Starts measuring a package checker on the current thread.
+    *
+    * @param iCheckerName - The name of the package checker being measured.
+    * @return The CheckerMetrics that will hold the figures.
+    */
+   public static CheckerMetrics startChecker(String iCheckerName)
+   {
+      CheckerMetrics metrics = new CheckerMetrics(iCheckerName);
+      CURRENT.set(metrics);
+      metrics.start();
+      return metrics;
+   }
+
+   /**
+    * Stops measuring the given package checker on the current thread.
+    *
+    * @param iMetrics - The CheckerMetrics returned by startChecker.
+    */
+   public static void stopChecker(CheckerMetrics iMetrics)
+   {
+      iMetrics.stop();
+      CURRENT.remove();
+   }
+
+   /**
+    * Records that a document of the given size was parsed by the package
+    * checker running on the current thread.
+    *
+    * @param iBytes - The number of bytes read, or 0 if it is not known.
+    */
+   public static void recordDocumentParsed(long iBytes)
+   {
+      CheckerMetrics metrics = CURRENT.get();
+      if ( metrics != null )
+      {
+         metrics.addDocument(iBytes);
+      }
+   }
+
+   /**
+    * Publishes the figures of a validated package to the JMX statistics.
+    *
+    * @param iPackageMetrics - The figures of the validated package.
+    */
+   public static void publish(PackageMetrics iPackageMetrics)
+   {
+      ValidatorStatistics.getInstance().record(iPackageMetrics);
+   }
+}
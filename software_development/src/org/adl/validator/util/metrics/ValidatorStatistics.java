@@ -0,0 +1,282 @@
+package org.adl.validator.util.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Accumulates the figures of every content package validated by this JVM and
+ * exposes them, along with one <code>CheckerStatistics</code> per package
+ * checker, as JMX MBeans under the <code>org.adl.validator</code> domain.
+ * When the platform MBean server is not accessible, for example inside an
+ * unsigned applet, the figures are still collected but not registered.
+ *
+ * @author ADL Technical Team
+ *
+ */
+public final class ValidatorStatistics implements ValidatorStatisticsMBean
+{
+   /**
+    * The JMX domain the MBeans are registered under.
+    */
+   private static final String DOMAIN = "org.adl.validator";
+
+   /**
+    * Instance of the ValidatorStatistics.
+    */
+   private static ValidatorStatistics instance;
+
+   /**
+    * The platform MBean server, or null if it is not accessible.
+    */
+   private MBeanServer mServer;
+
+   /**
+    * Collection of the CheckerStatistics keyed by package checker name.
+    */
+   private final Map<String, CheckerStatistics> mCheckerStatistics =
+      new HashMap<String, CheckerStatistics>();
+
+   /**
+    * Number of content packages validated.
+    */
+   private long mPackagesValidated = 0;
+
+   /**
+    * Total wall clock time, in nanoseconds.
+    */
+   private long mTotalWallTime = 0;
+
+   /**
+    * Longest wall clock time of a single content package, in nanoseconds.
+    */
+   private long mMaxWallTime = 0;
+
+   /**
+    * JSON summary of the content package with the longest wall clock time.
+    */
+   private String mSlowestPackageSummary;
+
+   /**
+    * JSON summary of the last content package validated.
+    */
+   private String mLastPackageSummary;
+
+   /**
+    * Constructor
+    */
+   private ValidatorStatistics()
+   {
+      try
+      {
+         mServer = ManagementFactory.getPlatformMBeanServer();
+      }
+      catch ( SecurityException se )
+      {
+         mServer = null;
+      }
+      register(DOMAIN + ":type=ValidatorStatistics", this);
+   }
+
+   /**
+    * Returns the instance of this class, registering it on first use.
+    *
+    * @return An instance of ValidatorStatistics.
+    */
+   public static synchronized ValidatorStatistics getInstance()
+   {
+      if ( instance == null )
+      {
+         instance = new ValidatorStatistics();
+      }
+      return instance;
+   }
+
+   /**
+    * Adds the figures of a validated content package.
+    *
+    * @param iPackageMetrics - The figures of the validated package.
+    */
+   public void record(PackageMetrics iPackageMetrics)
+   {
+      String summary = iPackageMetrics.toJSON();
+      long wallTime = iPackageMetrics.getWallTime();
+      List<CheckerMetrics> checkers = iPackageMetrics.getCheckerMetrics();
+
+      synchronized ( this )
+      {
+         mPackagesValidated++;
+         mTotalWallTime += wallTime;
+         mLastPackageSummary = summary;
+         if ( wallTime > mMaxWallTime || mSlowestPackageSummary == null )
+         {
+            mMaxWallTime = wallTime;
+            mSlowestPackageSummary = summary;
+         }
+      }
+
+      for ( int i = 0; i < checkers.size(); i++ )
+      {
+         CheckerMetrics metrics = checkers.get(i);
+         getCheckerStatistics(metrics.getCheckerName())
+            .record(iPackageMetrics.getPackageName(), metrics);
+      }
+   }
+
+   /**
+    * Returns the CheckerStatistics of the given package checker, creating and
+    * registering it on first use.
+    *
+    * @param iCheckerName - The name of the package checker.
+    * @return The CheckerStatistics of the package checker.
+    */
+   public CheckerStatistics getCheckerStatistics(String iCheckerName)
+   {
+      String name = ( iCheckerName == null ) ? "UNKNOWN" : iCheckerName;
+      CheckerStatistics stats;
+      synchronized ( mCheckerStatistics )
+      {
+         stats = mCheckerStatistics.get(name);
+         if ( stats == null )
+         {
+            stats = new CheckerStatistics(name);
+            mCheckerStatistics.put(name, stats);
+            register(DOMAIN + ":type=CheckerStatistics,name=" +
+                     ObjectName.quote(name), stats);
+         }
+      }
+      return stats;
+   }
+
+   /* (non-Javadoc)
+    * @see org.adl.validator.util.metrics.ValidatorStatisticsMBean#getPackagesValidated()
+    */
+   public synchronized long getPackagesValidated()
+   {
+      return mPackagesValidated;
+   }
+
+   /* (non-Javadoc)
+    * @see org.adl.validator.util.metrics.ValidatorStatisticsMBean#getTotalWallTimeNanos()
+    */
+   public synchronized long getTotalWallTimeNanos()
+   {
+      return mTotalWallTime;
+   }
+
+   /* (non-Javadoc)
+    * @see org.adl.validator.util.metrics.ValidatorStatisticsMBean#getMaxWallTimeNanos()
+    */
+   public synchronized long getMaxWallTimeNanos()
+   {
+      return mMaxWallTime;
+   }
+
+   /* (non-Javadoc)
+    * @see org.adl.validator.util.metrics.ValidatorStatisticsMBean#getSlowestPackageSummary()
+    */
+   public synchronized String getSlowestPackageSummary()
+   {
+      return mSlowestPackageSummary;
+   }
+
+   /* (non-Javadoc)
+    * @see org.adl.validator.util.metrics.ValidatorStatisticsMBean#getLastPackageSummary()
+    */
+   public synchronized String getLastPackageSummary()
+   {
+      return mLastPackageSummary;
+   }
+
+   /* (non-Javadoc)
+    * @see org.adl.validator.util.metrics.ValidatorStatisticsMBean#reset()
+    */
+   public void reset()
+   {
+      synchronized ( this )
+      {
+         mPackagesValidated = 0;
+         mTotalWallTime = 0;
+         mMaxWallTime = 0;
+         mSlowestPackageSummary = null;
+         mLastPackageSummary = null;
+      }
+      synchronized ( mCheckerStatistics )
+      {
+         Iterator<CheckerStatistics> iter = mCheckerStatistics.values().iterator();
+         while ( iter.hasNext() )
+         {
+            unregister(DOMAIN + ":type=CheckerStatistics,name=" +
+                       ObjectName.quote(iter.next().getCheckerName()));
+         }
+         mCheckerStatistics.clear();
+      }
+   }
+
+   /**
+    * Registers the given MBean, replacing any MBean already registered under
+    * the same name.  Failures are ignored since the statistics are optional.
+    *
+    * @param iName - The name to register the MBean under.
+    * @param iBean - The MBean to register.
+    */
+   private void register(String iName, Object iBean)
+   {
+      if ( mServer == null )
+      {
+         return;
+      }
+      try
+      {
+         ObjectName name = new ObjectName(iName);
+         if ( mServer.isRegistered(name) )
+         {
+            mServer.unregisterMBean(name);
+         }
+         mServer.registerMBean(iBean, name);
+      }
+      catch ( JMException jme )
+      {
+         // Statistics are still collected, they are just not exposed
+      }
+      catch ( SecurityException se )
+      {
+         mServer = null;
+      }
+   }
+
+   /**
+    * Unregisters the MBean with the given name, if it is registered.
+    *
+    * @param iName - The name the MBean is registered under.
+    */
+   private void unregister(String iName)
+   {
+      if ( mServer == null )
+      {
+         return;
+      }
+      try
+      {
+         ObjectName name = new ObjectName(iName);
+         if ( mServer.isRegistered(name) )
+         {
+            mServer.unregisterMBean(name);
+         }
+      }
+      catch ( JMException jme )
+      {
+         // Nothing left to clean up
+      }
+      catch ( SecurityException se )
+      {
+         mServer = null;
+      }
+   }
+}
@@ -0,0 +1,52 @@
+package org.adl.validator.util.metrics;
+
+/**
+ * JMX management interface exposing the figures collected for every content
+ * package validated by this JVM.
+ *
+ * @author ADL Technical Team
+ *
+ */
+public interface ValidatorStatisticsMBean
+{
+   /**
+    * Returns the number of content packages validated.
+    *
+    * @return The number of packages.
+    */
+   long getPackagesValidated();
+
+   /**
+    * Returns the wall clock time spent validating all content packages.
+    *
+    * @return The total wall time in nanoseconds.
+    */
+   long getTotalWallTimeNanos();
+
+   /**
+    * Returns the longest wall clock time taken by a single content package.
+    *
+    * @return The maximum wall time in nanoseconds.
+    */
+   long getMaxWallTimeNanos();
+
+   /**
+    * Returns the JSON summary of the content package that took the longest to
+    * validate.
+    *
+    * @return The JSON summary, or null if no package was validated.
+    */
+   String getSlowestPackageSummary();
+
+   /**
+    * Returns the JSON summary of the last content package validated.
+    *
+    * @return The JSON summary, or null if no package was validated.
+    */
+   String getLastPackageSummary();
+
+   /**
+    * Clears the collected figures, including those of each package checker.
+    */
+   void reset();
+}
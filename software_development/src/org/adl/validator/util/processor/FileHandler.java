@@ -15,6 +15,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.adl.validator.util.Messages;
+import org.adl.validator.util.metrics.ValidatorMetrics;
 import org.xml.sax.InputSource;
 
 /**
@@ -191,6 +192,7 @@ public class FileHandler
                }
                inputStream.close();
                inFile.close();
+               ValidatorMetrics.recordDocumentParsed(xmlFile.length());
             }                       
             return is;
          }
@@ -201,6 +203,7 @@ public class FileHandler
             URL xmlURL = new URL( iFileName );
             InputStream xmlIS = xmlURL.openStream();
             InputSource is = new InputSource(xmlIS);
+            ValidatorMetrics.recordDocumentParsed(0);
             return is;
          }
          else
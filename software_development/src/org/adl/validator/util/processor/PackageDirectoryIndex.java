@@ -0,0 +1,275 @@
+package org.adl.validator.util.processor;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import org.adl.validator.util.CheckerStateData;
+import org.adl.validator.util.ValidatorKeyNames;
+
+/**
+ * This class holds the result of a single walk of the package directory.  The
+ * package checkers use it to list the files of the package and to test for the
+ * existence of referenced files without going back to the file system for
+ * every href.
+ *
+ * @author ADL Technical Team
+ *
+ */
+public class PackageDirectoryIndex
+{
+   /**
+    * The absolute path of the package root, without a trailing separator
+    */
+   private final String mRootPath;
+
+   /**
+    * The name of the manifest being validated, excluded from the package files
+    */
+   private final String mXMLFileName;
+
+   /**
+    * The absolute paths of every file and directory found under the root,
+    * including the root itself
+    */
+   private final Set<String> mPaths = new HashSet<String>();
+
+   /**
+    * The lower case form of every entry of mPaths, used when the file system
+    * ignores case
+    */
+   private final Set<String> mLowerCasePaths = new HashSet<String>();
+
+   /**
+    * The absolute paths of the package files in the order they were found.
+    * Note: Manifests and controlling documents are excluded
+    */
+   private final Set<String> mPackageFiles = new LinkedHashSet<String>();
+
+   /**
+    * Indicates if the file system ignores case, null until it has been probed
+    */
+   private Boolean mCaseInsensitive;
+
+   /**
+    * Overload Constructor.  Walks the package directory once.
+    *
+    * @param iPackageRoot - A String containing the decoded path to the root of
+    * the package
+    * @param iXMLFileName - The name of the manifest being validated, may be
+    * null
+    */
+   public PackageDirectoryIndex(String iPackageRoot, String iXMLFileName)
+   {
+      final File root = new File(iPackageRoot);
+      mRootPath = root.getAbsolutePath();
+      mXMLFileName = iXMLFileName;
+
+      if ( root.isDirectory() )
+      {
+         addPath(mRootPath);
+         walk(root);
+      }
+   }
+
+   /**
+    * Returns the index of the package currently being validated, walking the
+    * package directory the first time it is requested.
+    *
+    * @return The PackageDirectoryIndex stored in the CheckerStateData
+    */
+   public static PackageDirectoryIndex getInstance()
+   {
+      final CheckerStateData stateData = CheckerStateData.getInstance();
+      final Object index = stateData.getObjectValue(ValidatorKeyNames.PACKAGE_DIRECTORY_INDEX_KEY);
+
+      if ( index instanceof PackageDirectoryIndex )
+      {
+         return (PackageDirectoryIndex)index;
+      }
+
+      final Object rootDirectory = stateData.getObjectValue(ValidatorKeyNames.ROOT_DIRECTORY_KEY);
+      final Object xmlFileName = stateData.getObjectValue(ValidatorKeyNames.XML_FILE_NAME_KEY);
+
+      final PackageDirectoryIndex newIndex = new PackageDirectoryIndex(
+         URIHandler.decode(String.valueOf(rootDirectory), URIHandler.ENCODING),
+         xmlFileName == null ? null : xmlFileName.toString());
+
+      stateData.setObject(ValidatorKeyNames.PACKAGE_DIRECTORY_INDEX_KEY, newIndex);
+      stateData.addReservedKey(ValidatorKeyNames.PACKAGE_DIRECTORY_INDEX_KEY);
+      return newIndex;
+   }
+
+   /**
+    * Recursively adds the contents of the given directory to the index.
+    *
+    * @param iDirectory - The directory to add
+    */
+   private void walk(File iDirectory)
+   {
+      final File[] directoryContents = iDirectory.listFiles();
+
+      if ( directoryContents == null )
+      {
+         return;
+      }
+
+      for ( int i = 0; i < directoryContents.length; i++ )
+      {
+         final File currentFile = directoryContents[i];
+         final String path = currentFile.getAbsolutePath();
+         addPath(path);
+
+         if ( currentFile.isDirectory() )
+         {
+            walk(currentFile);
+         }
+         else if ( currentFile.getName().indexOf(".xsd") < 0 &&
+                   currentFile.getName().indexOf(".dtd") < 0 &&
+                   mXMLFileName != null &&
+                   !currentFile.getName().equals(mXMLFileName) )
+         {
+            mPackageFiles.add(path);
+         }
+      }
+   }
+
+   /**
+    * Adds a path to the sets used for membership tests.
+    *
+    * @param iPath - The absolute path to add
+    */
+   private void addPath(String iPath)
+   {
+      mPaths.add(iPath);
+      mLowerCasePaths.add(iPath.toLowerCase(Locale.ENGLISH));
+   }
+
+   /**
+    * Provides a way to get the files of the package.
+    * Note: Manifests and controlling documents are excluded
+    *
+    * @return a new Set containing the absolute paths of the package files, in
+    * the order they were found
+    */
+   public Set<String> getPackageFiles()
+   {
+      return new LinkedHashSet<String>(mPackageFiles);
+   }
+
+   /**
+    * Determines if the given file or directory exists, following the case
+    * rules of the underlying file system.  Paths outside of the package root
+    * are passed on to the file system.
+    *
+    * @param iPath - A String containing the decoded path to test
+    * @return a boolean indicating if the path exists
+    */
+   public boolean exists(String iPath)
+   {
+      final String path = normalize(iPath);
+
+      if ( !isInPackage(path) )
+      {
+         return new File(iPath).exists();
+      }
+
+      if ( mPaths.contains(path) )
+      {
+         return true;
+      }
+
+      return isCaseInsensitive() &&
+             mLowerCasePaths.contains(path.toLowerCase(Locale.ENGLISH));
+   }
+
+   /**
+    * Determines if the given path is under the package root.
+    *
+    * @param iNormalizedPath - The normalized absolute path
+    * @return a boolean indicating if the path is covered by this index
+    */
+   private boolean isInPackage(String iNormalizedPath)
+   {
+      return ( iNormalizedPath.equals(mRootPath) ||
+               iNormalizedPath.startsWith(mRootPath + File.separator) ) &&
+             iNormalizedPath.indexOf(File.separator + "..") < 0;
+   }
+
+   /**
+    * Converts the given path into the form the entries of the index were
+    * stored in.
+    *
+    * @param iPath - The path to normalize
+    * @return the absolute path with any '.' directories removed
+    */
+   private String normalize(String iPath)
+   {
+      String path = new File(iPath).getAbsolutePath();
+      final String current = File.separator + "." + File.separator;
+
+      int index = path.indexOf(current);
+      while ( index >= 0 )
+      {
+         path = path.substring(0, index) + path.substring(index + 2);
+         index = path.indexOf(current);
+      }
+
+      if ( path.endsWith(File.separator + ".") )
+      {
+         path = path.substring(0, path.length() - 2);
+      }
+      return path;
+   }
+
+   /**
+    * Determines, once per package, whether the file system ignores case by
+    * testing for an indexed file with the case of its path inverted.
+    *
+    * @return a boolean indicating if the file system ignores case
+    */
+   private boolean isCaseInsensitive()
+   {
+      if ( mCaseInsensitive == null )
+      {
+         boolean caseInsensitive = false;
+         for ( String path : mPaths )
+         {
+            final String swapped = swapCase(path);
+            if ( !swapped.equals(path) )
+            {
+               caseInsensitive = !mPaths.contains(swapped) &&
+                                 new File(swapped).exists();
+               break;
+            }
+         }
+         mCaseInsensitive = Boolean.valueOf(caseInsensitive);
+      }
+      return mCaseInsensitive.booleanValue();
+   }
+
+   /**
+    * Inverts the case of every letter in the given String.
+    *
+    * @param iValue - The String to convert
+    * @return the converted String
+    */
+   private static String swapCase(String iValue)
+   {
+      final char[] chars = iValue.toCharArray();
+      for ( int i = 0; i < chars.length; i++ )
+      {
+         if ( Character.isUpperCase(chars[i]) )
+         {
+            chars[i] = Character.toLowerCase(chars[i]);
+         }
+         else if ( Character.isLowerCase(chars[i]) )
+         {
+            chars[i] = Character.toUpperCase(chars[i]);
+         }
+      }
+      return new String(chars);
+   }
+}